@@ -0,0 +1,145 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import com.google.gson.FieldNamingPolicy;
+import com.google.gson.FieldNamingStrategy;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonDeserializationContext;
+import com.google.gson.JsonDeserializer;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+import net.kyori.adventure.key.Key;
+
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Tree-based recipe adapter, as used before recipes were read by the streaming adapters. Kept for benchmarks only, see {@link RecipeAdapterBenchmark}.
+ * <p>
+ * Each recipe is parsed into a {@code JsonElement} tree first, and then converted reflectively through {@link JsonDeserializationContext#deserialize}, with ingredients and items
+ * deserialized from their subtrees the same way. Models are the current ones, so names of their fields are mapped to names of the properties by {@link #FIELD_NAMES}. Templates are not supported.
+ */
+public final class BaselineRecipeWrapperAdapter implements JsonDeserializer<RecipeWrapper> {
+
+    // Maps names of model fields to names of the properties, the way @SerializedName annotations on the models used to.
+    private static final FieldNamingStrategy FIELD_NAMES = (field) -> {
+        if (field.getDeclaringClass() == RecipeWrapper.class && field.getName().equals("discoverTrigger") == true)
+            return "discover";
+        if (field.getDeclaringClass() == DiscoverTrigger.class && field.getName().equals("ingredients") == true)
+            return "items";
+        return FieldNamingPolicy.LOWER_CASE_WITH_UNDERSCORES.translateName(field);
+    };
+
+    /** Gson instance configured the way the plugin used to be, before recipes were read by the streaming adapters. */
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Ingredient.class, new BaselineIngredientAdapter())
+            .registerTypeAdapter(Key.class, KeyAdapter.INSTANCE)
+            .registerTypeAdapter(RecipeWrapper.class, new BaselineRecipeWrapperAdapter())
+            .registerTypeAdapter(RecipeWrapper.Type.class, new GenericEnumAdapter<>(RecipeWrapper.Type.class, false))
+            .setFieldNamingStrategy(FIELD_NAMES)
+            .disableHtmlEscaping()
+            .create();
+
+    @Override
+    public @NotNull RecipeWrapper deserialize(final @NotNull JsonElement element, final @NotNull Type classType, final @NotNull JsonDeserializationContext ctx) throws JsonParseException {
+        if (element instanceof JsonObject object) {
+            // Reading the recipe type.
+            final @Nullable RecipeWrapper.Type type = (object.has("type") == true && object.get("type").isJsonPrimitive() == true)
+                    ? ctx.deserialize(object.get("type"), RecipeWrapper.Type.class)
+                    : null;
+            // Delegating to the appropriate deserializer.
+            if (type != null)
+                return ctx.deserialize(element, type.getRecipeClass());
+            // Throwing exception if 'type' property does not exist or is invalid.
+            throw new JsonParseException("Required property \"type\" has not been specified or is invalid. Must be one of " + Arrays.toString(RecipeWrapper.Type.class.getEnumConstants()));
+        }
+        // Throwing exception if JsonElement is not a JsonObject.
+        throw new JsonParseException("Expected JsonObject but found " + element.getClass().getSimpleName() + ".");
+    }
+
+    // Tree-based ingredient adapter, as used before ingredients were read by the streaming adapters. Items are deserialized reflectively from their subtrees.
+    private static final class BaselineIngredientAdapter implements JsonDeserializer<Ingredient> {
+
+        @Override
+        public @NotNull Ingredient deserialize(final @NotNull JsonElement json, final @NotNull Type type, final @NotNull JsonDeserializationContext context) throws JsonParseException {
+            // Reading as single object.
+            if (json.isJsonObject() == true) {
+                if (json.getAsJsonObject().get("type") != null || json.getAsJsonObject().get("registered_item") != null) {
+                    final Item item = context.deserialize(json, Item.class);
+                    // Throwing an exception if item validation fails.
+                    if (item.isValid() == false)
+                        throw new JsonParseException("Required property \"type\" does not exist.");
+                    // Returning...
+                    return new Ingredient.Items(List.of(item), true);
+                } else if (json.getAsJsonObject().get("tag") != null) {
+                    String tag = json.getAsJsonObject().get("tag").getAsString();
+                    // Stripping '#' char from the beginning, if present.
+                    if (tag.isEmpty() == false && tag.charAt(0) == '#')
+                        tag = tag.substring(1);
+                    final @Nullable Key key = KeyAdapter.parseOrNull(tag);
+                    // Throwing an exception if key validation fails.
+                    if (key == null)
+                        throw new JsonParseException("Required property \"tag\" does not represent a valid namespaced key.");
+                    // Returning...
+                    return new Ingredient.Tag(key);
+                }
+                // Throwing exception for unexpected input.
+                throw new JsonParseException("Expected JsonObject with either the \"type\" or \"tag\" property, but neither was found.");
+            }
+            // Reading as array of objects.
+            else if (json.isJsonArray() == true) {
+                final List<Item> items = context.deserialize(json, TypeToken.getParameterized(List.class, Item.class).getType());
+                // Throwing an exception if validation of any item fails.
+                if (items.stream().filter(item -> item.isAir() == false).allMatch(Item::isValid) == false)
+                    throw new JsonParseException("Required property \"type\" does not exist on one or more elements.");
+                // Returning...
+                return new Ingredient.Items(items, false);
+            }
+            // Throwing exception for unexpected input.
+            throw new JsonParseException("Expected JsonObject or JsonArray but found " + json.getClass().getSimpleName() + ".");
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.compiler.RecipeCompiler;
+import cloud.grabsky.recipes.compiler.RegistrySnapshot;
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import net.kyori.adventure.key.Key;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Measures throughput of the streaming recipe adapters, without a server. Run with {@code ./gradlew :core:jmh}, and add {@code -Pjmh.profilers=gc} to see allocation rates.
+ * <ul>
+ *     <li>{@link #streaming} reads recipes straight from the token stream, which is what the plugin does.</li>
+ *     <li>{@link #baseline} reads the same recipes through {@link BaselineRecipeWrapperAdapter}, which parses them into a tree and converts them reflectively, like the plugin used to.</li>
+ *     <li>{@link #compile} compiles a directory of recipes against a {@link RegistrySnapshot}, just like the {@code compileRecipeBundle} task does.</li>
+ * </ul>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RecipeAdapterBenchmark {
+
+    // Same adapters as registered by the plugin and the compiler.
+    private static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Item.class, ItemAdapter.INSTANCE)
+            .registerTypeAdapter(Ingredient.class, IngredientAdapter.INSTANCE)
+            .registerTypeAdapter(DiscoverTrigger.class, DiscoverTriggerAdapter.INSTANCE)
+            .registerTypeAdapter(Key.class, KeyAdapter.INSTANCE)
+            .registerTypeAdapter(RecipeWrapper.class, RecipeWrapperAdapter.INSTANCE)
+            .registerTypeAdapter(RecipeDefinition.class, RecipeWrapperAdapter.DEFINITIONS)
+            .registerTypeAdapter(RecipeWrapper.Type.class, new GenericEnumAdapter<>(RecipeWrapper.Type.class, false))
+            .disableHtmlEscaping()
+            .create();
+
+    // Recipes of all commonly used shapes; crafting recipes with custom names, lore and components, tag ingredients and cooking recipes. Templates are not supported by the baseline adapter.
+    private static final List<String> RECIPES = List.of(
+            """
+            {
+              "type": "crafting_shaped",
+              "discover": { "items": [{ "type": "minecraft:diamond" }] },
+              "pattern": ["DDD", "DSD", " S "],
+              "pattern_key": {
+                "D": { "type": "minecraft:diamond" },
+                "S": { "type": "minecraft:stick" }
+              },
+              "result": {
+                "type": "minecraft:diamond_pickaxe",
+                "name": "<gold>Reinforced Pickaxe",
+                "lore": ["<gray>Rarity: <gold>Epic", "", "<dark_gray>Crafted item"],
+                "components": { "minecraft:max_damage": 3000 }
+              }
+            }
+            """,
+            """
+            {
+              "type": "crafting_shapeless",
+              "ingredients": [
+                { "tag": "#minecraft:planks" },
+                { "tag": "#minecraft:planks" },
+                [{ "type": "minecraft:coal" }, { "type": "minecraft:charcoal" }],
+                { "registered_item": "ruby" }
+              ],
+              "result": { "type": "minecraft:torch", "amount": 8, "lore": ["<dark_gray>Crafted item"] }
+            }
+            """,
+            """
+            {
+              "type": "smelting",
+              "input": { "registered_item": "ruby" },
+              "result": { "type": "minecraft:emerald", "name": "<green>Polished Ruby" },
+              "experience": 0.7,
+              "cooking_time": 200
+            }
+            """
+    );
+
+    // Template bound to an item tag. Compiled along with the recipes.
+    private static final String TEMPLATE = """
+            {
+              "type": "template",
+              "parameters": { "wood": "#minecraft:planks" },
+              "recipe": {
+                "key": "benchmark:{wood}_sticks",
+                "type": "crafting_shaped",
+                "pattern": ["P ", "P "],
+                "pattern_key": { "P": { "type": "minecraft:{wood}" } },
+                "result": { "type": "minecraft:stick", "amount": 8 }
+              }
+            }
+            """;
+
+    // Wood types, which the template is expanded against.
+    private static final List<String> PLANKS = List.of("oak_planks", "spruce_planks", "birch_planks", "jungle_planks", "acacia_planks", "dark_oak_planks", "mangrove_planks", "cherry_planks");
+
+    // Number of copies of each recipe written for the compiler.
+    private static final int FILES_PER_RECIPE = 250;
+
+    private RegistrySnapshot snapshot;
+
+    private Path directory;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        final Stream<String> itemTypes = Stream.of("diamond", "stick", "diamond_pickaxe", "coal", "charcoal", "torch", "emerald");
+        snapshot = new RegistrySnapshot(
+                Stream.concat(itemTypes, PLANKS.stream()).map(value -> Key.MINECRAFT_NAMESPACE + ":" + value).collect(Collectors.toSet()),
+                Map.of(Key.key(Key.MINECRAFT_NAMESPACE, "planks"), PLANKS),
+                Set.of("ruby")
+        );
+        // Writing recipes to a temporary directory. Templates are skipped, as keys of their variants would be duplicated across copies.
+        directory = Files.createTempDirectory("recipes-benchmark");
+        for (int index = 0; index < FILES_PER_RECIPE; index++)
+            for (int recipe = 0; recipe < RECIPES.size(); recipe++)
+                Files.writeString(directory.resolve("recipe_" + recipe + "_" + index + ".json"), RECIPES.get(recipe), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("template.json"), TEMPLATE, StandardCharsets.UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        try (final Stream<Path> stream = Files.walk(directory)) {
+            for (final Path path : stream.sorted(Comparator.reverseOrder()).toList())
+                Files.delete(path);
+        }
+    }
+
+    @Benchmark
+    public void streaming(final Blackhole blackhole) {
+        for (final String recipe : RECIPES)
+            blackhole.consume(GSON.fromJson(new StringReader(recipe), RecipeDefinition.class));
+    }
+
+    @Benchmark
+    public void baseline(final Blackhole blackhole) {
+        for (final String recipe : RECIPES)
+            blackhole.consume(BaselineRecipeWrapperAdapter.GSON.fromJson(new StringReader(recipe), RecipeWrapper.class));
+    }
+
+    @Benchmark
+    public RecipeCompiler.Result compile() throws IOException {
+        return new RecipeCompiler("benchmark", snapshot, 1).compile(directory);
+    }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import cloud.grabsky.recipes.loader.RecipeLoader;
+import cloud.grabsky.recipes.loader.RecipeReader;
+import cloud.grabsky.recipes.loader.RecipeScanner;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.CookingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapedRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapelessRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmithingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.StonecuttingRecipeWrapper;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Compiles and validates a tree of recipe files without a running server. Lookups which would normally go through the server are satisfied from a {@link RegistrySnapshot}.
+ * Files are found, read and parsed by the same {@link RecipeScanner}, {@link RecipeLoader} and {@link RecipeReader} the plugin uses, so archives placed in the directory are compiled as well.
+ * <p>
+ * Result is a bundle of concrete recipes, with templates expanded and keys specified explicitly, which can be placed in the recipes directory and loaded by the plugin directly.
+ * Variants of templates bound to item tags are expanded against the snapshot, and are not expanded again when data packs change.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+public final class RecipeCompiler {
+
+    // Namespace of keys derived from file paths.
+    private final @NotNull String namespace;
+
+    // Snapshot of server registries recipes are validated against.
+    private final @NotNull RegistrySnapshot snapshot;
+
+    // Number of files compiled at once.
+    private final int parallelism;
+
+    /**
+     * Compiles all recipe files within specified directory, including ones packed in archives. Files are compiled in parallel, but results are always in the natural order of their paths, just like on the server.
+     *
+     * @throws IOException if directory cannot be listed
+     */
+    public @NotNull Result compile(final @NotNull Path directory) throws IOException {
+        // Throwing exception if directory does not exist.
+        if (Files.isDirectory(directory) == false)
+            throw new NotDirectoryException(directory.toString());
+        try (final RecipeScanner scanner = new RecipeScanner(directory)) {
+            // Getting all recipe files within the directory and archives placed in it, sorted in natural order of their paths.
+            final List<Path> files = new ArrayList<>();
+            final Map<String, Exception> unreadableArchives = new TreeMap<>();
+            try {
+                scanner.scan(directory, files, unreadableArchives);
+            } catch (final UncheckedIOException e) {
+                throw e.getCause();
+            }
+            files.sort(Comparator.comparing(scanner::getPath));
+            // Compiling files in parallel, through the same pipeline the plugin loads them through.
+            final int threads = Math.max(1, parallelism);
+            // Pool used to share identical items and ingredients between recipes of all files.
+            final InternPool pool = new InternPool();
+            final RecipeLoader.Result<FileResult> loaded = new RecipeLoader(threads, threads, threads, null).load(files, new RecipeLoader.Parser<>() {
+                @Override
+                public @NotNull FileResult parse(final @NotNull RecipeLoader.RecipeFile file) {
+                    return compileFile(scanner, pool, file);
+                }
+
+                @Override
+                public @NotNull FileResult fail(final @NotNull Path path, final @NotNull Exception exception) {
+                    return new FileResult(scanner.getPath(path), List.of(), List.of(new Problem(scanner.getPath(path), describe(exception))));
+                }
+            });
+            // Collecting recipes and problems. Duplicated keys are detected across the whole tree, in the same order files are loaded by the plugin.
+            final List<JsonObject> recipes = new ArrayList<>();
+            final List<Problem> problems = new ArrayList<>();
+            unreadableArchives.forEach((path, e) -> problems.add(new Problem(path, "Archive could not be opened: " + describe(e))));
+            final Set<String> keys = new HashSet<>();
+            for (final FileResult result : loaded.results()) {
+                problems.addAll(result.problems());
+                for (final JsonObject recipe : result.recipes()) {
+                    if (keys.add(recipe.get("key").getAsString()) == false) {
+                        problems.add(new Problem(result.path(), "Key \"" + recipe.get("key").getAsString() + "\" is duplicated."));
+                        continue;
+                    }
+                    recipes.add(recipe);
+                }
+            }
+            return new Result(files.size(), List.copyOf(recipes), List.copyOf(problems));
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Compilation has been interrupted.", e);
+        }
+    }
+
+    // Compiles single recipe file. Called in parallel, so it must not modify any state.
+    private @NotNull FileResult compileFile(final @NotNull RecipeScanner scanner, final @NotNull InternPool pool, final @NotNull RecipeLoader.RecipeFile file) {
+        final String path = scanner.getPath(file.path());
+        final List<Problem> problems = new ArrayList<>();
+        // Reader is confined to this file, so problems can be collected without synchronization.
+        final RecipeReader reader = new RecipeReader(namespace, snapshot.itemTags()::get, new RecipeReader.Reporter() {
+            @Override
+            public void report(final @NotNull String location, final @NotNull String message) {
+                problems.add(new Problem(location, "Recipe " + message));
+            }
+
+            @Override
+            public void report(final @NotNull String location, final @NotNull Exception exception) {
+                problems.add(new Problem(location, describe(exception)));
+            }
+        }, pool);
+        final List<RecipeWrapper> parsed = new ArrayList<>();
+        try {
+            // Reading a bundle; either a JSON Lines file, or a JSON array of recipe objects. Each recipe must specify its key explicitly.
+            if (file.isBundle() == true) {
+                try (final Reader in = new BufferedReader(new InputStreamReader(file.openStream(), StandardCharsets.UTF_8))) {
+                    reader.readBundle(path, in, parsed);
+                }
+            }
+            // Reading a single recipe, which key defaults to one derived from the file path.
+            else reader.load(path, reader.parse(file.openStream()), scanner.getKeyPath(file.path()), new HashSet<>(), parsed);
+        } catch (final IOException | JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            problems.add(new Problem(path, describe(e)));
+        }
+        final List<JsonObject> recipes = new ArrayList<>(parsed.size());
+        for (final RecipeWrapper recipe : parsed) {
+            // Checking whether all referenced item types, tags and custom items exist.
+            final List<String> unresolved = new ArrayList<>();
+            collectUnresolved(recipe, unresolved);
+            if (unresolved.isEmpty() == false) {
+                problems.add(new Problem(path + " (" + recipe.getKey().asString() + ")", "Recipe references unknown " + String.join(", ", unresolved) + "."));
+                continue;
+            }
+            // Writing the parsed recipe back, with its key specified explicitly, as the file path it was derived from is not known to the bundle. Unknown properties are dropped.
+            recipes.add(RecipeReader.GSON.toJsonTree(recipe, RecipeWrapper.class).getAsJsonObject());
+        }
+        return new FileResult(path, recipes, problems);
+    }
+
+    // Collects references to item types, tags and custom items of specified recipe, which do not exist in the snapshot. Item components are not validated.
+    private void collectUnresolved(final @NotNull RecipeWrapper recipe, final @NotNull List<String> unresolved) {
+        switch (recipe) {
+            case ShapedRecipeWrapper shaped -> {
+                shaped.getPatternKey().values().forEach(ingredient -> collectUnresolved(ingredient, unresolved));
+                collectUnresolved(shaped.getResult(), unresolved);
+            }
+            case ShapelessRecipeWrapper shapeless -> {
+                shapeless.getIngredients().forEach(ingredient -> collectUnresolved(ingredient, unresolved));
+                collectUnresolved(shapeless.getResult(), unresolved);
+            }
+            case CookingRecipeWrapper cooking -> {
+                collectUnresolved(cooking.getInput(), unresolved);
+                collectUnresolved(cooking.getResult(), unresolved);
+            }
+            case SmithingRecipeWrapper smithing -> {
+                collectUnresolved(smithing.getTemplate(), unresolved);
+                collectUnresolved(smithing.getBase(), unresolved);
+                collectUnresolved(smithing.getAddition(), unresolved);
+                collectUnresolved(smithing.getResult(), unresolved);
+            }
+            case StonecuttingRecipeWrapper stonecutting -> {
+                collectUnresolved(stonecutting.getInput(), unresolved);
+                collectUnresolved(stonecutting.getResult(), unresolved);
+            }
+            default -> { /* NOTHING TO VALIDATE */ }
+        }
+        // Validating ingredients of the discover trigger as well.
+        if (recipe.getDiscoverTrigger() != null && recipe.getDiscoverTrigger().getIngredients() != null)
+            recipe.getDiscoverTrigger().getIngredients().forEach(ingredient -> collectUnresolved(ingredient, unresolved));
+    }
+
+    // Collects references of specified ingredient, which do not exist in the snapshot.
+    private void collectUnresolved(final @Nullable Ingredient ingredient, final @NotNull List<String> unresolved) {
+        switch (ingredient) {
+            case null -> { /* NOTHING TO VALIDATE */ }
+            case Ingredient.Items items -> items.items().forEach(item -> collectUnresolved(item, unresolved));
+            case Ingredient.Tag tag -> {
+                if (snapshot.isItemTag(tag.key()) == false)
+                    unresolved.add("item tag \"#" + tag.key().asString() + "\"");
+            }
+        }
+    }
+
+    // Collects references of specified item, which do not exist in the snapshot.
+    private void collectUnresolved(final @Nullable Item item, final @NotNull List<String> unresolved) {
+        if (item == null)
+            return;
+        if (item.getType() != null && snapshot.isItemType(item.getType()) == false)
+            unresolved.add("item type \"" + item.getType().asString() + "\"");
+        if (item.getRegisteredItem() != null && snapshot.isRegisteredItem(item.getRegisteredItem()) == false)
+            unresolved.add("custom item \"" + item.getRegisteredItem() + "\"");
+    }
+
+    // Returns description of specified exception, as reported in problems.
+    private static @NotNull String describe(final @NotNull Exception e) {
+        return e.getClass().getSimpleName() + ": " + e.getMessage();
+    }
+
+    /** Writes recipes of specified result to a JSON Lines bundle, one recipe per line. File is replaced atomically. */
+    public static void writeBundle(final @NotNull Result result, final @NotNull Path file) throws IOException {
+        // Creating parent directories in case they do not exist.
+        if (file.toAbsolutePath().getParent() != null)
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        // Writing to a temporary file first, so that partially written bundles are never picked up by the plugin.
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            for (final JsonObject recipe : result.recipes()) {
+                writer.write(RecipeReader.GSON.toJson(recipe));
+                writer.newLine();
+            }
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Command-line entry point. Usage:
+     * <pre>
+     * RecipeCompiler --recipes &lt;directory&gt; --registry &lt;snapshot&gt; --output &lt;bundle.jsonl&gt; [--namespace &lt;namespace&gt;] [--parallelism &lt;threads&gt;] [--allow-errors]
+     * </pre>
+     * Exits with status {@code 1} if any recipe is invalid, unless {@code --allow-errors} is specified, and with status {@code 2} on usage or I/O errors.
+     */
+    public static void main(final @NotNull String[] args) {
+        @Nullable Path recipes = null;
+        @Nullable Path registry = null;
+        @Nullable Path output = null;
+        String namespace = "recipes";
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        boolean isErrorAllowed = false;
+        // Parsing arguments.
+        try {
+            for (int i = 0; i < args.length; i++) {
+                switch (args[i]) {
+                    case "--recipes" -> recipes = Path.of(args[++i]);
+                    case "--registry" -> registry = Path.of(args[++i]);
+                    case "--output" -> output = Path.of(args[++i]);
+                    case "--namespace" -> namespace = args[++i];
+                    case "--parallelism" -> parallelism = Integer.parseInt(args[++i]);
+                    case "--allow-errors" -> isErrorAllowed = true;
+                    default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+                }
+            }
+            if (recipes == null || registry == null || output == null)
+                throw new IllegalArgumentException("Arguments --recipes, --registry and --output are required.");
+        } catch (final IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            System.err.println("Invalid arguments: " + e.getMessage());
+            System.err.println("Usage: --recipes <directory> --registry <snapshot> --output <bundle.jsonl> [--namespace <namespace>] [--parallelism <threads>] [--allow-errors]");
+            System.exit(2);
+            return;
+        }
+        try {
+            final long start = System.nanoTime();
+            final RegistrySnapshot snapshot = RegistrySnapshot.read(registry);
+            final Result result = new RecipeCompiler(RecipeKeys.namespace(namespace), snapshot, parallelism).compile(recipes);
+            // Printing problems.
+            result.problems().forEach(problem -> System.err.println(problem.location() + ": " + problem.message()));
+            System.out.println("Compiled " + result.recipes().size() + " recipe(s) from " + result.files() + " file(s) with " + result.problems().size() + " problem(s) in " + (System.nanoTime() - start) / 1_000_000 + "ms.");
+            // Writing the bundle, unless there are problems which are not allowed.
+            if (result.problems().isEmpty() == false && isErrorAllowed == false) {
+                System.exit(1);
+                return;
+            }
+            writeBundle(result, output);
+            System.out.println("Bundle has been written to " + output.toAbsolutePath() + ".");
+        } catch (final IOException | UncheckedIOException | JsonParseException | IllegalArgumentException e) {
+            System.err.println("Compilation has failed: " + e.getClass().getSimpleName() + ": " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+
+    // Represents result of compiling a single file.
+    private record FileResult(@NotNull String path, @NotNull List<JsonObject> recipes, @NotNull List<Problem> problems) { }
+
+    /** Represents result of compiling a tree of recipe files. Recipes are in the order they should be registered in. */
+    public record Result(int files, @NotNull @Unmodifiable List<JsonObject> recipes, @NotNull @Unmodifiable List<Problem> problems) { }
+
+    /** Represents a problem found during compilation. */
+    public record Problem(@NotNull String location, @NotNull String message) { }
+
+}
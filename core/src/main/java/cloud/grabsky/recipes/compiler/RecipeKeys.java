@@ -0,0 +1,120 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import net.kyori.adventure.key.InvalidKeyException;
+import net.kyori.adventure.key.Key;
+
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Derives keys of recipes which do not specify one explicitly, and sanitises configured namespaces. Shared by the plugin and the {@link RecipeCompiler}, so that both produce the same keys.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RecipeKeys {
+
+    private static final Pattern KEY_PATTERN = Pattern.compile("[a-z0-9/._-]+$");
+
+    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("[a-z0-9._-]+$");
+
+    /**
+     * Returns specified namespace with all invalid characters ignored.
+     *
+     * @throws IllegalArgumentException if namespace turned out to be empty
+     */
+    public static @NotNull String namespace(final @NotNull String namespace) throws IllegalArgumentException {
+        // Getting a namespace with all non-matching characters ignored.
+        final String result = ignoreNonMatchingCharacters(namespace, NAMESPACE_PATTERN);
+        // Throwing IllegalArgumentException if namespace turned out to be empty.
+        if (result.isEmpty() == true)
+            throw new IllegalArgumentException("Namespace must contain at least one alphanumeric character.");
+        // Returning the namespace.
+        return result;
+    }
+
+    /**
+     * Derives key from specified path, relative to the recipes directory or archive root.
+     *
+     * @throws IllegalArgumentException if key turned out to be empty
+     */
+    public static @NotNull String derive(final @NotNull String relativePath) throws IllegalArgumentException {
+        // Converting to lower-case, and then applying replacements.
+        final String path = relativePath.toLowerCase(Locale.ROOT)
+                // Replacing spaces with underscores.
+                .replace(" ", "_")
+                // Replacing back-slashes with slashes. (for Windows)
+                .replace("\\", "/")
+                // Removing the '.json' file extension.
+                .replace(".json", "");
+        // Getting a key with all non-matching characters ignored.
+        final String key = ignoreNonMatchingCharacters(path, KEY_PATTERN);
+        // Throwing IllegalArgumentException if key turned out to be empty.
+        if (key.isEmpty() == true)
+            throw new IllegalArgumentException("Key must contain at least one alphanumeric character.");
+        // Returning the key.
+        return key;
+    }
+
+    /**
+     * Creates {@link Key} with specified namespace and value.
+     *
+     * @throws IllegalArgumentException if namespace or value contains invalid characters
+     */
+    public static @NotNull Key of(final @NotNull String namespace, final @NotNull String value) throws IllegalArgumentException {
+        try {
+            return Key.key(namespace, value);
+        } catch (final InvalidKeyException e) {
+            throw new IllegalArgumentException(e.getMessage(), e);
+        }
+    }
+
+    // Returns only matching characters within a Pattern. It exists because there seems to be no method to create an "inverted" matcher.
+    private static @NotNull String ignoreNonMatchingCharacters(final @NotNull CharSequence charSequence, final @NotNull Pattern pattern) {
+        // Creating a Matcher with the specified CharSequence.
+        final Matcher matcher = pattern.matcher(charSequence);
+        // Creating a result StringBuilder, which will then be appended only with characters that matches the pattern.
+        final StringBuilder builder = new StringBuilder();
+        // Appending matching elements to the StringBuilder.
+        while (matcher.find())
+            builder.append(matcher.group());
+        // Returning the result.
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,186 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import cloud.grabsky.recipes.configuration.adapters.KeyAdapter;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Snapshot of server-side registries that recipes are validated against. Exported by the plugin using the {@code /recipes export_registry} command,
+ * and consumed by the {@link RecipeCompiler}, which runs without a server.
+ *
+ * @param itemTypes keys of all item types
+ * @param itemTags item tags, mapped to keys of their members, without the namespace
+ * @param registeredItems identifiers of all custom items
+ */
+public record RegistrySnapshot(@NotNull @Unmodifiable Set<String> itemTypes, @NotNull @Unmodifiable Map<Key, List<String>> itemTags, @NotNull @Unmodifiable Set<String> registeredItems) {
+
+    /** Default name of the snapshot file, in the plugin data folder. */
+    public static final String FILE_NAME = "registry_snapshot.json";
+
+    // Version of the file format. Files of other versions are rejected.
+    private static final int FORMAT_VERSION = 1;
+
+    public RegistrySnapshot {
+        itemTypes = Set.copyOf(itemTypes);
+        itemTags = Map.copyOf(itemTags);
+        registeredItems = Set.copyOf(registeredItems);
+    }
+
+    /** Returns {@code true} if item type with specified key exists. */
+    public boolean isItemType(final @NotNull Key key) {
+        return itemTypes.contains(key.asString());
+    }
+
+    /** Returns {@code true} if item tag with specified key exists. */
+    public boolean isItemTag(final @NotNull Key key) {
+        return itemTags.containsKey(key);
+    }
+
+    /** Returns {@code true} if custom item with specified identifier exists. */
+    public boolean isRegisteredItem(final @NotNull String identifier) {
+        return registeredItems.contains(identifier);
+    }
+
+    /**
+     * Reads snapshot from specified file.
+     *
+     * @throws IOException if file cannot be read
+     * @throws JsonParseException if file is malformed, or its format is not supported
+     */
+    public static @NotNull RegistrySnapshot read(final @NotNull Path file) throws IOException, JsonParseException {
+        try (final Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8); final JsonReader in = new JsonReader(reader)) {
+            @Nullable Integer format = null;
+            final Set<String> itemTypes = new HashSet<>();
+            final Map<Key, List<String>> itemTags = new HashMap<>();
+            final Set<String> registeredItems = new HashSet<>();
+            // Reading all properties in a single pass. Unknown properties are skipped.
+            in.beginObject();
+            while (in.hasNext() == true) {
+                switch (in.nextName()) {
+                    case "format" -> format = in.nextInt();
+                    case "item_types" -> itemTypes.addAll(readStrings(in));
+                    case "item_tags" -> {
+                        in.beginObject();
+                        while (in.hasNext() == true) {
+                            final String name = in.nextName();
+                            final @Nullable Key key = KeyAdapter.parseOrNull(name);
+                            // Throwing exception if tag key is invalid.
+                            if (key == null)
+                                throw new JsonParseException("Invalid tag key \"" + name + "\" at " + in.getPath() + ".");
+                            itemTags.put(key, List.copyOf(readStrings(in)));
+                        }
+                        in.endObject();
+                    }
+                    case "registered_items" -> registeredItems.addAll(readStrings(in));
+                    default -> in.skipValue();
+                }
+            }
+            in.endObject();
+            // Throwing exception if format is not supported.
+            if (format == null || format != FORMAT_VERSION)
+                throw new JsonParseException("Unsupported registry snapshot format " + format + ". Expected " + FORMAT_VERSION + ".");
+            // Returning...
+            return new RegistrySnapshot(itemTypes, itemTags, registeredItems);
+        }
+    }
+
+    /** Writes this snapshot to specified file. Entries are sorted, so snapshots of the same registries are identical. */
+    public void write(final @NotNull Path file) throws IOException {
+        // Creating parent directories in case they do not exist.
+        if (file.getParent() != null)
+            Files.createDirectories(file.getParent());
+        try (final Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8); final JsonWriter out = new JsonWriter(writer)) {
+            out.setIndent("  ");
+            out.beginObject();
+            out.name("format").value(FORMAT_VERSION);
+            out.name("item_types");
+            writeStrings(out, new TreeSet<>(itemTypes));
+            out.name("item_tags").beginObject();
+            final Map<String, List<String>> sortedTags = new TreeMap<>();
+            itemTags.forEach((key, members) -> sortedTags.put(key.asString(), members));
+            for (final Map.Entry<String, List<String>> entry : sortedTags.entrySet()) {
+                out.name(entry.getKey());
+                writeStrings(out, entry.getValue());
+            }
+            out.endObject();
+            out.name("registered_items");
+            writeStrings(out, new TreeSet<>(registeredItems));
+            out.endObject();
+        }
+    }
+
+    private static @NotNull List<String> readStrings(final @NotNull JsonReader in) throws IOException {
+        final List<String> list = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext() == true) {
+            // Throwing exception if value is not a string.
+            if (in.peek() != JsonToken.STRING)
+                throw new JsonParseException("Expected STRING but found: " + in.peek() + " at " + in.getPath());
+            list.add(in.nextString());
+        }
+        in.endArray();
+        return list;
+    }
+
+    private static void writeStrings(final @NotNull JsonWriter out, final @NotNull Collection<String> values) throws IOException {
+        out.beginArray();
+        for (final String value : values)
+            out.value(value);
+        out.endArray();
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.InternPool;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class DiscoverTriggerAdapter extends TypeAdapter<DiscoverTrigger> {
+
+    public static final DiscoverTriggerAdapter INSTANCE = new DiscoverTriggerAdapter(); // SINGLETON
+
+    @Override
+    public @Nullable DiscoverTrigger read(final @NotNull JsonReader in) throws IOException {
+        return read(in, new HashSet<>(), null);
+    }
+
+    /**
+     * Reads a {@link DiscoverTrigger} from the stream. Identifiers of custom items encountered along the way are added to {@code registeredItems}.
+     * Ingredients are shared through specified {@link InternPool}, if any.
+     */
+    public @Nullable DiscoverTrigger read(final @NotNull JsonReader in, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        @Nullable List<Ingredient> ingredients = null;
+        // Reading all properties in a single pass. Unknown properties are skipped.
+        in.beginObject();
+        while (in.hasNext() == true) {
+            if (in.nextName().equals("items") == true)
+                ingredients = IngredientAdapter.INSTANCE.readList(in, registeredItems, pool);
+            else in.skipValue();
+        }
+        in.endObject();
+        // Returning...
+        return new DiscoverTrigger(ingredients);
+    }
+
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable DiscoverTrigger value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        // Writing the ingredients. Triggers restored from the snapshot have none, and are written as an empty object.
+        if (value.getIngredients() != null) {
+            out.name("items");
+            IngredientAdapter.INSTANCE.writeList(out, value.getIngredients());
+        }
+        out.endObject();
+    }
+
+}
@@ -31,14 +31,16 @@
  */
 package cloud.grabsky.recipes.configuration.adapters;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
 import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -47,7 +49,7 @@ import lombok.experimental.Accessors;
 
 @Accessors(fluent = true)
 @RequiredArgsConstructor(access = AccessLevel.PUBLIC)
-public final class GenericEnumAdapter<T extends Enum<T>> implements JsonDeserializer<T> {
+public final class GenericEnumAdapter<T extends Enum<T>> extends TypeAdapter<T> {
 
     @Getter(AccessLevel.PUBLIC)
     private final Class<T> type;
@@ -56,8 +58,12 @@ public final class GenericEnumAdapter<T extends Enum<T>> implements JsonDeserial
     private final boolean isCaseSensitive;
 
     @Override
-    public @NotNull T deserialize(final @NotNull JsonElement element, final @NotNull Type classType, final @NotNull JsonDeserializationContext context) throws JsonParseException {
-        final String value = element.getAsString();
+    public @Nullable T read(final @NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final String value = in.nextString();
         // Iterating over enum constants and matching provided value.
         for (final T en : type.getEnumConstants()) {
             if (isCaseSensitive == true && en.name().equals(value) == true)
@@ -69,4 +75,13 @@ public final class GenericEnumAdapter<T extends Enum<T>> implements JsonDeserial
         throw new JsonParseException("Expected " + type.getName() + " but found: " + value);
     }
 
-}
\ No newline at end of file
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable T value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(isCaseSensitive == true ? value.name() : value.name().toLowerCase());
+    }
+
+}
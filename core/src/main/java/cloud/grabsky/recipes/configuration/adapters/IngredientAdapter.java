@@ -0,0 +1,184 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.Item;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reads {@link Ingredient} from the token stream. Does not access the server in any way, meaning it can be safely used from any thread.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class IngredientAdapter extends TypeAdapter<Ingredient> {
+
+    public static final IngredientAdapter INSTANCE = new IngredientAdapter(); // SINGLETON
+
+    @Override
+    public @Nullable Ingredient read(final @NotNull JsonReader in) throws IOException {
+        return read(in, new HashSet<>(), null);
+    }
+
+    /**
+     * Reads an {@link Ingredient} from the stream. Identifiers of custom items encountered along the way are added to {@code registeredItems}.
+     * Ingredient and its items are shared through specified {@link InternPool}, if any, so identical ones are not kept more than once.
+     */
+    public @Nullable Ingredient read(final @NotNull JsonReader in, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws IOException {
+        // Reading as single object.
+        if (in.peek() == JsonToken.BEGIN_OBJECT) {
+            final ItemAdapter.Properties properties = new ItemAdapter.Properties();
+            @Nullable String tag = null;
+            // Reading all properties in a single pass. Unknown properties are skipped.
+            in.beginObject();
+            while (in.hasNext() == true) {
+                final String name = in.nextName();
+                if (name.equals("tag") == true)
+                    tag = JsonReaders.nextStringOrNull(in);
+                else if (properties.read(in, name, registeredItems) == false)
+                    in.skipValue();
+            }
+            in.endObject();
+            // Reading as item.
+            if (properties.isItem() == true) {
+                final Item item = properties.toItem();
+                // Throwing an exception if item validation fails.
+                if (item.isValid() == false)
+                    throw new JsonParseException("Required property \"type\" does not exist.");
+                // Returning...
+                return InternPool.intern(pool, new Ingredient.Items(List.of(InternPool.intern(pool, item)), true));
+            }
+            // Reading as tag.
+            else if (tag != null) {
+                // Stripping '#' char from the beginning, if present.
+                if (tag.isEmpty() == false && tag.charAt(0) == '#')
+                    tag = tag.substring(1);
+                final @Nullable Key key = KeyAdapter.parseOrNull(tag);
+                // Throwing an exception if key is null or Key validation fails.
+                if (key == null)
+                    throw new JsonParseException("Required property \"tag\" does not represent a valid namespaced key.");
+                // Returning...
+                return InternPool.intern(pool, new Ingredient.Tag(key));
+            }
+            // Throwing exception for unexpected input.
+            throw new JsonParseException("Expected JsonObject with either the \"type\" or \"tag\" property, but neither was found.");
+        }
+        // Reading as array of objects.
+        else if (in.peek() == JsonToken.BEGIN_ARRAY) {
+            final List<Item> items = new ArrayList<>();
+            in.beginArray();
+            while (in.hasNext() == true) {
+                final @Nullable Item item = ItemAdapter.INSTANCE.read(in, registeredItems, pool);
+                // Throwing an exception if validation of the item fails. Air is excluded from validation.
+                if (item == null || (item.isAir() == false && item.isValid() == false))
+                    throw new JsonParseException("Required property \"type\" does not exist on one or more elements.");
+                items.add(item);
+            }
+            in.endArray();
+            // Returning...
+            return InternPool.intern(pool, new Ingredient.Items(items, false));
+        }
+        // Returning null for explicit null values.
+        else if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        // Throwing exception for unexpected input.
+        throw new JsonParseException("Expected JsonObject or JsonArray but found " + in.peek() + " at " + in.getPath() + ".");
+    }
+
+    /**
+     * Reads a list of {@link Ingredient Ingredients} from the stream. Identifiers of custom items encountered along the way are added to {@code registeredItems}.
+     * Ingredients are shared through specified {@link InternPool}, if any.
+     */
+    public @Nullable List<Ingredient> readList(final @NotNull JsonReader in, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final List<Ingredient> ingredients = new ArrayList<>();
+        in.beginArray();
+        while (in.hasNext() == true)
+            ingredients.add(read(in, registeredItems, pool));
+        in.endArray();
+        return ingredients;
+    }
+
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable Ingredient value) throws IOException {
+        switch (value) {
+            case null -> out.nullValue();
+            // Writing single item as an object, and list of items as an array.
+            case Ingredient.Items items when items.isSingle() == true -> ItemAdapter.INSTANCE.write(out, items.items().getFirst());
+            case Ingredient.Items items -> {
+                out.beginArray();
+                for (final Item item : items.items())
+                    ItemAdapter.INSTANCE.write(out, item);
+                out.endArray();
+            }
+            // Writing tag as an object with the "tag" property.
+            case Ingredient.Tag tag -> out.beginObject().name("tag").value("#" + tag.key().asString()).endObject();
+        }
+    }
+
+    /**
+     * Writes a list of {@link Ingredient Ingredients} to the stream.
+     */
+    public void writeList(final @NotNull JsonWriter out, final @Nullable List<Ingredient> ingredients) throws IOException {
+        if (ingredients == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginArray();
+        for (final @Nullable Ingredient ingredient : ingredients)
+            write(out, ingredient);
+        out.endArray();
+    }
+
+}
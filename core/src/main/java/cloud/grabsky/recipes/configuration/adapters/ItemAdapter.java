@@ -0,0 +1,182 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.Item;
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ItemAdapter extends TypeAdapter<Item> {
+
+    public static final ItemAdapter INSTANCE = new ItemAdapter(); // SINGLETON
+
+    // Writes item components, which are kept as an arbitrary JSON structure.
+    private static final TypeAdapter<JsonElement> COMPONENTS_ADAPTER = new Gson().getAdapter(JsonElement.class);
+
+    @Override
+    public @Nullable Item read(final @NotNull JsonReader in) throws IOException {
+        return read(in, new HashSet<>(), null);
+    }
+
+    /**
+     * Reads an {@link Item} from the stream. Identifiers of custom items encountered along the way are added to {@code registeredItems}.
+     * Item is shared through specified {@link InternPool}, if any, so identical items are not kept more than once.
+     */
+    public @Nullable Item read(final @NotNull JsonReader in, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Properties properties = new Properties();
+        // Reading all properties in a single pass. Unknown properties are skipped.
+        in.beginObject();
+        while (in.hasNext() == true)
+            if (properties.read(in, in.nextName(), registeredItems) == false)
+                in.skipValue();
+        in.endObject();
+        // Returning...
+        return InternPool.intern(pool, properties.toItem());
+    }
+
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable Item value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        writeProperties(out, value);
+        out.endObject();
+    }
+
+    /**
+     * Writes properties of specified {@link Item} to an already open object. Properties that were not specified are omitted.
+     */
+    void writeProperties(final @NotNull JsonWriter out, final @NotNull Item item) throws IOException {
+        if (item.getType() != null)
+            out.name("type").value(item.getType().asString());
+        if (item.getRegisteredItem() != null)
+            out.name("registered_item").value(item.getRegisteredItem());
+        if (item.getAmount() != null)
+            out.name("amount").value(item.getAmount());
+        if (item.getName() != null)
+            out.name("name").value(item.getName());
+        if (item.getLore() != null) {
+            out.name("lore").beginArray();
+            for (final String line : item.getLore())
+                out.value(line);
+            out.endArray();
+        }
+        if (item.getComponents() != null) {
+            out.name("components");
+            COMPONENTS_ADAPTER.write(out, item.getComponents());
+        }
+    }
+
+    /**
+     * Mutable holder of {@link Item} properties. Shared with {@link IngredientAdapter} which reads items and tags from the same object.
+     */
+    static final class Properties {
+
+        private @Nullable Key type;
+        private @Nullable String registeredItem;
+        private @Nullable Integer amount;
+        private @Nullable String name;
+        private @Nullable List<String> lore;
+        private @Nullable JsonElement components;
+
+        // Whether either "type" or "registered_item" property was present.
+        private boolean isItem = false;
+
+        /**
+         * Reads value of property with specified name. Returns {@code false} if property is not a known {@link Item} property, in which case nothing is consumed.
+         */
+        boolean read(final @NotNull JsonReader in, final @NotNull String property, final @NotNull Set<String> registeredItems) throws IOException {
+            switch (property) {
+                case "type" -> {
+                    this.type = KeyAdapter.INSTANCE.read(in);
+                    this.isItem = true;
+                }
+                case "registered_item" -> {
+                    this.registeredItem = JsonReaders.nextStringOrNull(in);
+                    this.isItem = true;
+                    // Collecting identifier of the custom item.
+                    if (registeredItem != null)
+                        registeredItems.add(registeredItem);
+                }
+                case "amount" -> this.amount = JsonReaders.nextIntegerOrNull(in);
+                case "name" -> this.name = JsonReaders.nextStringOrNull(in);
+                case "lore" -> this.lore = JsonReaders.nextStringListOrNull(in);
+                case "components" -> {
+                    // Components are an arbitrary structure which is later converted to a string. Reading it as a (small) tree is unavoidable here.
+                    final JsonElement element = JsonParser.parseReader(in);
+                    this.components = (element instanceof JsonNull) ? null : element;
+                }
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isItem() {
+            return isItem;
+        }
+
+        @NotNull Item toItem() {
+            return new Item(type, registeredItem, amount, name, lore, components);
+        }
+
+    }
+
+}
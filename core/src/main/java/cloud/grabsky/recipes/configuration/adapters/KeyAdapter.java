@@ -0,0 +1,120 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.kyori.adventure.key.InvalidKeyException;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reads {@link Key Keys} from the token stream. Parsed keys are cached, as the same ones tend to be repeated across recipes.
+ * <p>
+ * Keys are always created through {@link Key#key(String)}, so they can be compared with each other. They are not equal to Bukkit's {@code NamespacedKey} objects of the same value.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class KeyAdapter extends TypeAdapter<Key> {
+
+    public static final KeyAdapter INSTANCE = new KeyAdapter(); // SINGLETON
+
+    // Maximum number of cached keys. Keys parsed once the limit is reached are not cached.
+    private static final int MAX_KEYS = 65536;
+
+    // Parsed keys, mapped by their string form. Invalid keys are not cached.
+    private static final Map<String, Key> KEYS = new ConcurrentHashMap<>();
+
+    @Override
+    public @Nullable Key read(final @NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (in.peek() != JsonToken.STRING && in.peek() != JsonToken.NUMBER)
+            throw new JsonParseException("Expected STRING but found: " + in.peek() + " at " + in.getPath());
+        // Parsing the value. Throws an exception when invalid.
+        return parse(in.nextString());
+    }
+
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable Key value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(value.asString());
+    }
+
+    /**
+     * Parses provided string to a {@link Key} or throws {@link JsonParseException} if it is invalid.
+     */
+    public static @NotNull Key parse(final @NotNull String value) throws JsonParseException {
+        final @Nullable Key key = parseOrNull(value);
+        // Throwing an exception if key is null or Key validation fails.
+        if (key == null)
+            throw new JsonParseException("Key \"" + value + "\" is not a valid resource location / namespaced key.");
+        // Returning...
+        return key;
+    }
+
+    /**
+     * Parses provided string to a {@link Key}, or returns {@code null} if it is invalid. Namespace defaults to {@code minecraft} if not specified.
+     */
+    public static @Nullable Key parseOrNull(final @NotNull String value) {
+        final @Nullable Key cached = KEYS.get(value);
+        // Returning cached key, if present.
+        if (cached != null)
+            return cached;
+        // Parsing the key and caching it, unless the limit has been reached.
+        try {
+            final Key key = Key.key(value);
+            if (KEYS.size() < MAX_KEYS)
+                KEYS.putIfAbsent(value, key);
+            return key;
+        } catch (final InvalidKeyException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,707 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.BlastingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.CampfireRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.CookingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+import cloud.grabsky.recipes.model.recipes.RecipeTemplate;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapedRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapelessRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmeltingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmithingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmokingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.StonecuttingRecipeWrapper;
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reads {@link RecipeWrapper} in a single pass over the token stream. All known properties are read regardless of
+ * their order, and the concrete wrapper is constructed once the whole object has been consumed.
+ * <p>
+ * Top-level definitions, which can also be templates, are read through {@link #DEFINITIONS}. Templates are compiled through {@link #compile}, and then expanded into concrete wrappers.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RecipeWrapperAdapter extends TypeAdapter<RecipeWrapper> {
+
+    public static final RecipeWrapperAdapter INSTANCE = new RecipeWrapperAdapter(); // SINGLETON
+
+    /** Reads and writes top-level {@link RecipeDefinition RecipeDefinitions}; either recipes or templates. */
+    public static final TypeAdapter<RecipeDefinition> DEFINITIONS = new TypeAdapter<>() {
+
+        @Override
+        public @Nullable RecipeDefinition read(final @NotNull JsonReader in) throws IOException {
+            return INSTANCE.readDefinition(in, null);
+        }
+
+        @Override
+        public void write(final @NotNull JsonWriter out, final @Nullable RecipeDefinition value) throws IOException {
+            switch (value) {
+                case null -> out.nullValue();
+                case RecipeWrapper recipe -> INSTANCE.write(out, recipe);
+                case RecipeTemplate template -> writeTemplate(out, template);
+            }
+        }
+
+    };
+
+    // Value of the 'type' property which denotes a template.
+    private static final String TEMPLATE_TYPE = "template";
+
+    private static final GenericEnumAdapter<RecipeWrapper.Type> TYPE_ADAPTER = new GenericEnumAdapter<>(RecipeWrapper.Type.class, false);
+
+    // Writes the template recipe, which is kept as a JSON tree.
+    private static final TypeAdapter<JsonObject> OBJECT_ADAPTER = new Gson().getAdapter(JsonObject.class);
+
+    // Reads all properties of an object in a single pass, and writes them back. Nothing is shared through a pool.
+    private static final PropertiesAdapter PROPERTIES_ADAPTER = new PropertiesAdapter(null);
+
+    // Names of template parameters. These are referenced in the template recipe through {name} placeholders.
+    private static final Pattern PARAMETER_NAME = Pattern.compile("[a-z0-9_]+");
+
+    @Override
+    public @Nullable RecipeWrapper read(final @NotNull JsonReader in) throws IOException {
+        return switch (readDefinition(in, null)) {
+            case null -> null;
+            case RecipeWrapper recipe -> recipe;
+            // Throwing exception for templates. These are allowed only at the top level, and must be expanded first.
+            case RecipeTemplate template -> throw new JsonParseException("Expected a recipe but found a template at " + in.getPath() + ".");
+        };
+    }
+
+    /**
+     * Compiles specified template into a {@link CompiledTemplate}, which expands it into concrete {@link RecipeWrapper RecipeWrappers}. See {@link RecipeTemplate#bindings}.
+     * Template recipe is parsed only once. Properties which contain no placeholders are shared by all variants, and only properties which do are parsed again for each of them.
+     * Items and ingredients of all variants are shared through specified {@link InternPool}, if any. Throws {@link JsonParseException} if any of the properties without placeholders is invalid.
+     */
+    public @NotNull CompiledTemplate compile(final @NotNull RecipeTemplate template, final @Nullable InternPool pool) throws JsonParseException {
+        // Properties which contain no placeholders. These are read at once.
+        final JsonObject constants = new JsonObject();
+        // Templated list of ingredients and pattern key, if any. Their elements which contain no placeholders are read separately.
+        @Nullable JsonArray templatedIngredients = null;
+        @Nullable JsonObject templatedPatternKey = null;
+        final List<Slot> slots = new ArrayList<>();
+        for (final Map.Entry<String, JsonElement> entry : template.getProperties().entrySet()) {
+            final String name = entry.getKey();
+            final JsonElement value = entry.getValue();
+            // Collecting properties which contain no placeholders.
+            if (template.isTemplated(value) == false)
+                constants.add(name, value);
+            // Collecting templated elements of lists of ingredients. Only these are read for each variant.
+            else if (name.equals("ingredients") == true && value instanceof JsonArray array) {
+                for (int i = 0; i < array.size(); i++)
+                    if (template.isTemplated(array.get(i)) == true)
+                        slots.add(new Slot(name, i, array.get(i)));
+                // Reading as an empty list. Elements are added below.
+                constants.add(name, new JsonArray());
+                templatedIngredients = array;
+            }
+            // Collecting templated entries of pattern keys. Only these are read for each variant.
+            else if (name.equals("pattern_key") == true && value instanceof JsonObject object) {
+                for (final Map.Entry<String, JsonElement> key : object.entrySet()) {
+                    // Throwing exception if key is not a single character.
+                    if (key.getKey().length() != 1)
+                        throw new JsonParseException("Expected a single character but found \"" + key.getKey() + "\" in the template recipe.");
+                    if (template.isTemplated(key.getValue()) == true)
+                        slots.add(new Slot(name, key.getKey().charAt(0), key.getValue()));
+                }
+                // Reading as an empty map. Entries are added below.
+                constants.add(name, new JsonObject());
+                templatedPatternKey = object;
+            }
+            // Collecting other templated properties. These are read as a whole for each variant.
+            else slots.add(new Slot(name, null, value));
+        }
+        // Reading properties which contain no placeholders. Adapter is kept by the compiled template, and reads templated properties of each variant through the same pool.
+        final PropertiesAdapter adapter = (pool != null) ? new PropertiesAdapter(pool) : PROPERTIES_ADAPTER;
+        final Properties properties = adapter.fromJsonTree(constants);
+        // Reading ingredients which contain no placeholders. Positions of templated ones are filled for each variant.
+        if (templatedIngredients != null)
+            for (final JsonElement element : templatedIngredients)
+                properties.ingredients.add((template.isTemplated(element) == false) ? readIngredient(element, properties.registeredItems, pool) : null);
+        if (templatedPatternKey != null)
+            for (final Map.Entry<String, JsonElement> key : templatedPatternKey.entrySet())
+                if (template.isTemplated(key.getValue()) == false)
+                    properties.patternKey.put(key.getKey().charAt(0), readIngredient(key.getValue(), properties.registeredItems, pool));
+        return new CompiledTemplate(template, adapter, properties, List.copyOf(slots));
+    }
+
+    /**
+     * Reads a recipe or a template from the stream. Items and ingredients are shared through specified {@link InternPool}, if any, as they are read.
+     * Identical ones are therefore never kept more than once, and recipes do not have to be copied afterwards.
+     */
+    public @Nullable RecipeDefinition readDefinition(final @NotNull JsonReader in, final @Nullable InternPool pool) throws IOException {
+        final @Nullable Properties properties = ((pool != null) ? new PropertiesAdapter(pool) : PROPERTIES_ADAPTER).read(in);
+        // Returning...
+        return (properties != null) ? properties.toDefinition() : null;
+    }
+
+    // Reads ingredient from specified tree, and shares it through the pool, if any. Identifiers of custom items it refers to are added to the set.
+    private static @Nullable Ingredient readIngredient(final @NotNull JsonElement element, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws JsonParseException {
+        final @Nullable Ingredient ingredient = IngredientAdapter.INSTANCE.fromJsonTree(element);
+        // Returning null for explicit null values.
+        if (ingredient == null)
+            return null;
+        // Collecting identifiers of custom items.
+        if (ingredient instanceof Ingredient.Items items)
+            for (final Item item : items.items())
+                if (item.getRegisteredItem() != null)
+                    registeredItems.add(item.getRegisteredItem());
+        return InternPool.intern(pool, ingredient);
+    }
+
+    // Returns recipe type matching specified name, ignoring case, or null if there is none.
+    private static @Nullable RecipeWrapper.Type parseType(final @Nullable String name) {
+        if (name == null)
+            return null;
+        for (final RecipeWrapper.Type type : RecipeWrapper.Type.values())
+            if (type.name().equalsIgnoreCase(name) == true)
+                return type;
+        return null;
+    }
+
+    @Override
+    public void write(final @NotNull JsonWriter out, final @Nullable RecipeWrapper value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.beginObject();
+        // Writing properties shared by all recipe types.
+        if (value.getKey() != null)
+            out.name("key").value(value.getKey().asString());
+        out.name("type");
+        TYPE_ADAPTER.write(out, value.getType());
+        if (value.getDiscoverTrigger() != null) {
+            out.name("discover");
+            DiscoverTriggerAdapter.INSTANCE.write(out, value.getDiscoverTrigger());
+        }
+        // Writing properties specific to the recipe type. Properties that were not specified are omitted.
+        switch (value) {
+            case ShapedRecipeWrapper recipe -> {
+                if (recipe.getPattern() != null) {
+                    out.name("pattern").beginArray();
+                    for (final String row : recipe.getPattern())
+                        out.value(row);
+                    out.endArray();
+                }
+                writePatternKey(out, recipe.getPatternKey());
+                writeResult(out, recipe.getResult());
+            }
+            case ShapelessRecipeWrapper recipe -> {
+                if (recipe.getIngredients() != null) {
+                    out.name("ingredients");
+                    IngredientAdapter.INSTANCE.writeList(out, recipe.getIngredients());
+                }
+                writeResult(out, recipe.getResult());
+            }
+            case CookingRecipeWrapper recipe -> {
+                writeIngredient(out, "input", recipe.getInput());
+                writeResult(out, recipe.getResult());
+                if (recipe.getExperience() != null)
+                    out.name("experience").value(recipe.getExperience());
+                if (recipe.getCookingTime() != null)
+                    out.name("cooking_time").value(recipe.getCookingTime());
+            }
+            case SmithingRecipeWrapper recipe -> {
+                writeIngredient(out, "template", recipe.getTemplate());
+                writeIngredient(out, "base", recipe.getBase());
+                writeIngredient(out, "addition", recipe.getAddition());
+                writeResult(out, recipe.getResult());
+            }
+            case StonecuttingRecipeWrapper recipe -> {
+                writeIngredient(out, "input", recipe.getInput());
+                writeResult(out, recipe.getResult());
+            }
+            default -> throw new JsonIOException("Serialization of " + value.getClass().getName() + " is not supported.");
+        }
+        out.endObject();
+    }
+
+    private static void writeTemplate(final @NotNull JsonWriter out, final @NotNull RecipeTemplate template) throws IOException {
+        out.beginObject();
+        out.name("type").value(TEMPLATE_TYPE);
+        writeParameters(out, template.getParameters());
+        if (template.getRecipe() != null) {
+            out.name("recipe");
+            OBJECT_ADAPTER.write(out, template.getRecipe());
+        }
+        out.endObject();
+    }
+
+    private static void writeParameters(final @NotNull JsonWriter out, final @Nullable Map<String, RecipeTemplate.Parameter> parameters) throws IOException {
+        if (parameters != null) {
+            out.name("parameters").beginObject();
+            for (final Map.Entry<String, RecipeTemplate.Parameter> entry : parameters.entrySet()) {
+                out.name(entry.getKey());
+                switch (entry.getValue()) {
+                    case null -> out.nullValue();
+                    case RecipeTemplate.Parameter.Values parameter -> {
+                        out.beginArray();
+                        for (final String element : parameter.values())
+                            out.value(element);
+                        out.endArray();
+                    }
+                    case RecipeTemplate.Parameter.Tag parameter -> out.value("#" + parameter.key().asString());
+                }
+            }
+            out.endObject();
+        }
+    }
+
+    private static void writePatternKey(final @NotNull JsonWriter out, final @Nullable Map<Character, Ingredient> patternKey) throws IOException {
+        if (patternKey != null) {
+            out.name("pattern_key").beginObject();
+            for (final Map.Entry<Character, Ingredient> entry : new TreeMap<>(patternKey).entrySet()) {
+                out.name(String.valueOf(entry.getKey()));
+                IngredientAdapter.INSTANCE.write(out, entry.getValue());
+            }
+            out.endObject();
+        }
+    }
+
+    private static void writeIngredient(final @NotNull JsonWriter out, final @NotNull String name, final @Nullable Ingredient ingredient) throws IOException {
+        if (ingredient != null) {
+            out.name(name);
+            IngredientAdapter.INSTANCE.write(out, ingredient);
+        }
+    }
+
+    private static void writeResult(final @NotNull JsonWriter out, final @Nullable Item result) throws IOException {
+        if (result != null) {
+            out.name("result");
+            ItemAdapter.INSTANCE.write(out, result);
+        }
+    }
+
+    private static boolean isDatapackDependent(final @Nullable Ingredient ingredient) {
+        return ingredient != null && ingredient.isDatapackDependent() == true;
+    }
+
+    private static boolean isTagDependent(final @Nullable Ingredient ingredient) {
+        return ingredient != null && ingredient.isTagDependent() == true;
+    }
+
+    private static @Nullable Map<String, RecipeTemplate.Parameter> readParameters(final @NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        // Using LinkedHashMap to keep parameters in the order they were declared in. This determines the order of variants.
+        final Map<String, RecipeTemplate.Parameter> parameters = new LinkedHashMap<>();
+        in.beginObject();
+        while (in.hasNext() == true) {
+            final String name = in.nextName();
+            // Throwing exception if parameter name is invalid.
+            if (PARAMETER_NAME.matcher(name).matches() == false)
+                throw new JsonParseException("Expected parameter name matching " + PARAMETER_NAME.pattern() + " but found \"" + name + "\" at " + in.getPath() + ".");
+            // Reading parameter bound to an item tag.
+            if (in.peek() == JsonToken.STRING) {
+                final String value = in.nextString();
+                // Throwing exception if value is not a tag.
+                if (value.startsWith("#") == false)
+                    throw new JsonParseException("Expected list of values or an item tag starting with '#' but found \"" + value + "\" at " + in.getPath() + ".");
+                parameters.put(name, new RecipeTemplate.Parameter.Tag(KeyAdapter.parse(value.substring(1))));
+                continue;
+            }
+            // Reading parameter bound to a list of values.
+            final @Nullable List<String> values = JsonReaders.nextStringListOrNull(in);
+            // Throwing exception if list contains null values.
+            if (values != null && values.contains(null) == true)
+                throw new JsonParseException("Parameter \"" + name + "\" contains null values at " + in.getPath() + ".");
+            parameters.put(name, (values != null) ? new RecipeTemplate.Parameter.Values(values) : null);
+        }
+        in.endObject();
+        return parameters;
+    }
+
+    private static @Nullable JsonObject readObject(final @NotNull JsonReader in) throws IOException {
+        final JsonElement element = JsonParser.parseReader(in);
+        // Returning null for JSON nulls.
+        if (element.isJsonNull() == true)
+            return null;
+        // Throwing exception if the value is not an object.
+        if (element.isJsonObject() == false)
+            throw new JsonParseException("Expected JsonObject at " + in.getPath() + ".");
+        return element.getAsJsonObject();
+    }
+
+    private static @Nullable Map<Character, Ingredient> readPatternKey(final @NotNull JsonReader in, final @NotNull Set<String> registeredItems, final @Nullable InternPool pool) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        final Map<Character, Ingredient> patternKey = new HashMap<>();
+        in.beginObject();
+        while (in.hasNext() == true) {
+            final String name = in.nextName();
+            // Throwing exception if key is not a single character.
+            if (name.length() != 1)
+                throw new JsonParseException("Expected a single character but found \"" + name + "\" at " + in.getPath() + ".");
+            patternKey.put(name.charAt(0), IngredientAdapter.INSTANCE.read(in, registeredItems, pool));
+        }
+        in.endObject();
+        return patternKey;
+    }
+
+    /**
+     * Template compiled by {@link #compile(RecipeTemplate, InternPool)}. Expands the template into concrete {@link RecipeWrapper RecipeWrappers}, by reading
+     * only the properties which contain placeholders. Items and ingredients of the remaining ones are shared by all variants. Can be used from multiple threads.
+     */
+    public static final class CompiledTemplate {
+
+        private final @NotNull RecipeTemplate template;
+
+        // Reads templated properties of each variant, through the same pool the template was compiled with.
+        private final @NotNull PropertiesAdapter adapter;
+
+        // Properties which contain no placeholders. Copied by each variant, and never modified.
+        private final @NotNull Properties properties;
+
+        // Properties, or their elements, which contain placeholders.
+        private final @NotNull @Unmodifiable List<Slot> slots;
+
+        private CompiledTemplate(final @NotNull RecipeTemplate template, final @NotNull PropertiesAdapter adapter, final @NotNull Properties properties, final @NotNull List<Slot> slots) {
+            this.template = template;
+            this.adapter = adapter;
+            this.properties = properties;
+            this.slots = slots;
+        }
+
+        /**
+         * Expands the template into a concrete {@link RecipeWrapper}, with placeholders replaced according to specified binding. See {@link RecipeTemplate#bindings}.
+         * Variants of templates bound to item tags depend on the server's data packs. Throws {@link JsonParseException} if the variant is not a valid recipe.
+         */
+        public @NotNull RecipeWrapper expand(final @NotNull Map<String, String> binding) throws JsonParseException {
+            final Properties variant = properties.copy();
+            // Properties which contain placeholders, with placeholders replaced according to the binding. These are read at once.
+            final JsonObject templated = new JsonObject();
+            for (final Slot slot : slots) {
+                final JsonElement value = template.instantiate(slot.value(), binding);
+                switch (slot.position()) {
+                    case null -> templated.add(slot.property(), value);
+                    case Integer index -> variant.ingredients.set(index, readIngredient(value, variant.registeredItems, variant.pool));
+                    case Character character -> variant.patternKey.put(character, readIngredient(value, variant.registeredItems, variant.pool));
+                    default -> throw new IllegalStateException("Unexpected position of slot: " + slot.position());
+                }
+            }
+            // Reading templated properties, and replacing these of the copy.
+            if (templated.isEmpty() == false)
+                variant.merge(adapter.fromJsonTree(templated));
+            return switch (variant.toDefinition()) {
+                case RecipeWrapper recipe -> {
+                    // Marking variants of templates bound to item tags. These must be expanded again after resources are reloaded.
+                    if (template.isTagBound() == true) {
+                        recipe.setDatapackDependent(true);
+                        recipe.setTagDependent(true);
+                    }
+                    yield recipe;
+                }
+                // Throwing exception for nested templates. This should not happen for valid templates.
+                case RecipeTemplate nested -> throw new JsonParseException("Expected a recipe but found a template.");
+            };
+        }
+
+    }
+
+    // Property of a template recipe, or its element, which contains placeholders. Position is an index within the list of ingredients, a key of the pattern key, or null for the whole property.
+    private record Slot(@NotNull String property, @Nullable Object position, @NotNull JsonElement value) { }
+
+    /**
+     * Mutable holder of {@link RecipeDefinition} properties. Properties of templates are copied for each variant, and only the ones containing placeholders are read again.
+     */
+    private static final class Properties {
+
+        // Shares identical items and ingredients between recipes. Nothing is shared if null.
+        private final @Nullable InternPool pool;
+        // Identifiers of custom items referenced by the recipe.
+        private final Set<String> registeredItems = new HashSet<>();
+        // Properties shared by all recipe types.
+        private @Nullable Key key;
+        private @Nullable String typeName;
+        private @Nullable DiscoverTrigger discoverTrigger;
+        private @Nullable Item result;
+        // Properties specific to crafting recipes.
+        private @Nullable String[] pattern;
+        private @Nullable Map<Character, Ingredient> patternKey;
+        private @Nullable List<Ingredient> ingredients;
+        // Properties specific to cooking and stonecutting recipes.
+        private @Nullable Ingredient input;
+        private @Nullable Float experience;
+        private @Nullable Integer cookingTime;
+        // Properties specific to smithing recipes.
+        private @Nullable Ingredient template;
+        private @Nullable Ingredient base;
+        private @Nullable Ingredient addition;
+        // Properties specific to templates.
+        private @Nullable Map<String, RecipeTemplate.Parameter> parameters;
+        private @Nullable JsonObject templateRecipe;
+
+        private Properties(final @Nullable InternPool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Reads value of property with specified name. Returns {@code false} if property is not a known property, in which case nothing is consumed.
+         */
+        private boolean read(final @NotNull JsonReader in, final @NotNull String property) throws IOException {
+            switch (property) {
+                case "key" -> key = KeyAdapter.INSTANCE.read(in);
+                case "type" -> typeName = JsonReaders.nextStringOrNull(in);
+                case "discover" -> discoverTrigger = DiscoverTriggerAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "result" -> result = ItemAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "pattern" -> {
+                    final @Nullable List<String> list = JsonReaders.nextStringListOrNull(in);
+                    pattern = (list != null) ? list.toArray(String[]::new) : null;
+                }
+                case "pattern_key" -> patternKey = readPatternKey(in, registeredItems, pool);
+                case "ingredients" -> ingredients = IngredientAdapter.INSTANCE.readList(in, registeredItems, pool);
+                case "input" -> input = IngredientAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "experience" -> experience = JsonReaders.nextFloatOrNull(in);
+                case "cooking_time" -> cookingTime = JsonReaders.nextIntegerOrNull(in);
+                case "template" -> template = IngredientAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "base" -> base = IngredientAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "addition" -> addition = IngredientAdapter.INSTANCE.read(in, registeredItems, pool);
+                case "parameters" -> parameters = readParameters(in);
+                case "recipe" -> templateRecipe = readObject(in);
+                default -> {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /** Returns copy of these properties. Lists and maps are copied, so that their elements can be replaced. Values are immutable and are shared. */
+        private @NotNull Properties copy() {
+            final Properties copy = new Properties(pool);
+            copy.registeredItems.addAll(registeredItems);
+            copy.key = key;
+            copy.typeName = typeName;
+            copy.discoverTrigger = discoverTrigger;
+            copy.result = result;
+            copy.pattern = pattern;
+            copy.patternKey = (patternKey != null) ? new HashMap<>(patternKey) : null;
+            copy.ingredients = (ingredients != null) ? new ArrayList<>(ingredients) : null;
+            copy.input = input;
+            copy.experience = experience;
+            copy.cookingTime = cookingTime;
+            copy.template = template;
+            copy.base = base;
+            copy.addition = addition;
+            copy.parameters = parameters;
+            copy.templateRecipe = templateRecipe;
+            return copy;
+        }
+
+        /** Replaces these properties with properties specified in the other holder. Properties the other holder does not specify are kept. */
+        private void merge(final @NotNull Properties other) {
+            registeredItems.addAll(other.registeredItems);
+            if (other.key != null) key = other.key;
+            if (other.typeName != null) typeName = other.typeName;
+            if (other.discoverTrigger != null) discoverTrigger = other.discoverTrigger;
+            if (other.result != null) result = other.result;
+            if (other.pattern != null) pattern = other.pattern;
+            if (other.patternKey != null) patternKey = other.patternKey;
+            if (other.ingredients != null) ingredients = other.ingredients;
+            if (other.input != null) input = other.input;
+            if (other.experience != null) experience = other.experience;
+            if (other.cookingTime != null) cookingTime = other.cookingTime;
+            if (other.template != null) template = other.template;
+            if (other.base != null) base = other.base;
+            if (other.addition != null) addition = other.addition;
+            if (other.parameters != null) parameters = other.parameters;
+            if (other.templateRecipe != null) templateRecipe = other.templateRecipe;
+        }
+
+        /** Writes these properties as an object. Properties that were not specified are omitted. */
+        private void write(final @NotNull JsonWriter out) throws IOException {
+            out.beginObject();
+            if (key != null) {
+                out.name("key");
+                KeyAdapter.INSTANCE.write(out, key);
+            }
+            if (typeName != null)
+                out.name("type").value(typeName);
+            if (discoverTrigger != null) {
+                out.name("discover");
+                DiscoverTriggerAdapter.INSTANCE.write(out, discoverTrigger);
+            }
+            writeResult(out, result);
+            if (pattern != null) {
+                out.name("pattern").beginArray();
+                for (final String row : pattern)
+                    out.value(row);
+                out.endArray();
+            }
+            writePatternKey(out, patternKey);
+            if (ingredients != null) {
+                out.name("ingredients");
+                IngredientAdapter.INSTANCE.writeList(out, ingredients);
+            }
+            writeIngredient(out, "input", input);
+            if (experience != null)
+                out.name("experience").value(experience);
+            if (cookingTime != null)
+                out.name("cooking_time").value(cookingTime);
+            writeIngredient(out, "template", template);
+            writeIngredient(out, "base", base);
+            writeIngredient(out, "addition", addition);
+            writeParameters(out, parameters);
+            if (templateRecipe != null) {
+                out.name("recipe");
+                OBJECT_ADAPTER.write(out, templateRecipe);
+            }
+            out.endObject();
+        }
+
+        /** Constructs the appropriate {@link RecipeDefinition} from these properties. */
+        private @NotNull RecipeDefinition toDefinition() throws JsonParseException {
+            // Returning templates. Their recipe is parsed only once expanded.
+            if (TEMPLATE_TYPE.equalsIgnoreCase(typeName) == true)
+                return new RecipeTemplate(parameters, templateRecipe);
+            final @Nullable RecipeWrapper.Type type = parseType(typeName);
+            // Throwing exception if 'type' property does not exist or is invalid.
+            if (type == null)
+                throw new JsonParseException("Required property \"type\" has not been specified or is invalid. Must be one of " + Arrays.toString(RecipeWrapper.Type.class.getEnumConstants()) + " or " + TEMPLATE_TYPE + ".");
+            // Constructing the appropriate wrapper.
+            final RecipeWrapper recipe = switch (type) {
+                case CRAFTING_SHAPED -> new ShapedRecipeWrapper(key, discoverTrigger, pattern, patternKey, result);
+                case CRAFTING_SHAPELESS -> new ShapelessRecipeWrapper(key, discoverTrigger, ingredients, result);
+                case SMELTING -> new SmeltingRecipeWrapper(key, discoverTrigger, input, result, experience, cookingTime);
+                case BLASTING -> new BlastingRecipeWrapper(key, discoverTrigger, input, result, experience, cookingTime);
+                case SMOKING -> new SmokingRecipeWrapper(key, discoverTrigger, input, result, experience, cookingTime);
+                case CAMPFIRE_COOKING -> new CampfireRecipeWrapper(key, discoverTrigger, input, result, experience, cookingTime);
+                case SMITHING -> new SmithingRecipeWrapper(key, discoverTrigger, template, base, addition, result);
+                case STONECUTTING -> new StonecuttingRecipeWrapper(key, discoverTrigger, input, result);
+            };
+            // Attaching identifiers of referenced custom items.
+            recipe.setRegisteredItems(registeredItems);
+            // Marking recipes that depend on the server's data packs. These must be loaded again after resources are reloaded.
+            recipe.setDatapackDependent(
+                    (result != null && result.isDatapackDependent() == true)
+                            || (discoverTrigger != null && discoverTrigger.isDatapackDependent() == true)
+                            || (patternKey != null && patternKey.values().stream().anyMatch(RecipeWrapperAdapter::isDatapackDependent) == true)
+                            || (ingredients != null && ingredients.stream().anyMatch(RecipeWrapperAdapter::isDatapackDependent) == true)
+                            || isDatapackDependent(input) || isDatapackDependent(template) || isDatapackDependent(base) || isDatapackDependent(addition)
+            );
+            // Marking recipes that depend on contents of item tags. Unlike components, these are not covered by the snapshot stamp.
+            recipe.setTagDependent(
+                    (discoverTrigger != null && discoverTrigger.isTagDependent() == true)
+                            || (patternKey != null && patternKey.values().stream().anyMatch(RecipeWrapperAdapter::isTagDependent) == true)
+                            || (ingredients != null && ingredients.stream().anyMatch(RecipeWrapperAdapter::isTagDependent) == true)
+                            || isTagDependent(input) || isTagDependent(template) || isTagDependent(base) || isTagDependent(addition)
+            );
+            // Returning...
+            return recipe;
+        }
+
+    }
+
+    /**
+     * Reads {@link Properties} of an object in a single pass over the token stream, and writes them back. Unknown properties are skipped.
+     * Items and ingredients are shared through the {@link InternPool} provided upon construction, if any.
+     */
+    private static final class PropertiesAdapter extends TypeAdapter<Properties> {
+
+        private final @Nullable InternPool pool;
+
+        private PropertiesAdapter(final @Nullable InternPool pool) {
+            this.pool = pool;
+        }
+
+        @Override
+        public @Nullable Properties read(final @NotNull JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            // Throwing exception if the value is not an object.
+            if (in.peek() != JsonToken.BEGIN_OBJECT)
+                throw new JsonParseException("Expected JsonObject but found " + in.peek() + ".");
+            final Properties properties = new Properties(pool);
+            // Reading all properties in a single pass. Unknown properties are skipped.
+            in.beginObject();
+            while (in.hasNext() == true)
+                if (properties.read(in, in.nextName()) == false)
+                    in.skipValue();
+            in.endObject();
+            // Returning...
+            return properties;
+        }
+
+        @Override
+        public void write(final @NotNull JsonWriter out, final @Nullable Properties value) throws IOException {
+            if (value == null) {
+                out.nullValue();
+                return;
+            }
+            value.write(out);
+        }
+
+    }
+
+}
@@ -0,0 +1,224 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.configuration.adapters.KeyAdapter;
+import net.kyori.adventure.key.Key;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Compiled set of recipe key patterns. Patterns are compiled once, and each key is then matched against all of them at once.
+ * <ul>
+ *     <li>Plain keys, such as {@code minecraft:oak_boat}, are matched exactly. Namespace defaults to {@code minecraft} if unspecified.</li>
+ *     <li>Glob patterns, such as {@code minecraft:*_boat} or {@code mypack:legacy/**}, are matched using a prefix trie of their literal prefixes. {@code *} matches any characters except for {@code /},
+ *         {@code **} matches any characters, and {@code ?} matches a single character. Globs sharing a literal prefix are joined into a single expression, matched against the rest of the key.</li>
+ *     <li>Patterns prefixed with {@code ~}, such as {@code ~minecraft:.+_(boat|raft)}, are regular expressions matched against the whole key. They are joined into a single expression.</li>
+ * </ul>
+ */
+public final class KeyPatterns {
+
+    public static final KeyPatterns EMPTY = new KeyPatterns(Set.of(), new Node(), null, 0);
+
+    private static final String REGEX_PREFIX = "~";
+
+    // Keys matched exactly, in their string form.
+    private final Set<String> keys;
+
+    // Glob patterns, placed in the trie under their literal prefix.
+    private final Node globs;
+
+    // All regular expressions, joined into one. Null if there are none.
+    private final @Nullable Pattern regex;
+
+    // Total number of compiled patterns.
+    private final int size;
+
+    private KeyPatterns(final @NotNull Set<String> keys, final @NotNull Node globs, final @Nullable Pattern regex, final int size) {
+        this.keys = keys;
+        this.globs = globs;
+        this.regex = regex;
+        this.size = size;
+    }
+
+    /**
+     * Compiles specified patterns. Invalid patterns are skipped and passed to {@code errors}, along with the reason they are invalid.
+     */
+    public static @NotNull KeyPatterns compile(final @NotNull Collection<String> patterns, final @NotNull Map<String, String> errors) {
+        final Set<String> keys = new HashSet<>();
+        final Node globs = new Node();
+        final List<String> expressions = new ArrayList<>();
+        for (final String pattern : patterns) {
+            // Skipping empty patterns.
+            if (pattern == null || pattern.isBlank() == true)
+                continue;
+            final String value = pattern.trim();
+            try {
+                // Regular expressions are validated one by one, so the invalid one can be reported.
+                if (value.startsWith(REGEX_PREFIX) == true) {
+                    final String expression = value.substring(REGEX_PREFIX.length());
+                    Pattern.compile(expression);
+                    expressions.add(expression);
+                    continue;
+                }
+                // Adding namespace if not specified.
+                final String key = (value.indexOf(':') == -1) ? Key.MINECRAFT_NAMESPACE + ":" + value : value;
+                // Placing glob patterns in the trie, under their literal prefix.
+                final int wildcard = indexOfWildcard(key);
+                if (wildcard != -1) {
+                    globs.node(key, wildcard).expressions.add(toRegex(key.substring(wildcard)));
+                    continue;
+                }
+                // Validating plain keys.
+                final @Nullable Key parsed = KeyAdapter.parseOrNull(key);
+                if (parsed == null) {
+                    errors.put(value, "Invalid key.");
+                    continue;
+                }
+                keys.add(parsed.asString());
+            } catch (final PatternSyntaxException e) {
+                errors.put(value, e.getDescription());
+            }
+        }
+        // Joining glob patterns sharing a literal prefix into one.
+        globs.compile();
+        // Joining all regular expressions into one.
+        final @Nullable Pattern regex = (expressions.isEmpty() == false)
+                ? Pattern.compile(expressions.stream().map(it -> "(?:" + it + ")").collect(Collectors.joining("|")))
+                : null;
+        return new KeyPatterns(keys, globs, regex, keys.size() + globs.count() + expressions.size());
+    }
+
+    /** Returns {@code true} if specified key is matched by any of the patterns. */
+    public boolean matches(final @NotNull Key key) {
+        // Returning early if there are no patterns.
+        if (size == 0)
+            return false;
+        final String value = key.asString();
+        // Checking plain keys first, as it's the most common case.
+        if (keys.contains(value) == true)
+            return true;
+        // Walking the trie along the key. Only glob patterns with a matching literal prefix are tested, against the rest of the key.
+        Node node = globs;
+        for (int i = 0; node != null; i++) {
+            if (node.pattern != null && node.pattern.matcher(value).region(i, value.length()).matches() == true)
+                return true;
+            if (i == value.length())
+                break;
+            node = node.children.get(value.charAt(i));
+        }
+        // Checking regular expressions last.
+        return regex != null && regex.matcher(value).matches() == true;
+    }
+
+    /** Returns {@code true} if there are no patterns. */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** Returns number of compiled patterns. */
+    public int size() {
+        return size;
+    }
+
+    // Returns index of the first wildcard character in specified pattern, or -1 if there is none.
+    private static int indexOfWildcard(final @NotNull String pattern) {
+        for (int i = 0; i < pattern.length(); i++)
+            if (pattern.charAt(i) == '*' || pattern.charAt(i) == '?')
+                return i;
+        return -1;
+    }
+
+    // Converts specified glob pattern to a regular expression.
+    private static @NotNull String toRegex(final @NotNull String glob) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            final char character = glob.charAt(i);
+            if (character == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                builder.append(".*");
+                i++;
+            }
+            else if (character == '*')
+                builder.append("[^/]*");
+            else if (character == '?')
+                builder.append("[^/]");
+            else builder.append(Pattern.quote(String.valueOf(character)));
+        }
+        return builder.toString();
+    }
+
+    // Node of the prefix trie. Holds glob patterns whose literal prefix ends at this node.
+    private static final class Node {
+
+        private final Map<Character, Node> children = new HashMap<>();
+
+        // Glob patterns converted to regular expressions, with the literal prefix stripped.
+        private final List<String> expressions = new ArrayList<>();
+
+        // All expressions of this node, joined into one. Null if there are none.
+        private @Nullable Pattern pattern;
+
+        // Returns node at the end of specified prefix, creating missing ones.
+        private @NotNull Node node(final @NotNull String value, final int length) {
+            Node node = this;
+            for (int i = 0; i < length; i++)
+                node = node.children.computeIfAbsent(value.charAt(i), (it) -> new Node());
+            return node;
+        }
+
+        // Joins expressions of this node and all of its children into a single pattern per node.
+        private void compile() {
+            if (expressions.isEmpty() == false)
+                pattern = Pattern.compile(expressions.stream().map(it -> "(?:" + it + ")").collect(Collectors.joining("|")));
+            children.values().forEach(Node::compile);
+        }
+
+        // Returns number of patterns in this node and all of its children.
+        private int count() {
+            return expressions.size() + children.values().stream().mapToInt(Node::count).sum();
+        }
+
+    }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Difference between registered recipes and recipes that should be registered, both identified by their key and compared using their fingerprint.
+ * Recipes present in both sets with equal fingerprints are not touched at all.
+ *
+ * @param added keys of recipes which are not registered yet, in order of the target recipes
+ * @param replaced keys of registered recipes which fingerprint has changed, in order of the target recipes
+ * @param removed keys of registered recipes which should no longer be registered
+ */
+public record RecipeDiff<K>(@NotNull @Unmodifiable Set<K> added, @NotNull @Unmodifiable Set<K> replaced, @NotNull @Unmodifiable Set<K> removed) {
+
+    /** Computes difference between specified registered recipes and recipes that should be registered, both mapped to their fingerprints. */
+    public static <K, F> @NotNull RecipeDiff<K> compute(final @NotNull Map<K, F> registered, final @NotNull Map<K, F> target) {
+        final Set<K> added = new LinkedHashSet<>();
+        final Set<K> replaced = new LinkedHashSet<>();
+        final Set<K> removed = new LinkedHashSet<>();
+        // Collecting recipes that were removed since the last registration.
+        for (final K key : registered.keySet())
+            if (target.containsKey(key) == false)
+                removed.add(key);
+        // Collecting recipes that were added or modified since the last registration.
+        target.forEach((key, fingerprint) -> {
+            final F previous = registered.get(key);
+            // Skipping recipes that are already registered and have not changed.
+            if (fingerprint.equals(previous) == true)
+                return;
+            if (previous != null)
+                replaced.add(key);
+            else added.add(key);
+        });
+        return new RecipeDiff<>(Collections.unmodifiableSet(added), Collections.unmodifiableSet(replaced), Collections.unmodifiableSet(removed));
+    }
+
+    /** Returns {@code true} if there is nothing to register or unregister. */
+    public boolean isEmpty() {
+        return added.isEmpty() == true && replaced.isEmpty() == true && removed.isEmpty() == true;
+    }
+
+}
@@ -0,0 +1,304 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Two-stage pipeline used to load recipe files. Files are read on virtual threads, with the number of files open at once
+ * limited to {@code readParallelism}, and then handed over to a bounded pool of {@code parseParallelism} parser threads.
+ * Readers block once {@code queueDepth} files are waiting to be parsed, so memory usage stays bounded regardless of the number of files.
+ * Results are returned in the same order as the input files, no matter in which order they were loaded.
+ * <p>
+ * Bundle files - JSON Lines files and JSON files with an array at the top level - are not read upfront. Instead, they are streamed by the parser,
+ * so their contents never need to be fully resident in memory.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+public final class RecipeLoader {
+
+    // Maximum number of leading whitespace characters skipped when checking whether the file is a bundle.
+    private static final int BUNDLE_PEEK_LIMIT = 8192;
+
+    private final int readParallelism;
+    private final int parseParallelism;
+    private final int queueDepth;
+
+    // Files read ahead of time, before the plugin was enabled. Used instead of reading the file again, if it has not been modified.
+    private final @Nullable RecipePrefetch prefetch;
+
+    /** Reads and parses specified files. Blocks until all of them are loaded, or loading is cancelled through {@link Parser#isCancelled()}. */
+    public <T> @NotNull Result<T> load(final @NotNull List<Path> files, final @NotNull Parser<T> parser) throws InterruptedException, CancellationException {
+        return load(files, (file) -> readFile(file, prefetch), parser);
+    }
+
+    /**
+     * Reads specified recipes from specified {@link Source}, and parses them. Used to load recipes which are not kept in files, through the same pipeline files are loaded through.
+     * Blocks until all of them are loaded, or loading is cancelled through {@link Parser#isCancelled()}.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> @NotNull Result<T> load(final @NotNull List<Path> files, final @NotNull Source source, final @NotNull Parser<T> parser) throws InterruptedException, CancellationException {
+        final Object[] results = new Object[files.size()];
+        // Returning early if there is nothing to load.
+        if (files.isEmpty() == true)
+            return new Result<>(List.of(), new Stats(0, 0, 0, 0, readParallelism, parseParallelism));
+        // Limits the number of files open at once.
+        final Semaphore openFiles = new Semaphore(readParallelism);
+        // Limits the number of files that have been read, but are not yet parsed.
+        final Semaphore pendingFiles = new Semaphore(parseParallelism + queueDepth);
+        // Counted down once the file is either parsed or has failed to load.
+        final CountDownLatch remaining = new CountDownLatch(files.size());
+        // Statistics.
+        final LongAdder bytesRead = new LongAdder();
+        final long start = System.nanoTime();
+        final AtomicLong lastReadEnd = new AtomicLong(start);
+        final AtomicLong firstParseStart = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong lastParseEnd = new AtomicLong(start);
+        // Creating the parser executor. Queue capacity is guarded by the semaphore, so it is never exceeded.
+        final AtomicInteger threadCounter = new AtomicInteger(0);
+        final ThreadPoolExecutor parseExecutor = new ThreadPoolExecutor(parseParallelism, parseParallelism, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(parseParallelism + queueDepth), (runnable) -> {
+            final Thread thread = new Thread(runnable, "Recipes Parser #" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try (final ExecutorService readExecutor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < files.size(); i++) {
+                final int index = i;
+                final Path file = files.get(i);
+                readExecutor.execute(() -> {
+                    // Set once the file is handed over to the parser, which then counts the latch down on its own.
+                    boolean isHandedOver = false;
+                    try {
+                        // Skipping remaining files if loading has been cancelled.
+                        if (parser.isCancelled() == true)
+                            return;
+                        // Reading the file.
+                        final RecipeFile recipeFile;
+                        openFiles.acquire();
+                        try {
+                            recipeFile = source.read(file);
+                        } finally {
+                            openFiles.release();
+                        }
+                        // Bundles are read by the parser, but are still counted here, so throughput covers all files.
+                        bytesRead.add(recipeFile.size());
+                        lastReadEnd.accumulateAndGet(System.nanoTime(), Math::max);
+                        // Waiting for a free slot in the parser queue, and handing the file over.
+                        pendingFiles.acquire();
+                        try {
+                            parseExecutor.execute(() -> {
+                                firstParseStart.accumulateAndGet(System.nanoTime(), Math::min);
+                                try {
+                                    // Parsing the file, unless loading has been cancelled in the meantime.
+                                    if (parser.isCancelled() == false)
+                                        results[index] = parser.parse(recipeFile);
+                                } catch (final RuntimeException e) {
+                                    results[index] = parser.fail(file, e);
+                                } finally {
+                                    lastParseEnd.accumulateAndGet(System.nanoTime(), Math::max);
+                                    pendingFiles.release();
+                                    remaining.countDown();
+                                }
+                            });
+                            isHandedOver = true;
+                        } catch (final RuntimeException e) {
+                            pendingFiles.release();
+                            throw e;
+                        }
+                    } catch (final IOException | RuntimeException e) {
+                        results[index] = parser.fail(file, e);
+                    } catch (final InterruptedException e) {
+                        // Loading was interrupted. File is reported as failed, so results never contain gaps.
+                        results[index] = parser.fail(file, e);
+                        Thread.currentThread().interrupt();
+                    } finally {
+                        // Counting down files which have not reached the parser, no matter how the task has ended.
+                        if (isHandedOver == false)
+                            remaining.countDown();
+                    }
+                });
+            }
+            // Waiting for all files to be loaded.
+            remaining.await();
+            // Throwing exception if loading has been cancelled. Results are incomplete in such case.
+            if (parser.isCancelled() == true)
+                throw new CancellationException("Loading has been cancelled.");
+        } catch (final InterruptedException e) {
+            parseExecutor.shutdownNow();
+            throw e;
+        } finally {
+            parseExecutor.shutdown();
+        }
+        // Collecting statistics.
+        final Stats stats = new Stats(
+                files.size(),
+                bytesRead.sum(),
+                lastReadEnd.get() - start,
+                (firstParseStart.get() != Long.MAX_VALUE) ? lastParseEnd.get() - firstParseStart.get() : 0,
+                readParallelism,
+                parseParallelism
+        );
+        // Returning results in the same order as input files.
+        return new Result<>((List<T>) new ArrayList<>(Arrays.asList(results)), stats);
+    }
+
+
+    // Reads specified file, unless it was already read ahead of time. Contents of bundle files are not read, and are streamed by the parser instead.
+    static @NotNull RecipeFile readFile(final @NotNull Path file, final @Nullable RecipePrefetch prefetch) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        // Using contents read ahead of time if file has not been modified since then.
+        if (prefetch != null) {
+            final @Nullable RecipeFile prefetched = prefetch.take(file, attributes.size(), attributes.lastModifiedTime().toMillis());
+            if (prefetched != null)
+                return prefetched;
+        }
+        // JSON Lines files are always bundles.
+        if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".jsonl") == true)
+            return new RecipeFile(file, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+        try (final InputStream in = new BufferedInputStream(Files.newInputStream(file))) {
+            // Peeking at the first non-whitespace character. JSON files with an array at the top level are bundles.
+            in.mark(BUNDLE_PEEK_LIMIT);
+            int character;
+            int peeked = 0;
+            while ((character = in.read()) != -1 && Character.isWhitespace(character) == true && ++peeked < BUNDLE_PEEK_LIMIT)
+                continue;
+            if (character == '[')
+                return new RecipeFile(file, attributes.size(), attributes.lastModifiedTime().toMillis(), null);
+            // Otherwise, reading the whole file.
+            in.reset();
+            return new RecipeFile(file, attributes.size(), attributes.lastModifiedTime().toMillis(), in.readAllBytes());
+        }
+    }
+
+
+    /**
+     * Represents contents and attributes of a single recipe file, as read by the pipeline.
+     * Contents are {@code null} for bundle files, which must be streamed through {@link #openStream()} instead.
+     * Definition is present only for files which have been parsed ahead of time, see {@link RecipePrefetch}.
+     */
+    public record RecipeFile(@NotNull Path path, long size, long lastModified, byte @Nullable [] contents, @Nullable RecipeDefinition definition) {
+
+        public RecipeFile(final @NotNull Path path, final long size, final long lastModified, final byte @Nullable [] contents) {
+            this(path, size, lastModified, contents, null);
+        }
+
+        /** Returns copy of this file with specified definition, parsed from its contents. */
+        public @NotNull RecipeFile withDefinition(final @Nullable RecipeDefinition definition) {
+            return new RecipeFile(path, size, lastModified, contents, definition);
+        }
+
+        /** Returns {@code true} if this file is a bundle, which contents have not been read by the pipeline. */
+        public boolean isBundle() {
+            return contents == null;
+        }
+
+        /** Opens stream of contents of this file. Contents are read from the disk for bundle files. */
+        public @NotNull InputStream openStream() throws IOException {
+            return (contents != null) ? new ByteArrayInputStream(contents) : Files.newInputStream(path);
+        }
+
+    }
+
+    /** Reads recipes for the pipeline. Called concurrently from multiple threads, so implementations must be thread-safe. */
+    @FunctionalInterface
+    public interface Source {
+
+        /** Reads recipe identified by specified path. */
+        @NotNull RecipeFile read(final @NotNull Path path) throws IOException;
+
+    }
+
+    /** Parses recipe files read by the pipeline. Called concurrently from multiple threads, so implementations must be thread-safe. */
+    public interface Parser<T> {
+
+        /** Parses specified file into the result. */
+        @NotNull T parse(final @NotNull RecipeFile file);
+
+        /** Returns the result for a file that could not be read or parsed. */
+        @NotNull T fail(final @NotNull Path path, final @NotNull Exception exception);
+
+        /** Returns {@code true} if loading should be cancelled. Files which have not been read yet are skipped in such case. */
+        default boolean isCancelled() {
+            return false;
+        }
+
+    }
+
+    /** Represents results of the pipeline, ordered the same as input files, along with statistics. */
+    public record Result<T>(@NotNull List<T> results, @NotNull Stats stats) { }
+
+    /** Represents throughput achieved by each stage of the pipeline. */
+    public record Stats(int files, long bytes, long readNanos, long parseNanos, int readParallelism, int parseParallelism) {
+
+        @Override
+        public @NotNull String toString() {
+            return String.format(Locale.ROOT, "Read %d files (%.2f MiB) in %d ms (%.0f files/s, %.2f MiB/s) using %d readers, parsed in %d ms (%.0f files/s) using %d parsers.",
+                    files, bytes / 1048576.0, TimeUnit.NANOSECONDS.toMillis(readNanos), perSecond(files, readNanos), perSecond(bytes / 1048576.0, readNanos), readParallelism,
+                    TimeUnit.NANOSECONDS.toMillis(parseNanos), perSecond(files, parseNanos), parseParallelism
+            );
+        }
+
+        private static double perSecond(final double value, final long nanos) {
+            return (nanos > 0) ? value / (nanos / 1_000_000_000.0) : 0;
+        }
+
+    }
+
+}
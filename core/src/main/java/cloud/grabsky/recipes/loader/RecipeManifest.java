@@ -0,0 +1,219 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.utils.Digests;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.annotations.SerializedName;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Persisted record of recipe files loaded during the last reload, mapped by their path relative to the recipes directory.
+ * Used to determine which files, or custom items they depend on, have changed since then and must be parsed and registered again.
+ */
+public final class RecipeManifest {
+
+    // Manifests of any other version are discarded and re-built from scratch.
+    private static final int VERSION = 2;
+
+    private static final Gson GSON = new GsonBuilder()
+            .disableHtmlEscaping()
+            .create();
+
+    @SerializedName("version")
+    private int version = VERSION;
+
+    // Namespace recipes were registered with. Keys of all recipes change when it does.
+    @Getter(AccessLevel.PUBLIC) @Setter(AccessLevel.PUBLIC)
+    @SerializedName("namespace")
+    private @Nullable String namespace;
+
+    @SerializedName("entries")
+    private Map<String, Entry> entries = new HashMap<>();
+
+    /** Returns {@link Entry} of the file with specified path, or {@code null} if it was not loaded during the last reload. */
+    public @Nullable Entry get(final @NotNull String path) {
+        return entries.get(path);
+    }
+
+    /** Associates specified {@link Entry} with the file of specified path. */
+    public void put(final @NotNull String path, final @NotNull Entry entry) {
+        entries.put(path, entry);
+    }
+
+    /** Removes {@link Entry} of the file with specified path. */
+    public void remove(final @NotNull String path) {
+        entries.remove(path);
+    }
+
+    /** Removes all entries from this manifest. */
+    public void clear() {
+        entries.clear();
+    }
+
+    /** Returns a copy of this manifest. Entries are immutable and are shared between both manifests. */
+    public @NotNull RecipeManifest copy() {
+        final RecipeManifest copy = new RecipeManifest();
+        copy.namespace = namespace;
+        copy.entries = new HashMap<>(entries);
+        return copy;
+    }
+
+    /** Returns paths of all files stored in this manifest. */
+    public @NotNull @Unmodifiable Set<String> paths() {
+        return Collections.unmodifiableSet(entries.keySet());
+    }
+
+    /** Returns hash of all entries in this manifest. It changes whenever any of the files, or custom items they depend on, changes. */
+    public @NotNull String hash() {
+        final StringBuilder builder = new StringBuilder();
+        // Iterating over entries in natural order, so the hash does not depend on order of the map.
+        new TreeMap<>(entries).forEach((path, entry) -> {
+            builder.append(path).append('\0').append(entry.hash);
+            if (entry.keys != null)
+                entry.keys.forEach(key -> builder.append('\0').append(key));
+            if (entry.registeredItems != null)
+                new TreeMap<>(entry.registeredItems).forEach((identifier, hash) -> builder.append('\0').append(identifier).append('=').append(hash));
+            builder.append('\n');
+        });
+        return Digests.sha256(builder.toString());
+    }
+
+    /** Reads the manifest from specified file. Returns an empty manifest if the file does not exist or cannot be read. */
+    public static @NotNull RecipeManifest read(final @NotNull Path file) {
+        // Returning an empty manifest if the file does not exist.
+        if (Files.exists(file) == false)
+            return new RecipeManifest();
+        // Reading the file. Manifest is just a cache, so any errors are ignored and the manifest is re-built from scratch.
+        try (final BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final @Nullable RecipeManifest manifest = GSON.fromJson(reader, RecipeManifest.class);
+            // Returning the manifest if it is of the current version.
+            if (manifest != null && manifest.version == VERSION && manifest.entries != null)
+                return manifest;
+        } catch (final IOException | JsonParseException e) {
+            // IGNORING; Manifest will be re-built from scratch.
+        }
+        return new RecipeManifest();
+    }
+
+    /** Writes the manifest to specified file. File is replaced atomically, so an interrupted write never leaves a partial manifest behind. */
+    public void write(final @NotNull Path file) throws IOException {
+        // Creating parent directories in case they don't exist.
+        Files.createDirectories(file.getParent());
+        // Writing contents to a temporary file first.
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final BufferedWriter writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            GSON.toJson(this, writer);
+        }
+        // Replacing the actual file with the temporary one.
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+
+    /** Represents state of a single recipe file at the time it was last loaded. */
+    @RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+    public static final class Entry {
+
+        @Getter(AccessLevel.PUBLIC)
+        @SerializedName("size")
+        private final long size;
+
+        @Getter(AccessLevel.PUBLIC)
+        @SerializedName("last_modified")
+        private final long lastModified;
+
+        // Hex-encoded SHA-256 digest of file contents.
+        @Getter(AccessLevel.PUBLIC)
+        @SerializedName("hash")
+        private final @NotNull String hash;
+
+        // Keys of recipes defined in the file. Bundle files can define any number of recipes.
+        @Getter(AccessLevel.PUBLIC)
+        @SerializedName("keys")
+        private final @NotNull List<String> keys;
+
+        // Identifiers of custom items referenced by recipes, mapped to their hash at the time recipes were loaded.
+        @Getter(AccessLevel.PUBLIC)
+        @SerializedName("registered_items")
+        private final @NotNull Map<String, String> registeredItems;
+
+        /** Returns {@code true} if file size and modification time are the same as recorded in this entry. */
+        public boolean isUnmodified(final long size, final long lastModified) {
+            return this.size == size && this.lastModified == lastModified;
+        }
+
+        /** Returns {@code true} if none of the custom items referenced by recipes has changed since they were loaded. Current hashes are looked up using specified function. */
+        public boolean isDependencyUpToDate(final @NotNull Function<String, @Nullable String> hashes) {
+            // Map can be missing in manifests that were modified by hand.
+            if (registeredItems == null)
+                return false;
+            // Comparing the recorded hash of each referenced item with the current one.
+            for (final Map.Entry<String, String> entry : registeredItems.entrySet())
+                if (Objects.equals(entry.getValue(), hashes.apply(entry.getKey())) == false)
+                    return false;
+            return true;
+        }
+
+        /** Returns copy of this entry with file size and modification time updated to specified values. */
+        public @NotNull Entry withAttributes(final long size, final long lastModified) {
+            return new Entry(size, lastModified, hash, keys, registeredItems);
+        }
+
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Reads and parses recipe files in the background, before the plugin is enabled, so that the disk access and parsing overlap with world loading.
+ * Files read this way are later handed over to the {@link RecipeLoader}, as long as they have not been modified in the meantime.
+ * <p>
+ * Parsing does not depend on the server, so files are parsed into {@link RecipeDefinition RecipeDefinitions} right away. Everything that depends on the configuration,
+ * custom item registry or item tags - fallback keys, expansion of templates and conversion to Bukkit's objects - is done once the files are loaded.
+ * Files which fail to parse are kept unparsed, so the error is reported by the loader as usual.
+ * <p>
+ * Files which size and modification time are the same as recorded in the {@link RecipeManifest} are skipped, as these are usually restored from the snapshot without being parsed at all.
+ */
+public final class RecipePrefetch {
+
+    // Files read so far, mapped by their absolute path.
+    private final Map<Path, RecipeLoader.RecipeFile> files = new ConcurrentHashMap<>();
+
+    // Total size of files read so far. Reading stops once it exceeds the limit.
+    private final AtomicLong bytes = new AtomicLong(0);
+
+    private final long maxBytes;
+
+    // Manifest left by the previous server run. Files which have not been modified since then are not read.
+    private final @NotNull RecipeManifest manifest;
+
+    // Parses contents of read files. Null if files should only be read.
+    private final @Nullable BiFunction<RecipeLoader.RecipeFile, InternPool, @Nullable RecipeDefinition> parser;
+
+    // Shares identical items and ingredients between parsed definitions. Should be used by whatever loads the files, so recipes it parses share them as well.
+    @Getter(AccessLevel.PUBLIC)
+    private final InternPool pool = new InternPool();
+
+    // Thread files are read on.
+    private final Thread thread;
+
+    @Getter(AccessLevel.PUBLIC)
+    private volatile @Nullable Exception error;
+
+    private RecipePrefetch(final @NotNull Path directory, final int parallelism, final long maxBytes, final @NotNull RecipeManifest manifest, final @Nullable BiFunction<RecipeLoader.RecipeFile, InternPool, @Nullable RecipeDefinition> parser) {
+        this.maxBytes = maxBytes;
+        this.manifest = manifest;
+        this.parser = parser;
+        this.thread = new Thread(() -> run(directory, parallelism), "Recipes Prefetch");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts reading recipe files within specified directory, with at most {@code parallelism} files open at once, until {@code maxBytes} bytes have been read.
+     * Files which have not been modified since they were recorded in specified manifest are skipped.
+     * Files are parsed using specified parser, unless it is {@code null}. Parser must not access the server, and is called concurrently. Parser receives the pool of this prefetch, see {@link #getPool()}.
+     */
+    public static @NotNull RecipePrefetch start(final @NotNull Path directory, final int parallelism, final long maxBytes, final @NotNull RecipeManifest manifest, final @Nullable BiFunction<RecipeLoader.RecipeFile, InternPool, @Nullable RecipeDefinition> parser) {
+        final RecipePrefetch prefetch = new RecipePrefetch(directory, parallelism, maxBytes, manifest, parser);
+        prefetch.thread.start();
+        return prefetch;
+    }
+
+    /** Waits for reading to finish. */
+    public void await() throws InterruptedException {
+        thread.join();
+    }
+
+    /** Returns number of files that have been read and not yet taken. */
+    public int size() {
+        return files.size();
+    }
+
+    /** Removes and returns the file with specified path, as long as its size and modification time are still the same. Returns {@code null} otherwise. */
+    public @Nullable RecipeLoader.RecipeFile take(final @NotNull Path file, final long size, final long lastModified) {
+        final @Nullable RecipeLoader.RecipeFile prefetched = files.remove(file.toAbsolutePath().normalize());
+        return (prefetched != null && prefetched.size() == size && prefetched.lastModified() == lastModified) ? prefetched : null;
+    }
+
+    /** Discards all files that have not been taken. */
+    public void clear() {
+        files.clear();
+    }
+
+    // Returns specified file along with its parsed definition. File is returned as it is if there is no parser, or parsing has failed.
+    private @NotNull RecipeLoader.RecipeFile parse(final @NotNull RecipeLoader.RecipeFile file) {
+        if (parser == null)
+            return file;
+        try {
+            return file.withDefinition(parser.apply(file, pool));
+        } catch (final RuntimeException e) {
+            // IGNORING; File is going to be parsed again, and the error reported, by the loader.
+            return file;
+        }
+    }
+
+    // Returns true if size and modification time of specified file are the same as recorded in the manifest. Paths in the manifest are relative to the directory, see RecipeScanner#getPath.
+    private boolean isUnmodified(final @NotNull Path directory, final @NotNull Path file) throws IOException {
+        final @Nullable RecipeManifest.Entry entry = manifest.get(directory.relativize(file).toString().replace("\\", "/"));
+        if (entry == null)
+            return false;
+        final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        return entry.isUnmodified(attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+    private void run(final @NotNull Path directory, final int parallelism) {
+        // Returning if there is nothing to read.
+        if (Files.isDirectory(directory) == false)
+            return;
+        // Limits the number of files open at once.
+        final Semaphore openFiles = new Semaphore(parallelism);
+        try (final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor(); final Stream<Path> stream = Files.walk(directory)) {
+            final List<Path> paths = stream.filter(file -> file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") == true && Files.isRegularFile(file) == true).toList();
+            for (final Path path : paths) {
+                // Stopping once the limit is reached. Remaining files are read by the loader as usual.
+                if (bytes.get() >= maxBytes)
+                    break;
+                openFiles.acquire();
+                executor.execute(() -> {
+                    try {
+                        // Skipping files which have not been modified since the previous server run.
+                        if (isUnmodified(directory, path) == true)
+                            return;
+                        final RecipeLoader.RecipeFile file = RecipeLoader.readFile(path, null);
+                        // Bundles are streamed by the parser anyway, so they are not kept.
+                        if (file.isBundle() == false && bytes.addAndGet(file.size()) <= maxBytes)
+                            files.put(path.toAbsolutePath().normalize(), parse(file));
+                    } catch (final IOException | UncheckedIOException e) {
+                        // IGNORING; File is going to be read, and the error reported, by the loader.
+                    } finally {
+                        openFiles.release();
+                    }
+                });
+            }
+        } catch (final IOException | UncheckedIOException e) {
+            this.error = e;
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,301 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.compiler.RecipeKeys;
+import cloud.grabsky.recipes.configuration.adapters.DiscoverTriggerAdapter;
+import cloud.grabsky.recipes.configuration.adapters.GenericEnumAdapter;
+import cloud.grabsky.recipes.configuration.adapters.IngredientAdapter;
+import cloud.grabsky.recipes.configuration.adapters.ItemAdapter;
+import cloud.grabsky.recipes.configuration.adapters.KeyAdapter;
+import cloud.grabsky.recipes.configuration.adapters.RecipeWrapperAdapter;
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+import cloud.grabsky.recipes.model.recipes.RecipeTemplate;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Reads recipe files, bundles and templates into concrete {@link RecipeWrapper RecipeWrappers}. Shared by the plugin and the {@code RecipeCompiler}, so that both accept the same files and produce the same recipes.
+ * <p>
+ * Does not access the server. Templates are expanded against contents of item tags provided upon construction, and problems are passed to the {@link Reporter}.
+ * Items and ingredients are shared through the {@link InternPool} provided upon construction, if any, as they are read. Definitions parsed elsewhere are loaded as they are,
+ * so they should be parsed through the same pool, see {@link #parse(InputStream, InternPool)}.
+ * Problems with a single recipe never stop reading of the remaining ones, but are reflected in the returned value, so that the file can be loaded again later.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+public final class RecipeReader {
+
+    /** Gson instance used to read and write recipes. */
+    public static final Gson GSON = new GsonBuilder()
+            .registerTypeAdapter(Item.class, ItemAdapter.INSTANCE)
+            .registerTypeAdapter(Ingredient.class, IngredientAdapter.INSTANCE)
+            .registerTypeAdapter(DiscoverTrigger.class, DiscoverTriggerAdapter.INSTANCE)
+            .registerTypeAdapter(Key.class, KeyAdapter.INSTANCE)
+            .registerTypeAdapter(RecipeWrapper.class, RecipeWrapperAdapter.INSTANCE)
+            .registerTypeAdapter(RecipeDefinition.class, RecipeWrapperAdapter.DEFINITIONS)
+            .registerTypeAdapter(RecipeWrapper.Type.class, new GenericEnumAdapter<>(RecipeWrapper.Type.class, false))
+            .disableHtmlEscaping()
+            .create();
+
+    // Namespace of keys derived from paths.
+    private final @NotNull String namespace;
+
+    // Returns contents of item tags templates are bound to, or null if tag does not exist.
+    private final @NotNull Function<Key, @Nullable List<String>> itemTags;
+
+    // Receives problems found while reading.
+    private final @NotNull Reporter reporter;
+
+    // Shares identical items and ingredients between loaded recipes. Nothing is shared if null.
+    private final @Nullable InternPool pool;
+
+    /**
+     * Parses a single recipe definition from specified stream, which is closed afterwards. Items and ingredients are shared through specified {@link InternPool}, if any.
+     * Does not access the server, so it can be called during bootstrap as well.
+     */
+    public static @Nullable RecipeDefinition parse(final @NotNull InputStream stream, final @Nullable InternPool pool) throws IOException, JsonParseException {
+        try (final JsonReader in = new JsonReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            final @Nullable RecipeDefinition definition = RecipeWrapperAdapter.INSTANCE.readDefinition(in, pool);
+            // Throwing exception if there is anything left after the definition.
+            if (in.peek() != JsonToken.END_DOCUMENT)
+                throw new JsonSyntaxException("JSON document was not fully consumed.");
+            return definition;
+        }
+    }
+
+    /** Parses a single recipe definition from specified stream, which is closed afterwards. Items and ingredients are shared through the pool of this reader, if any. */
+    public @Nullable RecipeDefinition parse(final @NotNull InputStream stream) throws IOException, JsonParseException {
+        return parse(stream, pool);
+    }
+
+    /**
+     * Loads recipes of specified definition into the list. Templates are expanded into concrete recipes. Recipes with no key specified get one derived from {@code keyPath},
+     * unless it's null, which is the case for recipes of bundles. Recipes which key is already present in the set are skipped. Returns {@code true} if all recipes have been loaded.
+     */
+    public boolean load(final @NotNull String location, final @Nullable RecipeDefinition definition, final @Nullable String keyPath, final @NotNull Set<Key> keys, final @NotNull List<RecipeWrapper> recipes) {
+        // Skipping null or invalid definitions.
+        if (definition == null || definition.isValid() == false) {
+            reporter.report(location, "is invalid.");
+            return false;
+        }
+        // Expanding templates into concrete recipes.
+        if (definition instanceof RecipeTemplate template)
+            return expand(location, template, keys, recipes);
+        final RecipeWrapper recipe = (RecipeWrapper) definition;
+        // Initializing the recipe. Key is derived from the path only when not specified explicitly.
+        if (keyPath != null && recipe.getKey() == null) {
+            try {
+                recipe.setFallbackKey(RecipeKeys.of(namespace, RecipeKeys.derive(keyPath)));
+            } catch (final IllegalArgumentException e) {
+                reporter.report(location, e);
+                return false;
+            }
+        }
+        // Skipping unnamed recipes, and recipes with duplicated keys.
+        if (recipe.getKey() == null || keys.add(recipe.getKey()) == false) {
+            reporter.report(location, "has no \"key\" specified, or its key is duplicated.");
+            return false;
+        }
+        recipes.add(recipe);
+        return true;
+    }
+
+    /**
+     * Loads recipes from specified bundle into the list. Bundle is either a JSON array of recipe objects, or a JSON Lines file with one recipe object per line.
+     * Each recipe must specify its key explicitly. Invalid recipes are skipped, and the rest of the bundle is loaded anyway. Returns {@code true} if all recipes have been loaded.
+     *
+     * @throws IOException if bundle cannot be read, or contains malformed JSON, from which it's not possible to recover
+     */
+    @SuppressWarnings("deprecation") // Suppressing @Deprecated warnings. JsonReader#setLenient is deprecated in newer versions of Gson, but is the only way to read multiple top-level values.
+    public boolean readBundle(final @NotNull String location, final @NotNull Reader reader, final @NotNull List<RecipeWrapper> recipes) throws IOException, JsonParseException {
+        final BundleReader in = new BundleReader(reader);
+        // Allowing multiple top-level values, which is what JSON Lines files consist of.
+        in.setLenient(true);
+        final boolean isArray = in.peek() == JsonToken.BEGIN_ARRAY;
+        if (isArray == true)
+            in.beginArray();
+        // Keys of recipes defined in the bundle so far, used to detect duplicates.
+        final Set<Key> keys = new HashSet<>();
+        boolean isLoaded = true;
+        // Reading recipes one by one, straight from the stream. Only the recipe being read is resident in the memory.
+        while ((isArray == true) ? in.hasNext() == true : in.peek() != JsonToken.END_DOCUMENT) {
+            final String entry = location + " at " + in.getPath();
+            final int depth = in.depth;
+            final int opened = in.opened;
+            // Parsing the recipe. Unlike malformed JSON, which fails the whole bundle, invalid recipes do not affect the rest of it.
+            try {
+                isLoaded &= load(entry, RecipeWrapperAdapter.INSTANCE.readDefinition(in, pool), null, keys, recipes);
+            } catch (final JsonParseException | IllegalArgumentException | IllegalStateException e) {
+                reporter.report(entry, e);
+                isLoaded = false;
+                // Skipping what is left of the invalid recipe, so that reading can continue from the next one.
+                in.skipRemainder(depth, opened);
+            }
+        }
+        if (isArray == true)
+            in.endArray();
+        return isLoaded;
+    }
+
+    /**
+     * Expands specified template into concrete recipes, which are added to the list. Variants which are invalid, or which key is already present in the set, are skipped.
+     * Returns {@code true} if all variants have been expanded successfully.
+     */
+    public boolean expand(final @NotNull String location, final @NotNull RecipeTemplate template, final @NotNull Set<Key> keys, final @NotNull List<RecipeWrapper> recipes) {
+        final List<Map<String, String>> bindings;
+        final RecipeWrapperAdapter.CompiledTemplate compiled;
+        try {
+            bindings = template.bindings(itemTags);
+            // Parsing the template recipe once. Only properties which contain placeholders are parsed again for each variant.
+            compiled = RecipeWrapperAdapter.INSTANCE.compile(template, pool);
+        } catch (final JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            reporter.report(location, e);
+            return false;
+        }
+        boolean isExpanded = true;
+        for (final Map<String, String> binding : bindings) {
+            final String variant = location + " (variant " + binding + ")";
+            try {
+                final RecipeWrapper recipe = compiled.expand(binding);
+                // Skipping invalid variants, and variants with duplicated keys.
+                if (recipe.isValid() == false || recipe.getKey() == null || keys.add(recipe.getKey()) == false) {
+                    reporter.report(variant, "is invalid, or its key is duplicated.");
+                    isExpanded = false;
+                    continue;
+                }
+                recipes.add(recipe);
+            } catch (final JsonParseException | IllegalArgumentException | IllegalStateException e) {
+                reporter.report(variant, e);
+                isExpanded = false;
+            }
+        }
+        return isExpanded;
+    }
+
+    // JsonReader which keeps track of its depth, so that reading of a bundle can continue after its entry turned out to be invalid.
+    private static final class BundleReader extends JsonReader {
+
+        // Number of objects and arrays which have been opened, but not closed yet.
+        private int depth = 0;
+
+        // Number of objects and arrays which have been opened so far.
+        private int opened = 0;
+
+        private BundleReader(final @NotNull Reader reader) {
+            super(reader);
+        }
+
+        @Override
+        public void beginObject() throws IOException {
+            super.beginObject();
+            depth++;
+            opened++;
+        }
+
+        @Override
+        public void endObject() throws IOException {
+            super.endObject();
+            depth--;
+        }
+
+        @Override
+        public void beginArray() throws IOException {
+            super.beginArray();
+            depth++;
+            opened++;
+        }
+
+        @Override
+        public void endArray() throws IOException {
+            super.endArray();
+            depth--;
+        }
+
+        // Skips the remainder of value which started at specified depth, after specified number of objects and arrays has been opened.
+        private void skipRemainder(final int depth, final int opened) throws IOException {
+            // Skipping the whole value if reading has failed before it was entered.
+            if (this.depth == depth && this.opened == opened) {
+                skipValue();
+                return;
+            }
+            // Closing all objects and arrays the value has been left in. Values within them are skipped along the way.
+            while (this.depth > depth) {
+                switch (peek()) {
+                    case END_OBJECT -> endObject();
+                    case END_ARRAY -> endArray();
+                    case NAME -> nextName();
+                    default -> skipValue();
+                }
+            }
+        }
+
+    }
+
+    /** Receives problems found while reading recipes. Must be thread-safe if the {@link RecipeReader} is shared between threads. */
+    public interface Reporter {
+
+        /** Called when recipe at specified location is invalid. Message continues a sentence starting with the recipe, for example {@code "is invalid."}. */
+        void report(final @NotNull String location, final @NotNull String message);
+
+        /** Called when reading recipe at specified location has failed due to an exception. */
+        void report(final @NotNull String location, final @NotNull Exception exception);
+
+    }
+
+}
@@ -0,0 +1,157 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Finds recipe files within the recipes directory, including ones packed in archives. Archives are opened in place, and stay open until the scanner is closed.
+ * Shared by the plugin and the {@code RecipeCompiler}, so that both see the same files under the same paths.
+ * <p>
+ * Paths are relative to the recipes directory and use slashes as a separator. Paths of archive entries are prefixed with path of the archive, followed by {@code "!/"}.
+ */
+public final class RecipeScanner implements Closeable {
+
+    /** Separator between path of an archive and path of an entry within it. */
+    public static final String ARCHIVE_SEPARATOR = "!/";
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @NotNull Path directory;
+
+    // Archives opened by this scanner, mapped to their path relative to the directory.
+    private final Map<FileSystem, String> archives = new ConcurrentHashMap<>();
+
+    public RecipeScanner(final @NotNull Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Adds recipe files found at specified path to the list. Directories are scanned recursively, and archives are opened. Paths which no longer exist are skipped.
+     * Archives which could not be opened are added to the map of errors, under their path.
+     *
+     * @throws UncheckedIOException if files could not be listed
+     */
+    public void scan(final @NotNull Path root, final @NotNull List<Path> files, final @NotNull Map<String, Exception> unreadableArchives) throws UncheckedIOException {
+        if (Files.exists(root) == false)
+            return;
+        try (final Stream<Path> stream = Files.walk(root)) {
+            for (final Path file : (Iterable<Path>) stream.filter(Files::isRegularFile)::iterator) {
+                if (isRecipeFile(file) == true)
+                    files.add(file);
+                else if (isArchive(file) == true) {
+                    try {
+                        files.addAll(openArchive(file));
+                    } catch (final IOException | RuntimeException e) {
+                        unreadableArchives.put(getPath(file), e);
+                    }
+                }
+            }
+        } catch (final IOException | UncheckedIOException e) {
+            // Skipping paths which have been removed in the meantime. These are handled by the next batch of changes.
+            if (root.equals(directory) == false && Files.exists(root) == false)
+                return;
+            throw new UncheckedIOException("Listing files in the \"" + directory.getFileName() + "\" directory failed", (e instanceof UncheckedIOException unchecked) ? unchecked.getCause() : (IOException) e);
+        }
+    }
+
+    // Opens specified archive and returns recipe files it contains. Entries are read in place, and archive stays open until the scanner is closed.
+    private @NotNull List<Path> openArchive(final @NotNull Path archive) throws IOException {
+        final FileSystem fileSystem = FileSystems.newFileSystem(archive);
+        archives.put(fileSystem, getPath(archive));
+        try (final Stream<Path> stream = Files.walk(fileSystem.getPath("/"))) {
+            return stream.filter(file -> Files.isRegularFile(file) == true && isRecipeFile(file) == true).toList();
+        }
+    }
+
+    /** Returns path of specified file relative to the directory, using slashes as a separator. Paths of archive entries are prefixed with path of the archive. */
+    public @NotNull String getPath(final @NotNull Path file) {
+        final @Nullable String archive = archives.get(file.getFileSystem());
+        return (archive != null)
+                ? archive + ARCHIVE_SEPARATOR + getEntryPath(file)
+                : directory.relativize(file).toString().replace("\\", "/");
+    }
+
+    /**
+     * Returns path the key of specified file is derived from. Keys of archive entries are derived from their path within the archive,
+     * so different archives (or versions of the same one) can define the same keys.
+     */
+    public @NotNull String getKeyPath(final @NotNull Path file) {
+        return (archives.containsKey(file.getFileSystem()) == true) ? getEntryPath(file) : getPath(file);
+    }
+
+    /** Closes all archives opened by this scanner. Paths of their entries can no longer be resolved afterwards. */
+    @Override
+    public void close() {
+        archives.keySet().forEach(fileSystem -> {
+            try {
+                fileSystem.close();
+            } catch (final IOException e) {
+                // IGNORING; Archives are opened for reading only.
+            }
+        });
+        archives.clear();
+    }
+
+    // Returns path of specified archive entry, relative to the root of the archive.
+    private static @NotNull String getEntryPath(final @NotNull Path entry) {
+        return entry.getRoot().relativize(entry).toString();
+    }
+
+    /** Returns {@code true} if specified file is a recipe file, or a bundle of recipes. */
+    public static boolean isRecipeFile(final @NotNull Path file) {
+        final String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        return name.endsWith(".json") == true || name.endsWith(".jsonl") == true;
+    }
+
+    /** Returns {@code true} if specified file is an archive containing recipe files. */
+    public static boolean isArchive(final @NotNull Path file) {
+        return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".zip") == true;
+    }
+
+}
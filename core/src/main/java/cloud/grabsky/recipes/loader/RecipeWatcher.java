@@ -0,0 +1,169 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Watches the recipes directory, including all of its subdirectories, and a set of standalone files for changes.
+ * Bursts of events are coalesced into a single batch, which is passed to the listener once no further events were received for the debounce period.
+ * Listener is called on the watcher thread.
+ */
+public final class RecipeWatcher implements Closeable {
+
+    private final WatchService service;
+
+    private final Path directory;
+
+    private final Set<Path> files;
+
+    private final long debounceMillis;
+
+    private final Consumer<Set<Path>> listener;
+
+    // Maps registered keys to the directories they were registered for.
+    private final Map<WatchKey, Path> keys = new ConcurrentHashMap<>();
+
+    private final Thread thread;
+
+    private RecipeWatcher(final @NotNull Path directory, final @NotNull Set<Path> files, final long debounceMillis, final @NotNull Consumer<Set<Path>> listener) throws IOException {
+        this.service = directory.getFileSystem().newWatchService();
+        this.directory = directory.toAbsolutePath().normalize();
+        this.files = files.stream().map(it -> it.toAbsolutePath().normalize()).collect(Collectors.toUnmodifiableSet());
+        this.debounceMillis = Math.max(0, debounceMillis);
+        this.listener = listener;
+        this.thread = new Thread(this::run, "Recipes Watcher");
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Starts watching specified directory and files. Changes are passed to the listener after no further events were received for {@code debounceMillis}.
+     */
+    public static @NotNull RecipeWatcher start(final @NotNull Path directory, final @NotNull Set<Path> files, final long debounceMillis, final @NotNull Consumer<@Unmodifiable Set<Path>> listener) throws IOException {
+        final RecipeWatcher watcher = new RecipeWatcher(directory, files, debounceMillis, listener);
+        try {
+            // Registering the directory along with all of its subdirectories.
+            watcher.registerAll(watcher.directory);
+            // Registering parent directories of standalone files. Events for other files in these directories are ignored.
+            for (final Path file : watcher.files)
+                if (file.getParent() != null)
+                    watcher.register(file.getParent());
+        } catch (final IOException e) {
+            watcher.service.close();
+            throw e;
+        }
+        watcher.thread.start();
+        return watcher;
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Closing the service also wakes up the watcher thread.
+        service.close();
+        thread.interrupt();
+    }
+
+    private void run() {
+        final Set<Path> changes = new LinkedHashSet<>();
+        try {
+            while (Thread.currentThread().isInterrupted() == false) {
+                // Waiting indefinitely for the first event of the batch, and then up to the debounce period for each subsequent one.
+                final WatchKey key = (changes.isEmpty() == true) ? service.take() : service.poll(debounceMillis, TimeUnit.MILLISECONDS);
+                // No events were received within the debounce period. Passing the batch to the listener.
+                if (key == null) {
+                    listener.accept(Set.copyOf(changes));
+                    changes.clear();
+                    continue;
+                }
+                final Path parent = keys.get(key);
+                for (final WatchEvent<?> event : key.pollEvents()) {
+                    // Some events have been lost. Treating it as a change of the whole directory.
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW || parent == null) {
+                        changes.add(directory);
+                        continue;
+                    }
+                    final Path path = parent.resolve((Path) event.context());
+                    // Collecting changes within the recipes directory. Newly created subdirectories must be registered as well.
+                    if (path.startsWith(directory) == true) {
+                        changes.add(path);
+                        if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path) == true)
+                            try {
+                                registerAll(path);
+                            } catch (final IOException | UncheckedIOException e) {
+                                // Directory has been removed in the meantime. Nothing to do here.
+                            }
+                    }
+                    // Collecting changes of standalone files.
+                    else if (files.contains(path) == true)
+                        changes.add(path);
+                }
+                // Forgetting keys which are no longer valid, for example because the directory has been deleted.
+                if (key.reset() == false)
+                    keys.remove(key);
+            }
+        } catch (final InterruptedException | ClosedWatchServiceException e) {
+            // Watcher has been closed. Nothing to do here.
+        }
+    }
+
+    private void registerAll(final @NotNull Path root) throws IOException {
+        try (final Stream<Path> stream = Files.walk(root)) {
+            for (final Path path : stream.filter(Files::isDirectory).toList())
+                register(path);
+        }
+    }
+
+    private void register(final @NotNull Path path) throws IOException {
+        keys.put(path.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE), path);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Recipes of a reload which has not been applied yet, mapped by path of the file they were loaded from, along with the manifest.
+ * Both are copies of the live ones, so they can be modified off the server thread. Live recipes are replaced only once {@link #commit} is called,
+ * and are left untouched if the reload fails or is cancelled before that.
+ */
+public final class StagedRecipes<T> {
+
+    private final Map<String, List<T>> recipes;
+
+    private final RecipeManifest manifest;
+
+    private StagedRecipes(final @NotNull Map<String, List<T>> recipes, final @NotNull RecipeManifest manifest) {
+        this.recipes = recipes;
+        this.manifest = manifest;
+    }
+
+    /** Creates staging area from copies of specified live recipes and manifest. */
+    public static <T> @NotNull StagedRecipes<T> copyOf(final @NotNull Map<String, List<T>> recipes, final @NotNull RecipeManifest manifest) {
+        return new StagedRecipes<>(new HashMap<>(recipes), manifest.copy());
+    }
+
+    /** Creates empty staging area, meaning all recipes are loaded again. Namespace of specified manifest is kept. */
+    public static <T> @NotNull StagedRecipes<T> empty(final @NotNull RecipeManifest manifest) {
+        final RecipeManifest copy = manifest.copy();
+        copy.clear();
+        return new StagedRecipes<>(new HashMap<>(), copy);
+    }
+
+    /** Returns staged recipes, mapped by path of the file they were loaded from. Returned map is modifiable, and is committed as it is. */
+    public @NotNull Map<String, List<T>> recipes() {
+        return recipes;
+    }
+
+    /** Returns staged manifest. */
+    public @NotNull RecipeManifest manifest() {
+        return manifest;
+    }
+
+    /** Removes files with at least one recipe matching specified predicate. These are loaded again, while the live ones are replaced only once committed. Returns number of removed files. */
+    public int removeFiles(final @NotNull Predicate<? super T> predicate) {
+        final int size = recipes.size();
+        recipes.values().removeIf(file -> file.stream().anyMatch(predicate) == true);
+        return size - recipes.size();
+    }
+
+    /**
+     * Applies specified {@link LoadResult} to this staging area. Returns {@code true} if loading of the file has failed, and its previous recipes are kept
+     * until it is fixed. Files which have failed to load, either completely or partially, are forgotten by the manifest, so they are loaded again during the next reload.
+     */
+    public boolean apply(final @NotNull LoadResult<T> result) {
+        // File was loaded successfully. Replacing its previous recipes, if present.
+        if (result.recipes() != null) {
+            recipes.put(result.path(), result.recipes());
+            if (result.entry() != null)
+                manifest.put(result.path(), result.entry());
+            else manifest.remove(result.path());
+            return false;
+        }
+        // File was touched, but its contents have not changed. Updating the manifest entry only.
+        if (result.entry() != null) {
+            manifest.put(result.path(), result.entry());
+            return false;
+        }
+        // Loading has failed. Keeping the previous version of the recipes, if present.
+        manifest.remove(result.path());
+        return recipes.containsKey(result.path()) == true;
+    }
+
+    /**
+     * Replaces contents of specified live recipes with the staged ones. Recipes of files which have not changed are compared by identity.
+     * Returns {@code true} if any file has been added, modified or removed.
+     */
+    public boolean commit(final @NotNull Map<String, List<T>> live) {
+        final boolean isModified = recipes.size() != live.size() || live.entrySet().stream().anyMatch(entry -> recipes.get(entry.getKey()) != entry.getValue()) == true;
+        // Swapping live recipes with the staged ones.
+        live.clear();
+        live.putAll(recipes);
+        return isModified;
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, Lorenzo Magni
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+public final class DiscoverTrigger {
+
+    // Server-independent representation of the choices. Trigger with no ingredients never discovers the recipe.
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable @Unmodifiable List<Ingredient> ingredients;
+
+    public DiscoverTrigger(final @Nullable List<Ingredient> ingredients) {
+        this.ingredients = (ingredients != null) ? Collections.unmodifiableList(new ArrayList<>(ingredients)) : null;
+    }
+
+    /** Returns {@code true} if any of the {@link Ingredient Ingredients} depends on the server's data packs. */
+    public boolean isDatapackDependent() {
+        return ingredients != null && ingredients.stream().anyMatch(it -> it != null && it.isDatapackDependent() == true);
+    }
+
+    /** Returns {@code true} if any of the {@link Ingredient Ingredients} refers to an item tag. */
+    public boolean isTagDependent() {
+        return ingredients != null && ingredients.stream().anyMatch(it -> it != null && it.isTagDependent() == true);
+    }
+
+}
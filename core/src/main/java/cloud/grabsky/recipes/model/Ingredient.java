@@ -0,0 +1,120 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model;
+
+import net.kyori.adventure.key.Key;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.experimental.Accessors;
+
+/**
+ * Immutable and server-independent representation of a {@code RecipeChoice}. Instances can be safely created and shared between threads,
+ * but conversion to {@code RecipeChoice}, done by the plugin, must happen on the server thread.
+ */
+public sealed interface Ingredient permits Ingredient.Items, Ingredient.Tag {
+
+    /** Returns {@code true} if conversion of this {@link Ingredient} depends on the server's data packs, meaning it must be converted again after resources are reloaded. */
+    boolean isDatapackDependent();
+
+    /** Returns {@code true} if this {@link Ingredient} refers to an item tag. Contents of tags are defined by data packs, and are not known until the server has loaded them. */
+    boolean isTagDependent();
+
+    /**
+     * Represents a single item, or a list of items, any of which can be used as the ingredient.
+     * Converted to {@code MaterialChoice} if none of the items has metadata, or {@code ExactChoice} otherwise.
+     * <p>
+     * Instances are compared by value and can be shared between recipes, see {@link InternPool}.
+     */
+    @Accessors(fluent = true)
+    @EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY)
+    final class Items implements Ingredient {
+
+        @Getter(AccessLevel.PUBLIC)
+        private final @NotNull @Unmodifiable List<Item> items;
+
+        @Getter(AccessLevel.PUBLIC)
+        private final boolean isSingle;
+
+        public Items(final @NotNull List<Item> items, final boolean isSingle) {
+            this.items = List.copyOf(items);
+            this.isSingle = isSingle;
+        }
+
+        @Override
+        public boolean isDatapackDependent() {
+            return items.stream().anyMatch(Item::isDatapackDependent);
+        }
+
+        @Override
+        public boolean isTagDependent() {
+            return false;
+        }
+
+    }
+
+    /**
+     * Represents an item tag, any item of which can be used as the ingredient.
+     * Converted to {@code MaterialChoice}.
+     * <p>
+     * Instances are compared by value and can be shared between recipes, see {@link InternPool}.
+     */
+    @Accessors(fluent = true)
+    @EqualsAndHashCode
+    final class Tag implements Ingredient {
+
+        @Getter(AccessLevel.PUBLIC)
+        private final @NotNull Key key;
+
+        public Tag(final @NotNull Key key) {
+            this.key = key;
+        }
+
+        @Override
+        public boolean isDatapackDependent() {
+            return true;
+        }
+
+        @Override
+        public boolean isTagDependent() {
+            return true;
+        }
+
+    }
+
+}
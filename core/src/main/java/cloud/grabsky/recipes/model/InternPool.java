@@ -0,0 +1,105 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Pool of {@link Item Items} and {@link Ingredient Ingredients}, used to share instances of identical definitions between recipes loaded during a single reload.
+ * Definitions are compared by value, so every distinct definition is materialized only once, no matter how many recipes it appears in.
+ * <p>
+ * Pool is passed explicitly to whatever loads the recipes, usually a {@code RecipeReader}, and down to the adapters, which intern items and ingredients as soon as they are read.
+ * Duplicates are therefore dropped right away, and never end up in the recipes.
+ * Pool is thread-safe, and can be shared by all parser threads of a single reload.
+ */
+public final class InternPool {
+
+    private final Map<Item, Item> items = new ConcurrentHashMap<>();
+
+    private final Map<Ingredient, Ingredient> ingredients = new ConcurrentHashMap<>();
+
+    // Number of definitions passed to the pool, including duplicates.
+    private final LongAdder itemLookups = new LongAdder();
+    private final LongAdder ingredientLookups = new LongAdder();
+
+    /** Returns shared instance of specified {@link Item}. */
+    public @NotNull Item item(final @NotNull Item item) {
+        itemLookups.increment();
+        final @Nullable Item existing = items.putIfAbsent(item, item);
+        return (existing != null) ? existing : item;
+    }
+
+    /** Returns shared instance of specified {@link Ingredient}. Items of ingredients seen for the first time are shared as well, unless they already are. */
+    public @NotNull Ingredient ingredient(final @NotNull Ingredient ingredient) {
+        ingredientLookups.increment();
+        final @Nullable Ingredient existing = ingredients.get(ingredient);
+        if (existing != null)
+            return existing;
+        // Sharing items of ingredients which were not read through the pool. Ingredients read by the adapters already consist of shared items, and are kept as they are.
+        final Ingredient shared = (ingredient instanceof Ingredient.Items choice && choice.items().stream().anyMatch(item -> items.get(item) != item) == true)
+                ? new Ingredient.Items(choice.items().stream().map(this::item).toList(), choice.isSingle())
+                : ingredient;
+        final @Nullable Ingredient concurrent = ingredients.putIfAbsent(shared, shared);
+        return (concurrent != null) ? concurrent : shared;
+    }
+
+    /** Returns shared instance of specified {@link Item} from specified pool, or the item itself if there is no pool. */
+    public static @NotNull Item intern(final @Nullable InternPool pool, final @NotNull Item item) {
+        return (pool != null) ? pool.item(item) : item;
+    }
+
+    /** Returns shared instance of specified {@link Ingredient} from specified pool, or the ingredient itself if there is no pool. */
+    public static @NotNull Ingredient intern(final @Nullable InternPool pool, final @NotNull Ingredient ingredient) {
+        return (pool != null) ? pool.ingredient(ingredient) : ingredient;
+    }
+
+    /** Returns statistics of this pool. */
+    public @NotNull Stats stats() {
+        return new Stats(itemLookups.sum(), items.size(), ingredientLookups.sum(), ingredients.size());
+    }
+
+    /** Represents statistics of an {@link InternPool}. */
+    public record Stats(long itemLookups, int items, long ingredientLookups, int ingredients) {
+
+        @Override
+        public @NotNull String toString() {
+            return "Interned " + itemLookups + " items into " + items + " unique instances, and " + ingredientLookups + " ingredients into " + ingredients + " unique instances.";
+        }
+
+    }
+
+}
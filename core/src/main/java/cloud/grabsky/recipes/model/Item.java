@@ -0,0 +1,95 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2023, Lorenzo Magni
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model;
+
+import com.google.gson.JsonElement;
+import net.kyori.adventure.key.Key;
+
+import java.util.List;
+
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Immutable and server-independent representation of an item. Converted to an {@code ItemStack} by the plugin, on the server thread.
+ * <p>
+ * Existence of the item type and the custom item is verified upon conversion, as neither is known until then.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+@EqualsAndHashCode(cacheStrategy = EqualsAndHashCode.CacheStrategy.LAZY) // Compared by value, so identical definitions can be shared. See InternPool.
+public final class Item {
+
+    private static final Key AIR = Key.key(Key.MINECRAFT_NAMESPACE, "air");
+
+    // Key of the item type. Resolved to ItemType upon conversion to ItemStack.
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable Key type;
+
+    // This is the identifier of plugin-defined custom item.
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable String registeredItem;
+
+    // Null if unspecified, in which case amount of the item type or custom item is kept.
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable Integer amount;
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable String name;
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable List<String> lore;
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable JsonElement components;
+
+    /** Returns {@code true} if this item refers to either a custom item or an item type. */
+    public boolean isValid() {
+        return registeredItem != null || type != null;
+    }
+
+    public boolean isAir() {
+        return registeredItem == null && AIR.equals(type) == true;
+    }
+
+    /**
+     * Returns {@code true} if conversion of this item depends on the server's data packs. Components are resolved against server registries and can reference tags.
+     * Resolved components do not depend on contents of tags, so converted items can be kept between server runs of the same data version and data packs.
+     */
+    public boolean isDatapackDependent() {
+        return components != null;
+    }
+}
@@ -32,24 +32,24 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
-import org.bukkit.inventory.BlastingRecipe;
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.Item;
+import net.kyori.adventure.key.Key;
+
+import org.jetbrains.annotations.Nullable;
 
 public final class BlastingRecipeWrapper extends CookingRecipeWrapper {
 
-    public BlastingRecipeWrapper() {
-        super(RecipeWrapper.Type.BLASTING);
+    public BlastingRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable Ingredient input,
+            final @Nullable Item result,
+            final @Nullable Float experience,
+            final @Nullable Integer cookingTime
+    ) {
+        super(RecipeWrapper.Type.BLASTING, key, discoverTrigger, input, result, experience, cookingTime);
     }
 
-    @Override
-    public BlastingRecipe toBukkit() {
-        super.experience = Math.max(0, super.experience);
-        super.cookingTime = Math.max(0, (super.cookingTime != null) ? super.cookingTime : 200);
-        return new BlastingRecipe(
-                super.key,
-                super.result.toItemStack(),
-                super.input,
-                super.experience,
-                super.cookingTime
-        );
-    }
 }
@@ -31,28 +31,45 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
 import cloud.grabsky.recipes.model.Item;
-import com.google.gson.annotations.SerializedName;
-import org.bukkit.inventory.RecipeChoice;
+import net.kyori.adventure.key.Key;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
 
 public abstract class CookingRecipeWrapper extends RecipeWrapper {
 
-    @SerializedName("input")
-    protected RecipeChoice input;
+    @Getter(AccessLevel.PUBLIC)
+    protected final Ingredient input;
 
-    @SerializedName("result")
-    protected Item result;
+    @Getter(AccessLevel.PUBLIC)
+    protected final Item result;
 
-    @SerializedName("experience")
-    protected Float experience;
+    @Getter(AccessLevel.PUBLIC)
+    protected final Float experience;
 
-    @SerializedName("cooking_time")
-    protected Integer cookingTime;
+    @Getter(AccessLevel.PUBLIC)
+    protected final Integer cookingTime;
 
-    public CookingRecipeWrapper(final @NotNull RecipeWrapper.Type type) {
-        super(type);
+    public CookingRecipeWrapper(
+            final @NotNull RecipeWrapper.Type type,
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable Ingredient input,
+            final @Nullable Item result,
+            final @Nullable Float experience,
+            final @Nullable Integer cookingTime
+    ) {
+        super(type, key, discoverTrigger);
+        this.input = input;
+        this.result = result;
+        this.experience = experience;
+        this.cookingTime = cookingTime;
     }
 
     @Override
@@ -1,7 +1,6 @@
 /*
  * BSD 3-Clause License
  *
- * Copyright (c) 2023, Lorenzo Magni
  * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
  * All rights reserved.
  *
@@ -30,20 +29,15 @@
  * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package cloud.grabsky.recipes.model;
+package cloud.grabsky.recipes.model.recipes;
 
-import com.google.gson.annotations.SerializedName;
-import org.bukkit.inventory.RecipeChoice;
-
-import java.util.List;
-
-import lombok.AccessLevel;
-import lombok.Getter;
-
-public final class DiscoverTrigger {
+/**
+ * Represents a top-level definition read from a recipe source. It is either a concrete {@link RecipeWrapper}, or a {@link RecipeTemplate}
+ * which is expanded into concrete recipes at load time.
+ */
+public sealed interface RecipeDefinition permits RecipeWrapper, RecipeTemplate {
 
-    @Getter(AccessLevel.PUBLIC)
-    @SerializedName("items")
-    private List<RecipeChoice> requiredItems;
+    /** Returns {@code true} if this definition is valid. */
+    boolean isValid();
 
 }
@@ -0,0 +1,237 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model.recipes;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import net.kyori.adventure.key.Key;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Represents a recipe template, which is expanded into concrete recipes at load time. Template declares parameters, each bound either
+ * to a list of values or to an item tag, and a recipe which can reference them through {@code {parameter}} placeholders in any string value.
+ * One recipe is created for each combination of parameter values.
+ * <p>
+ * Recipe is parsed and validated once. Parts of it that contain no placeholders are shared between all variants, so instantiating a variant is cheap.
+ * Templates are not recipes themselves, and are compiled and expanded into them through {@code RecipeWrapperAdapter#compile}.
+ */
+public final class RecipeTemplate implements RecipeDefinition {
+
+    // Placeholder which can be used in string values of the template recipe.
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\{([a-z0-9_]+)}");
+
+    // Maximum number of variants single template can be expanded into.
+    private static final int MAX_VARIANTS = 10_000;
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @Nullable @Unmodifiable Map<String, Parameter> parameters;
+
+    private final @Nullable JsonObject recipe;
+
+    // Elements of the recipe which contain placeholders, either directly or within their children. Compared by identity.
+    private final Set<JsonElement> templatedElements = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    // Names of all placeholders used within the recipe.
+    private final Set<String> placeholders = new HashSet<>();
+
+    public RecipeTemplate(final @Nullable Map<String, Parameter> parameters, final @Nullable JsonObject recipe) {
+        this.parameters = (parameters != null) ? Collections.unmodifiableMap(new LinkedHashMap<>(parameters)) : null;
+        this.recipe = recipe;
+        // Finding elements which contain placeholders. This is done once, and then used by every variant.
+        if (recipe != null)
+            findTemplatedElements(recipe);
+    }
+
+    @Override
+    public boolean isValid() {
+        // Returning false if parameters or recipe are not specified.
+        if (parameters == null || parameters.isEmpty() == true || recipe == null)
+            return false;
+        // Returning false if any of the parameters is not bound to anything.
+        if (parameters.values().stream().anyMatch(parameter -> parameter == null || (parameter instanceof Parameter.Values values && values.values().isEmpty() == true)) == true)
+            return false;
+        // Returning false if recipe uses placeholders that were not declared.
+        if (parameters.keySet().containsAll(placeholders) == false)
+            return false;
+        // Returning false if recipe does not specify the type, or is a template itself.
+        final @Nullable JsonElement type = recipe.get("type");
+        if (type == null || type.isJsonPrimitive() == false || "template".equalsIgnoreCase(type.getAsString()) == true)
+            return false;
+        // Returning false if recipe does not specify the key, or its key does not contain any placeholders. Each variant must have a different key.
+        final @Nullable JsonElement key = recipe.get("key");
+        return key != null && key.isJsonPrimitive() == true && templatedElements.contains(key) == true;
+    }
+
+    /** Returns copy of the template recipe, or {@code null} if it has not been specified. */
+    public @Nullable JsonObject getRecipe() {
+        return (recipe != null) ? recipe.deepCopy() : null;
+    }
+
+    /** Returns top-level properties of the template recipe, or an empty map if it has not been specified. Values are shared, and must not be modified. */
+    public @NotNull @Unmodifiable Map<String, JsonElement> getProperties() {
+        return (recipe != null) ? Collections.unmodifiableMap(recipe.asMap()) : Map.of();
+    }
+
+    /** Returns {@code true} if specified element of the template recipe, or any of its children, contains a placeholder. */
+    public boolean isTemplated(final @NotNull JsonElement element) {
+        return templatedElements.contains(element);
+    }
+
+    /** Returns {@code true} if any of the parameters is bound to an item tag. Variants of such templates depend on the server's data packs. */
+    public boolean isTagBound() {
+        return parameters != null && parameters.values().stream().anyMatch(Parameter.Tag.class::isInstance);
+    }
+
+    /**
+     * Returns all combinations of parameter values. Tags are resolved using specified function, which should return paths of items in the tag, or {@code null} if tag does not exist.
+     * Throws {@link IllegalArgumentException} if any tag does not exist, or the template would be expanded into too many variants.
+     */
+    public @NotNull List<Map<String, String>> bindings(final @NotNull Function<Key, @Nullable List<String>> tags) throws IllegalArgumentException {
+        List<Map<String, String>> bindings = List.of(Map.of());
+        for (final Map.Entry<String, Parameter> entry : parameters.entrySet()) {
+            // Resolving values of the parameter.
+            final List<String> values = switch (entry.getValue()) {
+                case Parameter.Values parameter -> parameter.values();
+                case Parameter.Tag parameter -> {
+                    final @Nullable List<String> tag = tags.apply(parameter.key());
+                    // Throwing exception if tag does not exist.
+                    if (tag == null)
+                        throw new IllegalArgumentException("Tag \"" + parameter.key().asString() + "\" bound to parameter \"" + entry.getKey() + "\" does not represent a valid item tag.");
+                    yield tag;
+                }
+            };
+            // Throwing exception if template would be expanded into too many variants.
+            if ((long) bindings.size() * values.size() > MAX_VARIANTS)
+                throw new IllegalArgumentException("Template would be expanded into more than " + MAX_VARIANTS + " variants.");
+            // Combining values with previously resolved parameters.
+            final List<Map<String, String>> combined = new ArrayList<>(bindings.size() * values.size());
+            for (final Map<String, String> binding : bindings)
+                for (final String value : values) {
+                    final Map<String, String> copy = new HashMap<>(binding);
+                    copy.put(entry.getKey(), value);
+                    combined.add(copy);
+                }
+            bindings = combined;
+        }
+        return bindings;
+    }
+
+    /** Returns recipe with placeholders replaced according to specified binding. Elements which contain no placeholders are shared, and must not be modified. */
+    public @NotNull JsonElement instantiate(final @NotNull Map<String, String> binding) {
+        return instantiate(recipe, binding);
+    }
+
+    /** Returns specified element of the template recipe with placeholders replaced according to specified binding. Elements which contain no placeholders are shared, and must not be modified. */
+    public @NotNull JsonElement instantiate(final @NotNull JsonElement element, final @NotNull Map<String, String> binding) {
+        // Returning elements that contain no placeholders as-is.
+        if (templatedElements.contains(element) == false)
+            return element;
+        // Copying objects and arrays. Only their templated children are copied further.
+        if (element instanceof JsonObject object) {
+            final JsonObject copy = new JsonObject();
+            object.entrySet().forEach(entry -> copy.add(entry.getKey(), instantiate(entry.getValue(), binding)));
+            return copy;
+        } else if (element instanceof JsonArray array) {
+            final JsonArray copy = new JsonArray(array.size());
+            array.forEach(child -> copy.add(instantiate(child, binding)));
+            return copy;
+        }
+        // Replacing placeholders within the string.
+        final Matcher matcher = PLACEHOLDER.matcher(element.getAsString());
+        final StringBuilder builder = new StringBuilder();
+        while (matcher.find() == true)
+            matcher.appendReplacement(builder, Matcher.quoteReplacement(binding.getOrDefault(matcher.group(1), matcher.group())));
+        matcher.appendTail(builder);
+        return new JsonPrimitive(builder.toString());
+    }
+
+    // Marks elements containing placeholders. Returns true if specified element, or any of its children, contains a placeholder.
+    private boolean findTemplatedElements(final @NotNull JsonElement element) {
+        boolean isTemplated = false;
+        if (element instanceof JsonObject object) {
+            for (final JsonElement child : object.asMap().values())
+                isTemplated |= findTemplatedElements(child);
+        } else if (element instanceof JsonArray array) {
+            for (final JsonElement child : array)
+                isTemplated |= findTemplatedElements(child);
+        } else if (element instanceof JsonPrimitive primitive && primitive.isString() == true) {
+            final Matcher matcher = PLACEHOLDER.matcher(primitive.getAsString());
+            while (matcher.find() == true) {
+                placeholders.add(matcher.group(1));
+                isTemplated = true;
+            }
+        }
+        if (isTemplated == true)
+            templatedElements.add(element);
+        return isTemplated;
+    }
+
+
+    /** Represents a template parameter. */
+    public sealed interface Parameter permits Parameter.Values, Parameter.Tag {
+
+        /** Parameter bound to a list of values. */
+        record Values(@NotNull @Unmodifiable List<String> values) implements Parameter {
+
+            public Values {
+                values = List.copyOf(values);
+            }
+
+        }
+
+        /** Parameter bound to an item tag. Values are paths of items in the tag, for example {@code oak_planks} for {@code minecraft:oak_planks}. */
+        record Tag(@NotNull Key key) implements Parameter { }
+
+    }
+
+}
@@ -32,48 +32,68 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
-import cloud.grabsky.recipes.configuration.adapters.RecipeWrapperAdapter;
 import cloud.grabsky.recipes.model.DiscoverTrigger;
-import com.google.gson.annotations.JsonAdapter;
-import com.google.gson.annotations.SerializedName;
-import org.bukkit.NamespacedKey;
-import org.bukkit.inventory.Recipe;
+import net.kyori.adventure.key.Key;
+
+import java.util.Set;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
 
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 
-@JsonAdapter(RecipeWrapperAdapter.class)
-public abstract class RecipeWrapper {
+public abstract non-sealed class RecipeWrapper implements RecipeDefinition {
 
     @Getter(AccessLevel.PUBLIC)
-    @SerializedName("key")
-    protected NamespacedKey key;
+    protected Key key;
 
-    @SerializedName("type")
+    @Getter(AccessLevel.PUBLIC)
     protected RecipeWrapper.Type type;
 
     @Getter(AccessLevel.PUBLIC)
-    @SerializedName("discover")
     protected DiscoverTrigger discoverTrigger;
 
-    public RecipeWrapper(final @NotNull Type type) {
+    // Identifiers of custom items referenced by this recipe. Collected during deserialization.
+    @Getter(AccessLevel.PUBLIC)
+    private transient @NotNull @Unmodifiable Set<String> registeredItems = Set.of();
+
+    // Whether conversion of this recipe depends on the server's data packs, for example on item tags. Such recipes are loaded again after resources are reloaded.
+    @Getter(AccessLevel.PUBLIC)
+    private transient boolean isDatapackDependent = false;
+
+    // Whether this recipe depends on contents of item tags, either through its ingredients or the template it was expanded from. Such recipes are never restored from the snapshot.
+    @Getter(AccessLevel.PUBLIC)
+    private transient boolean isTagDependent = false;
+
+    public RecipeWrapper(final @NotNull Type type, final @Nullable Key key, final @Nullable DiscoverTrigger discoverTrigger) {
         this.type = type;
+        this.key = key;
+        this.discoverTrigger = discoverTrigger;
     }
 
-    public void setFallbackKey(final @NotNull NamespacedKey key) {
+    public void setFallbackKey(final @NotNull Key key) {
         if (this.key == null)
             this.key = key;
     }
 
-    /** Returns {@code true} if this recipe is valid. */
-    public abstract boolean isValid();
+    public void setRegisteredItems(final @NotNull Set<String> registeredItems) {
+        this.registeredItems = Set.copyOf(registeredItems);
+    }
+
+    public void setDatapackDependent(final boolean isDatapackDependent) {
+        this.isDatapackDependent = isDatapackDependent;
+    }
 
-    /** Converts this {@link RecipeWrapper} to Bukkit's {@link Recipe} object. */
-    public abstract Recipe toBukkit();
+    public void setTagDependent(final boolean isTagDependent) {
+        this.isTagDependent = isTagDependent;
+    }
 
+    /** Returns {@code true} if this recipe is valid. */
+    @Override
+    public abstract boolean isValid();
 
     /** Represents a supported recipe type. */
     @RequiredArgsConstructor(access = AccessLevel.PUBLIC)
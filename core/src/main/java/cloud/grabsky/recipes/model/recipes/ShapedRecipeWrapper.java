@@ -32,27 +32,47 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
-import com.google.gson.annotations.SerializedName;
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
 import cloud.grabsky.recipes.model.Item;
-import org.bukkit.inventory.RecipeChoice;
-import org.bukkit.inventory.ShapedRecipe;
+import net.kyori.adventure.key.Key;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
 
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
 public final class ShapedRecipeWrapper extends RecipeWrapper {
 
-    @SerializedName("pattern")
-    private String[] pattern;
+    private final String[] pattern;
 
-    @SerializedName("pattern_key")
-    private Map<Character, RecipeChoice> patternKey;
+    @Getter(AccessLevel.PUBLIC)
+    private final Map<Character, Ingredient> patternKey;
 
-    @SerializedName("result")
-    private Item result;
+    @Getter(AccessLevel.PUBLIC)
+    private final Item result;
+
+    public ShapedRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable String[] pattern,
+            final @Nullable Map<Character, Ingredient> patternKey,
+            final @Nullable Item result
+    ) {
+        super(RecipeWrapper.Type.CRAFTING_SHAPED, key, discoverTrigger);
+        this.pattern = (pattern != null) ? pattern.clone() : null;
+        this.patternKey = (patternKey != null) ? Collections.unmodifiableMap(new HashMap<>(patternKey)) : null;
+        this.result = result;
+    }
 
-    public ShapedRecipeWrapper() {
-        super(RecipeWrapper.Type.CRAFTING_SHAPELESS);
+    /** Returns copy of the pattern, or {@code null} if it has not been specified. */
+    public @Nullable String[] getPattern() {
+        return (pattern != null) ? pattern.clone() : null;
     }
 
     @Override
@@ -91,15 +111,4 @@ public final class ShapedRecipeWrapper extends RecipeWrapper {
         return result != null && result.isValid();
     }
 
-    @Override
-    public ShapedRecipe toBukkit() {
-        // Creating new ShapedRecipe of specific shape.
-        final ShapedRecipe recipe = new ShapedRecipe(super.key, result.toItemStack())
-                .shape(pattern);
-        // Setting specified ingredients on the recipe.
-        patternKey.forEach(recipe::setIngredient);
-        // Returning the recipe.
-        return recipe;
-    }
-
 }
@@ -32,29 +32,38 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
 import cloud.grabsky.recipes.model.Item;
-import org.bukkit.inventory.RecipeChoice;
-import org.bukkit.inventory.ShapelessRecipe;
+import net.kyori.adventure.key.Key;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
 public final class ShapelessRecipeWrapper extends RecipeWrapper {
-    private List<RecipeChoice> ingredients;
-    private Item result;
 
-    public ShapelessRecipeWrapper() {
-        super(RecipeWrapper.Type.CRAFTING_SHAPELESS);
-    }
+    @Getter(AccessLevel.PUBLIC)
+    private final List<Ingredient> ingredients;
 
-    @Override
-    public ShapelessRecipe toBukkit() {
-        // Creating new ShapelessRecipe instance.
-        final ShapelessRecipe recipe = new ShapelessRecipe(super.key, result.toItemStack());
-        // Adding specified ingredients to the recipe.
-        ingredients.forEach(recipe::addIngredient);
-        // Returning the recipe.
-        return recipe;
+    @Getter(AccessLevel.PUBLIC)
+    private final Item result;
+
+    public ShapelessRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable List<Ingredient> ingredients,
+            final @Nullable Item result
+    ) {
+        super(RecipeWrapper.Type.CRAFTING_SHAPELESS, key, discoverTrigger);
+        this.ingredients = (ingredients != null) ? Collections.unmodifiableList(new ArrayList<>(ingredients)) : null;
+        this.result = result;
     }
 
     @Override
@@ -32,24 +32,24 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
-import org.bukkit.inventory.FurnaceRecipe;
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.Item;
+import net.kyori.adventure.key.Key;
+
+import org.jetbrains.annotations.Nullable;
 
 public final class SmeltingRecipeWrapper extends CookingRecipeWrapper {
 
-    public SmeltingRecipeWrapper() {
-        super(RecipeWrapper.Type.SMELTING);
+    public SmeltingRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable Ingredient input,
+            final @Nullable Item result,
+            final @Nullable Float experience,
+            final @Nullable Integer cookingTime
+    ) {
+        super(RecipeWrapper.Type.SMELTING, key, discoverTrigger, input, result, experience, cookingTime);
     }
 
-    @Override
-    public FurnaceRecipe toBukkit() {
-        super.experience = Math.max(0, (super.experience != null) ? super.experience : 0F);
-        super.cookingTime = Math.max(0, (super.cookingTime != null) ? super.cookingTime : 200);
-        return new FurnaceRecipe(
-                super.key,
-                super.result.toItemStack(),
-                super.input,
-                super.experience,
-                super.cookingTime
-        );
-    }
 }
@@ -32,28 +32,43 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
 import cloud.grabsky.recipes.model.Item;
-import com.google.gson.annotations.SerializedName;
-import org.bukkit.inventory.RecipeChoice;
-import org.bukkit.inventory.SmithingRecipe;
-import org.bukkit.inventory.SmithingTransformRecipe;
+import net.kyori.adventure.key.Key;
+
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
 
 public final class SmithingRecipeWrapper extends RecipeWrapper {
 
-    @SerializedName("base")
-    private RecipeChoice base;
+    @Getter(AccessLevel.PUBLIC)
+    private final Ingredient base;
 
-    @SerializedName("addition")
-    private RecipeChoice addition;
+    @Getter(AccessLevel.PUBLIC)
+    private final Ingredient addition;
 
-    @SerializedName("template")
-    private RecipeChoice template;
+    @Getter(AccessLevel.PUBLIC)
+    private final Ingredient template;
 
-    @SerializedName("result")
-    private Item result;
+    @Getter(AccessLevel.PUBLIC)
+    private final Item result;
 
-    public SmithingRecipeWrapper() {
-        super(RecipeWrapper.Type.SMITHING);
+    public SmithingRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable Ingredient template,
+            final @Nullable Ingredient base,
+            final @Nullable Ingredient addition,
+            final @Nullable Item result
+    ) {
+        super(RecipeWrapper.Type.SMITHING, key, discoverTrigger);
+        this.template = template;
+        this.base = base;
+        this.addition = addition;
+        this.result = result;
     }
 
     @Override
@@ -61,9 +76,4 @@ public final class SmithingRecipeWrapper extends RecipeWrapper {
         return base != null && addition != null && result != null && result.isValid();
     }
 
-    @Override
-    public SmithingRecipe toBukkit() {
-        return new SmithingTransformRecipe(super.key, result.toItemStack(), template, base, addition, true);
-    }
-
 }
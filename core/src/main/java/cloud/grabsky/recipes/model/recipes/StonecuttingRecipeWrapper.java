@@ -31,21 +31,33 @@
  */
 package cloud.grabsky.recipes.model.recipes;
 
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
 import cloud.grabsky.recipes.model.Item;
-import com.google.gson.annotations.SerializedName;
-import org.bukkit.inventory.RecipeChoice;
-import org.bukkit.inventory.StonecuttingRecipe;
+import net.kyori.adventure.key.Key;
+
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
 
 public final class StonecuttingRecipeWrapper extends RecipeWrapper {
 
-    @SerializedName("input")
-    private RecipeChoice input;
+    @Getter(AccessLevel.PUBLIC)
+    private final Ingredient input;
 
-    @SerializedName("result")
-    private Item result;
+    @Getter(AccessLevel.PUBLIC)
+    private final Item result;
 
-    public StonecuttingRecipeWrapper() {
-        super(RecipeWrapper.Type.STONECUTTING);
+    public StonecuttingRecipeWrapper(
+            final @Nullable Key key,
+            final @Nullable DiscoverTrigger discoverTrigger,
+            final @Nullable Ingredient input,
+            final @Nullable Item result
+    ) {
+        super(RecipeWrapper.Type.STONECUTTING, key, discoverTrigger);
+        this.input = input;
+        this.result = result;
     }
 
     @Override
@@ -53,9 +65,4 @@ public final class StonecuttingRecipeWrapper extends RecipeWrapper {
         return input != null && result != null && result.isValid();
     }
 
-    @Override
-    public StonecuttingRecipe toBukkit() {
-        return new StonecuttingRecipe(super.key, result.toItemStack(), input);
-    }
-
 }
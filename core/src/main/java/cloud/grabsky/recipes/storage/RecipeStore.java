@@ -0,0 +1,314 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.storage;
+
+import cloud.grabsky.recipes.utils.Digests;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import org.h2.mvstore.MVMap;
+import org.h2.mvstore.MVStore;
+import org.h2.mvstore.MVStoreException;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Embedded, single-file, transactional store of recipes and custom items, backed by MVStore.
+ * Entries are indexed by their name, and only entries modified by a {@link #transaction(Runnable)} are written, which makes it suitable for very large amounts of recipes.
+ * <p>
+ * Recipes are stored under names resembling paths of recipe files, relative to the recipes directory. Keys of recipes which do not specify one are derived from these names.
+ * Custom items are stored in the same format as in the {@code item_registry.json} file. Store can be safely read from multiple threads, while writes are executed one transaction at a time.
+ * Reads are not isolated from the running transaction, and can see its changes before they are committed.
+ */
+public final class RecipeStore implements Closeable {
+
+    // Name of the directory, relative to the plugin data folder, to which files are moved after being imported.
+    public static final String IMPORTED_DIRECTORY = "recipes.imported";
+
+    @Getter(AccessLevel.PUBLIC)
+    private final @NotNull Path file;
+
+    private final @NotNull MVStore store;
+
+    // Recipes, mapped by their name.
+    private final @NotNull MVMap<String, String> recipes;
+
+    // Hashes of recipes, mapped by their name. Used to detect modified recipes without reading them.
+    private final @NotNull MVMap<String, String> recipeHashes;
+
+    // Custom items, mapped by their identifier.
+    private final @NotNull MVMap<String, String> items;
+
+    // Held for the whole transaction. Store is modified by one transaction at a time, so one is never committed or rolled back along with changes of another.
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private RecipeStore(final @NotNull Path file, final @NotNull MVStore store) {
+        this.file = file;
+        this.store = store;
+        this.recipes = store.openMap("recipes");
+        this.recipeHashes = store.openMap("recipe_hashes");
+        this.items = store.openMap("items");
+        // Committing newly created maps, so that rollback of the first transaction has a version to return to.
+        if (store.hasUnsavedChanges() == true)
+            store.commit();
+    }
+
+    /**
+     * Opens, or creates, store in specified file. Store can be modified only within a {@link #transaction(Runnable)}.
+     *
+     * @throws IOException if store cannot be opened
+     */
+    public static @NotNull RecipeStore open(final @NotNull Path file) throws IOException {
+        try {
+            // Creating parent directories in case they do not exist.
+            if (file.toAbsolutePath().getParent() != null)
+                Files.createDirectories(file.toAbsolutePath().getParent());
+            return new RecipeStore(file, new MVStore.Builder().fileName(file.toAbsolutePath().toString()).autoCommitDisabled().open());
+        } catch (final MVStoreException e) {
+            throw new IOException("Opening store \"" + file.getFileName() + "\" failed.", e);
+        }
+    }
+
+    /** Returns names of all stored recipes, in their natural order. */
+    public @NotNull @Unmodifiable Set<String> recipeNames() {
+        return Collections.unmodifiableSet(recipes.keySet());
+    }
+
+    /** Returns recipe stored under specified name, or {@code null} if there is none. */
+    public @Nullable String getRecipe(final @NotNull String name) {
+        return recipes.get(name);
+    }
+
+    /** Returns hash of recipe stored under specified name, or {@code null} if there is none. */
+    public @Nullable String getRecipeHash(final @NotNull String name) {
+        return recipeHashes.get(name);
+    }
+
+    /**
+     * Stores recipe under specified name, replacing the previous one. Must be called within a transaction.
+     *
+     * @throws IllegalArgumentException if name is not a valid relative path
+     * @throws IllegalStateException if called outside a transaction
+     */
+    public void putRecipe(final @NotNull String name, final @NotNull String recipe) throws IllegalArgumentException, IllegalStateException {
+        ensureTransaction();
+        // Throwing exception if name is not a valid relative path. Name is used in place of a file path, for example to derive the recipe key.
+        if (name.isEmpty() == true || name.startsWith("/") == true || Path.of(name).isAbsolute() == true)
+            throw new IllegalArgumentException("Recipe name \"" + name + "\" is not a valid relative path.");
+        recipes.put(name, recipe);
+        recipeHashes.put(name, Digests.sha256(recipe));
+    }
+
+    /** Removes recipe stored under specified name. Returns {@code true} if recipe has been removed. Must be called within a transaction. */
+    public boolean removeRecipe(final @NotNull String name) throws IllegalStateException {
+        ensureTransaction();
+        recipeHashes.remove(name);
+        return recipes.remove(name) != null;
+    }
+
+    /** Returns all custom items, mapped by their identifier. Returned map is a read-only view. */
+    public @NotNull @Unmodifiable Map<String, String> items() {
+        return Collections.unmodifiableMap(items);
+    }
+
+    /** Stores custom item under specified identifier, replacing the previous one. Must be called within a transaction. */
+    public void putItem(final @NotNull String identifier, final @NotNull String item) throws IllegalStateException {
+        ensureTransaction();
+        items.put(identifier, item);
+    }
+
+    /** Removes custom item stored under specified identifier. Returns {@code true} if item has been removed. Must be called within a transaction. */
+    public boolean removeItem(final @NotNull String identifier) throws IllegalStateException {
+        ensureTransaction();
+        return items.remove(identifier) != null;
+    }
+
+    /**
+     * Runs specified action, which modifies the store, as a single transaction. Changes are persisted atomically once the action completes, or discarded if it throws.
+     * Transactions are executed one at a time, so changes made by other threads are never persisted or discarded along with these. Transactions cannot be nested.
+     *
+     * @throws IllegalStateException if called within another transaction
+     */
+    public void transaction(final @NotNull Runnable action) throws IllegalStateException, MVStoreException {
+        beginTransaction();
+        try {
+            action.run();
+            store.commit();
+        } catch (final RuntimeException e) {
+            // Discarding changes made by the action.
+            store.rollback();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for the running transaction, if any, and begins a new one.
+    private void beginTransaction() throws IllegalStateException {
+        // Throwing exception if called within another transaction. Committing this one would persist changes of the outer one as well.
+        if (lock.isHeldByCurrentThread() == true)
+            throw new IllegalStateException("Transactions cannot be nested.");
+        lock.lock();
+    }
+
+    // Throws exception if current thread is not running a transaction.
+    private void ensureTransaction() throws IllegalStateException {
+        if (lock.isHeldByCurrentThread() == false)
+            throw new IllegalStateException("Store can be modified only within a transaction.");
+    }
+
+    /**
+     * Imports recipes and custom items from the JSON layout. Plain recipe files within {@code recipesDir} are stored under their relative path, and moved to {@code importedDir}
+     * afterwards, so they are not loaded twice. Bundles and archives are left in place, as they are already loaded efficiently. Custom items are copied from {@code itemRegistry}, which is left in place.
+     * <p>
+     * Files are read and parsed before the transaction begins, so other writers wait only for the contents to be stored. Everything is imported in a single transaction.
+     * Files are moved before the transaction is committed, and moved back if moving any of them, or the commit, fails. Nothing is imported, and no file is moved, if any of the files is malformed.
+     * Stored recipes should not be loaded while the import is running, as its changes are visible before they are committed.
+     *
+     * @throws IOException if any file cannot be read or moved
+     * @throws JsonParseException if any file is malformed
+     * @throws IllegalStateException if called within a transaction
+     */
+    public @NotNull ImportResult importFrom(final @NotNull Path recipesDir, final @NotNull Path importedDir, final @NotNull Path itemRegistry) throws IOException, JsonParseException, IllegalStateException {
+        final List<Path> files = new ArrayList<>();
+        // Collecting plain recipe files. Bundles and archives are skipped.
+        if (Files.isDirectory(recipesDir) == true) {
+            try (final Stream<Path> stream = Files.walk(recipesDir)) {
+                stream.filter(file -> file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json") == true && Files.isRegularFile(file) == true).sorted().forEach(files::add);
+            }
+        }
+        // Contents of recipe files to import, mapped by the file.
+        final Map<Path, String> recipes = new LinkedHashMap<>();
+        for (final Path file : files) {
+            final String contents = Files.readString(file, StandardCharsets.UTF_8);
+            final JsonElement element = parse(file, contents);
+            // Skipping bundles defined as a top-level JSON array.
+            if (element.isJsonArray() == true)
+                continue;
+            // Throwing exception if the value is not an object.
+            if (element.isJsonObject() == false)
+                throw new JsonParseException("Expected JsonObject in \"" + recipesDir.relativize(file) + "\".");
+            recipes.put(file, element.toString());
+        }
+        // Custom items to import, mapped by their identifier.
+        final Map<String, String> items = new LinkedHashMap<>();
+        if (Files.isRegularFile(itemRegistry) == true) {
+            try (final Reader reader = Files.newBufferedReader(itemRegistry, StandardCharsets.UTF_8)) {
+                final JsonElement element = JsonParser.parseReader(reader);
+                // Throwing exception if the value is not an object.
+                if (element.isJsonObject() == false)
+                    throw new JsonParseException("Expected JsonObject in \"" + itemRegistry.getFileName() + "\".");
+                element.getAsJsonObject().entrySet().forEach(entry -> items.put(entry.getKey(), entry.getValue().toString()));
+            }
+        }
+        // Files which have been moved to the imported directory, mapped to their original location.
+        final Map<Path, Path> moved = new LinkedHashMap<>();
+        beginTransaction();
+        try {
+            recipes.forEach((file, recipe) -> putRecipe(recipesDir.relativize(file).toString().replace('\\', '/'), recipe));
+            items.forEach(this::putItem);
+            // Moving imported files, so they are not loaded again along with the stored recipes. This is done before the commit, so a failed move leaves the store untouched.
+            for (final Path file : recipes.keySet()) {
+                final Path target = importedDir.resolve(recipesDir.relativize(file));
+                Files.createDirectories(target.getParent());
+                Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                moved.put(target, file);
+            }
+            store.commit();
+            return new ImportResult(recipes.size(), items.size());
+        } catch (final IOException | RuntimeException e) {
+            // Discarding everything that has been imported so far, and moving files back to where they were.
+            store.rollback();
+            restore(moved, e);
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Moves files back to their original location. Files which cannot be moved back are reported as suppressed exceptions of the specified one.
+    private static void restore(final @NotNull Map<Path, Path> moved, final @NotNull Exception exception) {
+        moved.forEach((target, source) -> {
+            try {
+                Files.move(target, source, StandardCopyOption.REPLACE_EXISTING);
+            } catch (final IOException e) {
+                exception.addSuppressed(e);
+            }
+        });
+    }
+
+    // Parses specified contents, rethrowing exceptions with the file name attached.
+    private static @NotNull JsonElement parse(final @NotNull Path file, final @NotNull String contents) throws JsonParseException {
+        try {
+            return JsonParser.parseString(contents);
+        } catch (final JsonParseException e) {
+            throw new JsonParseException("File \"" + file.getFileName() + "\" is malformed: " + e.getMessage(), e);
+        }
+    }
+
+    /** Closes the store. Waits for the running transaction or import, if any, to complete. */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            store.close();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Represents result of {@link #importFrom(Path, Path, Path)}. */
+    public record ImportResult(int recipes, int items) { }
+
+}
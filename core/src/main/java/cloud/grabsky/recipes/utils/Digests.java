@@ -1,7 +1,6 @@
 /*
  * BSD 3-Clause License
  *
- * Copyright (c) 2023, Lorenzo Magni
  * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
  * All rights reserved.
  *
@@ -30,37 +29,41 @@
  * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
  * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
  */
-package cloud.grabsky.recipes.configuration.adapters;
+package cloud.grabsky.recipes.utils;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
-import com.google.gson.JsonParseException;
-import io.papermc.paper.registry.RegistryAccess;
-import io.papermc.paper.registry.RegistryKey;
-import org.bukkit.NamespacedKey;
-import org.bukkit.inventory.ItemType;
-
-import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 import org.jetbrains.annotations.NotNull;
-import org.jetbrains.annotations.Nullable;
 
-@SuppressWarnings("UnstableApiUsage")
-public enum ItemTypeAdapter implements JsonDeserializer<ItemType> {
-    INSTANCE; // SINGLETON
+// Utility class containing methods used to compute content hashes of recipe files, custom items and so on.
+public final class Digests {
+
+    /** Returns hex-encoded SHA-256 digest of specified bytes. */
+    public static @NotNull String sha256(final byte @NotNull [] bytes) {
+        return HexFormat.of().formatHex(newSha256().digest(bytes));
+    }
+
+    /** Returns new SHA-256 {@link MessageDigest}, which can be used to compute digest of streamed contents. */
+    public static @NotNull MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException e) {
+            // Should never happen as every Java platform implementation is required to support SHA-256.
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /** Completes specified {@link MessageDigest} and returns the result, hex-encoded. */
+    public static @NotNull String hex(final @NotNull MessageDigest digest) {
+        return HexFormat.of().formatHex(digest.digest());
+    }
 
-    @Override
-    public @NotNull ItemType deserialize(final @NotNull JsonElement element, final @NotNull Type classType, final @NotNull JsonDeserializationContext context) throws JsonParseException {
-        // Getting the element value as NamespacedKey.
-        final NamespacedKey key = context.deserialize(element, NamespacedKey.class);
-        // Getting the item type from the registry.
-        final @Nullable ItemType type = RegistryAccess.registryAccess().getRegistry(RegistryKey.ITEM).get(key);
-        // Throwing an exception if item type is null.
-        if (type == null)
-            throw new JsonParseException("Key \"" + key.asString() + "\" does not point to any item type.");
-        // Returning...
-        return type;
+    /** Returns hex-encoded SHA-256 digest of specified string, encoded as UTF-8. */
+    public static @NotNull String sha256(final @NotNull String string) {
+        return sha256(string.getBytes(StandardCharsets.UTF_8));
     }
 
 }
@@ -0,0 +1,218 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Local cache of plugin libraries, verified against the {@code paper-libraries.lock} file generated at build time.
+ * Each library is looked up in the cache directory, then in the server-wide Maven repository used by Paper, and finally in the plugin jar itself.
+ * Libraries found in either of these places are added to the classpath directly, and only the missing ones have to be resolved from remote repositories.
+ * Verified libraries are stored in the cache directory along with their size and modification time, and are not hashed again unless either of these changes.
+ */
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+public final class LibraryCache {
+
+    /** Name of the resource containing checksums of all libraries, including transitive ones. */
+    public static final String LOCK_FILE = "/paper-libraries.lock";
+
+    /** Directory inside plugin jar in which libraries may be bundled. */
+    public static final String BUNDLED_DIRECTORY = "/libraries/";
+
+    /** Extension of files storing checksum, size and modification time of verified libraries, so that unchanged libraries are not hashed on every start. */
+    public static final String VERIFIED_EXTENSION = ".verified";
+
+    // Directory in which verified libraries are stored.
+    private final @NotNull Path directory;
+
+    // Local Maven repository used by Paper to store libraries resolved from remote repositories.
+    private final @NotNull Path repository;
+
+    /**
+     * Reads the lock file from the plugin jar. Returns {@code null} if the plugin has been built without it.
+     *
+     * @throws IOException if the file cannot be read
+     * @throws IllegalArgumentException if the file is malformed
+     */
+    public static @Nullable List<Artifact> readLockFile() throws IOException, IllegalArgumentException {
+        try (final @Nullable InputStream in = LibraryCache.class.getResourceAsStream(LOCK_FILE)) {
+            // Returning null if lock file does not exist.
+            if (in == null)
+                return null;
+            final List<Artifact> artifacts = new ArrayList<>();
+            final BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+            String line;
+            while ((line = reader.readLine()) != null) {
+                // Skipping empty lines and comments.
+                if (line.isBlank() == true || line.startsWith("#") == true)
+                    continue;
+                artifacts.add(Artifact.parse(line.strip()));
+            }
+            return Collections.unmodifiableList(artifacts);
+        }
+    }
+
+    /**
+     * Returns path to verified jar of specified artifact, or {@code null} if it is not available locally.
+     * Libraries found in the local Maven repository or bundled in the plugin jar are copied to the cache directory, so that libraries resolved from remote repositories end up in the cache on the next start.
+     */
+    public @Nullable Path find(final @NotNull Artifact artifact) throws IOException {
+        // Checking the cache directory first.
+        final Path cached = directory.resolve(artifact.fileName());
+        if (isValid(cached, artifact) == true)
+            return cached;
+        // Checking the local Maven repository used by Paper, and copying the library to the cache directory.
+        final Path stored = repository.resolve(artifact.repositoryPath());
+        if (Files.isRegularFile(stored) == true) {
+            try (final InputStream in = Files.newInputStream(stored)) {
+                if (copy(in, artifact) == true)
+                    return cached;
+            }
+        }
+        // Checking libraries bundled in the plugin jar, and copying them to the cache directory.
+        try (final @Nullable InputStream in = LibraryCache.class.getResourceAsStream(BUNDLED_DIRECTORY + artifact.fileName())) {
+            return (in != null && copy(in, artifact) == true) ? cached : null;
+        }
+    }
+
+    // Copies contents of specified stream to the cache directory. Returns false, leaving the cache untouched, if contents do not match checksum of specified artifact.
+    private boolean copy(final @NotNull InputStream in, final @NotNull Artifact artifact) throws IOException {
+        Files.createDirectories(directory);
+        // Copying to a temporary file first, so that partially written files are never picked up.
+        final Path temporary = Files.createTempFile(directory, artifact.fileName(), ".tmp");
+        try {
+            final MessageDigest digest = Digests.newSha256();
+            try (final InputStream digestIn = new DigestInputStream(in, digest)) {
+                Files.copy(digestIn, temporary, StandardCopyOption.REPLACE_EXISTING);
+            }
+            // Discarding the file if it does not match the expected checksum.
+            if (Digests.hex(digest).equalsIgnoreCase(artifact.sha256()) == false)
+                return false;
+            final Path cached = directory.resolve(artifact.fileName());
+            Files.move(temporary, cached, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            // Marking the file as verified, so that it is not hashed again on the next start.
+            markVerified(cached, artifact);
+            return true;
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Returns true if specified cached file exists and matches checksum of specified artifact. Files which have not changed since they were last verified are not hashed again.
+    private boolean isValid(final @NotNull Path file, final @NotNull Artifact artifact) throws IOException {
+        if (Files.isRegularFile(file) == false)
+            return false;
+        // Skipping verification if size and modification time of the file match those recorded when it was last verified.
+        final Path marker = marker(artifact);
+        if (Files.isRegularFile(marker) == true && Files.readString(marker, StandardCharsets.UTF_8).equals(stamp(file, artifact)) == true)
+            return true;
+        final MessageDigest digest = Digests.newSha256();
+        try (final InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        // Returning false if the file does not match the expected checksum.
+        if (Digests.hex(digest).equalsIgnoreCase(artifact.sha256()) == false)
+            return false;
+        markVerified(file, artifact);
+        return true;
+    }
+
+    // Records checksum, size and modification time of specified verified file next to it.
+    private void markVerified(final @NotNull Path file, final @NotNull Artifact artifact) throws IOException {
+        Files.writeString(marker(artifact), stamp(file, artifact), StandardCharsets.UTF_8);
+    }
+
+    // Returns path to the file in which verification stamp of specified artifact is stored.
+    private @NotNull Path marker(final @NotNull Artifact artifact) {
+        return directory.resolve(artifact.fileName() + VERIFIED_EXTENSION);
+    }
+
+    // Returns verification stamp of specified file, consisting of expected checksum, size and modification time.
+    private static @NotNull String stamp(final @NotNull Path file, final @NotNull Artifact artifact) throws IOException {
+        return artifact.sha256().toLowerCase(Locale.ROOT) + " " + Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis();
+    }
+
+    /**
+     * Represents a single library listed in the lock file.
+     * Each line of the lock file consists of hex-encoded SHA-256 checksum and Maven coordinates, separated with whitespace.
+     */
+    public record Artifact(@NotNull String sha256, @NotNull String groupId, @NotNull String artifactId, @NotNull String version, @Nullable String classifier) {
+
+        /** Parses single line of the lock file. */
+        public static @NotNull Artifact parse(final @NotNull String line) throws IllegalArgumentException {
+            final String[] parts = line.split("\\s+");
+            if (parts.length != 2 || parts[0].length() != 64)
+                throw new IllegalArgumentException("Malformed lock file entry: " + line);
+            final String[] coordinates = parts[1].split(":");
+            if (coordinates.length < 3 || coordinates.length > 4)
+                throw new IllegalArgumentException("Malformed artifact coordinates: " + parts[1]);
+            return new Artifact(parts[0], coordinates[0], coordinates[1], coordinates[2], (coordinates.length == 4) ? coordinates[3] : null);
+        }
+
+        /** Returns Maven coordinates of this artifact, in {@code groupId:artifactId:version[:classifier]} format. */
+        public @NotNull String coordinates() {
+            return groupId + ":" + artifactId + ":" + version + ((classifier != null) ? ":" + classifier : "");
+        }
+
+        /** Returns name of the jar file of this artifact. */
+        public @NotNull String fileName() {
+            return artifactId + "-" + version + ((classifier != null) ? "-" + classifier : "") + ".jar";
+        }
+
+        /** Returns path of this artifact within a Maven repository. */
+        public @NotNull String repositoryPath() {
+            return groupId.replace('.', '/') + "/" + artifactId + "/" + version + "/" + fileName();
+        }
+
+    }
+
+}
@@ -0,0 +1,184 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeCompilerTest {
+
+    private static final RegistrySnapshot SNAPSHOT = new RegistrySnapshot(
+            Set.of("minecraft:stick", "minecraft:oak_planks", "minecraft:birch_planks", "minecraft:oak_button", "minecraft:birch_button"),
+            Map.of(Key.key("minecraft", "planks"), List.of("oak_planks", "birch_planks")),
+            Set.of("ruby")
+    );
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recipesAreInOrderOfPaths() throws IOException {
+        write("nested/c.json", recipe(null, "minecraft:stick"));
+        write("b.json", recipe(null, "minecraft:stick"));
+        write("a.json", recipe(null, "minecraft:stick"));
+        write("bundle.jsonl", recipe("test:bundled_1", "minecraft:stick") + "\n" + recipe("test:bundled_2", "minecraft:stick"));
+        final RecipeCompiler.Result result = compile();
+        assertEquals(List.of(), result.problems());
+        assertEquals(4, result.files());
+        assertEquals(List.of("test:a", "test:b", "test:bundled_1", "test:bundled_2", "test:nested/c"), keys(result));
+    }
+
+    @Test
+    void templatesAreExpandedAgainstSnapshot() throws IOException {
+        write("buttons.json", """
+                {
+                  "type": "template",
+                  "parameters": { "wood": "#minecraft:planks" },
+                  "recipe": {
+                    "key": "test:{wood}_button",
+                    "type": "crafting_shapeless",
+                    "ingredients": [{ "type": "minecraft:{wood}" }],
+                    "result": { "type": "minecraft:stick" }
+                  }
+                }
+                """);
+        final RecipeCompiler.Result result = compile();
+        assertEquals(List.of(), result.problems());
+        assertEquals(List.of("test:oak_planks_button", "test:birch_planks_button"), keys(result));
+    }
+
+    @Test
+    void duplicatedKeysAreReportedOnce() throws IOException {
+        write("a.json", recipe("test:same", "minecraft:stick"));
+        write("b.json", recipe("test:same", "minecraft:oak_planks"));
+        write("c.json", recipe("test:other", "minecraft:stick"));
+        final RecipeCompiler.Result result = compile();
+        // The first definition wins, just like on the server.
+        assertEquals(List.of("test:same", "test:other"), keys(result));
+        assertEquals("minecraft:stick", result.recipes().getFirst().getAsJsonObject("result").get("type").getAsString());
+        assertEquals(List.of(new RecipeCompiler.Problem("b.json", "Key \"test:same\" is duplicated.")), result.problems());
+    }
+
+    @Test
+    void unresolvedReferencesAreReported() throws IOException {
+        write("type.json", recipe(null, "minecraft:diamond"));
+        write("tag.json", """
+                { "type": "crafting_shapeless", "ingredients": [{ "tag": "#minecraft:logs" }], "result": { "type": "minecraft:stick" } }
+                """);
+        write("item.json", """
+                { "type": "crafting_shapeless", "ingredients": [{ "registered_item": "emerald" }], "result": { "registered_item": "ruby" } }
+                """);
+        write("valid.json", recipe(null, "minecraft:stick"));
+        final RecipeCompiler.Result result = compile();
+        assertEquals(List.of("test:valid"), keys(result));
+        assertEquals(3, result.problems().size());
+        assertProblem(result, "item.json (test:item)", "custom item \"emerald\"");
+        assertProblem(result, "tag.json (test:tag)", "item tag \"#minecraft:logs\"");
+        assertProblem(result, "type.json (test:type)", "item type \"minecraft:diamond\"");
+    }
+
+    @Test
+    void invalidFilesAreReported() throws IOException {
+        write("malformed.json", "{ \"type\": ");
+        write("valid.json", recipe(null, "minecraft:stick"));
+        final RecipeCompiler.Result result = compile();
+        assertEquals(List.of("test:valid"), keys(result));
+        assertEquals(1, result.problems().size());
+        assertTrue(result.problems().getFirst().location().startsWith("malformed.json") == true);
+    }
+
+    @Test
+    void archivesAreCompiled() throws IOException {
+        try (final ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(directory.resolve("pack.zip")))) {
+            out.putNextEntry(new ZipEntry("tools/stick.json"));
+            out.write(recipe(null, "minecraft:stick").getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+            out.putNextEntry(new ZipEntry("tools/diamond.json"));
+            out.write(recipe(null, "minecraft:diamond").getBytes(StandardCharsets.UTF_8));
+            out.closeEntry();
+        }
+        write("broken.zip", "not an archive");
+        final RecipeCompiler.Result result = compile();
+        // Keys of archive entries are derived from their path within the archive.
+        assertEquals(List.of("test:tools/stick"), keys(result));
+        assertEquals(2, result.problems().size());
+        assertEquals("broken.zip", result.problems().getFirst().location());
+        assertProblem(result, "pack.zip!/tools/diamond.json (test:tools/diamond)", "item type \"minecraft:diamond\"");
+    }
+
+    @Test
+    void missingDirectoryIsRejected() {
+        assertThrows(NotDirectoryException.class, () -> new RecipeCompiler("test", SNAPSHOT, 1).compile(directory.resolve("missing")));
+    }
+
+    private @NotNull RecipeCompiler.Result compile() throws IOException {
+        return new RecipeCompiler("test", SNAPSHOT, 4).compile(directory);
+    }
+
+    private void write(final @NotNull String path, final @NotNull String contents) throws IOException {
+        final Path file = directory.resolve(path);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, contents, StandardCharsets.UTF_8);
+    }
+
+    private static @NotNull String recipe(final @Nullable String key, final @NotNull String result) {
+        return "{ " + ((key != null) ? "\"key\": \"" + key + "\", " : "") + "\"type\": \"crafting_shapeless\", \"ingredients\": [{ \"type\": \"minecraft:stick\" }], \"result\": { \"type\": \"" + result + "\" } }";
+    }
+
+    private static @NotNull List<String> keys(final @NotNull RecipeCompiler.Result result) {
+        return result.recipes().stream().map(recipe -> recipe.get("key").getAsString()).toList();
+    }
+
+    private static void assertProblem(final @NotNull RecipeCompiler.Result result, final @NotNull String location, final @NotNull String reference) {
+        assertTrue(result.problems().stream().anyMatch(problem -> problem.location().equals(location) == true && problem.message().contains(reference) == true), () -> "No problem with " + reference + " at " + location + " in " + result.problems());
+    }
+
+}
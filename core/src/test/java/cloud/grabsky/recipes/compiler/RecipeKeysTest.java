@@ -0,0 +1,83 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import net.kyori.adventure.key.Key;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+final class RecipeKeysTest {
+
+    @Test
+    void keysAreDerivedFromRelativePaths() {
+        assertEquals("diamond_sword", RecipeKeys.derive("diamond_sword.json"));
+        assertEquals("tools/diamond_sword", RecipeKeys.derive("tools/diamond_sword.json"));
+        assertEquals("tools/diamond_sword", RecipeKeys.derive("Tools/Diamond_Sword.JSON"));
+    }
+
+    @Test
+    void spacesAndBackSlashesAreTranslated() {
+        assertEquals("diamond_sword", RecipeKeys.derive("Diamond Sword.json"));
+        assertEquals("tools/diamond_sword", RecipeKeys.derive("tools\\diamond sword.json"));
+    }
+
+    @Test
+    void invalidCharactersAreIgnored() {
+        assertEquals("sword", RecipeKeys.derive("diamond+sword.json"));
+        assertEquals("legacy/stick.v2", RecipeKeys.derive("legacy/stick.v2.json"));
+    }
+
+    @Test
+    void emptyKeysAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeKeys.derive(".json"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeKeys.derive("sword?.json"));
+    }
+
+    @Test
+    void namespacesAreSanitised() {
+        assertEquals("mypack", RecipeKeys.namespace("mypack"));
+        assertEquals("my_pack.v2", RecipeKeys.namespace("my_pack.v2"));
+        assertEquals("pack", RecipeKeys.namespace("my/pack"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeKeys.namespace(""));
+        assertThrows(IllegalArgumentException.class, () -> RecipeKeys.namespace("pack!"));
+    }
+
+    @Test
+    void invalidKeysAreRejected() {
+        assertEquals(Key.key("mypack", "tools/diamond_sword"), RecipeKeys.of("mypack", "tools/diamond_sword"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeKeys.of("My Pack", "diamond_sword"));
+    }
+
+}
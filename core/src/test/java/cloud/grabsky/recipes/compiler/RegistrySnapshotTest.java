@@ -0,0 +1,104 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.compiler;
+
+import com.google.gson.JsonParseException;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RegistrySnapshotTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void snapshotSurvivesRoundTrip() throws IOException {
+        final RegistrySnapshot snapshot = new RegistrySnapshot(
+                Set.of("minecraft:stick", "minecraft:oak_planks", "minecraft:birch_planks"),
+                Map.of(Key.key("minecraft", "planks"), List.of("oak_planks", "birch_planks"), Key.key("mypack", "empty"), List.of()),
+                Set.of("ruby", "sapphire")
+        );
+        final Path file = directory.resolve("nested").resolve(RegistrySnapshot.FILE_NAME);
+        snapshot.write(file);
+        final RegistrySnapshot read = RegistrySnapshot.read(file);
+        assertEquals(snapshot, read);
+        // Members of tags are kept in their original order.
+        assertEquals(List.of("oak_planks", "birch_planks"), read.itemTags().get(Key.key("minecraft", "planks")));
+        assertTrue(read.isItemType(Key.key("minecraft", "stick")));
+        assertTrue(read.isItemTag(Key.key("mypack", "empty")));
+        assertTrue(read.isRegisteredItem("ruby"));
+        assertFalse(read.isItemType(Key.key("minecraft", "diamond")));
+    }
+
+    @Test
+    void snapshotsOfSameRegistriesAreIdentical() throws IOException {
+        final Path first = directory.resolve("first.json");
+        final Path second = directory.resolve("second.json");
+        new RegistrySnapshot(Set.of("minecraft:b", "minecraft:a"), Map.of(), Set.of("y", "x")).write(first);
+        new RegistrySnapshot(Set.of("minecraft:a", "minecraft:b"), Map.of(), Set.of("x", "y")).write(second);
+        assertEquals(Files.readString(first), Files.readString(second));
+    }
+
+    @Test
+    void unsupportedFormatsAreRejected() throws IOException {
+        final Path file = directory.resolve(RegistrySnapshot.FILE_NAME);
+        Files.writeString(file, "{ \"format\": 2, \"item_types\": [], \"item_tags\": {}, \"registered_items\": [] }", StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> RegistrySnapshot.read(file));
+        Files.writeString(file, "{ \"item_types\": [], \"item_tags\": {}, \"registered_items\": [] }", StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> RegistrySnapshot.read(file));
+    }
+
+    @Test
+    void malformedEntriesAreRejected() throws IOException {
+        final Path file = directory.resolve(RegistrySnapshot.FILE_NAME);
+        Files.writeString(file, "{ \"format\": 1, \"item_tags\": { \"Invalid Tag\": [] } }", StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> RegistrySnapshot.read(file));
+        Files.writeString(file, "{ \"format\": 1, \"item_types\": [1] }", StandardCharsets.UTF_8);
+        assertThrows(JsonParseException.class, () -> RegistrySnapshot.read(file));
+    }
+
+}
@@ -0,0 +1,156 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.configuration.adapters;
+
+import cloud.grabsky.recipes.model.recipes.RecipeDefinition;
+import cloud.grabsky.recipes.model.recipes.RecipeTemplate;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapelessRecipeWrapper;
+import net.kyori.adventure.key.Key;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeWrapperAdapterTest {
+
+    @Test
+    void recipesUsingTagsDependOnDatapacks() throws IOException {
+        assertTrue(read("""
+                { "type": "crafting_shapeless", "ingredients": [{ "tag": "#minecraft:planks" }], "result": { "type": "minecraft:stick" } }
+                """).isDatapackDependent());
+        assertTrue(read("""
+                { "type": "smelting", "input": { "tag": "#minecraft:logs" }, "result": { "type": "minecraft:charcoal" } }
+                """).isDatapackDependent());
+    }
+
+    @Test
+    void resultsWithComponentsDependOnDatapacks() throws IOException {
+        final RecipeWrapper recipe = read("""
+                { "type": "stonecutting", "input": { "type": "minecraft:stone" }, "result": { "type": "minecraft:stone_slab", "components": { "minecraft:max_stack_size": 16 } } }
+                """);
+        assertTrue(recipe.isDatapackDependent());
+        // Components do not depend on contents of tags, so such recipes can be restored from the snapshot.
+        assertFalse(recipe.isTagDependent());
+    }
+
+    @Test
+    void recipesUsingTagsDependOnTags() throws IOException {
+        assertTrue(read("""
+                { "type": "smelting", "input": { "tag": "#minecraft:logs" }, "result": { "type": "minecraft:charcoal" } }
+                """).isTagDependent());
+        assertTrue(read("""
+                { "type": "stonecutting", "discover": { "items": [{ "tag": "#minecraft:stone_crafting_materials" }] }, "input": { "type": "minecraft:stone" }, "result": { "type": "minecraft:stone_slab" } }
+                """).isTagDependent());
+    }
+
+    @Test
+    void recipesUsingOnlyItemTypesAreRegisteredFromMemory() throws IOException {
+        final RecipeWrapper recipe = read("""
+                { "type": "crafting_shaped", "pattern": ["S ", "S "], "pattern_key": { "S": { "type": "minecraft:stick" } }, "result": { "type": "minecraft:torch", "amount": 4 } }
+                """);
+        assertTrue(recipe.isValid());
+        assertFalse(recipe.isDatapackDependent());
+    }
+
+    @Test
+    void variantsOfTemplatesBoundToTagsDependOnDatapacks() throws IOException {
+        final RecipeTemplate template = (RecipeTemplate) RecipeWrapperAdapter.DEFINITIONS.fromJson("""
+                {
+                  "type": "template",
+                  "parameters": { "wood": "#minecraft:planks" },
+                  "recipe": { "key": "test:{wood}", "type": "stonecutting", "input": { "type": "minecraft:{wood}" }, "result": { "type": "minecraft:stick" } }
+                }
+                """);
+        final List<Map<String, String>> bindings = template.bindings(Map.of(Key.key("minecraft", "planks"), List.of("oak_planks", "birch_planks"))::get);
+        assertEquals(2, bindings.size());
+        final RecipeWrapperAdapter.CompiledTemplate compiled = RecipeWrapperAdapter.INSTANCE.compile(template, null);
+        for (final Map<String, String> binding : bindings) {
+            final RecipeWrapper recipe = compiled.expand(binding);
+            assertTrue(recipe.isDatapackDependent());
+            assertTrue(recipe.isTagDependent());
+        }
+    }
+
+    @Test
+    void variantsOfTemplatesBoundToValuesAreRegisteredFromMemory() throws IOException {
+        final RecipeTemplate template = (RecipeTemplate) RecipeWrapperAdapter.DEFINITIONS.fromJson("""
+                {
+                  "type": "template",
+                  "parameters": { "wood": ["oak_planks", "birch_planks"] },
+                  "recipe": { "key": "test:{wood}", "type": "stonecutting", "input": { "type": "minecraft:{wood}" }, "result": { "type": "minecraft:stick" } }
+                }
+                """);
+        final RecipeWrapperAdapter.CompiledTemplate compiled = RecipeWrapperAdapter.INSTANCE.compile(template, null);
+        for (final Map<String, String> binding : template.bindings(key -> null)) {
+            final RecipeWrapper recipe = compiled.expand(binding);
+            assertEquals(Key.key("test", binding.get("wood")), recipe.getKey());
+            assertFalse(recipe.isDatapackDependent());
+        }
+    }
+
+    @Test
+    void constantPropertiesOfTemplatesAreSharedByVariants() throws IOException {
+        final RecipeTemplate template = (RecipeTemplate) RecipeWrapperAdapter.DEFINITIONS.fromJson("""
+                {
+                  "type": "template",
+                  "parameters": { "wood": ["oak_planks", "birch_planks"] },
+                  "recipe": { "key": "test:{wood}", "type": "crafting_shapeless", "ingredients": [{ "type": "minecraft:{wood}" }, { "type": "minecraft:stick" }], "result": { "type": "minecraft:chest" } }
+                }
+                """);
+        final RecipeWrapperAdapter.CompiledTemplate compiled = RecipeWrapperAdapter.INSTANCE.compile(template, null);
+        final ShapelessRecipeWrapper first = (ShapelessRecipeWrapper) compiled.expand(Map.of("wood", "oak_planks"));
+        final ShapelessRecipeWrapper second = (ShapelessRecipeWrapper) compiled.expand(Map.of("wood", "birch_planks"));
+        // Properties without placeholders are parsed once.
+        assertSame(first.getResult(), second.getResult());
+        assertSame(first.getIngredients().get(1), second.getIngredients().get(1));
+        // Properties with placeholders are parsed for each variant.
+        assertNotEquals(first.getIngredients().get(0), second.getIngredients().get(0));
+        assertEquals(Key.key("test", "birch_planks"), second.getKey());
+    }
+
+    private static @NotNull RecipeWrapper read(final @NotNull String json) throws IOException {
+        final RecipeDefinition definition = RecipeWrapperAdapter.DEFINITIONS.fromJson(json);
+        return assertInstanceOf(RecipeWrapper.class, definition);
+    }
+
+}
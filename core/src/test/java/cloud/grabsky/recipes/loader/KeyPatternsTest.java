@@ -0,0 +1,140 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import net.kyori.adventure.key.Key;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class KeyPatternsTest {
+
+    @Test
+    void plainKeysMatchExactly() {
+        final KeyPatterns patterns = compile("minecraft:oak_boat", "stick", "mypack:torch");
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_boat")));
+        assertTrue(patterns.matches(Key.key("minecraft", "stick")));
+        assertTrue(patterns.matches(Key.key("mypack", "torch")));
+        assertFalse(patterns.matches(Key.key("minecraft", "oak_boat_2")));
+        assertFalse(patterns.matches(Key.key("minecraft", "torch")));
+    }
+
+    @Test
+    void singleStarDoesNotCrossSlashes() {
+        final KeyPatterns patterns = compile("minecraft:*_boat");
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_boat")));
+        assertTrue(patterns.matches(Key.key("minecraft", "dark_oak_boat")));
+        assertFalse(patterns.matches(Key.key("minecraft", "oak_boat_item")));
+        assertFalse(patterns.matches(Key.key("minecraft", "legacy/oak_boat")));
+        assertFalse(patterns.matches(Key.key("other", "oak_boat")));
+    }
+
+    @Test
+    void doubleStarMatchesNestedPaths() {
+        final KeyPatterns patterns = compile("mypack:legacy/**");
+        assertTrue(patterns.matches(Key.key("mypack", "legacy/a")));
+        assertTrue(patterns.matches(Key.key("mypack", "legacy/a/b/c")));
+        assertFalse(patterns.matches(Key.key("mypack", "legacy")));
+        assertFalse(patterns.matches(Key.key("mypack", "current/a")));
+    }
+
+    @Test
+    void questionMarkMatchesSingleCharacter() {
+        final KeyPatterns patterns = compile("minecraft:stone_?");
+        assertTrue(patterns.matches(Key.key("minecraft", "stone_a")));
+        assertFalse(patterns.matches(Key.key("minecraft", "stone_ab")));
+        assertFalse(patterns.matches(Key.key("minecraft", "stone_")));
+    }
+
+    @Test
+    void globsWithSharedPrefixesAreAllTested() {
+        final KeyPatterns patterns = compile("minecraft:oak_*", "minecraft:o*_stairs", "minecraft:*");
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_planks")));
+        assertTrue(patterns.matches(Key.key("minecraft", "other_stairs")));
+        assertTrue(patterns.matches(Key.key("minecraft", "anything")));
+        assertFalse(patterns.matches(Key.key("minecraft", "nested/anything")));
+    }
+
+    @Test
+    void globsWithSameLiteralPrefixAreAllTested() {
+        final KeyPatterns patterns = compile("minecraft:oak_*_slab", "minecraft:oak_?", "minecraft:oak_**/stairs");
+        assertEquals(3, patterns.size());
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_wood_slab")));
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_a")));
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_legacy/wood/stairs")));
+        assertFalse(patterns.matches(Key.key("minecraft", "oak_wood")));
+        assertFalse(patterns.matches(Key.key("minecraft", "birch_a")));
+    }
+
+    @Test
+    void regularExpressionsMatchWholeKey() {
+        final KeyPatterns patterns = compile("~minecraft:.+_(boat|raft)", "~mypack:[0-9]+");
+        assertTrue(patterns.matches(Key.key("minecraft", "oak_boat")));
+        assertTrue(patterns.matches(Key.key("minecraft", "bamboo_raft")));
+        assertTrue(patterns.matches(Key.key("mypack", "123")));
+        assertFalse(patterns.matches(Key.key("minecraft", "oak_boats")));
+        assertFalse(patterns.matches(Key.key("mypack", "a123")));
+    }
+
+    @Test
+    void invalidPatternsAreReportedAndSkipped() {
+        final Map<String, String> errors = new HashMap<>();
+        final KeyPatterns patterns = KeyPatterns.compile(List.of("Invalid Key", "~[", "minecraft:stick", " "), errors);
+        assertEquals(2, errors.size());
+        assertTrue(errors.containsKey("Invalid Key") == true && errors.containsKey("~[") == true);
+        assertEquals(1, patterns.size());
+        assertTrue(patterns.matches(Key.key("minecraft", "stick")));
+    }
+
+    @Test
+    void emptyPatternsMatchNothing() {
+        assertTrue(KeyPatterns.EMPTY.isEmpty());
+        assertFalse(KeyPatterns.EMPTY.matches(Key.key("minecraft", "stick")));
+        assertTrue(compile().isEmpty());
+    }
+
+    private static @NotNull KeyPatterns compile(final @NotNull String... patterns) {
+        final Map<String, String> errors = new HashMap<>();
+        final KeyPatterns compiled = KeyPatterns.compile(List.of(patterns), errors);
+        assertEquals(Map.of(), errors);
+        return compiled;
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeDiffTest {
+
+    @Test
+    void identicalRecipesProduceEmptyDiff() {
+        final RecipeDiff<String> diff = RecipeDiff.compute(Map.of("a", 1, "b", 2), Map.of("a", 1, "b", 2));
+        assertTrue(diff.isEmpty());
+    }
+
+    @Test
+    void onlyChangedKeysAreTouched() {
+        final Map<String, Integer> target = new LinkedHashMap<>();
+        target.put("a", 1);
+        target.put("b", 3);
+        target.put("d", 4);
+        final RecipeDiff<String> diff = RecipeDiff.compute(Map.of("a", 1, "b", 2, "c", 3), target);
+        assertFalse(diff.isEmpty());
+        assertEquals(Set.of("d"), diff.added());
+        assertEquals(Set.of("b"), diff.replaced());
+        assertEquals(Set.of("c"), diff.removed());
+    }
+
+    @Test
+    void addedKeysFollowOrderOfTargetRecipes() {
+        final Map<String, Integer> target = new LinkedHashMap<>();
+        for (final String key : List.of("e", "a", "d", "b", "c"))
+            target.put(key, 0);
+        assertEquals(List.of("e", "a", "d", "b", "c"), List.copyOf(RecipeDiff.compute(Map.of(), target).added()));
+    }
+
+    @Test
+    void forgottenRegistrationsAreAddedAgain() {
+        // Server removes all recipes when resources are reloaded, and registered recipes are forgotten. Recipes kept in memory are then registered again as they are.
+        final RecipeDiff<String> diff = RecipeDiff.compute(Map.of(), Map.of("a", 1, "b", 2));
+        assertEquals(Set.of("a", "b"), diff.added());
+        assertTrue(diff.replaced().isEmpty() == true && diff.removed().isEmpty() == true);
+    }
+
+    @Test
+    void removingAllRecipesRemovesEveryKey() {
+        final RecipeDiff<String> diff = RecipeDiff.compute(Map.of("a", 1, "b", 2), Map.of());
+        assertEquals(Set.of("a", "b"), diff.removed());
+        assertTrue(diff.added().isEmpty() == true && diff.replaced().isEmpty() == true);
+    }
+
+}
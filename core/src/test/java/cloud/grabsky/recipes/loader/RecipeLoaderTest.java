@@ -0,0 +1,178 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void resultsAreInOrderOfFiles() throws IOException, InterruptedException {
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            final Path file = directory.resolve("recipe_" + i + ".json");
+            Files.writeString(file, "{ \"index\": " + i + " }", StandardCharsets.UTF_8);
+            files.add(file);
+        }
+        // Parsing files in random order, by sleeping for a random amount of time.
+        final RecipeLoader.Result<String> result = new RecipeLoader(4, 4, 4, null).load(files, parser((file) -> {
+            LockSupport.parkNanos(ThreadLocalRandom.current().nextLong(100_000L));
+            return new String(file.contents(), StandardCharsets.UTF_8);
+        }, () -> false));
+        assertEquals(files.size(), result.results().size());
+        for (int i = 0; i < files.size(); i++)
+            assertEquals("{ \"index\": " + i + " }", result.results().get(i));
+        assertEquals(files.size(), result.stats().files());
+    }
+
+    @Test
+    void failuresAreReportedInPlaceOfResults() throws IOException, InterruptedException {
+        final Path valid = directory.resolve("valid.json");
+        final Path invalid = directory.resolve("invalid.json");
+        Files.writeString(valid, "{}", StandardCharsets.UTF_8);
+        Files.writeString(invalid, "{}", StandardCharsets.UTF_8);
+        final List<Path> files = List.of(valid, directory.resolve("missing.json"), invalid);
+        final RecipeLoader.Result<String> result = new RecipeLoader(2, 2, 1, null).load(files, parser((file) -> {
+            if (file.path().equals(invalid) == true)
+                throw new IllegalStateException("Invalid.");
+            return "parsed";
+        }, () -> false));
+        assertEquals(List.of("parsed", "failed: NoSuchFileException", "failed: IllegalStateException"), result.results());
+    }
+
+    @Test
+    void cancellationStopsLoading() {
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 1000; i++)
+            files.add(Path.of("recipe_" + i + ".json"));
+        final AtomicInteger parsed = new AtomicInteger(0);
+        assertThrows(CancellationException.class, () -> new RecipeLoader(2, 1, 1, null).load(files, RecipeLoaderTest::read, parser((file) -> {
+            parsed.incrementAndGet();
+            return "parsed";
+        }, () -> parsed.get() >= 10)));
+        // Remaining files are skipped. Only files already handed over to the parser can be parsed.
+        assertTrue(parsed.get() < files.size());
+    }
+
+    @Test
+    void recipesCanBeReadFromCustomSource() throws InterruptedException {
+        final List<Path> files = List.of(Path.of("a"), Path.of("b"), Path.of("missing"));
+        final RecipeLoader.Result<String> result = new RecipeLoader(1, 1, 1, null).load(files, (path) -> {
+            if (path.toString().equals("missing") == true)
+                throw new NoSuchFileException(path.toString());
+            return read(path);
+        }, parser((file) -> new String(file.contents(), StandardCharsets.UTF_8), () -> false));
+        assertEquals(List.of("a", "b", "failed: NoSuchFileException"), result.results());
+    }
+
+    @Test
+    void emptyListLoadsNothing() throws InterruptedException {
+        final RecipeLoader.Result<String> result = new RecipeLoader(1, 1, 1, null).load(List.of(), parser((file) -> "parsed", () -> false));
+        assertTrue(result.results().isEmpty());
+    }
+
+    @Test
+    void bundlesAreStreamedInsteadOfRead() throws IOException {
+        final Path lines = directory.resolve("bundle.jsonl");
+        final Path array = directory.resolve("bundle.json");
+        final Path single = directory.resolve("single.json");
+        Files.writeString(lines, "{ \"key\": \"a\" }\n{ \"key\": \"b\" }\n", StandardCharsets.UTF_8);
+        Files.writeString(array, "\n   \t[{ \"key\": \"a\" }]", StandardCharsets.UTF_8);
+        Files.writeString(single, "  { \"key\": \"a\" }", StandardCharsets.UTF_8);
+        // JSON Lines files, and JSON files with an array at the top level, are bundles.
+        final RecipeLoader.RecipeFile linesFile = RecipeLoader.readFile(lines, null);
+        final RecipeLoader.RecipeFile arrayFile = RecipeLoader.readFile(array, null);
+        assertTrue(linesFile.isBundle() == true && arrayFile.isBundle() == true);
+        assertEquals(Files.size(array), arrayFile.size());
+        // Contents of bundles are streamed from the disk.
+        try (final InputStream in = arrayFile.openStream()) {
+            assertEquals(Files.readString(array, StandardCharsets.UTF_8), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        // Other files are read as a whole, including leading whitespace.
+        final RecipeLoader.RecipeFile singleFile = RecipeLoader.readFile(single, null);
+        assertFalse(singleFile.isBundle());
+        assertEquals("  { \"key\": \"a\" }", new String(singleFile.contents(), StandardCharsets.UTF_8));
+    }
+
+    // Reads file from memory. Contents are the path itself.
+    static @NotNull RecipeLoader.RecipeFile read(final @NotNull Path path) {
+        final byte[] contents = path.toString().getBytes(StandardCharsets.UTF_8);
+        return new RecipeLoader.RecipeFile(path, contents.length, 0L, contents);
+    }
+
+    private static @NotNull RecipeLoader.Parser<String> parser(final @NotNull Function<RecipeLoader.RecipeFile, String> parse, final @NotNull BooleanSupplier isCancelled) {
+        return new RecipeLoader.Parser<>() {
+
+            @Override
+            public @NotNull String parse(final @NotNull RecipeLoader.RecipeFile file) {
+                return parse.apply(file);
+            }
+
+            @Override
+            public @NotNull String fail(final @NotNull Path path, final @NotNull Exception exception) {
+                return "failed: " + exception.getClass().getSimpleName();
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return isCancelled.getAsBoolean();
+            }
+
+        };
+    }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeManifestTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void writtenManifestIsReadBack() throws IOException {
+        final RecipeManifest manifest = new RecipeManifest();
+        manifest.setNamespace("recipes");
+        manifest.put("a.json", new RecipeManifest.Entry(10L, 20L, "hash", List.of("recipes:a"), Map.of("ruby", "1")));
+        final Path file = directory.resolve("nested").resolve("manifest.json");
+        manifest.write(file);
+        final RecipeManifest read = RecipeManifest.read(file);
+        assertEquals("recipes", read.getNamespace());
+        assertEquals(manifest.hash(), read.hash());
+        final RecipeManifest.Entry entry = read.get("a.json");
+        assertNotNull(entry);
+        assertTrue(entry.isUnmodified(10L, 20L));
+        assertEquals(List.of("recipes:a"), entry.getKeys());
+        // Temporary file is never left behind.
+        assertFalse(Files.exists(file.resolveSibling("manifest.json.tmp")));
+    }
+
+    @Test
+    void missingOrCorruptedManifestIsEmpty() throws IOException {
+        assertTrue(RecipeManifest.read(directory.resolve("missing.json")).paths().isEmpty());
+        final Path file = directory.resolve("corrupted.json");
+        Files.writeString(file, "{ \"version\": 2, \"entries\": ", StandardCharsets.UTF_8);
+        assertTrue(RecipeManifest.read(file).paths().isEmpty());
+    }
+
+    @Test
+    void manifestOfOtherVersionIsDiscarded() throws IOException {
+        final Path file = directory.resolve("manifest.json");
+        Files.writeString(file, "{ \"version\": 1, \"entries\": { \"a.json\": { \"size\": 1, \"last_modified\": 1, \"hash\": \"x\", \"keys\": [], \"registered_items\": {} } } }", StandardCharsets.UTF_8);
+        assertTrue(RecipeManifest.read(file).paths().isEmpty());
+    }
+
+    @Test
+    void entryIsModifiedWhenSizeOrTimeChanges() {
+        final RecipeManifest.Entry entry = new RecipeManifest.Entry(10L, 20L, "hash", List.of(), Map.of());
+        assertTrue(entry.isUnmodified(10L, 20L));
+        assertFalse(entry.isUnmodified(11L, 20L));
+        assertFalse(entry.isUnmodified(10L, 21L));
+        // Touching the file keeps everything but its attributes.
+        final RecipeManifest.Entry touched = entry.withAttributes(11L, 21L);
+        assertTrue(touched.isUnmodified(11L, 21L));
+        assertEquals("hash", touched.getHash());
+    }
+
+    @Test
+    void dependencyIsOutdatedWhenCustomItemChanges() {
+        final RecipeManifest.Entry entry = new RecipeManifest.Entry(0L, 0L, "hash", List.of(), Map.of("ruby", "1"));
+        final Map<String, String> hashes = new HashMap<>(Map.of("ruby", "1"));
+        assertTrue(entry.isDependencyUpToDate(hashes::get));
+        hashes.put("ruby", "2");
+        assertFalse(entry.isDependencyUpToDate(hashes::get));
+        hashes.remove("ruby");
+        assertFalse(entry.isDependencyUpToDate(hashes::get));
+    }
+
+    @Test
+    void hashDependsOnEntriesOnly() {
+        final RecipeManifest first = new RecipeManifest();
+        final RecipeManifest second = new RecipeManifest();
+        // Entries are added in different order.
+        first.put("a.json", new RecipeManifest.Entry(1L, 1L, "a", List.of("recipes:a"), Map.of()));
+        first.put("b.json", new RecipeManifest.Entry(1L, 1L, "b", List.of("recipes:b"), Map.of()));
+        second.put("b.json", new RecipeManifest.Entry(2L, 2L, "b", List.of("recipes:b"), Map.of()));
+        second.put("a.json", new RecipeManifest.Entry(2L, 2L, "a", List.of("recipes:a"), Map.of()));
+        assertEquals(first.hash(), second.hash());
+        second.put("a.json", new RecipeManifest.Entry(2L, 2L, "a2", List.of("recipes:a"), Map.of()));
+        assertNotEquals(first.hash(), second.hash());
+    }
+
+    @Test
+    void copyIsIndependent() {
+        final RecipeManifest manifest = new RecipeManifest();
+        manifest.put("a.json", new RecipeManifest.Entry(0L, 0L, "a", List.of(), Map.of()));
+        final RecipeManifest copy = manifest.copy();
+        copy.remove("a.json");
+        copy.put("b.json", new RecipeManifest.Entry(0L, 0L, "b", List.of(), Map.of()));
+        assertEquals(List.of("a.json"), List.copyOf(manifest.paths()));
+    }
+
+}
@@ -0,0 +1,154 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapelessRecipeWrapper;
+import com.google.gson.stream.MalformedJsonException;
+import net.kyori.adventure.key.Key;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeReaderTest {
+
+    // Entries which are invalid at different depths. Each of them must be skipped without affecting the following ones.
+    private static final List<String> INVALID_ENTRIES = List.of(
+            // Invalid ingredient, nested deep within the entry.
+            "{ \"key\": \"test:nested\", \"type\": \"crafting_shapeless\", \"ingredients\": [{ \"tag\": \"Invalid Tag\" }, { \"type\": \"minecraft:stick\" }], \"result\": { \"type\": \"minecraft:stick\" } }",
+            // Invalid key, at the top level of the entry.
+            "{ \"key\": \"Invalid Key\", \"type\": \"crafting_shapeless\", \"ingredients\": [{ \"type\": \"minecraft:stick\" }], \"result\": { \"type\": \"minecraft:stick\" } }",
+            // Missing type, which is detected only after the entry has been read.
+            "{ \"key\": \"test:untyped\", \"ingredients\": [{ \"type\": \"minecraft:stick\" }], \"result\": { \"type\": \"minecraft:stick\" } }",
+            // Entry which is not an object.
+            "[\"test:array\", { \"type\": \"minecraft:stick\" }]",
+            "\"test:string\""
+    );
+
+    @Test
+    void invalidEntriesOfJsonLinesAreSkipped() throws IOException {
+        final List<String> problems = new ArrayList<>();
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        final StringBuilder bundle = new StringBuilder(recipe("test:first")).append('\n');
+        INVALID_ENTRIES.forEach(entry -> bundle.append(entry).append('\n').append(recipe("test:after_" + bundle.length())).append('\n'));
+        assertFalse(reader(problems).readBundle("bundle.jsonl", new StringReader(bundle.toString()), recipes));
+        assertEquals(INVALID_ENTRIES.size(), problems.size(), problems::toString);
+        assertEquals(INVALID_ENTRIES.size() + 1, recipes.size());
+        assertEquals(Key.key("test", "first"), recipes.getFirst().getKey());
+    }
+
+    @Test
+    void invalidEntriesOfArraysAreSkipped() throws IOException {
+        final List<String> problems = new ArrayList<>();
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        final List<String> entries = new ArrayList<>();
+        entries.add(recipe("test:first"));
+        for (int i = 0; i < INVALID_ENTRIES.size(); i++) {
+            entries.add(INVALID_ENTRIES.get(i));
+            entries.add(recipe("test:after_" + i));
+        }
+        assertFalse(reader(problems).readBundle("bundle.json", new StringReader("[" + String.join(",", entries) + "]"), recipes));
+        assertEquals(INVALID_ENTRIES.size(), problems.size(), problems::toString);
+        assertEquals(INVALID_ENTRIES.size() + 1, recipes.size());
+        assertEquals(Key.key("test", "after_" + (INVALID_ENTRIES.size() - 1)), recipes.getLast().getKey());
+        // Locations point at the invalid entries.
+        assertTrue(problems.getFirst().startsWith("bundle.json at $[1]") == true, problems::toString);
+    }
+
+    @Test
+    void duplicatedKeysWithinBundleAreSkipped() throws IOException {
+        final List<String> problems = new ArrayList<>();
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        assertFalse(reader(problems).readBundle("bundle.jsonl", new StringReader(recipe("test:same") + "\n" + recipe("test:same")), recipes));
+        assertEquals(1, recipes.size());
+        assertEquals(1, problems.size());
+    }
+
+    @Test
+    void malformedJsonFailsWholeBundle() {
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        assertThrows(MalformedJsonException.class, () -> reader(new ArrayList<>()).readBundle("bundle.jsonl", new StringReader(recipe("test:first") + "\n{ \"key\": \"test:second\", \"type\" }"), recipes));
+    }
+
+    @Test
+    void definitionsParsedThroughPoolShareDefinitions() throws IOException {
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        final InternPool pool = new InternPool();
+        final RecipeReader reader = reader(new ArrayList<>(), pool);
+        // Parsing definitions separately from loading them, just like during bootstrap.
+        for (final String key : List.of("first", "second"))
+            assertTrue(reader.load(key + ".json", RecipeReader.parse(new ByteArrayInputStream(recipe("test:" + key).getBytes(StandardCharsets.UTF_8)), pool), null, new HashSet<>(), recipes));
+        final ShapelessRecipeWrapper first = (ShapelessRecipeWrapper) recipes.getFirst();
+        final ShapelessRecipeWrapper second = (ShapelessRecipeWrapper) recipes.getLast();
+        assertSame(first.getResult(), second.getResult());
+        assertSame(first.getIngredients().getFirst(), second.getIngredients().getFirst());
+    }
+
+    private static @NotNull RecipeReader reader(final @NotNull List<String> problems) {
+        return reader(problems, null);
+    }
+
+    private static @NotNull RecipeReader reader(final @NotNull List<String> problems, final @Nullable InternPool pool) {
+        return new RecipeReader("test", key -> null, new RecipeReader.Reporter() {
+            @Override
+            public void report(final @NotNull String location, final @NotNull String message) {
+                problems.add(location + ": " + message);
+            }
+
+            @Override
+            public void report(final @NotNull String location, final @NotNull Exception exception) {
+                problems.add(location + ": " + exception.getMessage());
+            }
+        }, pool);
+    }
+
+    private static @NotNull String recipe(final @NotNull String key) {
+        return "{ \"key\": \"" + key + "\", \"type\": \"crafting_shapeless\", \"ingredients\": [{ \"type\": \"minecraft:stick\" }], \"result\": { \"type\": \"minecraft:stick\" } }";
+    }
+
+}
@@ -0,0 +1,175 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class StagedRecipesTest {
+
+    @Test
+    void cancellingWhileCompilingLeavesLiveRecipesUntouched() {
+        final Map<String, List<String>> live = new HashMap<>(Map.of("a.json", List.of("a"), "b.json", List.of("b")));
+        final RecipeManifest manifest = manifest("a.json", "b.json");
+        final String manifestHash = manifest.hash();
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(live, manifest);
+        // Files are removed from the staging area before the new versions are parsed, just like during a reload.
+        staged.recipes().remove("b.json");
+        staged.manifest().remove("b.json");
+        // Cancelling once a few files have been parsed. Parsed results are applied to the staging area as they come.
+        final AtomicBoolean isCancelled = new AtomicBoolean(false);
+        final AtomicInteger parsed = new AtomicInteger(0);
+        final List<Path> files = new ArrayList<>();
+        for (int i = 0; i < 64; i++)
+            files.add(Path.of("file_" + i + ".json"));
+        assertThrows(CancellationException.class, () -> new RecipeLoader(2, 2, 2, null).load(files, RecipeLoaderTest::read, new RecipeLoader.Parser<LoadResult<String>>() {
+
+            @Override
+            public @NotNull LoadResult<String> parse(final @NotNull RecipeLoader.RecipeFile file) {
+                if (parsed.incrementAndGet() == 8)
+                    isCancelled.set(true);
+                final LoadResult<String> result = new LoadResult<>(file.path().toString(), List.of(new String(file.contents(), StandardCharsets.UTF_8)), entry());
+                synchronized (staged) {
+                    staged.apply(result);
+                }
+                return result;
+            }
+
+            @Override
+            public @NotNull LoadResult<String> fail(final @NotNull Path path, final @NotNull Exception exception) {
+                return new LoadResult<>(path.toString(), null, null);
+            }
+
+            @Override
+            public boolean isCancelled() {
+                return isCancelled.get();
+            }
+
+        }));
+        // Staging area has been modified, but nothing has been committed.
+        assertTrue(staged.recipes().size() > 1);
+        assertEquals(Map.of("a.json", List.of("a"), "b.json", List.of("b")), live);
+        assertEquals(manifestHash, manifest.hash());
+        assertEquals(2, manifest.paths().size());
+    }
+
+    @Test
+    void commitReplacesLiveRecipes() {
+        final Map<String, List<String>> live = new HashMap<>(Map.of("a.json", List.of("a"), "b.json", List.of("b")));
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(live, manifest("a.json", "b.json"));
+        staged.apply(new LoadResult<>("b.json", List.of("b2"), entry()));
+        staged.apply(new LoadResult<>("c.json", List.of("c"), entry()));
+        // Live recipes are not modified until committed.
+        assertEquals(List.of("b"), live.get("b.json"));
+        assertTrue(staged.commit(live));
+        assertEquals(Map.of("a.json", List.of("a"), "b.json", List.of("b2"), "c.json", List.of("c")), live);
+        assertEquals(3, staged.manifest().paths().size());
+    }
+
+    @Test
+    void commitOfUnchangedRecipesIsNotModification() {
+        final Map<String, List<String>> live = new HashMap<>(Map.of("a.json", List.of("a")));
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(live, manifest("a.json"));
+        // Touched file, which contents have not changed.
+        staged.apply(new LoadResult<>("a.json", null, entry()));
+        assertFalse(staged.commit(live));
+        assertEquals(Map.of("a.json", List.of("a")), live);
+    }
+
+    @Test
+    void failedFileKeepsPreviousRecipesAndIsForgottenByManifest() {
+        final Map<String, List<String>> live = new HashMap<>(Map.of("a.json", List.of("a")));
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(live, manifest("a.json"));
+        assertTrue(staged.apply(new LoadResult<>("a.json", null, null)));
+        assertFalse(staged.apply(new LoadResult<>("b.json", null, null)));
+        assertEquals(List.of("a"), staged.recipes().get("a.json"));
+        assertNull(staged.manifest().get("a.json"));
+    }
+
+    @Test
+    void partiallyLoadedFileIsForgottenByManifest() {
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(Map.of("a.json", List.of("a")), manifest("a.json"));
+        assertFalse(staged.apply(new LoadResult<>("a.json", List.of("a2"), null)));
+        assertEquals(List.of("a2"), staged.recipes().get("a.json"));
+        assertNull(staged.manifest().get("a.json"));
+    }
+
+    @Test
+    void emptyStagingKeepsNamespaceOnly() {
+        final RecipeManifest manifest = manifest("a.json");
+        manifest.setNamespace("recipes");
+        final StagedRecipes<String> staged = StagedRecipes.empty(manifest);
+        assertTrue(staged.recipes().isEmpty());
+        assertTrue(staged.manifest().paths().isEmpty());
+        assertEquals("recipes", staged.manifest().getNamespace());
+        // Live manifest is not modified.
+        assertEquals(1, manifest.paths().size());
+    }
+
+    @Test
+    void removeFilesDropsWholeFilesFromCopyOnly() {
+        final Map<String, List<String>> live = Map.of("a.json", List.of("a", "tag:b"), "c.json", List.of("c"));
+        final StagedRecipes<String> staged = StagedRecipes.copyOf(live, manifest("a.json", "c.json"));
+        assertEquals(1, staged.removeFiles(recipe -> recipe.startsWith("tag:") == true));
+        assertEquals(Map.of("c.json", List.of("c")), staged.recipes());
+        assertEquals(2, live.size());
+    }
+
+    static @NotNull RecipeManifest manifest(final @NotNull String... paths) {
+        final RecipeManifest manifest = new RecipeManifest();
+        for (final String path : paths)
+            manifest.put(path, entry());
+        return manifest;
+    }
+
+    static @NotNull RecipeManifest.Entry entry() {
+        return new RecipeManifest.Entry(0L, 0L, "0", List.of(), Map.of());
+    }
+
+}
@@ -0,0 +1,78 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model;
+
+import net.kyori.adventure.key.Key;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class InternPoolTest {
+
+    @Test
+    void identicalDefinitionsAreShared() {
+        final InternPool pool = new InternPool();
+        final Item item = pool.item(item("stone", 1));
+        assertSame(item, pool.item(item("stone", 1)));
+        assertNotSame(item, pool.item(item("stone", 2)));
+        final Ingredient ingredient = pool.ingredient(new Ingredient.Items(List.of(item("stone", 1)), true));
+        assertSame(ingredient, pool.ingredient(new Ingredient.Items(List.of(item("stone", 1)), true)));
+        assertSame(pool.ingredient(new Ingredient.Tag(Key.key("logs"))), pool.ingredient(new Ingredient.Tag(Key.key("logs"))));
+        // Items of the first ingredient are shared as well.
+        assertSame(item, ((Ingredient.Items) ingredient).items().getFirst());
+        assertEquals(new InternPool.Stats(4, 2, 4, 2), pool.stats());
+    }
+
+    @Test
+    void ingredientsOfSharedItemsAreNotCopied() {
+        final InternPool pool = new InternPool();
+        final Ingredient ingredient = new Ingredient.Items(List.of(pool.item(item("stone", 1))), true);
+        // Ingredients read by the adapters consist of shared items already, and are kept as they are.
+        assertSame(ingredient, pool.ingredient(ingredient));
+        assertSame(ingredient, InternPool.intern(pool, new Ingredient.Items(List.of(item("stone", 1)), true)));
+        // Nothing is shared without a pool.
+        final Item item = item("stone", 1);
+        assertSame(item, InternPool.intern(null, item));
+    }
+
+    // Creates item of specified type and amount.
+    private static @NotNull Item item(final @NotNull String type, final int amount) {
+        return new Item(Key.key(type), null, amount, null, null, null);
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.model.recipes;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import net.kyori.adventure.key.Key;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeTemplateTest {
+
+    private static final String RECIPE = """
+            {
+              "key": "test:{wood}_{color}",
+              "type": "crafting_shapeless",
+              "ingredients": [{ "type": "minecraft:{wood}" }, { "type": "minecraft:{color}_dye" }, { "type": "minecraft:stick" }],
+              "result": { "type": "minecraft:{color}_banner" }
+            }
+            """;
+
+    @Test
+    void bindingsAreAllCombinationsInOrderOfDeclaration() {
+        final RecipeTemplate template = template(parameters("wood", new RecipeTemplate.Parameter.Tag(Key.key("minecraft", "planks")), "color", new RecipeTemplate.Parameter.Values(List.of("red", "blue"))), RECIPE);
+        assertTrue(template.isValid());
+        assertTrue(template.isTagBound());
+        final List<Map<String, String>> bindings = template.bindings(Map.of(Key.key("minecraft", "planks"), List.of("oak_planks", "birch_planks"))::get);
+        assertEquals(List.of(
+                Map.of("wood", "oak_planks", "color", "red"),
+                Map.of("wood", "oak_planks", "color", "blue"),
+                Map.of("wood", "birch_planks", "color", "red"),
+                Map.of("wood", "birch_planks", "color", "blue")
+        ), bindings);
+    }
+
+    @Test
+    void unknownTagIsRejected() {
+        final RecipeTemplate template = template(parameters("wood", new RecipeTemplate.Parameter.Tag(Key.key("minecraft", "planks")), "color", new RecipeTemplate.Parameter.Values(List.of("red"))), RECIPE);
+        assertThrows(IllegalArgumentException.class, () -> template.bindings(key -> null));
+    }
+
+    @Test
+    void tooManyVariantsAreRejected() {
+        final List<String> values = new ArrayList<>();
+        for (int i = 0; i < 101; i++)
+            values.add("value_" + i);
+        final RecipeTemplate template = template(parameters("wood", new RecipeTemplate.Parameter.Values(values), "color", new RecipeTemplate.Parameter.Values(values)), RECIPE);
+        assertThrows(IllegalArgumentException.class, () -> template.bindings(key -> null));
+    }
+
+    @Test
+    void instantiatedVariantSharesElementsWithoutPlaceholders() {
+        final RecipeTemplate template = template(parameters("wood", new RecipeTemplate.Parameter.Values(List.of("oak_planks")), "color", new RecipeTemplate.Parameter.Values(List.of("red"))), RECIPE);
+        final JsonObject first = template.instantiate(Map.of("wood", "oak_planks", "color", "red")).getAsJsonObject();
+        final JsonObject second = template.instantiate(Map.of("wood", "birch_planks", "color", "blue")).getAsJsonObject();
+        assertEquals("test:oak_planks_red", first.get("key").getAsString());
+        assertEquals("minecraft:red_dye", first.getAsJsonArray("ingredients").get(1).getAsJsonObject().get("type").getAsString());
+        assertEquals("minecraft:blue_banner", second.getAsJsonObject("result").get("type").getAsString());
+        // Elements without placeholders are the same instances in every variant.
+        assertSame(first.get("type"), second.get("type"));
+        assertSame(first.getAsJsonArray("ingredients").get(2), second.getAsJsonArray("ingredients").get(2));
+    }
+
+    @Test
+    void templatesWithoutUniqueKeysAreInvalid() {
+        final Map<String, RecipeTemplate.Parameter> parameters = parameters("wood", new RecipeTemplate.Parameter.Values(List.of("oak_planks")), "color", new RecipeTemplate.Parameter.Values(List.of("red")));
+        assertFalse(template(parameters, RECIPE.replace("\"key\": \"test:{wood}_{color}\"", "\"key\": \"test:banner\"")).isValid());
+        assertFalse(template(parameters, RECIPE.replace("\"key\": \"test:{wood}_{color}\",", "")).isValid());
+    }
+
+    @Test
+    void templatesWithUndeclaredOrUnboundParametersAreInvalid() {
+        assertFalse(template(parameters("wood", new RecipeTemplate.Parameter.Values(List.of("oak_planks"))), RECIPE).isValid());
+        assertFalse(template(parameters("wood", new RecipeTemplate.Parameter.Values(List.of("oak_planks")), "color", new RecipeTemplate.Parameter.Values(List.of())), RECIPE).isValid());
+        assertFalse(template(null, RECIPE).isValid());
+    }
+
+    private static @NotNull RecipeTemplate template(final @Nullable Map<String, RecipeTemplate.Parameter> parameters, final @NotNull String recipe) {
+        final JsonElement element = JsonParser.parseString(recipe);
+        return new RecipeTemplate(parameters, element.getAsJsonObject());
+    }
+
+    // Returns parameters in the order they were specified in.
+    private static @NotNull Map<String, RecipeTemplate.Parameter> parameters(final @NotNull Object... entries) {
+        final Map<String, RecipeTemplate.Parameter> parameters = new LinkedHashMap<>();
+        for (int i = 0; i < entries.length; i += 2)
+            parameters.put((String) entries[i], (RecipeTemplate.Parameter) entries[i + 1]);
+        return parameters;
+    }
+
+}
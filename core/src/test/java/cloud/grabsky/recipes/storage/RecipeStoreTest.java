@@ -0,0 +1,173 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.storage;
+
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class RecipeStoreTest {
+
+    private static final String RECIPE = "{\"type\":\"minecraft:smelting\"}";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recipeNamesMustBeRelativePaths() throws IOException {
+        try (final RecipeStore store = RecipeStore.open(directory.resolve("recipes.db"))) {
+            store.transaction(() -> {
+                assertThrows(IllegalArgumentException.class, () -> store.putRecipe("", RECIPE));
+                assertThrows(IllegalArgumentException.class, () -> store.putRecipe("/absolute.json", RECIPE));
+                store.putRecipe("nested/recipe.json", RECIPE);
+                assertEquals(RECIPE, store.getRecipe("nested/recipe.json"));
+                assertNotNull(store.getRecipeHash("nested/recipe.json"));
+                // Removing the recipe removes its hash as well.
+                assertTrue(store.removeRecipe("nested/recipe.json"));
+                assertNull(store.getRecipeHash("nested/recipe.json"));
+                assertFalse(store.removeRecipe("nested/recipe.json"));
+            });
+        }
+    }
+
+    @Test
+    void uncommittedChangesAreNotPersisted() throws IOException {
+        final Path file = directory.resolve("recipes.db");
+        try (final RecipeStore store = RecipeStore.open(file)) {
+            store.transaction(() -> store.putRecipe("committed.json", RECIPE));
+            // Changes of a transaction which throws are discarded.
+            assertThrows(IllegalStateException.class, () -> store.transaction(() -> {
+                store.putRecipe("discarded.json", RECIPE);
+                throw new IllegalStateException();
+            }));
+            assertEquals(Set.of("committed.json"), store.recipeNames());
+        }
+        try (final RecipeStore store = RecipeStore.open(file)) {
+            assertEquals(Set.of("committed.json"), store.recipeNames());
+        }
+    }
+
+    @Test
+    void storeCanBeModifiedOnlyWithinSingleTransaction() throws IOException {
+        try (final RecipeStore store = RecipeStore.open(directory.resolve("recipes.db"))) {
+            assertThrows(IllegalStateException.class, () -> store.putRecipe("recipe.json", RECIPE));
+            assertThrows(IllegalStateException.class, () -> store.putItem("item", "{}"));
+            // Nested transaction would commit changes of the outer one.
+            assertThrows(IllegalStateException.class, () -> store.transaction(() -> {
+                store.putRecipe("outer.json", RECIPE);
+                store.transaction(() -> store.putRecipe("inner.json", RECIPE));
+            }));
+            assertTrue(store.recipeNames().isEmpty() == true);
+        }
+    }
+
+    @Test
+    void importedFilesAreStoredAndMoved() throws IOException {
+        final Path recipes = directory.resolve("recipes");
+        final Path imported = directory.resolve(RecipeStore.IMPORTED_DIRECTORY);
+        write(recipes.resolve("first.json"), RECIPE);
+        write(recipes.resolve("nested/second.json"), RECIPE);
+        write(recipes.resolve("bundle.json"), "[" + RECIPE + "]");
+        final Path registry = write(directory.resolve("item_registry.json"), "{\"item\":{\"material\":\"stone\"}}");
+        try (final RecipeStore store = RecipeStore.open(directory.resolve("recipes.db"))) {
+            assertEquals(new RecipeStore.ImportResult(2, 1), store.importFrom(recipes, imported, registry));
+            assertEquals(List.of("first.json", "nested/second.json"), List.copyOf(store.recipeNames()));
+            assertEquals(Map.of("item", "{\"material\":\"stone\"}"), store.items());
+            // Imported recipes are moved, while bundles and the item registry are left in place.
+            assertFalse(Files.exists(recipes.resolve("first.json")));
+            assertFalse(Files.exists(recipes.resolve("nested/second.json")));
+            assertTrue(Files.exists(imported.resolve("first.json")));
+            assertTrue(Files.exists(imported.resolve("nested/second.json")));
+            assertTrue(Files.exists(recipes.resolve("bundle.json")));
+            assertTrue(Files.exists(registry));
+        }
+    }
+
+    @Test
+    void malformedFilesAreNotImported() throws IOException {
+        final Path recipes = directory.resolve("recipes");
+        final Path imported = directory.resolve(RecipeStore.IMPORTED_DIRECTORY);
+        write(recipes.resolve("first.json"), RECIPE);
+        final Path registry = write(directory.resolve("item_registry.json"), "[]");
+        try (final RecipeStore store = RecipeStore.open(directory.resolve("recipes.db"))) {
+            store.transaction(() -> store.putRecipe("existing.json", RECIPE));
+            assertThrows(JsonParseException.class, () -> store.importFrom(recipes, imported, registry));
+            // Store is left as it was before the import, and no file has been moved.
+            assertEquals(Set.of("existing.json"), store.recipeNames());
+            assertTrue(store.items().isEmpty() == true);
+            assertTrue(Files.exists(recipes.resolve("first.json")));
+            assertFalse(Files.exists(imported));
+        }
+    }
+
+    @Test
+    void movedFilesAreRestoredWhenImportFails() throws IOException {
+        final Path recipes = directory.resolve("recipes");
+        final Path imported = directory.resolve(RecipeStore.IMPORTED_DIRECTORY);
+        write(recipes.resolve("first.json"), RECIPE);
+        write(recipes.resolve("second.json"), RECIPE);
+        // Occupying target of the second file with a non-empty directory, so moving it fails after the first file has been moved.
+        write(imported.resolve("second.json/occupied"), "");
+        try (final RecipeStore store = RecipeStore.open(directory.resolve("recipes.db"))) {
+            assertThrows(IOException.class, () -> store.importFrom(recipes, imported, directory.resolve("item_registry.json")));
+            // Nothing is stored, and the first file is moved back to where it was.
+            assertTrue(store.recipeNames().isEmpty() == true);
+            assertTrue(Files.exists(recipes.resolve("first.json")));
+            assertTrue(Files.exists(recipes.resolve("second.json")));
+            assertFalse(Files.exists(imported.resolve("first.json")));
+        }
+    }
+
+    // Writes specified contents to the file, creating parent directories if needed.
+    private static @NotNull Path write(final @NotNull Path file, final @NotNull String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, contents, StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.utils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class LibraryCacheTest {
+
+    // Contents of the library bundled in test resources.
+    private static final String BUNDLED_CONTENTS = "bundled library";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void lockFileEntriesAreParsed() {
+        final String checksum = "a".repeat(64);
+        final LibraryCache.Artifact artifact = LibraryCache.Artifact.parse(checksum + "  com.example:library:1.0:all");
+        assertEquals("com.example:library:1.0:all", artifact.coordinates());
+        assertEquals("library-1.0-all.jar", artifact.fileName());
+        assertEquals("com/example/library/1.0/library-1.0-all.jar", artifact.repositoryPath());
+        assertThrows(IllegalArgumentException.class, () -> LibraryCache.Artifact.parse("com.example:library:1.0"));
+        assertThrows(IllegalArgumentException.class, () -> LibraryCache.Artifact.parse("abc com.example:library:1.0"));
+        assertThrows(IllegalArgumentException.class, () -> LibraryCache.Artifact.parse(checksum + " com.example:library"));
+    }
+
+    @Test
+    void librariesFoundInRepositoryAreCopiedToCache() throws IOException {
+        final LibraryCache cache = new LibraryCache(directory.resolve("cache"), directory.resolve("repository"));
+        final LibraryCache.Artifact artifact = artifact("library", "contents");
+        // Library is stored only in the repository, and is copied to the cache directory.
+        write(directory.resolve("repository").resolve(artifact.repositoryPath()), "contents");
+        final Path cached = directory.resolve("cache").resolve(artifact.fileName());
+        assertEquals(cached, cache.find(artifact));
+        assertEquals("contents", Files.readString(cached, StandardCharsets.UTF_8));
+        assertTrue(Files.isRegularFile(directory.resolve("cache").resolve(artifact.fileName() + LibraryCache.VERIFIED_EXTENSION)));
+        // Library is found in the cache directory once removed from the repository.
+        Files.delete(directory.resolve("repository").resolve(artifact.repositoryPath()));
+        assertEquals(cached, cache.find(artifact));
+    }
+
+    @Test
+    void librariesNotMatchingChecksumAreIgnored() throws IOException {
+        final LibraryCache cache = new LibraryCache(directory.resolve("cache"), directory.resolve("repository"));
+        final LibraryCache.Artifact artifact = artifact("library", "contents");
+        write(directory.resolve("cache").resolve(artifact.fileName()), "tampered");
+        final Path stored = write(directory.resolve("repository").resolve(artifact.repositoryPath()), "tampered");
+        assertNull(cache.find(artifact));
+        // Tampered library is replaced with a verified copy from the repository.
+        Files.writeString(stored, "contents", StandardCharsets.UTF_8);
+        assertEquals(directory.resolve("cache").resolve(artifact.fileName()), cache.find(artifact));
+    }
+
+    @Test
+    void librariesChangedSinceVerificationAreHashedAgain() throws IOException {
+        final LibraryCache cache = new LibraryCache(directory.resolve("cache"), directory.resolve("repository"));
+        final LibraryCache.Artifact artifact = artifact("library", "contents");
+        final Path cached = write(directory.resolve("cache").resolve(artifact.fileName()), "contents");
+        assertEquals(cached, cache.find(artifact));
+        // Size of the library no longer matches the one recorded when it was verified.
+        Files.writeString(cached, "tampered contents", StandardCharsets.UTF_8);
+        assertNull(cache.find(artifact));
+    }
+
+    @Test
+    void bundledLibrariesAreCopiedToCache() throws IOException {
+        final LibraryCache cache = new LibraryCache(directory.resolve("cache"), directory.resolve("repository"));
+        final Path cached = cache.find(artifact("bundled", BUNDLED_CONTENTS));
+        assertEquals(directory.resolve("cache").resolve("bundled-1.0.jar"), cached);
+        assertEquals(BUNDLED_CONTENTS, Files.readString(cached, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void bundledLibrariesNotMatchingChecksumAreDiscarded() throws IOException {
+        final LibraryCache cache = new LibraryCache(directory.resolve("cache"), directory.resolve("repository"));
+        assertNull(cache.find(artifact("bundled", "other contents")));
+        // Temporary file is not left behind.
+        try (final Stream<Path> files = Files.list(directory.resolve("cache"))) {
+            assertFalse(files.findAny().isPresent());
+        }
+        assertTrue(Files.isDirectory(directory.resolve("cache")));
+    }
+
+    // Returns artifact with checksum of specified contents.
+    private static @NotNull LibraryCache.Artifact artifact(final @NotNull String artifactId, final @NotNull String contents) {
+        return new LibraryCache.Artifact(Digests.sha256(contents), "com.example", artifactId, "1.0", null);
+    }
+
+    private static @NotNull Path write(final @NotNull Path file, final @NotNull String contents) throws IOException {
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, contents, StandardCharsets.UTF_8);
+    }
+
+}
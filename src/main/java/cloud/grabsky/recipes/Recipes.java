@@ -33,29 +33,37 @@
 package cloud.grabsky.recipes;
 
 import cloud.grabsky.recipes.command.RecipesCommand;
+import cloud.grabsky.recipes.compiler.RecipeKeys;
+import cloud.grabsky.recipes.compiler.RegistrySnapshot;
 import cloud.grabsky.recipes.configuration.PluginConfiguration;
-import cloud.grabsky.recipes.configuration.adapters.GenericEnumAdapter;
-import cloud.grabsky.recipes.configuration.adapters.ItemTypeAdapter;
 import cloud.grabsky.recipes.configuration.adapters.NamespacedKeyAdapter;
-import cloud.grabsky.recipes.configuration.adapters.RecipeChoiceAdapter;
 import cloud.grabsky.recipes.listeners.DiscoverTriggerListener;
 import cloud.grabsky.recipes.listeners.ResourcesReloadedListener;
-import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.loader.KeyPatterns;
+import cloud.grabsky.recipes.loader.RecipeRegistrar;
+import cloud.grabsky.recipes.loader.RecipeReloader;
+import cloud.grabsky.recipes.loader.ReloadJob;
+import cloud.grabsky.recipes.loader.WatcherController;
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
 import cloud.grabsky.recipes.registry.CustomItemRegistry;
+import cloud.grabsky.recipes.storage.RecipeStore;
+import cloud.grabsky.recipes.storage.StorageManager;
+import cloud.grabsky.recipes.utils.ComponentCache;
+import cloud.grabsky.recipes.utils.Extensions;
+import cloud.grabsky.recipes.utils.LibraryCache;
 import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
 import com.google.gson.JsonParseException;
 import dev.faststats.bukkit.BukkitContext;
 import io.papermc.paper.plugin.loader.PluginClasspathBuilder;
+import io.papermc.paper.plugin.loader.library.impl.JarLibrary;
 import io.papermc.paper.plugin.loader.library.impl.MavenLibraryResolver;
+import net.kyori.adventure.text.logger.slf4j.ComponentLogger;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import org.bukkit.Bukkit;
 import org.bukkit.NamespacedKey;
-import org.bukkit.inventory.ItemType;
-import org.bukkit.inventory.RecipeChoice;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.eclipse.aether.artifact.DefaultArtifact;
 import org.eclipse.aether.graph.Dependency;
+import org.eclipse.aether.graph.Exclusion;
 import org.eclipse.aether.repository.RemoteRepository;
 import org.yaml.snakeyaml.DumperOptions;
 import org.yaml.snakeyaml.Yaml;
@@ -67,42 +75,35 @@ import revxrsal.spec.CommentedConfiguration;
 import revxrsal.spec.Specs;
 
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
+import lombok.experimental.ExtensionMethod;
 
-// TO-DO: Improve performance by skipping recipes that are already registered and have not changed.
 @Accessors(fluent = true)
-@SuppressWarnings("UnstableApiUsage") // ItemType, PluginMeta
+@ExtensionMethod(Extensions.class)
+@SuppressWarnings("UnstableApiUsage") // PluginMeta
 public class Recipes extends JavaPlugin {
 
-    private static final Gson GSON = new GsonBuilder()
-            .registerTypeAdapter(ItemType.class, ItemTypeAdapter.INSTANCE)
-            .registerTypeAdapter(RecipeChoice.class, RecipeChoiceAdapter.INSTANCE)
-            .registerTypeAdapter(NamespacedKey.class, NamespacedKeyAdapter.INSTANCE)
-            .registerTypeAdapter(RecipeWrapper.Type.class, new GenericEnumAdapter<>(RecipeWrapper.Type.class, false))
-            .disableHtmlEscaping()
-            .setPrettyPrinting()
-            .create();
-
     @Getter(AccessLevel.PUBLIC)
     private static Recipes instance;
 
@@ -119,10 +120,7 @@ public class Recipes extends JavaPlugin {
     private CustomItemRegistry customItemRegistry;
 
     @Getter(AccessLevel.PUBLIC)
-    private final List<RecipeWrapper> recipes = Collections.synchronizedList(new ArrayList<>());
-
-    @Getter(AccessLevel.PUBLIC)
-    private final List<NamespacedKey> registeredRecipes = new ArrayList<>();
+    private final List<CompiledRecipe> recipes = Collections.synchronizedList(new ArrayList<>());
 
     @Getter(AccessLevel.PUBLIC)
     private Lamp<BukkitCommandActor> lamp;
@@ -130,16 +128,27 @@ public class Recipes extends JavaPlugin {
     @Getter(AccessLevel.PUBLIC)
     private String namespace;
 
-    private final File recipesDir = new File(getDataFolder(), "recipes");
+    // Patterns of disabled recipes, compiled from the configuration.
+    @Getter(AccessLevel.PUBLIC)
+    private KeyPatterns disabledRecipes = KeyPatterns.EMPTY;
+
+    // Registers compiled recipes on the server.
+    private final RecipeRegistrar registrar = new RecipeRegistrar(this);
+
+    // Opens and closes the embedded store of recipes and custom items.
+    private final StorageManager storage = new StorageManager(this);
+
+    // Reloads recipes. Files read during bootstrap, if any, are handed over to the first reload.
+    private final RecipeReloader reloader = new RecipeReloader(this, registrar, storage, RecipesBootstrap.takePrefetch());
+
+    // Watches recipe files for changes, and requests reloads accordingly.
+    private final WatcherController watcher = new WatcherController(this, reloader, reloader.getRecipesDirectory());
 
     // Gson instance used passed to Spec.
     private final Gson specGson = CommentedConfiguration.GSON.newBuilder()
             .registerTypeAdapter(NamespacedKey.class, NamespacedKeyAdapter.INSTANCE)
             .create();
 
-    private static final Pattern NAMESPACE_PATTERN = Pattern.compile("[a-z0-9._-]+$");
-    private static final Pattern KEY_PATTERN = Pattern.compile("[a-z0-9/._-]+$");
-
     /** Returns whether the server is running Folia or not. */
     @Getter(AccessLevel.PUBLIC)
     private static boolean isFolia;
@@ -177,9 +186,16 @@ public class Recipes extends JavaPlugin {
             this.getLogger().severe("Looks like you're using Folia. Make sure to report any issues to our issue tracker on GitHub.");
         // Creating new instance of CustomItemRegistry.
         this.customItemRegistry = new CustomItemRegistry(this);
-        // Reloading the plugin, and disabling it if something goes wrong.
-        if (this.onReload(true) == false)
+        // Loading the configuration, and disabling the plugin if something goes wrong.
+        try {
+            reloadConfiguration();
+        } catch (final RuntimeException e) {
+            e.printStackTrace();
             this.getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        // Loading and registering recipes. This is done asynchronously, and only the final registration step happens on the server thread.
+        reloader.request(false, false, false, null);
         // Registering event listeners.
         this.getServer().getPluginManager().registerEvents(new DiscoverTriggerListener(this), this);
         this.getServer().getPluginManager().registerEvents(new ResourcesReloadedListener(this), this);
@@ -189,7 +205,7 @@ public class Recipes extends JavaPlugin {
                 .dependency(Recipes.class, this)
                 // Registering command response handler for String object.
                 .responseHandler(String.class, (value, context) -> {
-                    // Forwarding returned message to the command sender.
+                    // Forwarding returned message to the command sender. Returned messages usually have their placeholders replaced already, so they are not cached.
                     if (value.isEmpty() == false)
                         context.actor().reply(MiniMessage.miniMessage().deserialize(value));
                 })
@@ -202,160 +218,118 @@ public class Recipes extends JavaPlugin {
 
     @Override
     public void onDisable() {
+        // Stopping the watcher.
+        watcher.stop();
+        // Cancelling the reload, if any. Its registration would be cut off by the server otherwise, leaving it incomplete.
+        reloader.shutdown();
+        // Closing the store.
+        storage.close();
         // Shutting down FastStats.
         this.fastStats.shutdown();
     }
 
-    public boolean onReload(final boolean reloadConfig) {
-        if (reloadConfig == true) {
-            this.configurationFile = new File(this.getDataFolder(), "config.yml");
-            // Initializing instance of CommentedConfiguration.
-            this.commentedConfiguration = new CommentedConfiguration(configurationFile.toPath(), specGson, ArrayCommentStyle.COMMENT_FIRST_ELEMENT, YAML.get());
-            // Loading configuration file.
-            this.configuration = Specs.fromConfig(PluginConfiguration.class, commentedConfiguration);
-            // Saving default contents to the configuration file.
-            this.configuration.save();
-            // Reloading and mapping configuration file contents to the PluginConfiguration instance.
-            this.configuration.reload();
-            // Getting the configured plugin namespace that will be used for recipe registration.
-            this.namespace = initializeNamespace();
-            // Refreshing the custom item registry.
-            customItemRegistry.refresh();
-        }
-        // Unregistering all plugin-defined recipes.
-        registeredRecipes.removeIf(getServer()::removeRecipe);
-        // Clearing the list of recipes.
-        recipes.clear();
-        // Loading recipes.
-        loadRecipes(recipesDir);
-        // Registering the recipes.
-        registerRecipes();
-        // Unregistering disabled recipes.
-        this.configuration.disabledRecipes().forEach(Bukkit::removeRecipe);
-        // Sending information to the console. (Commented out because it is inaccurate)
-        this.getLogger().info("Loaded and registered " + registeredRecipes.size() + " recipes.");
-        // Returning...
-        return true;
+    /**
+     * Requests reload of the plugin. Configuration and item registry are reloaded if {@code reloadConfig} is {@code true}.
+     * Otherwise, it is assumed that recipes have been removed by the server, due to resources reload, and all of them are registered again.
+     * Recipes are not parsed again in such case, unless they depend on the server's data packs.
+     * <p>
+     * Reload is done asynchronously and the returned {@link ReloadJob} can be used to track it. Requests made while another reload is waiting to start are merged into it.
+     */
+    public @NotNull ReloadJob onReload(final boolean reloadConfig) {
+        return reloader.request(reloadConfig, false, reloadConfig == false, null);
     }
 
-    private void loadRecipes(final @NotNull File dir) {
-        // Creating recipes directory in case it does not exist.
-        dir.mkdirs();
-        // Getting all recipe files within recipes directory.
-        final File[] files = dir.listFiles();
-        // Returning if there is no files in the specified dir.
-        if (files == null || files.length == 0) {
-            this.getLogger().info("No recipes defined in the \"" + dir.getName() + "\" directory.");
-            return;
-        }
-        // Sorting and iterating through files in natural order to ensure that they are loaded in the same order every time.
-        Stream.of(files).parallel().forEach(file -> {
-            if (file.isDirectory() == true)
-                this.loadRecipes(file);
-            else if (file.getName().toLowerCase().endsWith(".json") == true) {
-                try {
-                    final RecipeWrapper recipe = GSON.fromJson(new FileReader(file), RecipeWrapper.class);
-                    // Returning for null or invalid recipes.
-                    if (recipe == null || recipe.isValid() == false) {
-                        this.getLogger().warning("Recipe \"" + file.getName() + "\" is invalid.");
-                        return;
-                    }
-                    // Initializing the recipe.
-                    recipe.setFallbackKey(getNamespacedKey(file));
-                    // Adding the recipe to the list.
-                    recipes.add(recipe);
-                } catch (final IOException | JsonParseException | IllegalArgumentException | IllegalStateException e) {
-                    this.getLogger().severe("Loading of recipe \"" + file.getName() + "\" failed due to following error(s):");
-                    // Printing the full stack trace if 'minimize_exceptions_stacktrace' option is disabled.
-                    if (this.configuration.minimizeExceptionsStacktrace() == false) {
-                        e.printStackTrace();
-                        return;
-                    }
-                    // Otherwise, just printing the exception message.
-                    this.getLogger().severe(" (1) " + e.getClass().getSimpleName() + ": " + e.getMessage());
-                    if (e.getCause() != null)
-                        this.getLogger().severe(" (2) " + e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
-                }
-            }
-        });
+    /**
+     * Forgets item tags captured from the server, so they are captured again by the next reload. Must be called on the server thread after resources have been reloaded,
+     * when the plugin is not configured to reload along with them. Recipes removed by the server are registered again by the next reload, whenever it happens.
+     */
+    public void invalidateResources() {
+        reloader.invalidateResources();
     }
 
-    private void registerRecipes() {
-        recipes.stream().sorted(Comparator.comparing(RecipeWrapper::getKey)).forEach(recipe -> {
-            final NamespacedKey key = recipe.getKey();
-            // Skipping recipes that were disabled in config.yml.
-            if (this.configuration.disabledRecipes().contains(key) == true)
-                return;
-            // Support for overriding vanilla commands. PluginConfiguration namespace must be set to "minecraft" for that to work.
-            if (key.getNamespace().equals("minecraft") == true && this.getServer().getRecipe(key) != null) {
-                // Removing the original recipe. It won't be added back until the server restart or "minecraft:reload" command is executed.
-                this.getServer().removeRecipe(key, false);
-                // Sending information to the console.
-                this.getLogger().warning("Recipe \"" + key + "\" is now overriding vanilla recipe with the same key.");
-            }
-            // Registering the recipe...
-            try {
-                this.getServer().addRecipe(recipe.toBukkit(), false);
-                // Adding the recipe key to the list of registered recipes.
-                registeredRecipes.add(key);
-            } catch (final IllegalArgumentException e) {
-                // FAILING SILENTLY; Error and stacktrace should already be printed when loading.
-            }
-        });
-        // Updating recipes.
-        this.getServer().updateRecipes();
+    /** Returns the reload which is currently in progress, or {@code null} if there is none. */
+    public @Nullable ReloadJob currentReload() {
+        return reloader.currentReload();
     }
 
-    // Returns NamespacedKey from configured namespace and relative path of specified file.
-    private @NotNull NamespacedKey getNamespacedKey(final @NotNull File file) throws IllegalArgumentException {
-        // Returning a new NamespacedKey object from namespace and relative path of specified file.
-        return new NamespacedKey(namespace, getKey(file));
+    /** Cancels the reload which is currently in progress, along with the one waiting to start. Returns {@code true} if anything has been cancelled. */
+    public boolean cancelReload() {
+        return reloader.cancel();
     }
 
-    // Returns configured namespace or, in case it's invalid, lower-case plugin name.
-    private @NotNull String initializeNamespace() throws IllegalArgumentException {
-        // Returning a configured namespace, or in case it's unspecified, lower-case plugin name.
-        if (this.configuration.namespace() == null)
-            return getName().toLowerCase(Locale.ROOT);
-        // Getting a namespace with all non-matching characters ignored.
-        final String namespace = ignoreNonMatchingCharacters(this.configuration.namespace(), NAMESPACE_PATTERN);
-        // Throwing IllegalArgumentException if namespace turned out to be empty.
-        if (namespace.isEmpty() == true)
-            throw new IllegalArgumentException("Namespace must contain at least one alphanumeric character.");
-        // Returning the namespace.
-        return namespace;
+    /** Returns keys of recipes registered by the plugin. */
+    public @NotNull Set<NamespacedKey> registeredRecipes() {
+        return registrar.getRegisteredRecipes();
+    }
+
+    /** Returns the embedded store of recipes and custom items, or {@code null} if disabled. */
+    public @Nullable RecipeStore store() {
+        return storage.getStore();
     }
 
-    // Returns path in relation between recipes directory and specified file. This method also tries to translate some invalid characters.
-    private @NotNull String getKey(final @NotNull File file) throws IllegalArgumentException {
-        // Relativizing file path, converting to lower-case, and then applying replacements.
-        final String relativePath = recipesDir.toPath().relativize(file.toPath()).toString().toLowerCase(Locale.ROOT)
-                // Replacing spaces with underscores.
-                .replace(" ", "_")
-                // Replacing back-slashes with slashes. (for Windows)
-                .replace("\\", "/")
-                // Removing the '.json' file extension.
-                .replace(".json", "");
-        // Getting a namespace with all non-matching characters ignored.
-        final String key = ignoreNonMatchingCharacters(relativePath, KEY_PATTERN);
-        // Throwing IllegalArgumentException if key turned out to be empty.
-        if (key.isEmpty())
-            throw new IllegalArgumentException("Namespace must contain at least one alphanumeric character.");
-        // Returning the key.
-        return key;
+    /** Reloads configuration and the custom item registry. Store and watcher are reopened, as their configuration may have changed. Must be called on the server thread. */
+    public void reloadConfiguration() {
+        this.configurationFile = new File(this.getDataFolder(), "config.yml");
+        // Initializing instance of CommentedConfiguration.
+        this.commentedConfiguration = new CommentedConfiguration(configurationFile.toPath(), specGson, ArrayCommentStyle.COMMENT_FIRST_ELEMENT, YAML.get());
+        // Loading configuration file.
+        this.configuration = Specs.fromConfig(PluginConfiguration.class, commentedConfiguration);
+        // Saving default contents to the configuration file.
+        this.configuration.save();
+        // Reloading and mapping configuration file contents to the PluginConfiguration instance.
+        this.configuration.reload();
+        // Getting the configured plugin namespace that will be used for recipe registration.
+        this.namespace = initializeNamespace();
+        // Compiling patterns of disabled recipes.
+        this.disabledRecipes = compileDisabledRecipes();
+        // Resizing the component cache.
+        ComponentCache.INSTANCE.setCapacity(this.configuration.loader().componentCacheSize());
+        // (Re)opening the store, as its configuration may have changed.
+        storage.reopen();
+        // Refreshing the custom item registry.
+        customItemRegistry.refresh();
+        // (Re)starting the watcher.
+        watcher.restart();
     }
 
-    // Returns only matching characters within a Pattern. It exists because there seems to be no method to create an "inverted" matcher.
-    private static @NotNull String ignoreNonMatchingCharacters(final @NotNull CharSequence charSequence, final @NotNull Pattern pattern) {
-        // Creating a Matcher with the specified CharSequence.
-        final Matcher matcher = pattern.matcher(charSequence);
-        // Creating a result StringBuilder, which will then be appended only with characters that matches the pattern.
-        final StringBuilder builder = new StringBuilder();
-        // Appending matching elements to the StringBuilder.
-        while (matcher.find())
-            builder.append(matcher.group());
-        // Returning the result.
-        return builder.toString();
+    /** Returns snapshot of item types, item tags and custom items, which can be used to compile recipes without a server. Must be called on the server thread. */
+    public @NotNull RegistrySnapshot captureRegistrySnapshot() {
+        return reloader.captureRegistrySnapshot();
+    }
+
+    /**
+     * Imports recipe files and custom items into the store. Imported recipe files are moved out of the recipes directory. Must be called off the server thread.
+     * Watcher and reloads are paused for the duration of the import, as files are moved, and stored recipes are visible, before the import is committed.
+     *
+     * @throws IllegalStateException if store is disabled
+     */
+    public @NotNull RecipeStore.ImportResult importStorage() throws IllegalStateException, IOException, JsonParseException {
+        watcher.pause();
+        reloader.pause();
+        try {
+            return storage.importStorage(reloader.getRecipesDirectory());
+        } finally {
+            reloader.resume();
+            watcher.resume();
+        }
+    }
+
+    // Compiles patterns of disabled recipes. Invalid patterns are skipped.
+    private @NotNull KeyPatterns compileDisabledRecipes() {
+        final Map<String, String> errors = new LinkedHashMap<>();
+        final KeyPatterns patterns = KeyPatterns.compile(this.configuration.disabledRecipes(), errors);
+        // Sending information about invalid patterns to the console.
+        errors.forEach((pattern, error) -> this.getLogger().warning("Pattern \"" + pattern + "\" in disabled_recipes is invalid and will be ignored: " + error));
+        return patterns;
+    }
+
+    // Returns configured namespace or, in case it's unspecified, lower-case plugin name.
+    private @NotNull String initializeNamespace() throws IllegalArgumentException {
+        // Returning a configured namespace, or in case it's unspecified, lower-case plugin name.
+        if (this.configuration.namespace() == null)
+            return getName().toLowerCase(Locale.ROOT);
+        // Returning the namespace, with all invalid characters ignored.
+        return RecipeKeys.namespace(this.configuration.namespace());
     }
 
 
@@ -364,23 +338,76 @@ public class Recipes extends JavaPlugin {
     @SuppressWarnings("UnstableApiUsage")
     public static final class PluginLoader implements io.papermc.paper.plugin.loader.PluginLoader {
 
+        // Controls how libraries are resolved. One of: 'cache' (default), 'offline' or 'remote'.
+        // In 'cache' mode, libraries are loaded from the local cache and only missing ones are resolved from remote repositories.
+        // In 'offline' mode, remote repositories are never contacted and startup fails if any library is missing.
+        // In 'remote' mode, all libraries are resolved from remote repositories, like it used to be.
+        private static final String MODE_PROPERTY = "recipes.libraries";
+
         @Override
         public void classloader(final @NotNull PluginClasspathBuilder classpathBuilder) throws IllegalStateException {
-            final MavenLibraryResolver resolver = new MavenLibraryResolver();
+            final ComponentLogger logger = classpathBuilder.getContext().getLogger();
+            final String mode = System.getProperty(MODE_PROPERTY, "cache").toLowerCase(Locale.ROOT);
             // Parsing the file.
             try (final InputStream in = getClass().getResourceAsStream("/paper-libraries.json")) {
                 final PluginLibraries libraries = new Gson().fromJson(new InputStreamReader(in, StandardCharsets.UTF_8), PluginLibraries.class);
-                // Adding repositories to the maven library resolver.
-                libraries.asRepositories().forEach(resolver::addRepository);
-                // Adding dependencies to the maven library resolver.
-                libraries.asDependencies().forEach(resolver::addDependency);
-                // Adding library resolver to the classpath builder.
-                classpathBuilder.addLibrary(resolver);
-            } catch (final IOException e) {
+                // Reading checksums of all libraries, unless cache has been disabled. Lock file is missing if plugin has been built without it.
+                final @Nullable List<LibraryCache.Artifact> artifacts = (mode.equals("remote") == false) ? LibraryCache.readLockFile() : null;
+                // Resolving all libraries from remote repositories if there is no way to verify cached ones.
+                if (artifacts == null) {
+                    if (mode.equals("offline") == true)
+                        throw new IllegalStateException("Libraries cannot be loaded in offline mode because plugin has been built without the " + LibraryCache.LOCK_FILE + " file.");
+                    addResolver(classpathBuilder, libraries.asRepositories(), libraries.asDependencies());
+                    return;
+                }
+                final Path dataDirectory = classpathBuilder.getContext().getDataDirectory().toAbsolutePath();
+                final LibraryCache cache = new LibraryCache(dataDirectory.resolve("libraries"), getServerDirectory(dataDirectory).resolve("libraries"));
+                // Adding verified libraries to the classpath directly, and collecting the missing ones.
+                final List<LibraryCache.Artifact> missing = new ArrayList<>();
+                for (final LibraryCache.Artifact artifact : artifacts) {
+                    final @Nullable Path jar = cache.find(artifact);
+                    if (jar != null)
+                        classpathBuilder.addLibrary(new JarLibrary(jar));
+                    else missing.add(artifact);
+                }
+                // Returning if all libraries have been found locally.
+                if (missing.isEmpty() == true)
+                    return;
+                final String coordinates = missing.stream().map(LibraryCache.Artifact::coordinates).collect(Collectors.joining(", "));
+                // Failing in offline mode, as missing libraries cannot be resolved.
+                if (mode.equals("offline") == true)
+                    throw new IllegalStateException("Following libraries are missing from the cache and cannot be resolved in offline mode: " + coordinates);
+                logger.info("Resolving " + missing.size() + " libraries missing from the cache: " + coordinates);
+                // Lock file lists transitive dependencies as well, so missing artifacts are resolved without their dependencies.
+                addResolver(classpathBuilder, libraries.asRepositories(), missing.stream().map(artifact -> new Dependency(
+                        new DefaultArtifact(artifact.groupId(), artifact.artifactId(), artifact.classifier(), "jar", artifact.version()),
+                        null,
+                        false,
+                        List.of(new Exclusion("*", "*", "*", "*"))
+                )));
+            } catch (final IOException | IllegalArgumentException e) {
                 throw new IllegalStateException(e);
             }
         }
 
+        // Returns root directory of the server, which contains the plugins directory and the local Maven repository used by Paper.
+        private static @NotNull Path getServerDirectory(final @NotNull Path dataDirectory) {
+            final @Nullable Path pluginsDirectory = dataDirectory.getParent();
+            // Falling back to the working directory, which is the server root unless configured otherwise.
+            return (pluginsDirectory != null && pluginsDirectory.getParent() != null) ? pluginsDirectory.getParent() : Path.of("").toAbsolutePath();
+        }
+
+        // Adds new maven library resolver with specified repositories and dependencies to the classpath builder.
+        private static void addResolver(final @NotNull PluginClasspathBuilder classpathBuilder, final @NotNull Stream<RemoteRepository> repositories, final @NotNull Stream<Dependency> dependencies) {
+            final MavenLibraryResolver resolver = new MavenLibraryResolver();
+            // Adding repositories to the maven library resolver.
+            repositories.forEach(resolver::addRepository);
+            // Adding dependencies to the maven library resolver.
+            dependencies.forEach(resolver::addDependency);
+            // Adding library resolver to the classpath builder.
+            classpathBuilder.addLibrary(resolver);
+        }
+
         @RequiredArgsConstructor(access = AccessLevel.PUBLIC)
         private static class PluginLibraries {
 
@@ -0,0 +1,106 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes;
+
+import cloud.grabsky.recipes.loader.RecipeManifest;
+import cloud.grabsky.recipes.loader.RecipePrefetch;
+import cloud.grabsky.recipes.loader.RecipeReader;
+import io.papermc.paper.plugin.bootstrap.BootstrapContext;
+import io.papermc.paper.plugin.bootstrap.PluginBootstrap;
+import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Starts reading and parsing recipe files during server bootstrap, before the plugin is enabled, so that the disk access and parsing overlap with world loading.
+ * Files read this way are handed over to the first reload, see {@link #takePrefetch()}.
+ * <p>
+ * Files that have not been modified since the previous server run are skipped, as these are restored from the snapshot without being parsed.
+ * Nothing is read if prefetching has been disabled in the configuration.
+ */
+@SuppressWarnings("UnstableApiUsage")
+public final class RecipesBootstrap implements PluginBootstrap {
+
+    // Maximum number of bytes read during bootstrap. Remaining files are read once the plugin is enabled.
+    private static final long MAX_PREFETCH_BYTES = 64L * 1024L * 1024L;
+
+    // Recipe files read during bootstrap. Handed over to the first reload, and forgotten afterwards.
+    private static volatile @Nullable RecipePrefetch prefetch;
+
+    @Override
+    public void bootstrap(final @NotNull BootstrapContext context) {
+        // Returning if prefetching has been disabled. Configuration is not loaded yet, so the option is read from the file directly.
+        if (isPrefetchEnabled(context.getDataDirectory().resolve("config.yml")) == false)
+            return;
+        // Reading the manifest left by the previous server run. Files which have not been modified since then are skipped.
+        final RecipeManifest manifest = RecipeManifest.read(context.getDataDirectory().resolve("cache/manifest.json"));
+        // Starting to read and parse recipe files in the background.
+        prefetch = RecipePrefetch.start(context.getDataDirectory().resolve("recipes"), 16, MAX_PREFETCH_BYTES, manifest, (file, pool) -> {
+            try {
+                return RecipeReader.parse(file.openStream(), pool);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    // Returns value of the 'loader.bootstrap_prefetch' option of specified configuration file. Defaults to true if the file or the option does not exist, or cannot be read.
+    private static boolean isPrefetchEnabled(final @NotNull Path configurationFile) {
+        if (Files.exists(configurationFile) == false)
+            return true;
+        try (final BufferedReader reader = Files.newBufferedReader(configurationFile, StandardCharsets.UTF_8)) {
+            if (new Yaml().load(reader) instanceof Map<?, ?> configuration && configuration.get("loader") instanceof Map<?, ?> loader && loader.get("bootstrap_prefetch") instanceof Boolean value)
+                return value;
+        } catch (final IOException | YAMLException e) {
+            // IGNORING; Configuration errors are reported once the plugin is enabled.
+        }
+        return true;
+    }
+
+    /** Returns recipe files read during bootstrap, or {@code null} if there are none. Files are handed over only once, and subsequent calls return {@code null}. */
+    public static synchronized @Nullable RecipePrefetch takePrefetch() {
+        final @Nullable RecipePrefetch prefetch = RecipesBootstrap.prefetch;
+        RecipesBootstrap.prefetch = null;
+        return prefetch;
+    }
+
+}
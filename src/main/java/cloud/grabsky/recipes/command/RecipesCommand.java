@@ -33,10 +33,15 @@
 package cloud.grabsky.recipes.command;
 
 import cloud.grabsky.recipes.Recipes;
+import cloud.grabsky.recipes.compiler.RegistrySnapshot;
+import cloud.grabsky.recipes.storage.RecipeStore;
 import cloud.grabsky.recipes.utils.Extensions;
+import com.google.gson.JsonParseException;
+import org.bukkit.Bukkit;
 import org.bukkit.command.CommandSender;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
+import org.h2.mvstore.MVStoreException;
 import revxrsal.commands.annotation.Command;
 import revxrsal.commands.annotation.Dependency;
 import revxrsal.commands.annotation.Optional;
@@ -46,6 +51,8 @@ import revxrsal.commands.bukkit.actor.BukkitCommandActor;
 import revxrsal.commands.bukkit.annotation.CommandPermission;
 import revxrsal.commands.node.ExecutionContext;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -65,10 +72,23 @@ public enum RecipesCommand {
     @Command("recipes reload")
     @CommandPermission("recipes.command.reload")
     public String onReload(final @NotNull CommandSender sender) {
-        // Reloading the plugin.
-        plugin.onReload(true);
+        // Checking whether the reload is already in progress. In such case, request is merged into the pending one.
+        final boolean isJoined = plugin.currentReload() != null;
+        // Requesting reload of the plugin. Sender is notified about its progress and result.
+        plugin.onReload(true).subscribe(sender);
         // Sending message to the sender.
-        return plugin.configuration().messages().commandRecipesReloadSuccess();
+        return (isJoined == false)
+                ? plugin.configuration().messages().commandRecipesReloadStarted()
+                : plugin.configuration().messages().commandRecipesReloadJoined();
+    }
+
+    @Command("recipes reload cancel")
+    @CommandPermission("recipes.command.reload")
+    public String onReloadCancel(final @NotNull CommandSender sender) {
+        // Cancelling the reload. Recipes that are already registered are kept.
+        return (plugin.cancelReload() == true)
+                ? plugin.configuration().messages().commandRecipesReloadCancelSuccess()
+                : plugin.configuration().messages().commandRecipesReloadCancelFailure();
     }
 
     @Command("recipes list_recipes")
@@ -83,7 +103,7 @@ public enum RecipesCommand {
         final AtomicInteger number = new AtomicInteger(0);
         // Iterating over the recipes list and sending keys to the sender.
         plugin.registeredRecipes().forEach(recipe -> {
-            sender.sendTextMessage(plugin.configuration().messages().commandRecipesRecipesListEntry().repl("{number}", number.incrementAndGet(), "{recipe}", recipe.asString()));
+            sender.sendTextMessage(plugin.configuration().messages().commandRecipesRecipesListEntry(), "{number}", number.incrementAndGet(), "{recipe}", recipe.asString());
         });
         // Sending footer message to the sender.
         return plugin.configuration().messages().commandRecipesRecipesListFooter();
@@ -102,7 +122,7 @@ public enum RecipesCommand {
         // Iterating over the custom items registry and sending item identifiers to the sender.
         plugin.customItemRegistry().all().keySet().forEach(identifier -> {
             // Sending the list entry to the sender.
-            sender.sendTextMessage(plugin.configuration().messages().commandRecipesItemsListEntry().repl("{number}", number.incrementAndGet(), "{identifier}", identifier));
+            sender.sendTextMessage(plugin.configuration().messages().commandRecipesItemsListEntry(), "{number}", number.incrementAndGet(), "{identifier}", identifier);
         });
         // Sending footer message to the sender.
         return plugin.configuration().messages().commandRecipesItemsListFooter();
@@ -169,6 +189,46 @@ public enum RecipesCommand {
         return plugin.configuration().messages().commandRecipesGiveItemFailure().repl("{identifier}", identifier);
     }
 
+    @Command("recipes export_registry")
+    @CommandPermission("recipes.command.export_registry")
+    public String onExportRegistry(final @NotNull CommandSender sender) {
+        final File file = new File(plugin.getDataFolder(), RegistrySnapshot.FILE_NAME);
+        // Exporting snapshot of the registries, which is used to compile recipes without a server.
+        try {
+            plugin.captureRegistrySnapshot().write(file.toPath());
+            // Sending message to the sender.
+            return plugin.configuration().messages().commandRecipesExportRegistrySuccess().repl("{file}", file.getPath());
+        } catch (final IOException e) {
+            plugin.getLogger().warning("Exporting registry snapshot has failed due to following error: " + e.getMessage());
+            // Sending error message to the sender.
+            return plugin.configuration().messages().commandRecipesExportRegistryFailure();
+        }
+    }
+
+    @Command("recipes import_storage")
+    @CommandPermission("recipes.command.import_storage")
+    public String onImportStorage(final @NotNull CommandSender sender) {
+        // Sending error message if the store is disabled.
+        if (plugin.store() == null)
+            return plugin.configuration().messages().commandRecipesImportStorageFailureDisabled();
+        // Importing files off the server thread, as there can be lots of them.
+        Bukkit.getAsyncScheduler().runNow(plugin, (task) -> {
+            try {
+                final RecipeStore.ImportResult result = plugin.importStorage();
+                // Sending message to the sender.
+                sender.sendTextMessage(plugin.configuration().messages().commandRecipesImportStorageSuccess(), "{recipes}", result.recipes(), "{items}", result.items());
+                // Reloading the plugin, so imported recipes and items are loaded from the store.
+                plugin.onReload(true).subscribe(sender);
+            } catch (final IOException | IllegalStateException | JsonParseException | MVStoreException e) {
+                plugin.getLogger().warning("Importing into the store has failed due to following error: " + e.getMessage());
+                // Sending error message to the sender.
+                sender.sendTextMessage(plugin.configuration().messages().commandRecipesImportStorageFailure());
+            }
+        });
+        // Messages are sent once import is done.
+        return "";
+    }
+
 
     /* COMMAND SUGGESTION PROVIDER */
 
@@ -62,8 +62,8 @@ public interface PluginConfiguration {
     }
 
     @Order(2) @Key("disabled_recipes")
-    @Comment("List of recipes to be unregistered upon plugin reload.")
-    default @Unmodifiable List<NamespacedKey> disabledRecipes() {
+    @Comment("List of recipes to be unregistered upon plugin reload. Supports glob patterns, where \"*\" matches any characters except for \"/\" and \"**\" matches any characters. (Example: minecraft:*_boat, mypack:legacy/**)\nPatterns prefixed with \"~\" are regular expressions matched against the whole key. (Example: ~minecraft:.+_(boat|raft))")
+    default @Unmodifiable List<String> disabledRecipes() {
         return Collections.emptyList();
     }
 
@@ -73,10 +73,127 @@ public interface PluginConfiguration {
         return true;
     }
 
-    @Order(4) @Key("messages")
+    @Order(4) @Key("loader")
+    @Comment("Settings of the pipeline used to read and parse recipe files.")
+    Loader loader();
+
+    @Order(5) @Key("watcher")
+    @Comment("Settings of the watcher used to automatically reload recipes when files are modified.")
+    Watcher watcher();
+
+    @Order(6) @Key("registration")
+    @Comment("Settings of recipe registration, which is spread across multiple ticks to avoid lag spikes.")
+    Registration registration();
+
+    @Order(7) @Key("storage")
+    @Comment("Settings of the embedded store, which can be used to keep large amounts of recipes and custom items in a single file.")
+    Storage storage();
+
+    @Order(8) @Key("overrides")
+    @Comment("Rules used to unregister recipes of the server and other plugins in bulk. Matching recipes are unregistered upon plugin reload, and recipes of this plugin are never affected.\nRecipes won't be added back until the server restart or \"minecraft:reload\" command is executed.")
+    Overrides overrides();
+
+    @Order(9) @Key("messages")
     @Comment("Translatable messages used across the entire plugin. MiniMessage is the only supported text format.")
     Messages messages();
 
+    @ConfigSpec
+    interface Loader {
+
+        @Order(0) @Key("read_parallelism")
+        @Comment("Maximum number of recipe files read at once. Files are read on virtual threads. (Default: 16)")
+        default int readParallelism() {
+            return 16;
+        }
+
+        @Order(1) @Key("parse_parallelism")
+        @Comment("Number of threads used to parse recipe files. Non-positive values default to the number of available processors. (Default: 0)")
+        default int parseParallelism() {
+            return 0;
+        }
+
+        @Order(2) @Key("queue_depth")
+        @Comment("Maximum number of recipe files that have been read, but are still waiting to be parsed. (Default: 256)")
+        default int queueDepth() {
+            return 256;
+        }
+
+        @Order(3) @Key("bootstrap_prefetch")
+        @Comment("Whether to start reading and parsing recipe files during server bootstrap, while worlds are still loading. Files that have not changed since the previous server run are skipped. Takes effect after a restart. (Default: true)")
+        default boolean bootstrapPrefetch() {
+            return true;
+        }
+
+        @Order(4) @Key("component_cache_size")
+        @Comment("Maximum number of deserialized item names, lore lines and messages kept in memory. Least recently used ones are evicted first. Non-positive values disable the cache. (Default: 1024)")
+        default int componentCacheSize() {
+            return 1024;
+        }
+
+    }
+
+    @ConfigSpec
+    interface Watcher {
+
+        @Order(0) @Key("enabled")
+        @Comment("Whether to reload recipes automatically when files in the recipes directory or the item_registry.json file are modified. (Default: false)")
+        default boolean enabled() {
+            return false;
+        }
+
+        @Order(1) @Key("debounce")
+        @Comment("Time, in milliseconds, to wait for further changes before reloading. Bursts of changes are applied together. (Default: 500)")
+        default long debounce() {
+            return 500;
+        }
+
+    }
+
+    @ConfigSpec
+    interface Registration {
+
+        @Order(0) @Key("tick_budget")
+        @Comment("Maximum time, in milliseconds, spent on adding and removing recipes during a single tick. Non-positive values disable the limit. (Default: 5.0)")
+        default double tickBudget() {
+            return 5.0;
+        }
+
+    }
+
+    @ConfigSpec
+    interface Storage {
+
+        @Order(0) @Key("enabled")
+        @Comment("Whether to load recipes and custom items from the embedded store, in addition to recipe files. Custom items are then no longer read from item_registry.json. (Default: false)\nUse /recipes import_storage command to import existing recipe files and custom items.")
+        default boolean enabled() {
+            return false;
+        }
+
+        @Order(1) @Key("file")
+        @Comment("Name of the store file, relative to the plugin directory. (Default: storage.mv.db)")
+        default String file() {
+            return "storage.mv.db";
+        }
+
+    }
+
+    @ConfigSpec
+    interface Overrides {
+
+        @Order(0) @Key("disable_recipes_producing")
+        @Comment("List of item types. Recipes which produce any of them are unregistered, letting recipes of this plugin replace them. (Example: minecraft:stick)")
+        default @Unmodifiable List<NamespacedKey> disableRecipesProducing() {
+            return Collections.emptyList();
+        }
+
+        @Order(1) @Key("disable_recipes_using")
+        @Comment("List of item types. Recipes with any ingredient accepting any of them are unregistered. (Example: minecraft:diamond)")
+        default @Unmodifiable List<NamespacedKey> disableRecipesUsing() {
+            return Collections.emptyList();
+        }
+
+    }
+
     @ConfigSpec
     interface Messages {
 
@@ -86,31 +203,79 @@ public interface PluginConfiguration {
         @Key("command.recipes.reload.success")
         @Comment("Recipes > Reload")
         default String commandRecipesReloadSuccess() {
-            return "<dark_gray>› <gray>Plugin <gold>Recipes<gray> has been reloaded.";
+            return "<dark_gray>› <gray>Plugin <gold>Recipes<gray> has been reloaded. Registered <gold>{registered}<gray> recipes in <gold>{elapsed}ms<gray> (<gold>{ticks}<gray> ticks).";
+        }
+
+        @Order(1)
+        @Key("command.recipes.reload.started")
+        default String commandRecipesReloadStarted() {
+            return "<dark_gray>› <gray>Reloading plugin <gold>Recipes<gray>...";
+        }
+
+        @Order(2)
+        @Key("command.recipes.reload.joined")
+        default String commandRecipesReloadJoined() {
+            return "<dark_gray>› <gray>Plugin <gold>Recipes<gray> is already being reloaded. Your request has been merged into it.";
+        }
+
+        @Order(3)
+        @Key("command.recipes.reload.parsing")
+        default String commandRecipesReloadParsing() {
+            return "<dark_gray>› <gray>Parsing modified files... <gold>{parsed}<gray>/<gold>{total}<gray> (<gold>{elapsed}ms<gray>)";
+        }
+
+        @Order(4)
+        @Key("command.recipes.reload.progress")
+        default String commandRecipesReloadProgress() {
+            return "<dark_gray>› <gray>Parsed <gold>{parsed}<gray>/<gold>{total}<gray> modified files in <gold>{elapsed}ms<gray>. Registering recipes...";
+        }
+
+        @Order(5)
+        @Key("command.recipes.reload.failure")
+        default String commandRecipesReloadFailure() {
+            return "<dark_gray>› <red>Reloading plugin <gold>Recipes<red> has failed. Previously loaded recipes are kept. See console for details.";
+        }
+
+        @Order(6)
+        @Key("command.recipes.reload.cancelled")
+        default String commandRecipesReloadCancelled() {
+            return "<dark_gray>› <gray>Reloading plugin <gold>Recipes<gray> has been cancelled. Previously loaded recipes are kept.";
+        }
+
+        @Order(7)
+        @Key("command.recipes.reload.cancel.success")
+        default String commandRecipesReloadCancelSuccess() {
+            return "<dark_gray>› <gray>Reload of plugin <gold>Recipes<gray> is being cancelled.";
+        }
+
+        @Order(8)
+        @Key("command.recipes.reload.cancel.failure")
+        default String commandRecipesReloadCancelFailure() {
+            return "<dark_gray>› <red>There is no reload which could be cancelled.";
         }
 
         // Recipes > Recipes List
 
-        @Order(1)
+        @Order(9)
         @Key("command.recipes.recipes_list.header")
         @Comment("Recipes > Recipes List")
         default String commandRecipesRecipesListHeader() {
             return "<dark_gray><st>---------------------</st>  <gray>Recipes  <dark_gray><st>---------------------</st><newline>";
         }
 
-        @Order(2)
+        @Order(10)
         @Key("command.recipes.recipes_list.entry")
         default String commandRecipesRecipesListEntry() {
             return " <#848484>{number}. <#E0C865>{recipe}";
         }
 
-        @Order(3)
+        @Order(11)
         @Key("command.recipes.recipes_list.footer")
         default String commandRecipesRecipesListFooter() {
             return "<newline><dark_gray><st>---------------------------------------------------</st>";
         }
 
-        @Order(4)
+        @Order(12)
         @Key("command.recipes.recipes_list.failure.empty")
         default String commandRecipesRecipesListFailureEmpty() {
             return "<dark_gray>› <red>No recipes were found.";
@@ -118,26 +283,26 @@ public interface PluginConfiguration {
 
         // Recipes > Items List
 
-        @Order(5)
+        @Order(13)
         @Key("command.recipes.items_list.header")
         @Comment("Recipes > Items List")
         default String commandRecipesItemsListHeader() {
             return "<dark_gray><st>-------------------</st>  <gray>Custom Items  <dark_gray><st>-------------------</st><newline>";
         }
 
-        @Order(6)
+        @Order(14)
         @Key("command.recipes.items_list.entry")
         default String commandRecipesItemsListEntry() {
             return " <#848484>{number}. <#E0C865>{identifier}";
         }
 
-        @Order(7)
+        @Order(15)
         @Key("command.recipes.items_list.footer")
         default String commandRecipesItemsListFooter() {
             return "<newline><dark_gray><st>---------------------------------------------------</st>";
         }
 
-        @Order(8)
+        @Order(16)
         @Key("command.recipes.items_list.failure.empty")
         default String commandRecipesItemsListFailureEmpty() {
             return "<dark_gray>› <red>No items were found.";
@@ -145,26 +310,26 @@ public interface PluginConfiguration {
 
         // Recipes > Register Item
 
-        @Order(9)
+        @Order(17)
         @Key("command.recipes.register_item.success")
         @Comment("Message shown when an item is successfully registered")
         default String commandRecipesRegisterItemSuccess() {
             return "<dark_gray>› <gray>Item <gold>{identifier}<gray> has been registered.";
         }
 
-        @Order(10)
+        @Order(18)
         @Key("command.recipes.register_item.success.overridden")
         default String commandRecipesRegisterItemSuccessOverridden() {
             return "<dark_gray>› <gray>Item <gold>{identifier}<gray> has been overridden.";
         }
 
-        @Order(11)
+        @Order(19)
         @Key("command.recipes.register_item.failure.invalid_item")
         default String commandRecipesRegisterItemFailureInvalidItem() {
             return "<dark_gray>› <red>Currently held item cannot be registered.";
         }
 
-        @Order(12)
+        @Order(20)
         @Key("command.recipes.register_item.failure.invalid_identifier")
         default String commandRecipesRegisterItemFailureInvalidIdentifier() {
             return "<dark_gray>› <red>Identifier <gold>{identifier}<red> contains invalid characters.";
@@ -172,14 +337,14 @@ public interface PluginConfiguration {
 
         // Recipes > Unregister Item
 
-        @Order(13)
+        @Order(21)
         @Key("command.recipes.unregister_item.success")
         @Comment("Recipes > Unregister Item")
         default String commandRecipesUnregisterItemSuccess() {
             return "<dark_gray>› <gray>Item <gold>{identifier}<gray> has been unregistered.";
         }
 
-        @Order(14)
+        @Order(22)
         @Key("command.recipes.unregister_item.failure.invalid_identifier")
         default String commandRecipesUnregisterItemFailureInvalidIdentifier() {
             return "<dark_gray>› <red>Item <gold>{identifier}<red> does not exist.";
@@ -187,19 +352,55 @@ public interface PluginConfiguration {
 
         // Recipes > Give Item
 
-        @Order(15)
+        @Order(23)
         @Key("command.recipes.give_item.success")
         @Comment("Recipes > Give Item")
         default String commandRecipesGiveItemSuccess() {
             return "<dark_gray>› <gray>Player <gold>{target}<gray> was given <gold>{amount}x {identifier}<gray>.";
         }
 
-        @Order(16)
+        @Order(24)
         @Key("command.recipes.give_item.failure")
         default String commandRecipesGiveItemFailure() {
             return "<dark_gray>› <red>Item <gold>{identifier}<red> does not exist.";
         }
 
+        // Recipes > Export Registry
+
+        @Order(25)
+        @Key("command.recipes.export_registry.success")
+        @Comment("Recipes > Export Registry")
+        default String commandRecipesExportRegistrySuccess() {
+            return "<dark_gray>› <gray>Registry snapshot has been exported to <gold>{file}<gray>.";
+        }
+
+        @Order(26)
+        @Key("command.recipes.export_registry.failure")
+        default String commandRecipesExportRegistryFailure() {
+            return "<dark_gray>› <red>Exporting registry snapshot has failed. Check console for details.";
+        }
+
+        // Recipes > Import Storage
+
+        @Order(27)
+        @Key("command.recipes.import_storage.success")
+        @Comment("Recipes > Import Storage")
+        default String commandRecipesImportStorageSuccess() {
+            return "<dark_gray>› <gray>Imported <gold>{recipes}<gray> recipes and <gold>{items}<gray> custom items into the store.";
+        }
+
+        @Order(28)
+        @Key("command.recipes.import_storage.failure.disabled")
+        default String commandRecipesImportStorageFailureDisabled() {
+            return "<dark_gray>› <red>Store is disabled. Enable it in the configuration file first.";
+        }
+
+        @Order(29)
+        @Key("command.recipes.import_storage.failure")
+        default String commandRecipesImportStorageFailure() {
+            return "<dark_gray>› <red>Importing into the store has failed. Check console for details.";
+        }
+
     }
 
     /* IMPLEMENTED BY SPEC */
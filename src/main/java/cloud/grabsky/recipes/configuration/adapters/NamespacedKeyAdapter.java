@@ -31,41 +31,49 @@
  */
 package cloud.grabsky.recipes.configuration.adapters;
 
-import com.google.gson.JsonDeserializationContext;
-import com.google.gson.JsonDeserializer;
-import com.google.gson.JsonElement;
+import cloud.grabsky.recipes.materializer.RecipeMaterializer;
 import com.google.gson.JsonParseException;
-import com.google.gson.JsonPrimitive;
-import com.google.gson.JsonSerializationContext;
-import com.google.gson.JsonSerializer;
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import org.bukkit.NamespacedKey;
 
-import java.lang.reflect.Type;
+import java.io.IOException;
 
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-public enum NamespacedKeyAdapter implements JsonDeserializer<NamespacedKey>, JsonSerializer<NamespacedKey> {
-    INSTANCE; // SINGLETON
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reads {@link NamespacedKey NamespacedKeys} from the configuration. Keys are parsed using {@link KeyAdapter}, and converted afterwards.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class NamespacedKeyAdapter extends TypeAdapter<NamespacedKey> {
+
+    public static final NamespacedKeyAdapter INSTANCE = new NamespacedKeyAdapter(); // SINGLETON
 
     @Override
-    public @NotNull NamespacedKey deserialize(final @NotNull JsonElement element, final @NotNull Type classType, final @NotNull JsonDeserializationContext context) throws JsonParseException {
-        if (element.isJsonPrimitive() == false)
-            throw new JsonParseException("Expected " + JsonPrimitive.class.getName() + " but found: " + element.getClass().getName());
-        // Getting the element value as string.
-        final String value = element.getAsString();
-        // Creating a NamespacedKey instance from the value. Can be null if invalid.
-        final @Nullable NamespacedKey key = NamespacedKey.fromString(value);
-        // Throwing an exception if key is null or NamespacedKey validation fails.
-        if (key == null)
-            throw new JsonParseException("Key \"" + value + "\" is not a valid resource location / namespaced key.");
-        // Returning...
-        return key;
+    public @Nullable NamespacedKey read(final @NotNull JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (in.peek() != JsonToken.STRING && in.peek() != JsonToken.NUMBER)
+            throw new JsonParseException("Expected STRING but found: " + in.peek() + " at " + in.getPath());
+        // Parsing the value. Throws an exception when invalid.
+        return RecipeMaterializer.toNamespacedKey(KeyAdapter.parse(in.nextString()));
     }
 
     @Override // Serialization currently used only by Spec.
-    public JsonElement serialize(final NamespacedKey obj, final Type classType, final JsonSerializationContext context) {
-        return new JsonPrimitive(obj.asString());
+    public void write(final @NotNull JsonWriter out, final @Nullable NamespacedKey value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        out.value(value.asString());
     }
 
 }
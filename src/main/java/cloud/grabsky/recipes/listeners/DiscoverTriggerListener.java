@@ -33,7 +33,7 @@
 package cloud.grabsky.recipes.listeners;
 
 import cloud.grabsky.recipes.Recipes;
-import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
@@ -64,19 +64,19 @@ public final class DiscoverTriggerListener implements Listener {
             // Preparing the list of recipes to discover.
             final List<NamespacedKey> recipes = plugin.recipes().stream().filter(recipe -> {
                 // Excluding already discovered recipes.
-                if (player.hasDiscoveredRecipe(recipe.getKey()) == true)
+                if (player.hasDiscoveredRecipe(recipe.key()) == true)
                     return false;
                 // Recipes with no criteria specified should be added to the list with no further checks.
-                if (recipe.getDiscoverTrigger() == null)
+                if (recipe.discoverChoices() == null)
                     return true;
                     // Otherwise, testing each choice individually.
-                else if (recipe.getDiscoverTrigger().getRequiredItems() != null && recipe.getDiscoverTrigger().getRequiredItems().isEmpty() == false) {
+                else if (recipe.discoverChoices().isEmpty() == false) {
                     // Iterating over contents of player's inventory.
                     for (final @Nullable ItemStack item : player.getInventory().getContents()) {
                         if (item == null || item.getType() == Material.AIR)
                             continue;
                         // Iterating over list of choices that can discover recipe for the player.
-                        for (final RecipeChoice choice : recipe.getDiscoverTrigger().getRequiredItems()) {
+                        for (final RecipeChoice choice : recipe.discoverChoices()) {
                             // Testing item against the current choice.
                             if (choice.test(item) == true)
                                 return true;
@@ -85,7 +85,7 @@ public final class DiscoverTriggerListener implements Listener {
                 }
                 // Otherwise, excluding the recipe.
                 return false;
-            }).map(RecipeWrapper::getKey).toList();
+            }).map(CompiledRecipe::key).toList();
             // Discovering the recipes for the player.
             player.getScheduler().run(plugin, (_task) -> player.discoverRecipes(recipes), null);
         });
@@ -101,15 +101,15 @@ public final class DiscoverTriggerListener implements Listener {
                 // Preparing the list of recipes to discover.
                 final List<NamespacedKey> recipes = plugin.recipes().stream().filter(recipe -> {
                     // Excluding already discovered recipes.
-                    if (player.hasDiscoveredRecipe(recipe.getKey()) == true)
+                    if (player.hasDiscoveredRecipe(recipe.key()) == true)
                         return false;
                     // Recipes with no criteria specified should be added to the list with no further checks.
-                    if (recipe.getDiscoverTrigger() == null)
+                    if (recipe.discoverChoices() == null)
                         return true;
                         // Otherwise, testing each choice individually.
-                    else if (recipe.getDiscoverTrigger().getRequiredItems() != null && recipe.getDiscoverTrigger().getRequiredItems().isEmpty() == false) {
+                    else if (recipe.discoverChoices().isEmpty() == false) {
                         // Iterating over list of choices that can discover recipe for the player.
-                        for (final RecipeChoice choice : recipe.getDiscoverTrigger().getRequiredItems()) {
+                        for (final RecipeChoice choice : recipe.discoverChoices()) {
                             // Testing item against the current choice.
                             if (choice.test(item) == true)
                                 return true;
@@ -117,7 +117,7 @@ public final class DiscoverTriggerListener implements Listener {
                     }
                     // Otherwise, excluding the recipe.
                     return false;
-                }).map(RecipeWrapper::getKey).toList();
+                }).map(CompiledRecipe::key).toList();
                 // Discovering the recipes for the player.
                 player.getScheduler().run(plugin, (_task) -> player.discoverRecipes(recipes), null);
             });
@@ -51,6 +51,8 @@ public final class ResourcesReloadedListener implements Listener {
         // Reloading all plugin-specified (and disabled) recipes if configured to do so.
         if (plugin.configuration().hookIntoResourcesReloadEvent() == true)
             plugin.onReload(false);
+        // Otherwise, making sure the next reload does not use outdated item tags.
+        else plugin.invalidateResources();
     }
 
 }
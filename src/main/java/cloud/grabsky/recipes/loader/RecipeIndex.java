@@ -0,0 +1,167 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import org.bukkit.Keyed;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.CookingRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.SmithingTrimRecipe;
+import org.bukkit.inventory.StonecuttingRecipe;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Index of recipes registered on the server, organized by their key, result type and ingredient types. Types are identified by their key, for example {@code minecraft:stick}.
+ * Index is built once per registration, see {@link #build(Iterator)}, and is not updated afterwards.
+ */
+public final class RecipeIndex {
+
+    // Keys of all indexed recipes.
+    private final Set<NamespacedKey> keys = new HashSet<>();
+
+    // Keys of recipes, mapped by key of their result type.
+    private final Map<NamespacedKey, Set<NamespacedKey>> byResult = new HashMap<>();
+
+    // Keys of recipes, mapped by key of each type accepted by any of their ingredients.
+    private final Map<NamespacedKey, Set<NamespacedKey>> byIngredient = new HashMap<>();
+
+    private RecipeIndex() { }
+
+    /** Builds index of specified recipes. Recipes without a key are skipped. Usually called with {@code Bukkit.recipeIterator()}, which must be done on the server thread. */
+    public static @NotNull RecipeIndex build(final @NotNull Iterator<Recipe> recipes) {
+        final RecipeIndex index = new RecipeIndex();
+        while (recipes.hasNext() == true) {
+            final Recipe recipe = recipes.next();
+            // Skipping recipes that cannot be referred to.
+            if (recipe instanceof Keyed keyed)
+                index.add(keyed.getKey(), recipe);
+        }
+        return index;
+    }
+
+    private void add(final @NotNull NamespacedKey key, final @NotNull Recipe recipe) {
+        keys.add(key);
+        // Indexing the result.
+        final ItemStack result = recipe.getResult();
+        if (result.getType().isAir() == false)
+            byResult.computeIfAbsent(result.getType().getKey(), (it) -> new HashSet<>()).add(key);
+        // Indexing the ingredients.
+        forEachChoice(recipe, (choice) -> {
+            if (choice instanceof RecipeChoice.MaterialChoice materialChoice)
+                materialChoice.getChoices().forEach(material -> addIngredient(material, key));
+            else if (choice instanceof RecipeChoice.ExactChoice exactChoice)
+                exactChoice.getChoices().forEach(item -> addIngredient(item.getType(), key));
+        });
+    }
+
+    private void addIngredient(final @NotNull Material material, final @NotNull NamespacedKey key) {
+        byIngredient.computeIfAbsent(material.getKey(), (it) -> new HashSet<>()).add(key);
+    }
+
+    // Passes each ingredient of specified recipe to the consumer. Recipes of unknown types have no ingredients indexed.
+    private static void forEachChoice(final @NotNull Recipe recipe, final @NotNull Consumer<RecipeChoice> consumer) {
+        switch (recipe) {
+            // Characters with no choice assigned are skipped.
+            case ShapedRecipe shaped -> shaped.getChoiceMap().values().stream().filter(Objects::nonNull).forEach(consumer);
+            case ShapelessRecipe shapeless -> shapeless.getChoiceList().forEach(consumer);
+            case CookingRecipe<?> cooking -> consumer.accept(cooking.getInputChoice());
+            case StonecuttingRecipe stonecutting -> consumer.accept(stonecutting.getInputChoice());
+            case SmithingTransformRecipe smithing -> {
+                consumer.accept(smithing.getTemplate());
+                consumer.accept(smithing.getBase());
+                consumer.accept(smithing.getAddition());
+            }
+            case SmithingTrimRecipe smithing -> {
+                consumer.accept(smithing.getTemplate());
+                consumer.accept(smithing.getBase());
+                consumer.accept(smithing.getAddition());
+            }
+            default -> { }
+        }
+    }
+
+    /** Returns {@code true} if recipe with specified key is registered. */
+    public boolean contains(final @NotNull NamespacedKey key) {
+        return keys.contains(key);
+    }
+
+    /** Passes key of each indexed recipe to specified consumer. */
+    public void forEach(final @NotNull Consumer<NamespacedKey> consumer) {
+        keys.forEach(consumer);
+    }
+
+    /** Returns number of indexed recipes. */
+    public int size() {
+        return keys.size();
+    }
+
+    /** Returns keys of recipes which produce any of specified item types. */
+    public @NotNull @Unmodifiable Set<NamespacedKey> producing(final @NotNull Collection<NamespacedKey> types) {
+        return collect(byResult, types);
+    }
+
+    /** Returns keys of recipes with any ingredient that accepts any of specified item types. */
+    public @NotNull @Unmodifiable Set<NamespacedKey> using(final @NotNull Collection<NamespacedKey> types) {
+        return collect(byIngredient, types);
+    }
+
+    private static @NotNull @Unmodifiable Set<NamespacedKey> collect(final @NotNull Map<NamespacedKey, Set<NamespacedKey>> map, final @NotNull Collection<NamespacedKey> types) {
+        final Set<NamespacedKey> keys = new LinkedHashSet<>();
+        for (final NamespacedKey type : types) {
+            final @Nullable Set<NamespacedKey> matching = map.get(type);
+            if (matching != null)
+                keys.addAll(matching);
+        }
+        return Collections.unmodifiableSet(keys);
+    }
+
+}
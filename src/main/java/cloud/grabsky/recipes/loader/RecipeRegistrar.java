@@ -0,0 +1,193 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.Recipes;
+import cloud.grabsky.recipes.configuration.PluginConfiguration;
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
+import cloud.grabsky.recipes.materializer.RecipeFingerprint;
+import org.bukkit.NamespacedKey;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Registers compiled recipes on the server. Recipes are compared with the ones registered previously using their {@link RecipeFingerprint}, and only added, removed or replaced keys are touched.
+ * Registration is spread across multiple ticks, see {@link RegistrationScheduler}. Accessed on the server thread only.
+ */
+public final class RecipeRegistrar {
+
+    private final @NotNull Recipes plugin;
+
+    // Stores fingerprints of registered recipes, used to register only recipes that have changed.
+    private final Map<NamespacedKey, RecipeFingerprint> registeredFingerprints = new LinkedHashMap<>();
+
+    @Getter(AccessLevel.PUBLIC)
+    private final Set<NamespacedKey> registeredRecipes = Collections.unmodifiableSet(registeredFingerprints.keySet());
+
+    // Registration which is currently in progress, if any.
+    private @Nullable RegistrationScheduler runningRegistration;
+
+    public RecipeRegistrar(final @NotNull Recipes plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Forgets all registered recipes. Must be called after resources have been reloaded, as the server has removed all of them, meaning all of them must be registered again. */
+    public void forgetRegisteredRecipes() {
+        registeredFingerprints.clear();
+    }
+
+    /** Cancels registration which is currently in progress, if any. Recipes registered so far are sent to players. Must be called when the plugin is being disabled. */
+    public void cancel() {
+        if (runningRegistration != null)
+            runningRegistration.cancel();
+    }
+
+    /**
+     * Registers specified recipes, and unregisters ones that are no longer present. Recipes disabled in the configuration are skipped. Returned future is completed on the server thread once recipes are updated.
+     * Recipes are not sent to players again if nothing has changed.
+     */
+    public @NotNull CompletableFuture<RegistrationScheduler.Stats> register(final @NotNull Collection<CompiledRecipe> recipes) {
+        final RegistrationScheduler scheduler = new RegistrationScheduler(plugin, plugin.configuration().registration().tickBudget());
+        final KeyPatterns disabledRecipes = plugin.disabledRecipes();
+        // Collecting recipes that should be registered. Recipes that were disabled in config.yml are skipped.
+        final Map<NamespacedKey, CompiledRecipe> enabledRecipes = new LinkedHashMap<>();
+        recipes.forEach(recipe -> {
+            if (disabledRecipes.matches(recipe.key()) == false)
+                enabledRecipes.put(recipe.key(), recipe);
+        });
+        // Building index of recipes registered on the server, unless there is nothing to look up in it. Vanilla recipes can be overridden by key only if namespace is "minecraft".
+        final PluginConfiguration.Overrides overrides = plugin.configuration().overrides();
+        final @Nullable RecipeIndex index = (disabledRecipes.isEmpty() == false || overrides.disableRecipesProducing().isEmpty() == false || overrides.disableRecipesUsing().isEmpty() == false || plugin.namespace().equals("minecraft") == true)
+                ? RecipeIndex.build(plugin.getServer().recipeIterator())
+                : null;
+        // Forgetting registered recipes if the server no longer has them. This happens when resources were reloaded without notifying the plugin, for example when 'hook_into_resources_reload_event' is disabled.
+        if (isRecipeManagerWiped() == true)
+            registeredFingerprints.clear();
+        // Comparing registered recipes with the enabled ones. Only added, removed or replaced keys are touched.
+        final Map<NamespacedKey, RecipeFingerprint> fingerprints = new LinkedHashMap<>();
+        enabledRecipes.forEach((key, recipe) -> fingerprints.put(key, recipe.fingerprint()));
+        final RecipeDiff<NamespacedKey> diff = RecipeDiff.compute(registeredFingerprints, fingerprints);
+        final Set<NamespacedKey> removedRecipes = new HashSet<>(diff.removed());
+        // Registered fingerprints are updated by the queued operations themselves, so recipes of operations that have failed are not considered registered (or removed) by the next reload.
+        // Unregistering recipes that were removed, or disabled, since the last registration.
+        for (final NamespacedKey key : diff.removed()) {
+            scheduler.queue(() -> {
+                plugin.getServer().removeRecipe(key, false);
+                registeredFingerprints.remove(key);
+            });
+        }
+        // Registering recipes that were added or modified since the last registration.
+        for (final CompiledRecipe recipe : enabledRecipes.values()) {
+            final NamespacedKey key = recipe.key();
+            // Skipping recipes that are already registered and have not changed.
+            if (diff.added().contains(key) == false && diff.replaced().contains(key) == false)
+                continue;
+            final RecipeFingerprint fingerprint = recipe.fingerprint();
+            final @Nullable RecipeFingerprint previous = registeredFingerprints.get(key);
+            scheduler.queue(() -> {
+                // Removing previous version of the recipe.
+                if (previous != null) {
+                    plugin.getServer().removeRecipe(key, false);
+                    registeredFingerprints.remove(key);
+                }
+                // Support for overriding vanilla commands. PluginConfiguration namespace must be set to "minecraft" for that to work.
+                else if (index != null && key.getNamespace().equals("minecraft") == true && index.contains(key) == true) {
+                    // Removing the original recipe. It won't be added back until the server restart or "minecraft:reload" command is executed.
+                    plugin.getServer().removeRecipe(key, false);
+                    // Sending information to the console.
+                    plugin.getLogger().warning("Recipe \"" + key + "\" is now overriding vanilla recipe with the same key.");
+                }
+                // Registering the recipe...
+                try {
+                    plugin.getServer().addRecipe(recipe.recipe(), false);
+                    registeredFingerprints.put(key, fingerprint);
+                } catch (final IllegalArgumentException e) {
+                    // FAILING SILENTLY; Error and stacktrace should already be printed when loading.
+                }
+            });
+        }
+        // Unregistering disabled recipes that are still present on the server, including vanilla ones, and recipes matched by override rules. Recipes of this plugin are never matched by rules.
+        if (index != null) {
+            final Set<NamespacedKey> unregisteredRecipes = new LinkedHashSet<>();
+            index.forEach(key -> {
+                if (disabledRecipes.matches(key) == true)
+                    unregisteredRecipes.add(key);
+            });
+            final Set<NamespacedKey> matchedRecipes = new LinkedHashSet<>(index.producing(overrides.disableRecipesProducing()));
+            matchedRecipes.addAll(index.using(overrides.disableRecipesUsing()));
+            // Recipes of this plugin, including ones that are about to be registered, are never unregistered by rules.
+            for (final NamespacedKey key : matchedRecipes)
+                if (enabledRecipes.containsKey(key) == false && registeredFingerprints.containsKey(key) == false)
+                    unregisteredRecipes.add(key);
+            // Sending information to the console.
+            if (matchedRecipes.isEmpty() == false)
+                plugin.getLogger().info("Override rules matched " + matchedRecipes.size() + " of " + index.size() + " registered recipes.");
+            for (final NamespacedKey key : unregisteredRecipes) {
+                if (removedRecipes.add(key) == true)
+                    scheduler.queue(() -> plugin.getServer().removeRecipe(key, false));
+            }
+        }
+        // Sending information to the console.
+        plugin.getLogger().info("Registration diff: " + diff.added().size() + " added, " + diff.replaced().size() + " replaced, " + removedRecipes.size() + " removed.");
+        // Starting the registration. Recipes are sent to players only if anything has changed.
+        runningRegistration = scheduler;
+        final CompletableFuture<RegistrationScheduler.Stats> future = scheduler.start();
+        future.whenComplete((stats, e) -> {
+            if (runningRegistration == scheduler)
+                runningRegistration = null;
+        });
+        return future;
+    }
+
+    // Returns true if recipes registered by the plugin have been removed by the server. Reloading resources removes all of them at once, so checking any single one is enough.
+    private boolean isRecipeManagerWiped() {
+        // Returning false if nothing has been registered yet.
+        if (registeredFingerprints.isEmpty() == true)
+            return false;
+        // Returning...
+        return plugin.getServer().getRecipe(registeredFingerprints.keySet().iterator().next()) == null;
+    }
+
+}
@@ -0,0 +1,848 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.Recipes;
+import cloud.grabsky.recipes.compiler.RegistrySnapshot;
+import cloud.grabsky.recipes.configuration.PluginConfiguration;
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
+import cloud.grabsky.recipes.materializer.RecipeMaterializer;
+import cloud.grabsky.recipes.model.InternPool;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.registry.ResolutionCache;
+import cloud.grabsky.recipes.storage.RecipeStore;
+import cloud.grabsky.recipes.storage.StorageManager;
+import cloud.grabsky.recipes.utils.ComponentCache;
+import cloud.grabsky.recipes.utils.Digests;
+import com.google.gson.JsonParseException;
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Reloads recipes of the plugin. Recipes are compiled into a staging area off the server thread, and then applied as a single swap on the server thread.
+ * Currently registered recipes are left untouched until then, and are kept if compilation fails or reload is cancelled.
+ * <p>
+ * Requests are coalesced: there is at most one running reload, and at most one reload waiting to start.
+ */
+public final class RecipeReloader {
+
+    private final @NotNull Recipes plugin;
+
+    private final @NotNull RecipeRegistrar registrar;
+
+    private final @NotNull StorageManager storage;
+
+    private final @NotNull SnapshotManager snapshot;
+
+    private final @NotNull Path recipesDir;
+
+    private final @NotNull Path manifestFile;
+
+    // Stores loaded recipes mapped by path of the file they were loaded from, relative to the recipes directory. Bundle files can define any number of recipes.
+    private final Map<String, List<CompiledRecipe>> loadedRecipes = new HashMap<>();
+
+    // Contents of item tags, captured at the start of the reload. Captured again only when resources are reloaded, or reload has been requested explicitly. Accessed on the server thread only.
+    private @Nullable Map<Key, List<String>> itemTags;
+
+    // Stores state of recipe files loaded during the last reload. Read from the file upon first reload.
+    private @Nullable RecipeManifest manifest;
+
+    // Recipe files read during bootstrap. Used by the first reload only, and discarded afterwards.
+    private volatile @Nullable RecipePrefetch prefetch;
+
+    // Reload which is currently in progress, if any.
+    private @Nullable ReloadJob runningReload;
+
+    // Reload which starts once the running one completes. Requests made in the meantime are merged into it.
+    private @Nullable ReloadJob queuedReload;
+
+    // Whether the plugin is being disabled. No reloads are started afterwards.
+    private boolean isShutdown = false;
+
+    // Number of callers which paused reloads. Requested reloads are queued until it drops to zero.
+    private int pauses = 0;
+
+    // Executes tasks on the global region thread. Used for work that must be done on the server thread.
+    private final Executor serverExecutor;
+
+    // Executes tasks off the server thread.
+    private final Executor asyncExecutor;
+
+    public RecipeReloader(final @NotNull Recipes plugin, final @NotNull RecipeRegistrar registrar, final @NotNull StorageManager storage, final @Nullable RecipePrefetch prefetch) {
+        this.plugin = plugin;
+        this.registrar = registrar;
+        this.storage = storage;
+        this.prefetch = prefetch;
+        this.recipesDir = plugin.getDataFolder().toPath().resolve("recipes");
+        this.manifestFile = plugin.getDataFolder().toPath().resolve("cache/manifest.json");
+        this.snapshot = new SnapshotManager(plugin, plugin.getDataFolder().toPath().resolve("cache/recipes.snapshot"));
+        this.serverExecutor = (task) -> Bukkit.getGlobalRegionScheduler().execute(plugin, task);
+        this.asyncExecutor = (task) -> Bukkit.getAsyncScheduler().runNow(plugin, (it) -> task.run());
+    }
+
+    /** Returns path of the recipes directory. */
+    public @NotNull Path getRecipesDirectory() {
+        return recipesDir;
+    }
+
+    /**
+     * Forgets item tags captured from the server, so they are captured again by the next reload. Must be called on the server thread after resources have been reloaded,
+     * when the plugin is not configured to reload along with them. Recipes removed by the server are registered again by the next reload, whenever it happens.
+     */
+    public void invalidateResources() {
+        itemTags = null;
+    }
+
+    /** Returns the reload which is currently in progress, or {@code null} if there is none. */
+    public synchronized @Nullable ReloadJob currentReload() {
+        return runningReload;
+    }
+
+    /** Cancels the reload which is currently in progress, along with the one waiting to start. Returns {@code true} if anything has been cancelled. */
+    public synchronized boolean cancel() {
+        boolean isCancelled = false;
+        // Cancelling the queued reload. It's never going to start.
+        if (queuedReload != null && queuedReload.cancel() == true) {
+            queuedReload.getFuture().completeExceptionally(new CancellationException("Reload has been cancelled."));
+            queuedReload = null;
+            isCancelled = true;
+        }
+        // Cancelling the running reload. It's going to stop at the nearest opportunity, unless it's already applying recipes.
+        if (runningReload != null && runningReload.cancel() == true)
+            isCancelled = true;
+        // Returning...
+        return isCancelled;
+    }
+
+    /**
+     * Cancels all reloads, including one that is already registering recipes, and prevents new ones from starting. Recipes registered so far are sent to players.
+     * Must be called on the server thread when the plugin is being disabled, as remaining stages of the running reload would never be executed otherwise.
+     */
+    public void shutdown() {
+        final @Nullable ReloadJob running;
+        synchronized (this) {
+            isShutdown = true;
+            cancel();
+            running = runningReload;
+        }
+        // Cancelling registration, which completes the running reload if it's applying recipes.
+        registrar.cancel();
+        // Completing the running reload in case it's at another stage. Tasks scheduled by the disabled plugin are not going to be executed.
+        if (running != null)
+            running.getFuture().completeExceptionally(new CancellationException("Plugin has been disabled."));
+    }
+
+    /**
+     * Pauses reloads until {@link #resume()} is called, and waits for the running reload to complete. Reloads requested in the meantime are queued, and start once resumed.
+     * Must be called off the server thread, as the running reload needs it to complete.
+     */
+    public void pause() {
+        final @Nullable ReloadJob running;
+        synchronized (this) {
+            pauses++;
+            running = runningReload;
+        }
+        // Waiting for the running reload to complete. Failed and cancelled reloads are complete as well.
+        if (running != null)
+            running.getFuture().handle((unused, e) -> null).join();
+    }
+
+    /** Resumes reloads paused by {@link #pause()}. Reload requested in the meantime, if any, is started. */
+    public synchronized void resume() {
+        pauses--;
+        // Starting the queued reload once reloads are no longer paused.
+        if (pauses == 0 && runningReload == null && queuedReload != null) {
+            runningReload = queuedReload;
+            queuedReload = null;
+            start(runningReload);
+        }
+    }
+
+    /**
+     * Requests reload of the plugin. Requests are coalesced: there is at most one running reload, and at most one reload waiting to start.
+     * Only specified changes are scanned, unless null, in which case the whole recipes directory is scanned.
+     */
+    public synchronized @NotNull ReloadJob request(final boolean isConfigReload, final boolean isItemsReload, final boolean isResourcesReload, final @Nullable Set<Path> changes) {
+        // Returning a cancelled reload if the plugin is being disabled.
+        if (isShutdown == true) {
+            final ReloadJob job = new ReloadJob(isConfigReload, isItemsReload, isResourcesReload, changes);
+            job.cancel();
+            job.getFuture().completeExceptionally(new CancellationException("Plugin has been disabled."));
+            return job;
+        }
+        // Starting new reload if there is none in progress, and reloads are not paused.
+        if (runningReload == null && pauses == 0) {
+            runningReload = new ReloadJob(isConfigReload, isItemsReload, isResourcesReload, changes);
+            start(runningReload);
+            return runningReload;
+        }
+        // Merging into the running reload, if it has not started yet.
+        if (runningReload != null && runningReload.merge(isConfigReload, isItemsReload, isResourcesReload, changes) == true)
+            return runningReload;
+        // Merging into the queued reload, or queuing a new one. It starts once the running reload completes, and reloads are not paused.
+        if (queuedReload == null || queuedReload.merge(isConfigReload, isItemsReload, isResourcesReload, changes) == false)
+            queuedReload = new ReloadJob(isConfigReload, isItemsReload, isResourcesReload, changes);
+        return queuedReload;
+    }
+
+    // Starts specified reload.
+    private void start(final @NotNull ReloadJob job) {
+        CompletableFuture.supplyAsync(() -> prepare(job), serverExecutor)
+                // Reading and parsing recipe files off the server thread.
+                .thenApplyAsync(capture -> compile(capture, job), asyncExecutor)
+                // Applying compiled recipes on the server thread.
+                .thenComposeAsync(staging -> apply(staging, job), serverExecutor)
+                // Completing the job and starting the next one, if queued.
+                .whenComplete((unused, e) -> finish(job, (e instanceof CompletionException && e.getCause() != null) ? e.getCause() : e));
+    }
+
+    // Completes specified reload and starts the queued one, if present.
+    private void finish(final @NotNull ReloadJob job, final @Nullable Throwable e) {
+        synchronized (this) {
+            runningReload = null;
+            // Starting the queued reload, unless reloads are paused. It starts once they are resumed instead.
+            if (pauses == 0 && queuedReload != null) {
+                runningReload = queuedReload;
+                queuedReload = null;
+                start(runningReload);
+            }
+        }
+        // Completing the job and notifying subscribers.
+        if (e == null) {
+            job.notify(plugin.configuration().messages().commandRecipesReloadSuccess(), "{registered}", registrar.getRegisteredRecipes().size(), "{elapsed}", job.getElapsedMillis(), "{ticks}", (job.getRegistrationStats() != null) ? job.getRegistrationStats().ticks() : 0);
+            job.getFuture().complete(null);
+        } else if (e instanceof CancellationException) {
+            plugin.getLogger().info("Reloading recipes has been cancelled. Previously loaded recipes are kept.");
+            job.notify(plugin.configuration().messages().commandRecipesReloadCancelled());
+            job.getFuture().completeExceptionally(e);
+        } else {
+            plugin.getLogger().severe("Reloading recipes failed due to following error: " + e + ". Previously loaded recipes are kept.");
+            job.notify(plugin.configuration().messages().commandRecipesReloadFailure());
+            job.getFuture().completeExceptionally(e);
+        }
+    }
+
+    // Prepares specified reload. Configuration and item registry are reloaded if requested, and current state is captured. Must be called on the server thread.
+    // Nothing is read from the disk here. Manifest and snapshot are read along with recipe files, off the server thread, see RecipeReloader#createStaging.
+    private @NotNull Capture prepare(final @NotNull ReloadJob job) {
+        job.advance(ReloadJob.Stage.PREPARING);
+        // Reloading configuration and item registry.
+        if (job.isConfigReload() == true)
+            plugin.reloadConfiguration();
+        // Loading the item registry file as it was modified. Recipes which depend on changed items are considered modified as well.
+        else if (job.isItemsReload() == true)
+            plugin.customItemRegistry().load();
+        // Capturing item types, item tags and their contents, so they can be resolved without blocking, and templates can be expanded off the server thread.
+        // These change only when resources are reloaded, and are captured again only then, or when reload has been requested explicitly. Reloads started by the watcher reuse them.
+        if (itemTags == null || job.isResourcesReload() == true || job.isConfigReload() == true) {
+            ResolutionCache.INSTANCE.warm();
+            itemTags = captureItemTags();
+        }
+        // Capturing enabled data packs if recipes are to be restored from the snapshot created during the previous server run. These are part of the snapshot stamp.
+        final @Nullable String datapacks = (job.isResourcesReload() == false && loadedRecipes.isEmpty() == true) ? SnapshotManager.captureDatapacks() : null;
+        // Capturing the current state. Compilation works on copies, so live recipes are not touched until applied. Manifest is not known until read for the first time.
+        job.advance(ReloadJob.Stage.COMPILING);
+        return new Capture(new HashMap<>(loadedRecipes), (manifest != null) ? manifest.copy() : null, itemTags, datapacks);
+    }
+
+    // Creates staging area from captured state. Manifest and snapshot are read if needed. Called off the server thread.
+    private @NotNull Staging createStaging(final @NotNull Capture capture, final @NotNull ReloadJob job) {
+        // Reading the manifest left by the previous reload or server run.
+        final RecipeManifest manifest = (capture.manifest() != null) ? capture.manifest() : RecipeManifest.read(manifestFile);
+        // Restoring recipes from the snapshot created during the previous server run. Recipes that have not changed since then won't be parsed at all.
+        final Map<String, List<CompiledRecipe>> restored = new HashMap<>();
+        if (capture.datapacks() != null)
+            snapshot.load(restored, manifest, capture.datapacks());
+        // Changing the namespace changes keys of all recipes, meaning all of them must be loaded again.
+        if (plugin.namespace().equals(manifest.getNamespace()) == false)
+            return new Staging(StagedRecipes.empty(manifest), List.of(), 0, capture.itemTags(), job.isResourcesReload(), Map.of());
+        capture.recipes().putAll(restored);
+        final StagedRecipes<CompiledRecipe> staged = StagedRecipes.copyOf(capture.recipes(), manifest);
+        // Recipes that depend on the server's data packs, for example on item tags, are loaded again after resources are reloaded. The rest is registered from memory.
+        // These are dropped from the copy only, and live recipes are replaced once the reload is applied. Cancelled reload leaves them untouched.
+        if (job.isResourcesReload() == true) {
+            final int removedFiles = staged.removeFiles(CompiledRecipe::isDatapackDependent);
+            // Sending information to the console.
+            plugin.getLogger().info("Resources have been reloaded. Re-registering recipes from " + staged.recipes().size() + " cached files, and loading " + removedFiles + " files with recipes that depend on data packs again.");
+        }
+        return new Staging(staged, List.of(), 0, capture.itemTags(), job.isResourcesReload(), restored);
+    }
+
+    /**
+     * Returns contents of all item tags, mapped to keys of their members, without the namespace. Must be called on the server thread.
+     * Tags are mapped by keys created through Key#key, so they can be looked up using keys parsed by the core module.
+     */
+    public static @NotNull Map<Key, List<String>> captureItemTags() {
+        final Map<Key, List<String>> itemTags = new HashMap<>();
+        Bukkit.getTags(Tag.REGISTRY_ITEMS, Material.class).forEach(tag -> itemTags.put(Key.key(tag.getKey().namespace(), tag.getKey().value()), tag.getValues().stream().map(material -> material.getKey().getKey()).sorted().toList()));
+        return itemTags;
+    }
+
+    /** Returns snapshot of item types, item tags and custom items, which can be used to compile recipes without a server. Must be called on the server thread. */
+    @SuppressWarnings("UnstableApiUsage") // ItemType
+    public @NotNull RegistrySnapshot captureRegistrySnapshot() {
+        final Set<String> itemTypes = new HashSet<>();
+        RegistryAccess.registryAccess().getRegistry(RegistryKey.ITEM).forEach(type -> itemTypes.add(type.key().asString()));
+        return new RegistrySnapshot(itemTypes, captureItemTags(), new HashSet<>(plugin.customItemRegistry().allKeys()));
+    }
+
+    // Applies compiled recipes. Recipes are converted to Bukkit's objects, swapped with the live ones and registered. Must be called on the server thread.
+    private @NotNull CompletableFuture<Void> apply(final @NotNull Staging staging, final @NotNull ReloadJob job) {
+        // From this point, reload can no longer be cancelled.
+        job.advance(ReloadJob.Stage.APPLYING);
+        // Converting parsed recipes to Bukkit's objects. Unlike parsing, this must be done on the server thread, so it's done in a single batch.
+        final List<LoadResult<CompiledRecipe>> results = materializeRecipes(staging.results());
+        // Sending component cache statistics to the console. Names and lore of items are deserialized during materialization.
+        if (results.isEmpty() == false)
+            plugin.getLogger().info(ComponentCache.INSTANCE.stats().toString());
+        // Applying results of the load to the staging area. Files which have failed to load keep their previous version of the recipes, if present.
+        for (final LoadResult<CompiledRecipe> result : results) {
+            if (staging.staged().apply(result) == true)
+                plugin.getLogger().warning("Previous version of recipe \"" + result.path() + "\" is kept until the file is fixed.");
+        }
+        // Adding recipes restored from the snapshot to the live ones first, so they are not considered modified when committed.
+        loadedRecipes.putAll(staging.restored());
+        // Swapping live recipes with the staged ones. Snapshot must be updated if any recipe has been added, modified or removed.
+        if (staging.staged().commit(loadedRecipes) == true)
+            snapshot.invalidate();
+        this.manifest = staging.manifest();
+        plugin.recipes().clear();
+        plugin.recipes().addAll(deduplicate(loadedRecipes).values().stream().sorted(Comparator.comparing(CompiledRecipe::key)).toList());
+        // Sending information to the console.
+        plugin.getLogger().info("Loaded " + results.stream().filter(result -> result.recipes() != null).mapToInt(result -> result.recipes().size()).sum() + " new or modified recipes. " + (staging.files() - results.size()) + " files have not changed since the last reload.");
+        // Saving the manifest, so it can be used during the next reload or server run.
+        try {
+            manifest.setNamespace(plugin.namespace());
+            manifest.write(manifestFile);
+        } catch (final IOException e) {
+            plugin.getLogger().warning("Saving recipes manifest failed due to following error: " + e.getMessage());
+        }
+        // Saving the snapshot, so it can be used during the next server run.
+        snapshot.save(loadedRecipes, manifest);
+        // Forgetting registered recipes if resources have been reloaded. Server has removed all of them, meaning all of them must be registered again.
+        if (staging.isResourcesReload() == true)
+            registrar.forgetRegisteredRecipes();
+        // Registering the recipes. This is spread across multiple ticks.
+        return registrar.register(plugin.recipes()).thenAccept(stats -> {
+            job.setRegistrationStats(stats);
+            // Sending information to the console.
+            plugin.getLogger().info("Registered " + registrar.getRegisteredRecipes().size() + " recipes. " + stats);
+        });
+    }
+
+    // Returns recipes of specified files by their keys. Keys of archive entries are derived from their path within the archive, so different archives (or versions of the same one) can define the same keys.
+    // Recipe of the file that comes first in alphabetical order is kept in such case, and the rest is reported to the console, like duplicates within a single bundle are.
+    private @NotNull Map<NamespacedKey, CompiledRecipe> deduplicate(final @NotNull Map<String, List<CompiledRecipe>> files) {
+        final Map<NamespacedKey, CompiledRecipe> recipes = new HashMap<>();
+        final Map<NamespacedKey, String> sources = new HashMap<>();
+        files.entrySet().stream().sorted(Map.Entry.comparingByKey()).forEach(entry -> {
+            for (final CompiledRecipe recipe : entry.getValue()) {
+                final @Nullable String source = sources.putIfAbsent(recipe.key(), entry.getKey());
+                if (source == null)
+                    recipes.put(recipe.key(), recipe);
+                // Sending information to the console.
+                else if (source.equals(entry.getKey()) == false)
+                    plugin.getLogger().warning("Recipe \"" + recipe.key() + "\" defined in \"" + entry.getKey() + "\" is skipped, because its key is duplicated by \"" + source + "\".");
+            }
+        });
+        return recipes;
+    }
+
+    // Reads and parses new and modified recipes from the recipes directory into the staging area. Called off the server thread.
+    private @NotNull Staging compile(final @NotNull Capture capture, final @NotNull ReloadJob job) throws UncheckedIOException, CompletionException, CancellationException {
+        // Creating staging area from the captured state.
+        final Staging staging = createStaging(capture, job);
+        // Creating recipes directory in case it does not exist.
+        recipesDir.toFile().mkdirs();
+        // Waiting for files read during bootstrap. Should already be done by the time first reload is started.
+        final @Nullable RecipePrefetch prefetch = this.prefetch;
+        if (prefetch != null) {
+            try {
+                prefetch.await();
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Waiting for prefetched recipe files was interrupted.");
+            }
+            if (prefetch.getError() != null)
+                plugin.getLogger().warning("Reading recipe files during bootstrap failed due to following error: " + prefetch.getError().getMessage());
+        }
+        // Pool used to share identical items and ingredients between recipes loaded during this reload. Recipes parsed during bootstrap were read through the pool of the prefetch, which is reused.
+        final InternPool pool = (prefetch != null) ? prefetch.getPool() : new InternPool();
+        // Scanner is used to find recipe files, and keeps archives open until the reload is done.
+        final RecipeScanner scanner = new RecipeScanner(recipesDir);
+        // Reader is shared by all parser threads. Templates are expanded against item tags captured in the staging area, and loaded recipes are interned through the pool.
+        final RecipeReader reader = new RecipeReader(plugin.namespace(), staging.itemTags()::get, new RecipeReader.Reporter() {
+            @Override
+            public void report(final @NotNull String location, final @NotNull String message) {
+                plugin.getLogger().warning("Recipe \"" + location + "\" " + message);
+            }
+
+            @Override
+            public void report(final @NotNull String location, final @NotNull Exception exception) {
+                logLoadingError(location, exception);
+            }
+        }, pool);
+        try {
+            // Getting files and directories which have changed. Null if the whole recipes directory must be scanned.
+            final @Nullable Set<Path> changes = getChangedFiles(job, staging);
+            // Archives that could not be opened, mapped by their path. Recipes loaded from them previously are kept.
+            final Map<String, Exception> unreadableArchives = new HashMap<>();
+            // Getting recipe files within scanned part of the recipes directory, and archives placed in it.
+            final List<Path> files = scanFiles(scanner, changes, unreadableArchives);
+            // Getting names of recipes kept in the store, if enabled. These are loaded along with files.
+            final @Nullable RecipeStore store = storage.getStore();
+            final List<String> storedRecipes = collectStoredRecipes(store, changes, job, staging);
+            // Sending information to the console if there is no files in the recipes directory.
+            if (changes == null && files.isEmpty() == true && storedRecipes.isEmpty() == true)
+                plugin.getLogger().info("No recipes defined in the \"" + recipesDir.getFileName() + "\" directory.");
+            // Forgetting recipes which files no longer exist.
+            forgetRemovedRecipes(scanner, files, storedRecipes, changes, unreadableArchives.keySet(), staging);
+            // Getting new and modified files. Unmodified files are not read at all.
+            final List<Path> modifiedFiles = files.stream().filter(file -> isModified(scanner.getPath(file), file, staging)).toList();
+            // Getting new and modified stored recipes. Unmodified recipes are not read at all.
+            final List<String> modifiedRecipes = collectModifiedRecipes(store, storedRecipes, staging);
+            // Loading new and modified files through the pipeline. Results are in the same order as files.
+            job.setTotalFiles(modifiedFiles.size() + modifiedRecipes.size());
+            final RecipeLoader.Result<LoadResult<RecipeWrapper>> result = createRecipeLoader(prefetch).load(modifiedFiles, new RecipeLoader.Parser<>() {
+                @Override
+                public @NotNull LoadResult<RecipeWrapper> parse(final @NotNull RecipeLoader.RecipeFile file) {
+                    try {
+                        return loadRecipe(scanner, reader, file, staging);
+                    } finally {
+                        onFileParsed(job);
+                    }
+                }
+
+                @Override
+                public @NotNull LoadResult<RecipeWrapper> fail(final @NotNull Path path, final @NotNull Exception exception) {
+                    onFileParsed(job);
+                    logLoadingError(scanner.getPath(path), exception);
+                    return new LoadResult<>(scanner.getPath(path), null, null);
+                }
+
+                @Override
+                public boolean isCancelled() {
+                    return job.isCancelled();
+                }
+            });
+            // Sending pipeline statistics to the console.
+            if (result.results().isEmpty() == false)
+                plugin.getLogger().info(result.stats().toString());
+            final List<LoadResult<RecipeWrapper>> results = new ArrayList<>(result.results());
+            // Loading modified recipes from the store through the same pipeline. Recipes are read from the store instead of the disk. Results are in the same order as names.
+            if (modifiedRecipes.isEmpty() == false) {
+                final Map<Path, String> names = new LinkedHashMap<>();
+                modifiedRecipes.forEach(name -> names.put(Path.of(name), name));
+                final RecipeLoader.Result<LoadResult<RecipeWrapper>> storedResult = createRecipeLoader(null).load(List.copyOf(names.keySet()), (path) -> {
+                    final @Nullable String contents = store.getRecipe(names.get(path));
+                    // Throwing exception if recipe has been removed in the meantime. It is forgotten during the next reload.
+                    if (contents == null)
+                        throw new NoSuchFileException(path.toString());
+                    final byte[] bytes = contents.getBytes(StandardCharsets.UTF_8);
+                    return new RecipeLoader.RecipeFile(path, bytes.length, 0L, bytes);
+                }, new RecipeLoader.Parser<>() {
+                    @Override
+                    public @NotNull LoadResult<RecipeWrapper> parse(final @NotNull RecipeLoader.RecipeFile file) {
+                        try {
+                            return loadStoredRecipe(store, reader, names.get(file.path()), file, staging);
+                        } finally {
+                            onFileParsed(job);
+                        }
+                    }
+
+                    @Override
+                    public @NotNull LoadResult<RecipeWrapper> fail(final @NotNull Path path, final @NotNull Exception exception) {
+                        onFileParsed(job);
+                        // Skipping recipes removed in the meantime silently.
+                        if (exception instanceof NoSuchFileException == false)
+                            logLoadingError(StorageManager.PATH_PREFIX + names.get(path), exception);
+                        return new LoadResult<>(StorageManager.PATH_PREFIX + names.get(path), null, null);
+                    }
+
+                    @Override
+                    public boolean isCancelled() {
+                        return job.isCancelled();
+                    }
+                });
+                // Sending pipeline statistics to the console.
+                plugin.getLogger().info(storedResult.stats().toString());
+                results.addAll(storedResult.results());
+            }
+            // Sending interning statistics to the console.
+            if (results.isEmpty() == false)
+                plugin.getLogger().info(pool.stats().toString());
+            // Notifying subscribers that parsing is done.
+            job.notify(plugin.configuration().messages().commandRecipesReloadProgress(), "{parsed}", job.getParsedFiles(), "{total}", job.getTotalFiles(), "{elapsed}", job.getElapsedMillis());
+            // Returning...
+            return new Staging(staging.staged(), results, files.size() + storedRecipes.size(), staging.itemTags(), staging.isResourcesReload(), staging.restored());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException("Loading of recipes has been interrupted", e);
+        } finally {
+            scanner.close();
+            // Discarding files read during bootstrap. They are only useful for the first reload.
+            if (prefetch != null) {
+                prefetch.clear();
+                this.prefetch = null;
+            }
+        }
+    }
+
+    // Returns recipe files within specified changed files and directories, or within the whole recipes directory if null, sorted by their paths. Archives that could not be opened are put into specified map.
+    private @NotNull List<Path> scanFiles(final @NotNull RecipeScanner scanner, final @Nullable Set<Path> changes, final @NotNull Map<String, Exception> unreadableArchives) throws UncheckedIOException {
+        final List<Path> files = new ArrayList<>();
+        // Scanning the whole recipes directory if there are no changes to scan.
+        if (changes == null)
+            scanner.scan(recipesDir, files, unreadableArchives);
+        // Otherwise, scanning only changed files and directories.
+        else changes.forEach(change -> scanner.scan(change, files, unreadableArchives));
+        // Sending information about archives that could not be opened to the console.
+        unreadableArchives.forEach((path, e) -> plugin.getLogger().warning("Opening archive \"" + path + "\" failed due to following error: " + e.getMessage()));
+        // Sorting files in natural order of their paths to ensure that they are loaded in the same order every time. Paths of archive entries cannot be compared directly.
+        files.sort(Comparator.comparing(scanner::getPath));
+        // Returning...
+        return files;
+    }
+
+    // Returns names of stored recipes that must be looked at during specified reload, or an empty list if the store is disabled.
+    // When only changes are scanned, these are only recipes that depend on modified custom items.
+    private @NotNull List<String> collectStoredRecipes(final @Nullable RecipeStore store, final @Nullable Set<Path> changes, final @NotNull ReloadJob job, final @NotNull Staging staging) {
+        // Returning an empty list if the store is disabled.
+        if (store == null)
+            return List.of();
+        // Returning all stored recipes if the whole recipes directory is scanned.
+        if (changes == null)
+            return List.copyOf(store.recipeNames());
+        // Returning an empty list if custom items have not been reloaded, as stored recipes cannot be changed otherwise.
+        if (job.isItemsReload() == false)
+            return List.of();
+        // Returning recipes that were not loaded before, or depend on modified custom items.
+        return store.recipeNames().stream().filter(name -> {
+            final @Nullable RecipeManifest.Entry entry = staging.manifest().get(StorageManager.PATH_PREFIX + name);
+            return entry == null || entry.isDependencyUpToDate(plugin.customItemRegistry()::hash) == false;
+        }).toList();
+    }
+
+    // Returns names of specified stored recipes that have been added or modified since the last reload.
+    private @NotNull List<String> collectModifiedRecipes(final @Nullable RecipeStore store, final @NotNull List<String> storedRecipes, final @NotNull Staging staging) {
+        // Returning an empty list if the store is disabled.
+        if (store == null)
+            return List.of();
+        // Stored recipes are compared using their hash, which is kept along with them.
+        return storedRecipes.stream().filter(name -> {
+            final @Nullable String hash = store.getRecipeHash(name);
+            return hash == null || isUnchanged(StorageManager.PATH_PREFIX + name, hash, staging) == false;
+        }).toList();
+    }
+
+    // Removes recipes and manifest entries of files and stored recipes which no longer exist from the staging area. When only changes are scanned, recipes outside of them are kept as they are.
+    private void forgetRemovedRecipes(final @NotNull RecipeScanner scanner, final @NotNull List<Path> files, final @NotNull List<String> storedRecipes, final @Nullable Set<Path> changes, final @NotNull Set<String> unreadableArchives, final @NotNull Staging staging) {
+        // Collecting paths of all existing files and stored recipes.
+        final Set<String> paths = new HashSet<>();
+        for (final Path file : files)
+            paths.add(scanner.getPath(file));
+        for (final String name : storedRecipes)
+            paths.add(StorageManager.PATH_PREFIX + name);
+        // Collecting paths of scanned files and directories. Null if the whole recipes directory has been scanned.
+        final @Nullable Set<String> scopes = (changes != null) ? changes.stream().map(scanner::getPath).collect(Collectors.toSet()) : null;
+        // Removing recipes and manifest entries of paths which no longer exist.
+        staging.recipes().keySet().removeIf(path -> isRemoved(path, paths, scopes, unreadableArchives) == true);
+        for (final String path : List.copyOf(staging.manifest().paths()))
+            if (isRemoved(path, paths, scopes, unreadableArchives) == true)
+                staging.manifest().remove(path);
+    }
+
+    // Returns true if specified path has been scanned, but it no longer exists. Recipes loaded from archives that could not be opened are not considered removed.
+    private static boolean isRemoved(final @NotNull String path, final @NotNull Set<String> paths, final @Nullable Set<String> scopes, final @NotNull Set<String> unreadableArchives) {
+        // Returning false if path exists, or has not been scanned.
+        if (paths.contains(path) == true || isScanned(path, scopes) == false)
+            return false;
+        // Returning false if path is an entry of an archive that could not be opened.
+        for (final String archive : unreadableArchives)
+            if (path.startsWith(archive + RecipeScanner.ARCHIVE_SEPARATOR) == true)
+                return false;
+        // Returning...
+        return true;
+    }
+
+    // Returns true if specified path is within any of specified scanned paths, or if the whole recipes directory has been scanned. Scopes may be files, directories or archives.
+    private static boolean isScanned(final @NotNull String path, final @Nullable Set<String> scopes) {
+        // Returning true if the whole recipes directory has been scanned.
+        if (scopes == null)
+            return true;
+        // Returning true if path is either a scope itself, or lies within one.
+        for (final String scope : scopes)
+            if (path.equals(scope) == true || path.startsWith(scope + "/") == true || path.startsWith(scope + RecipeScanner.ARCHIVE_SEPARATOR) == true)
+                return true;
+        // Returning...
+        return false;
+    }
+
+    // Counts parsed file of specified reload, and notifies subscribers about the progress every now and then. Called concurrently from parser threads.
+    private void onFileParsed(final @NotNull ReloadJob job) {
+        if (job.incrementParsedFiles() == true)
+            job.notify(plugin.configuration().messages().commandRecipesReloadParsing(), "{parsed}", job.getParsedFiles(), "{total}", job.getTotalFiles(), "{elapsed}", job.getElapsedMillis());
+    }
+
+    // Returns files and directories that must be scanned during specified reload, or null if the whole recipes directory must be scanned.
+    // Besides changes reported by the watcher, these include files that depend on modified custom items. Archive entries are scanned along with the whole archive.
+    private @Nullable Set<Path> getChangedFiles(final @NotNull ReloadJob job, final @NotNull Staging staging) {
+        if (job.getChanges() == null)
+            return null;
+        final Path directory = recipesDir.toAbsolutePath().normalize();
+        final Set<Path> changes = new HashSet<>();
+        for (final Path change : job.getChanges()) {
+            final Path path = change.toAbsolutePath().normalize();
+            // Scanning the whole directory if it has changed as a whole, for example because some events have been lost.
+            if (path.equals(directory) == true)
+                return null;
+            // Paths are relative to the recipes directory, the same way paths of listed files are.
+            if (path.startsWith(directory) == true)
+                changes.add(recipesDir.resolve(directory.relativize(path)));
+        }
+        // Adding files which depend on modified custom items.
+        if (job.isItemsReload() == true)
+            for (final String path : staging.manifest().paths()) {
+                if (path.startsWith(StorageManager.PATH_PREFIX) == true || staging.manifest().get(path).isDependencyUpToDate(plugin.customItemRegistry()::hash) == true)
+                    continue;
+                final int separator = path.indexOf(RecipeScanner.ARCHIVE_SEPARATOR);
+                changes.add(recipesDir.resolve((separator != -1) ? path.substring(0, separator) : path));
+            }
+        // Dropping paths within other changed directories. These are scanned along with their parent.
+        changes.removeIf(path -> changes.stream().anyMatch(other -> other.equals(path) == false && path.startsWith(other) == true));
+        return changes;
+    }
+
+    // Converts parsed recipes to Bukkit's objects. Recipes which conversion has failed are replaced with failed results.
+    private @NotNull List<LoadResult<CompiledRecipe>> materializeRecipes(final @NotNull List<LoadResult<RecipeWrapper>> parsed) {
+        final long start = System.nanoTime();
+        // Materializer is shared by all recipes of the batch, so identical items and ingredients are converted only once.
+        final RecipeMaterializer materializer = new RecipeMaterializer(plugin.customItemRegistry());
+        final List<LoadResult<CompiledRecipe>> results = new ArrayList<>(parsed.size());
+        int materialized = 0;
+        for (final LoadResult<RecipeWrapper> result : parsed) {
+            if (result.recipes() != null) {
+                final List<CompiledRecipe> recipes = new ArrayList<>(result.recipes().size());
+                for (final RecipeWrapper recipe : result.recipes()) {
+                    try {
+                        recipes.add(materializer.materialize(recipe));
+                        materialized++;
+                    } catch (final IllegalArgumentException | IllegalStateException e) {
+                        logLoadingError(result.path(), e);
+                    }
+                }
+                // Replacing the result if any of the recipes has failed. Manifest entry is dropped, so the file is loaded again during the next reload.
+                results.add(new LoadResult<>(result.path(), (recipes.isEmpty() == false || result.recipes().isEmpty() == true) ? List.copyOf(recipes) : null, (recipes.size() == result.recipes().size()) ? result.entry() : null));
+                continue;
+            }
+            results.add(new LoadResult<>(result.path(), null, result.entry()));
+        }
+        // Sending information to the console.
+        if (materialized > 0)
+            plugin.getLogger().info("Materialized " + materialized + " recipes in " + String.format(Locale.ROOT, "%.2f", (System.nanoTime() - start) / 1_000_000.0) + "ms.");
+        // Returning...
+        return results;
+    }
+
+    // Returns true if file of specified path, or any custom item it depends on, has been added or modified since the last reload.
+    private boolean isModified(final @NotNull String path, final @NotNull Path file, final @NotNull Staging staging) {
+        final @Nullable RecipeManifest.Entry entry = staging.manifest().get(path);
+        // Files without an entry, files that were not loaded and files with changed dependencies are always considered modified.
+        if (entry == null || staging.recipes().containsKey(path) == false || entry.isDependencyUpToDate(plugin.customItemRegistry()::hash) == false)
+            return true;
+        // Otherwise, comparing size and modification time with the ones recorded in the manifest.
+        try {
+            final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            return entry.isUnmodified(attributes.size(), attributes.lastModifiedTime().toMillis()) == false;
+        } catch (final IOException e) {
+            return true;
+        }
+    }
+
+    // Loads recipes from specified file. Called in parallel, so it must not modify any state nor access the server. Conversion to Bukkit's objects is done later, see RecipeReloader#materializeRecipes.
+    private @NotNull LoadResult<RecipeWrapper> loadRecipe(final @NotNull RecipeScanner scanner, final @NotNull RecipeReader reader, final @NotNull RecipeLoader.RecipeFile file, final @NotNull Staging staging) {
+        final String path = scanner.getPath(file.path());
+        // Bundles are streamed, and must be loaded differently.
+        if (file.isBundle() == true)
+            return loadBundle(path, reader, file, staging);
+        try {
+            final String hash = Digests.sha256(file.contents());
+            // Skipping files which contents have not changed. Only size and modification time are updated in such case.
+            if (isUnchanged(path, hash, staging) == true)
+                return new LoadResult<>(path, null, staging.manifest().get(path).withAttributes(file.size(), file.lastModified()));
+            // Parsing the file, unless it has already been parsed during bootstrap.
+            final List<RecipeWrapper> recipes = new ArrayList<>();
+            final boolean isLoaded = reader.load(path, (file.definition() != null) ? file.definition() : reader.parse(file.openStream()), scanner.getKeyPath(file.path()), new HashSet<>(), recipes);
+            // Returning the recipes along with the new manifest entry, unless some of them have failed to load.
+            return new LoadResult<>(path, (recipes.isEmpty() == false || isLoaded == true) ? List.copyOf(recipes) : null, (isLoaded == true) ? createManifestEntry(file.size(), file.lastModified(), hash, recipes) : null);
+        } catch (final IOException | JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            logLoadingError(path, e);
+            return new LoadResult<>(path, null, null);
+        }
+    }
+
+    // Loads recipe stored under specified name, from contents read by the pipeline. Called in parallel, so it must not modify any state nor access the server.
+    private @NotNull LoadResult<RecipeWrapper> loadStoredRecipe(final @NotNull RecipeStore store, final @NotNull RecipeReader reader, final @NotNull String name, final @NotNull RecipeLoader.RecipeFile file, final @NotNull Staging staging) {
+        final String path = StorageManager.PATH_PREFIX + name;
+        try {
+            final @Nullable String hash = store.getRecipeHash(name);
+            // Returning if recipe has been removed in the meantime. It is forgotten during the next reload.
+            if (hash == null)
+                return new LoadResult<>(path, null, null);
+            // Parsing the recipe. Key is derived from the name, just like it would be from the file path.
+            final List<RecipeWrapper> recipes = new ArrayList<>();
+            final boolean isLoaded = reader.load(path, reader.parse(file.openStream()), name, new HashSet<>(), recipes);
+            // Returning the recipes along with the new manifest entry, unless some of them have failed to load.
+            return new LoadResult<>(path, (recipes.isEmpty() == false || isLoaded == true) ? List.copyOf(recipes) : null, (isLoaded == true) ? createManifestEntry(file.size(), 0L, hash, recipes) : null);
+        } catch (final IOException | JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            logLoadingError(path, e);
+            return new LoadResult<>(path, null, null);
+        }
+    }
+
+    // Loads recipes from specified bundle file. Contents are streamed and hashed on the go, so the file never needs to be fully resident in memory. Called in parallel, so it must not modify any state nor access the server.
+    private @NotNull LoadResult<RecipeWrapper> loadBundle(final @NotNull String path, final @NotNull RecipeReader reader, final @NotNull RecipeLoader.RecipeFile file, final @NotNull Staging staging) {
+        final MessageDigest digest = Digests.newSha256();
+        final List<RecipeWrapper> recipes = new ArrayList<>();
+        final boolean isLoaded;
+        try (final InputStream in = new DigestInputStream(file.openStream(), digest); final Reader contents = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            isLoaded = reader.readBundle(path, contents, recipes);
+            // Consuming the rest of the stream, so the digest covers the whole file.
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (final IOException | JsonParseException | IllegalArgumentException | IllegalStateException e) {
+            logLoadingError(path, e);
+            return new LoadResult<>(path, null, null);
+        }
+        final String hash = Digests.hex(digest);
+        // Discarding parsed recipes if contents have not changed. Only size and modification time are updated in such case.
+        if (isUnchanged(path, hash, staging) == true)
+            return new LoadResult<>(path, null, staging.manifest().get(path).withAttributes(file.size(), file.lastModified()));
+        // Returning the recipes along with the new manifest entry, unless some recipes have failed to load.
+        return new LoadResult<>(path, List.copyOf(recipes), (isLoaded == true) ? createManifestEntry(file.size(), file.lastModified(), hash, recipes) : null);
+    }
+
+    // Returns true if contents of the file of specified path, and custom items it depends on, have not changed since the last reload.
+    private boolean isUnchanged(final @NotNull String path, final @NotNull String hash, final @NotNull Staging staging) {
+        final @Nullable RecipeManifest.Entry previous = staging.manifest().get(path);
+        return previous != null && previous.getHash().equals(hash) == true && staging.recipes().containsKey(path) == true && previous.isDependencyUpToDate(plugin.customItemRegistry()::hash) == true;
+    }
+
+    // Creates manifest entry for a source of specified size and modification time, and recipes loaded from it.
+    private @NotNull RecipeManifest.Entry createManifestEntry(final long size, final long lastModified, final @NotNull String hash, final @NotNull List<RecipeWrapper> recipes) {
+        // Collecting custom items referenced by the recipes, along with their current hash.
+        final Map<String, String> registeredItems = new HashMap<>();
+        recipes.forEach(recipe -> recipe.getRegisteredItems().forEach(identifier -> registeredItems.put(identifier, plugin.customItemRegistry().hash(identifier))));
+        // Returning...
+        return new RecipeManifest.Entry(size, lastModified, hash, recipes.stream().map(recipe -> recipe.getKey().asString()).toList(), registeredItems);
+    }
+
+    // Prints error that occurred while loading recipe of specified path to the console.
+    private void logLoadingError(final @NotNull String path, final @NotNull Exception e) {
+        plugin.getLogger().severe("Loading of recipe \"" + path + "\" failed due to following error(s):");
+        // Printing the full stack trace if 'minimize_exceptions_stacktrace' option is disabled.
+        if (plugin.configuration().minimizeExceptionsStacktrace() == false) {
+            e.printStackTrace();
+            return;
+        }
+        // Otherwise, just printing the exception message.
+        plugin.getLogger().severe(" (1) " + e.getClass().getSimpleName() + ": " + e.getMessage());
+        if (e.getCause() != null)
+            plugin.getLogger().severe(" (2) " + e.getCause().getClass().getSimpleName() + ": " + e.getCause().getMessage());
+    }
+
+    // Returns new instance of RecipeLoader, configured according to the plugin configuration.
+    private @NotNull RecipeLoader createRecipeLoader(final @Nullable RecipePrefetch prefetch) {
+        final PluginConfiguration.Loader config = plugin.configuration().loader();
+        return new RecipeLoader(
+                Math.max(1, config.readParallelism()),
+                (config.parseParallelism() > 0) ? config.parseParallelism() : Runtime.getRuntime().availableProcessors(),
+                Math.max(1, config.queueDepth()),
+                prefetch
+        );
+    }
+
+    // Represents state captured on the server thread before the reload is compiled. Recipes are a copy of the live ones. Manifest is null until read for the first time.
+    // Data packs are captured only if recipes are to be restored from the snapshot, and are null otherwise.
+    private record Capture(@NotNull Map<String, List<CompiledRecipe>> recipes, @Nullable RecipeManifest manifest, @NotNull Map<Key, List<String>> itemTags, @Nullable String datapacks) { }
+
+    // Represents a reload which has not been applied yet. Staged recipes and manifest are copies of the live ones, so they can be modified off the server thread.
+    // Registered recipes are forgotten upon apply if resources have been reloaded, as the server has removed all of them. Recipes restored from the snapshot are added to the live ones before staged ones are committed.
+    private record Staging(@NotNull StagedRecipes<CompiledRecipe> staged, @NotNull List<LoadResult<RecipeWrapper>> results, int files, @NotNull Map<Key, List<String>> itemTags, boolean isResourcesReload, @NotNull Map<String, List<CompiledRecipe>> restored) {
+
+        public @NotNull Map<String, List<CompiledRecipe>> recipes() {
+            return staged.recipes();
+        }
+
+        public @NotNull RecipeManifest manifest() {
+            return staged.manifest();
+        }
+
+    }
+
+}
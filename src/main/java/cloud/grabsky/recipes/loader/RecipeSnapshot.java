@@ -0,0 +1,370 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.BlastingRecipe;
+import org.bukkit.inventory.CampfireRecipe;
+import org.bukkit.inventory.CookingRecipe;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.SmokingRecipe;
+import org.bukkit.inventory.StonecuttingRecipe;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Binary snapshot of loaded recipes, already converted to Bukkit's {@link Recipe} objects, grouped by path of the file they were loaded from.
+ * Snapshot is valid only for the {@link Stamp} it was created with, which covers the server data version, enabled data packs, plugin version, namespace and all source files.
+ */
+public final class RecipeSnapshot {
+
+    // Identifies snapshot files. Spells "RCPS" in ASCII.
+    private static final int MAGIC = 0x52435053;
+
+    // Snapshots of any other format version are discarded.
+    private static final int FORMAT_VERSION = 4;
+
+    // Recipe kinds.
+    private static final byte SHAPED = 0, SHAPELESS = 1, FURNACE = 2, BLASTING = 3, SMOKING = 4, CAMPFIRE = 5, SMITHING_TRANSFORM = 6, STONECUTTING = 7;
+
+    // Recipe choice kinds.
+    private static final byte CHOICE_NULL = 0, CHOICE_EMPTY = 1, CHOICE_MATERIAL = 2, CHOICE_EXACT = 3;
+
+    /** Represents the state snapshot has been created for. Snapshot is discarded if any of the properties differs from the current ones. */
+    public record Stamp(int dataVersion, @NotNull String datapacks, @NotNull String pluginVersion, @NotNull String namespace, @NotNull String sourceHash) { }
+
+    /** Writes specified recipes to the snapshot file. File is replaced atomically, so an interrupted write never leaves a partial snapshot behind. */
+    public static void write(final @NotNull Path file, final @NotNull Stamp stamp, final @NotNull Map<String, List<CompiledRecipe>> recipes) throws IOException, IllegalArgumentException {
+        // Creating parent directories in case they don't exist.
+        Files.createDirectories(file.getParent());
+        // Writing contents to a temporary file first.
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            // Writing the stamp.
+            out.writeInt(stamp.dataVersion());
+            out.writeUTF(stamp.datapacks());
+            out.writeUTF(stamp.pluginVersion());
+            out.writeUTF(stamp.namespace());
+            out.writeUTF(stamp.sourceHash());
+            // Writing the recipes, grouped by file they were loaded from.
+            out.writeInt(recipes.size());
+            for (final Map.Entry<String, List<CompiledRecipe>> entry : recipes.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().size());
+                for (final CompiledRecipe recipe : entry.getValue()) {
+                    out.writeUTF(recipe.type().name());
+                    out.writeBoolean(recipe.isDatapackDependent());
+                    out.writeBoolean(recipe.isTagDependent());
+                    writeRecipe(out, recipe.recipe());
+                    writeDiscoverChoices(out, recipe.discoverChoices());
+                }
+            }
+        }
+        // Replacing the actual file with the temporary one.
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads recipes from the snapshot file. Returns an empty map if the file does not exist or was created for a different {@link Stamp}.
+     * Corrupted file can fail with any {@link RuntimeException}, for example when a length is negative or item cannot be deserialized.
+     */
+    public static @NotNull Map<String, List<CompiledRecipe>> read(final @NotNull Path file, final @NotNull Stamp expected) throws IOException, IllegalArgumentException {
+        // Returning an empty map if the file does not exist.
+        if (Files.exists(file) == false)
+            return Collections.emptyMap();
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            // Throwing an exception if file is not a snapshot, or is of a different format version.
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION)
+                throw new IOException("Unsupported snapshot format.");
+            // Reading the stamp and returning an empty map if it's different from the expected one.
+            final Stamp stamp = new Stamp(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF(), in.readUTF());
+            if (stamp.equals(expected) == false)
+                return Collections.emptyMap();
+            // Reading the recipes, grouped by file they were loaded from.
+            final int size = in.readInt();
+            final Map<String, List<CompiledRecipe>> recipes = new HashMap<>(size);
+            for (int i = 0; i < size; i++) {
+                final String path = in.readUTF();
+                final int count = in.readInt();
+                final List<CompiledRecipe> fileRecipes = new ArrayList<>(count);
+                for (int j = 0; j < count; j++) {
+                    final RecipeWrapper.Type type = RecipeWrapper.Type.valueOf(in.readUTF());
+                    final boolean isDatapackDependent = in.readBoolean();
+                    final boolean isTagDependent = in.readBoolean();
+                    final Recipe recipe = readRecipe(in);
+                    final @Nullable List<RecipeChoice> discoverChoices = readDiscoverChoices(in);
+                    fileRecipes.add(CompiledRecipe.of(type, recipe, discoverChoices, isDatapackDependent, isTagDependent));
+                }
+                recipes.put(path, List.copyOf(fileRecipes));
+            }
+            return recipes;
+        }
+    }
+
+
+    /* RECIPES */
+
+    private static void writeRecipe(final @NotNull DataOutputStream out, final @NotNull Recipe recipe) throws IOException {
+        if (recipe instanceof ShapedRecipe shaped) {
+            out.writeByte(SHAPED);
+            writeKey(out, shaped.getKey());
+            writeItem(out, shaped.getResult());
+            out.writeInt(shaped.getShape().length);
+            for (final String row : shaped.getShape())
+                out.writeUTF(row);
+            // Characters with no choice assigned are skipped.
+            final Map<Character, RecipeChoice> choices = new HashMap<>();
+            shaped.getChoiceMap().forEach((character, choice) -> {
+                if (choice != null)
+                    choices.put(character, choice);
+            });
+            out.writeInt(choices.size());
+            for (final Map.Entry<Character, RecipeChoice> entry : choices.entrySet()) {
+                out.writeChar(entry.getKey());
+                writeChoice(out, entry.getValue());
+            }
+        } else if (recipe instanceof ShapelessRecipe shapeless) {
+            out.writeByte(SHAPELESS);
+            writeKey(out, shapeless.getKey());
+            writeItem(out, shapeless.getResult());
+            out.writeInt(shapeless.getChoiceList().size());
+            for (final RecipeChoice choice : shapeless.getChoiceList())
+                writeChoice(out, choice);
+        } else if (recipe instanceof CookingRecipe<?> cooking) {
+            out.writeByte(switch (cooking) {
+                case FurnaceRecipe ignored -> FURNACE;
+                case BlastingRecipe ignored -> BLASTING;
+                case SmokingRecipe ignored -> SMOKING;
+                case CampfireRecipe ignored -> CAMPFIRE;
+                default -> throw new IOException("Unsupported recipe type: " + recipe.getClass().getName());
+            });
+            writeKey(out, cooking.getKey());
+            writeItem(out, cooking.getResult());
+            writeChoice(out, cooking.getInputChoice());
+            out.writeFloat(cooking.getExperience());
+            out.writeInt(cooking.getCookingTime());
+        } else if (recipe instanceof SmithingTransformRecipe smithing) {
+            out.writeByte(SMITHING_TRANSFORM);
+            writeKey(out, smithing.getKey());
+            writeItem(out, smithing.getResult());
+            writeChoice(out, smithing.getTemplate());
+            writeChoice(out, smithing.getBase());
+            writeChoice(out, smithing.getAddition());
+            out.writeBoolean(smithing.willCopyDataComponents());
+        } else if (recipe instanceof StonecuttingRecipe stonecutting) {
+            out.writeByte(STONECUTTING);
+            writeKey(out, stonecutting.getKey());
+            writeItem(out, stonecutting.getResult());
+            writeChoice(out, stonecutting.getInputChoice());
+        } else throw new IOException("Unsupported recipe type: " + recipe.getClass().getName());
+    }
+
+    private static @NotNull Recipe readRecipe(final @NotNull DataInputStream in) throws IOException {
+        final byte kind = in.readByte();
+        final NamespacedKey key = readKey(in);
+        final ItemStack result = readItem(in);
+        switch (kind) {
+            case SHAPED -> {
+                final String[] shape = new String[in.readInt()];
+                for (int i = 0; i < shape.length; i++)
+                    shape[i] = in.readUTF();
+                final ShapedRecipe recipe = new ShapedRecipe(key, result).shape(shape);
+                final int size = in.readInt();
+                for (int i = 0; i < size; i++)
+                    recipe.setIngredient(in.readChar(), readChoice(in));
+                return recipe;
+            }
+            case SHAPELESS -> {
+                final ShapelessRecipe recipe = new ShapelessRecipe(key, result);
+                final int size = in.readInt();
+                for (int i = 0; i < size; i++)
+                    recipe.addIngredient(readChoice(in));
+                return recipe;
+            }
+            case FURNACE -> {
+                return new FurnaceRecipe(key, result, readChoice(in), in.readFloat(), in.readInt());
+            }
+            case BLASTING -> {
+                return new BlastingRecipe(key, result, readChoice(in), in.readFloat(), in.readInt());
+            }
+            case SMOKING -> {
+                return new SmokingRecipe(key, result, readChoice(in), in.readFloat(), in.readInt());
+            }
+            case CAMPFIRE -> {
+                return new CampfireRecipe(key, result, readChoice(in), in.readFloat(), in.readInt());
+            }
+            case SMITHING_TRANSFORM -> {
+                return new SmithingTransformRecipe(key, result, readChoice(in), readChoice(in), readChoice(in), in.readBoolean());
+            }
+            case STONECUTTING -> {
+                return new StonecuttingRecipe(key, result, readChoice(in));
+            }
+            default -> throw new IOException("Unsupported recipe kind: " + kind);
+        }
+    }
+
+
+    /* DISCOVER CHOICES */
+
+    private static void writeDiscoverChoices(final @NotNull DataOutputStream out, final @Nullable List<RecipeChoice> choices) throws IOException {
+        // Recipes with no trigger are discovered unconditionally, while triggers with no items never discover the recipe. Both must be preserved.
+        out.writeBoolean(choices != null);
+        if (choices != null) {
+            out.writeInt(choices.size());
+            for (final RecipeChoice choice : choices)
+                writeChoice(out, choice);
+        }
+    }
+
+    private static @Nullable List<RecipeChoice> readDiscoverChoices(final @NotNull DataInputStream in) throws IOException {
+        if (in.readBoolean() == false)
+            return null;
+        final int size = in.readInt();
+        final List<RecipeChoice> choices = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            final @Nullable RecipeChoice choice = readChoice(in);
+            // Skipping null choices. These never match any item.
+            if (choice != null)
+                choices.add(choice);
+        }
+        return choices;
+    }
+
+
+    /* RECIPE CHOICES */
+
+    private static void writeChoice(final @NotNull DataOutputStream out, final @Nullable RecipeChoice choice) throws IOException {
+        if (choice == null)
+            out.writeByte(CHOICE_NULL);
+        else if (choice == RecipeChoice.empty())
+            out.writeByte(CHOICE_EMPTY);
+        else if (choice instanceof RecipeChoice.MaterialChoice materialChoice) {
+            out.writeByte(CHOICE_MATERIAL);
+            out.writeInt(materialChoice.getChoices().size());
+            for (final Material material : materialChoice.getChoices())
+                out.writeUTF(material.name());
+        } else if (choice instanceof RecipeChoice.ExactChoice exactChoice) {
+            out.writeByte(CHOICE_EXACT);
+            out.writeInt(exactChoice.getChoices().size());
+            for (final ItemStack item : exactChoice.getChoices())
+                writeItem(out, item);
+        } else throw new IOException("Unsupported recipe choice: " + choice.getClass().getName());
+    }
+
+    private static @Nullable RecipeChoice readChoice(final @NotNull DataInputStream in) throws IOException {
+        final byte kind = in.readByte();
+        switch (kind) {
+            case CHOICE_NULL -> {
+                return null;
+            }
+            case CHOICE_EMPTY -> {
+                return RecipeChoice.empty();
+            }
+            case CHOICE_MATERIAL -> {
+                final int size = in.readInt();
+                final List<Material> materials = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    final String name = in.readUTF();
+                    final @Nullable Material material = Material.getMaterial(name);
+                    // Throwing an exception if material no longer exists.
+                    if (material == null)
+                        throw new IOException("Unknown material: " + name);
+                    materials.add(material);
+                }
+                return new RecipeChoice.MaterialChoice(materials);
+            }
+            case CHOICE_EXACT -> {
+                final int size = in.readInt();
+                final List<ItemStack> items = new ArrayList<>(size);
+                for (int i = 0; i < size; i++)
+                    items.add(readItem(in));
+                return new RecipeChoice.ExactChoice(items);
+            }
+            default -> throw new IOException("Unsupported recipe choice kind: " + kind);
+        }
+    }
+
+
+    /* PRIMITIVES */
+
+    private static void writeKey(final @NotNull DataOutputStream out, final @NotNull NamespacedKey key) throws IOException {
+        out.writeUTF(key.asString());
+    }
+
+    private static @NotNull NamespacedKey readKey(final @NotNull DataInputStream in) throws IOException {
+        final String value = in.readUTF();
+        final @Nullable NamespacedKey key = NamespacedKey.fromString(value);
+        // Throwing an exception if key is invalid.
+        if (key == null)
+            throw new IOException("Invalid key: " + value);
+        return key;
+    }
+
+    private static void writeItem(final @NotNull DataOutputStream out, final @NotNull ItemStack item) throws IOException {
+        final byte[] bytes = item.serializeAsBytes();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static @NotNull ItemStack readItem(final @NotNull DataInputStream in) throws IOException {
+        final byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return ItemStack.deserializeBytes(bytes);
+    }
+
+}
@@ -0,0 +1,167 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import io.papermc.paper.threadedregions.scheduler.ScheduledTask;
+import org.bukkit.plugin.Plugin;
+
+import java.util.ArrayDeque;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Spreads recipe registration across multiple ticks. Queued operations, usually calls to {@code addRecipe} and {@code removeRecipe}, are executed
+ * on the global region thread until the per-tick time budget is exhausted, and the rest is continued during the next tick.
+ * <p>
+ * Recipes are not sent to players until all operations are done, and {@code updateRecipes} is called exactly once at the end, or never if no operations were queued.
+ * Operation that fails is reported to the console and skipped, so a single broken recipe does not prevent the rest from being registered and sent.
+ * Registration cancelled before it's done, for example because the plugin is being disabled, sends recipes registered so far instead.
+ */
+public final class RegistrationScheduler {
+
+    private final @NotNull Plugin plugin;
+
+    // Maximum time spent on executing operations during a single tick. Non-positive values disable the limit.
+    private final long budgetNanos;
+
+    private final Queue<Runnable> operations = new ArrayDeque<>();
+
+    private final CompletableFuture<Stats> future = new CompletableFuture<>();
+
+    // Task executing operations during the next ticks. Null until registration spans more than a single tick. Tasks of the plugin are cancelled by the server once it's disabled.
+    private @Nullable ScheduledTask task;
+
+    private int executed = 0;
+    private int failed = 0;
+    private int ticks = 0;
+    private long busyNanos = 0;
+    private long startTime;
+
+    public RegistrationScheduler(final @NotNull Plugin plugin, final double budgetMillis) {
+        this.plugin = plugin;
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+    }
+
+    /** Queues specified operation. Operations are executed in order they were queued. */
+    public @NotNull RegistrationScheduler queue(final @NotNull Runnable operation) {
+        operations.add(operation);
+        return this;
+    }
+
+    /**
+     * Starts executing queued operations. First batch is executed immediately, so this must be called on the global region thread.
+     * Returned future is completed on the global region thread, after recipes have been updated.
+     */
+    public @NotNull CompletableFuture<Stats> start() {
+        startTime = System.nanoTime();
+        // Completing immediately if there is nothing to do. Recipes are not sent to players again in such case.
+        if (operations.isEmpty() == true) {
+            future.complete(new Stats(0, 0, 0, 0, 0));
+            return future;
+        }
+        // Executing the first batch immediately. Small reloads are done within a single tick.
+        if (execute() == true)
+            return future;
+        // Continuing during the next ticks. Stopping once registration is done, or has been cancelled in the meantime.
+        task = plugin.getServer().getGlobalRegionScheduler().runAtFixedRate(plugin, it -> {
+            if (future.isDone() == true || execute() == true)
+                it.cancel();
+        }, 1L, 1L);
+        return future;
+    }
+
+    /**
+     * Cancels the registration. Remaining operations are dropped, recipes registered so far are sent to players, and returned future is completed exceptionally with {@link CancellationException}.
+     * Must be called before the plugin is disabled, as the server cancels the task otherwise, and the future would never complete. Does nothing if registration is already done.
+     */
+    public void cancel() {
+        if (future.isDone() == true)
+            return;
+        if (task != null)
+            task.cancel();
+        operations.clear();
+        // Sending recipes registered so far to players. Unlike failed registration, these are not going to be sent by the next reload.
+        if (executed > 0)
+            plugin.getServer().updateRecipes();
+        future.completeExceptionally(new CancellationException("Registration has been cancelled."));
+    }
+
+    // Executes operations until the budget is exhausted. Returns true if no more operations are left.
+    private boolean execute() {
+        final long sliceStart = System.nanoTime();
+        ticks++;
+        Runnable operation;
+        // Executing operations, checking the budget after each one. At least one operation is executed each tick, so registration always makes progress.
+        while ((operation = operations.poll()) != null) {
+            try {
+                operation.run();
+                executed++;
+            } catch (final RuntimeException e) {
+                // Reporting failed operation and continuing with the rest. Recipes registered by other operations must still be sent to players.
+                failed++;
+                plugin.getLogger().warning("Registration operation failed due to following error: " + e);
+            }
+            if (budgetNanos > 0 && System.nanoTime() - sliceStart >= budgetNanos)
+                break;
+        }
+        // Returning if there are operations left for the next tick.
+        if (operations.isEmpty() == false) {
+            busyNanos += System.nanoTime() - sliceStart;
+            return false;
+        }
+        // Sending updated recipes to players. This is done only once, after all operations are done, and only if any of them has succeeded.
+        if (executed > 0)
+            plugin.getServer().updateRecipes();
+        busyNanos += System.nanoTime() - sliceStart;
+        future.complete(new Stats(executed, failed, ticks, busyNanos, System.nanoTime() - startTime));
+        return true;
+    }
+
+    /** Represents time taken by the registration. */
+    public record Stats(int operations, int failed, int ticks, long busyNanos, long elapsedNanos) {
+
+        @Override
+        public @NotNull String toString() {
+            return String.format(Locale.ROOT, "Executed %d registration operations (%d failed) across %d ticks in %d ms (%.2f ms of server time).",
+                    operations, failed, ticks, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), busyNanos / 1_000_000.0
+            );
+        }
+
+    }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.utils.ComponentCache;
+import net.kyori.adventure.text.Component;
+import org.bukkit.command.CommandSender;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Represents a single, asynchronous reload of recipes. Reload requests made before the job has started are merged into it.
+ * Job can be cancelled until it reaches the {@link Stage#APPLYING} stage, in which case currently registered recipes are kept.
+ */
+public final class ReloadJob {
+
+    // Progress is reported every this many parsed files, or once per PROGRESS_INTERVAL, whichever comes first.
+    private static final int PROGRESS_FILES = 1000;
+    private static final long PROGRESS_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    // Completed once recipes are registered, or exceptionally if the job has failed or was cancelled.
+    @Getter(AccessLevel.PUBLIC)
+    private final @NotNull CompletableFuture<Void> future = new CompletableFuture<>();
+
+    // Whether configuration, along with the item registry, should be reloaded.
+    @Getter(AccessLevel.PUBLIC)
+    private boolean isConfigReload;
+
+    // Whether the item registry file should be loaded again.
+    @Getter(AccessLevel.PUBLIC)
+    private boolean isItemsReload;
+
+    // Whether recipes have been removed by the server, meaning all of them must be registered again.
+    @Getter(AccessLevel.PUBLIC)
+    private boolean isResourcesReload;
+
+    // Files and directories reported as changed by the watcher. Only these are scanned, unless null, in which case the whole recipes directory is scanned.
+    @Getter(AccessLevel.PUBLIC)
+    private @Nullable @Unmodifiable Set<Path> changes;
+
+    @Getter(AccessLevel.PUBLIC)
+    private volatile @NotNull Stage stage = Stage.PENDING;
+
+    @Getter(AccessLevel.PUBLIC)
+    private volatile boolean isCancelled = false;
+
+    // Senders that are notified about progress of the job.
+    private final Set<CommandSender> subscribers = new CopyOnWriteArraySet<>();
+
+    private final long startTime = System.nanoTime();
+
+    // Progress of the job.
+    private final AtomicInteger parsedFiles = new AtomicInteger(0);
+    private volatile int totalFiles = 0;
+
+    // Time progress was last reported at.
+    private final AtomicLong lastProgressTime = new AtomicLong(startTime);
+
+    // Time taken by the registration. Available once recipes are registered.
+    @Getter(AccessLevel.PUBLIC) @Setter(AccessLevel.PUBLIC)
+    private volatile @Nullable RegistrationScheduler.Stats registrationStats;
+
+    public ReloadJob(final boolean isConfigReload, final boolean isItemsReload, final boolean isResourcesReload, final @Nullable Set<Path> changes) {
+        this.isConfigReload = isConfigReload;
+        this.isItemsReload = isItemsReload;
+        this.isResourcesReload = isResourcesReload;
+        this.changes = (changes != null) ? Set.copyOf(changes) : null;
+    }
+
+    /**
+     * Merges specified request into this job. Returns {@code false} if the job has already started and request must be handled by another job.
+     * Changes are combined, unless either of the requests scans the whole recipes directory, in which case the merged job does so as well.
+     */
+    public synchronized boolean merge(final boolean isConfigReload, final boolean isItemsReload, final boolean isResourcesReload, final @Nullable Set<Path> changes) {
+        if (stage != Stage.PENDING || isCancelled == true)
+            return false;
+        this.isConfigReload |= isConfigReload;
+        this.isItemsReload |= isItemsReload;
+        this.isResourcesReload |= isResourcesReload;
+        // Combining changes of both requests.
+        if (this.changes != null && changes != null) {
+            final Set<Path> combined = new HashSet<>(this.changes);
+            combined.addAll(changes);
+            this.changes = Set.copyOf(combined);
+        } else this.changes = null;
+        return true;
+    }
+
+    /** Moves the job to the specified stage. Throws {@link CancellationException} if the job has been cancelled. */
+    public synchronized void advance(final @NotNull Stage stage) throws CancellationException {
+        if (isCancelled == true)
+            throw new CancellationException("Reload has been cancelled.");
+        this.stage = stage;
+    }
+
+    /** Cancels this job. Returns {@code false} if the job is already applying recipes, and can no longer be cancelled. */
+    public synchronized boolean cancel() {
+        if (stage == Stage.APPLYING)
+            return false;
+        isCancelled = true;
+        return true;
+    }
+
+    /** Subscribes specified sender to progress notifications of this job. */
+    public void subscribe(final @NotNull CommandSender sender) {
+        subscribers.add(sender);
+    }
+
+    /** Sends specified MiniMessage-formatted message, with placeholders replaced by specified values, to all subscribers. Does nothing if the message is null or empty. */
+    public void notify(final @Nullable String message, final @NotNull Object... replacements) {
+        if (message == null || message.isEmpty() == true)
+            return;
+        final Component component = ComponentCache.INSTANCE.deserialize(message, replacements);
+        subscribers.forEach(sender -> sender.sendMessage(component));
+    }
+
+    /** Sets the number of files that are going to be parsed. */
+    public void setTotalFiles(final int totalFiles) {
+        this.totalFiles = totalFiles;
+    }
+
+    /**
+     * Increments the number of parsed files. Called concurrently from parser threads. Returns {@code true} if progress should be reported,
+     * which happens every {@value #PROGRESS_FILES} files or once per second, whichever comes first, and for only one of the threads. Last file is never reported.
+     */
+    public boolean incrementParsedFiles() {
+        final int parsed = parsedFiles.incrementAndGet();
+        // Skipping the last file. Progress is reported once parsing is done anyway.
+        if (parsed >= totalFiles)
+            return false;
+        final long now = System.nanoTime();
+        final long last = lastProgressTime.get();
+        // Reporting progress, unless it has been reported recently, or another thread is already doing so.
+        return (parsed % PROGRESS_FILES == 0 || now - last >= PROGRESS_INTERVAL) && lastProgressTime.compareAndSet(last, now) == true;
+    }
+
+    public int getParsedFiles() {
+        return parsedFiles.get();
+    }
+
+    public int getTotalFiles() {
+        return totalFiles;
+    }
+
+    /** Returns time elapsed since the job has been created, in milliseconds. */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    /** Represents a stage of the {@link ReloadJob}. */
+    public enum Stage {
+        // Job is waiting to be started. Requests can still be merged into it.
+        PENDING,
+        // Configuration and item registry are being reloaded, and current state is being captured. Done on the server thread.
+        PREPARING,
+        // Recipe files are being read and parsed. Done off the server thread.
+        COMPILING,
+        // Recipes are being materialized, swapped and registered. Done on the server thread and cannot be cancelled.
+        APPLYING
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.Recipes;
+import cloud.grabsky.recipes.materializer.CompiledRecipe;
+import io.papermc.paper.datapack.Datapack;
+import org.bukkit.Bukkit;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Restores loaded recipes from the {@link RecipeSnapshot} created during the previous server run, and keeps it up to date with recipes loaded since then.
+ * Snapshot is read off the server thread, by the reload that restores it, and written asynchronously. Stages of a reload never overlap, so the state is not shared concurrently.
+ */
+public final class SnapshotManager {
+
+    private final @NotNull Recipes plugin;
+
+    private final @NotNull Path snapshotFile;
+
+    // Whether loaded recipes have changed since the snapshot was last written or read.
+    private boolean isOutdated = true;
+
+    public SnapshotManager(final @NotNull Recipes plugin, final @NotNull Path snapshotFile) {
+        this.plugin = plugin;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Restores recipes from the snapshot into specified map, if it was created for the current server version, configuration and source files.
+     * Recipes that depend on contents of item tags are never restored. Items with components are, as they were resolved against the same data version and data packs.
+     * Enabled data packs must be captured on the server thread, see {@link #captureDatapacks}. Can be called off the server thread.
+     */
+    public void load(final @NotNull Map<String, List<CompiledRecipe>> loadedRecipes, final @NotNull RecipeManifest manifest, final @NotNull String datapacks) {
+        try {
+            final Map<String, List<CompiledRecipe>> snapshot = RecipeSnapshot.read(snapshotFile, getStamp(manifest, datapacks));
+            // Returning if snapshot does not exist or is outdated.
+            if (snapshot.isEmpty() == true)
+                return;
+            // Dropping files with recipes that depend on contents of item tags. Item tags are stored resolved to materials, and their contents are not covered by the stamp.
+            // Such files are not present in the map of loaded recipes, meaning they are considered modified and loaded again from their sources.
+            snapshot.values().removeIf(file -> file.stream().anyMatch(CompiledRecipe::isTagDependent) == true);
+            // Adding restored recipes to the map of loaded recipes. Stamp guarantees the manifest has an entry for each of them.
+            loadedRecipes.putAll(snapshot);
+            isOutdated = false;
+            // Sending information to the console.
+            plugin.getLogger().info("Restored " + snapshot.values().stream().mapToInt(List::size).sum() + " recipes from the snapshot.");
+        } catch (final IOException | RuntimeException e) {
+            plugin.getLogger().warning("Reading recipes snapshot failed due to following error: " + e + ". Recipes are loaded from their files instead.");
+            // Deleting the snapshot, as it's corrupted or unreadable. It's written again once recipes are loaded.
+            delete();
+        }
+    }
+
+    // Deletes the snapshot file. Synchronized with asynchronous writes, so a snapshot written in the meantime is not removed halfway.
+    private void delete() {
+        synchronized (snapshotFile) {
+            try {
+                Files.deleteIfExists(snapshotFile);
+            } catch (final IOException e) {
+                plugin.getLogger().warning("Deleting recipes snapshot failed due to following error: " + e.getMessage());
+            }
+        }
+    }
+
+    /** Marks the snapshot as outdated. Must be called whenever any recipe has been added, modified or removed. */
+    public void invalidate() {
+        isOutdated = true;
+    }
+
+    /** Saves specified recipes to the snapshot, unless it's up to date. Recipes are already converted, and are written asynchronously. */
+    public void save(final @NotNull Map<String, List<CompiledRecipe>> loadedRecipes, final @NotNull RecipeManifest manifest) {
+        if (isOutdated == false)
+            return;
+        final RecipeSnapshot.Stamp stamp = getStamp(manifest, captureDatapacks());
+        // Copying the map. Recipes that depend on contents of item tags are excluded and will be loaded from their files instead.
+        // Items with components are kept, so the command parser resolves them only once per data version and set of data packs.
+        final Map<String, List<CompiledRecipe>> recipes = new TreeMap<>(loadedRecipes);
+        recipes.values().removeIf(file -> file.stream().anyMatch(CompiledRecipe::isTagDependent) == true);
+        isOutdated = false;
+        // Writing the snapshot asynchronously.
+        Bukkit.getAsyncScheduler().runNow(plugin, (task) -> {
+            synchronized (snapshotFile) {
+                try {
+                    RecipeSnapshot.write(snapshotFile, stamp, recipes);
+                } catch (final IOException | IllegalArgumentException e) {
+                    plugin.getLogger().warning("Saving recipes snapshot failed due to following error: " + e.getMessage());
+                }
+            }
+        });
+    }
+
+    // Returns stamp the snapshot must have been created with in order to be used.
+    @SuppressWarnings("deprecation") // Suppressing @Deprecated warnings. Well aware Bukkit#getUnsafe must is a subject to change.
+    private @NotNull RecipeSnapshot.Stamp getStamp(final @NotNull RecipeManifest manifest, final @NotNull String datapacks) {
+        return new RecipeSnapshot.Stamp(Bukkit.getUnsafe().getDataVersion(), datapacks, plugin.getPluginMeta().getVersion(), plugin.namespace(), manifest.hash());
+    }
+
+    /** Returns names of enabled data packs, in their natural order. Components of items are resolved against registries these can extend. Must be called on the server thread. */
+    public static @NotNull String captureDatapacks() {
+        return Bukkit.getDatapackManager().getEnabledPacks().stream().map(Datapack::getName).sorted().collect(Collectors.joining(","));
+    }
+
+}
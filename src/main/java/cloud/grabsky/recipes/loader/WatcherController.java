@@ -0,0 +1,124 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.loader;
+
+import cloud.grabsky.recipes.Recipes;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Starts and stops the {@link RecipeWatcher} according to the configuration, and requests reloads for debounced batches of changed files.
+ */
+public final class WatcherController {
+
+    private final @NotNull Recipes plugin;
+
+    private final @NotNull RecipeReloader reloader;
+
+    private final @NotNull Path directory;
+
+    // Watches recipe files for changes. Null if disabled.
+    private @Nullable RecipeWatcher watcher;
+
+    // Whether the watcher is paused. It's not started again until resumed.
+    private boolean isPaused = false;
+
+    public WatcherController(final @NotNull Recipes plugin, final @NotNull RecipeReloader reloader, final @NotNull Path directory) {
+        this.plugin = plugin;
+        this.reloader = reloader;
+        this.directory = directory;
+    }
+
+    /** (Re)starts watching the recipes directory and the item registry file for changes, if enabled in the configuration and not paused. */
+    public synchronized void restart() {
+        stop();
+        if (isPaused == false && plugin.configuration().watcher().enabled() == true)
+            start();
+    }
+
+    /** Stops the watcher until {@link #resume()} is called. Files can be moved in the meantime without triggering a reload. */
+    public synchronized void pause() {
+        isPaused = true;
+        stop();
+    }
+
+    /** Starts the watcher paused by {@link #pause()} again, unless the plugin has been disabled in the meantime. */
+    public synchronized void resume() {
+        isPaused = false;
+        if (plugin.isEnabled() == true)
+            restart();
+    }
+
+    // Starts watching the recipes directory and the item registry file for changes.
+    private void start() {
+        directory.toFile().mkdirs();
+        try {
+            this.watcher = RecipeWatcher.start(directory, Set.of(plugin.customItemRegistry().getFile().toPath()), plugin.configuration().watcher().debounce(), this::onFilesChanged);
+        } catch (final IOException | UncheckedIOException e) {
+            plugin.getLogger().warning("Starting the watcher failed due to following error: " + e.getMessage());
+        }
+    }
+
+    /** Stops the watcher, if running. */
+    public synchronized void stop() {
+        if (watcher != null) {
+            try {
+                watcher.close();
+            } catch (final IOException e) {
+                plugin.getLogger().warning("Stopping the watcher failed due to following error: " + e.getMessage());
+            }
+            watcher = null;
+        }
+    }
+
+    // Called by the watcher thread with a debounced batch of changed files.
+    private void onFilesChanged(final @NotNull Set<Path> changes) {
+        final Path itemRegistryFile = plugin.customItemRegistry().getFile().toPath().toAbsolutePath().normalize();
+        // Ignoring changes of the item registry file made by the plugin itself, for example when custom items are added or upgraded.
+        final boolean isItemRegistryChanged = changes.contains(itemRegistryFile) == true && plugin.customItemRegistry().isWrittenByRegistry() == false;
+        final Set<Path> recipeChanges = changes.stream().filter(path -> path.equals(itemRegistryFile) == false).collect(Collectors.toUnmodifiableSet());
+        // Returning if nothing has changed apart from files written by the plugin.
+        if (isItemRegistryChanged == false && recipeChanges.isEmpty() == true)
+            return;
+        plugin.getLogger().info("Detected changes in " + (recipeChanges.size() + (isItemRegistryChanged == true ? 1 : 0)) + " file(s). Reloading...");
+        // Only changed files are scanned, and only affected recipes are (re-)registered.
+        reloader.request(false, isItemRegistryChanged, false, recipeChanges);
+    }
+
+}
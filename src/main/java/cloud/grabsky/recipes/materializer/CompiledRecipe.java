@@ -0,0 +1,73 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.materializer;
+
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import org.bukkit.Keyed;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+
+import java.util.List;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Represents a recipe converted to Bukkit's {@link Recipe} object, along with choices of its discover trigger. Created by the {@link RecipeMaterializer}, or restored from the snapshot.
+ * Instances are kept between reloads, so recipes of unchanged files are neither converted nor fingerprinted again.
+ *
+ * @param key key of the recipe
+ * @param type type of the recipe, as specified in its definition
+ * @param recipe the recipe itself, which must not be modified
+ * @param fingerprint structure of the recipe, used to detect whether registered recipe has changed
+ * @param discoverChoices choices which discover the recipe when obtained, or {@code null} if recipe is discovered unconditionally
+ * @param isDatapackDependent whether conversion of the recipe depends on the server's data packs
+ * @param isTagDependent whether the recipe depends on contents of item tags, which are not covered by the snapshot stamp
+ */
+public record CompiledRecipe(
+        @NotNull NamespacedKey key,
+        @NotNull RecipeWrapper.Type type,
+        @NotNull Recipe recipe,
+        @NotNull RecipeFingerprint fingerprint,
+        @Nullable @Unmodifiable List<RecipeChoice> discoverChoices,
+        boolean isDatapackDependent,
+        boolean isTagDependent
+) {
+
+    /** Creates {@link CompiledRecipe} of specified {@link Recipe}, which must be {@link Keyed}. Fingerprint is created immediately. */
+    public static @NotNull CompiledRecipe of(final @NotNull RecipeWrapper.Type type, final @NotNull Recipe recipe, final @Nullable List<RecipeChoice> discoverChoices, final boolean isDatapackDependent, final boolean isTagDependent) {
+        return new CompiledRecipe(((Keyed) recipe).getKey(), type, recipe, RecipeFingerprint.of(recipe), (discoverChoices != null) ? List.copyOf(discoverChoices) : null, isDatapackDependent, isTagDependent);
+    }
+
+}
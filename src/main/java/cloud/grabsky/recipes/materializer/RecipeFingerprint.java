@@ -0,0 +1,119 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.materializer;
+
+import org.bukkit.inventory.CookingRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.StonecuttingRecipe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.Unmodifiable;
+
+/**
+ * Represents structure of a Bukkit's {@link Recipe} object. Two fingerprints are equal if recipes they were created from would behave the same once registered.
+ * All mutable parts are copied, so fingerprint is not affected by later modifications of the recipe.
+ */
+public record RecipeFingerprint(@NotNull Class<? extends Recipe> type, @NotNull @Unmodifiable List<Object> components) {
+
+    /** Creates {@link RecipeFingerprint} of specified {@link Recipe}. */
+    public static @NotNull RecipeFingerprint of(final @NotNull Recipe recipe) {
+        final List<Object> components = new ArrayList<>();
+        // Adding components shared by all recipe types.
+        components.add(copy(recipe.getResult()));
+        // Adding components specific to the recipe type.
+        switch (recipe) {
+            case final ShapedRecipe shaped -> {
+                components.add(Arrays.asList(shaped.getShape()));
+                components.add(copy(shaped.getChoiceMap()));
+                components.add(shaped.getGroup());
+                components.add(shaped.getCategory());
+            }
+            case final ShapelessRecipe shapeless -> {
+                components.add(shapeless.getChoiceList().stream().map(RecipeFingerprint::copy).toList());
+                components.add(shapeless.getGroup());
+                components.add(shapeless.getCategory());
+            }
+            case final CookingRecipe<?> cooking -> {
+                components.add(copy(cooking.getInputChoice()));
+                components.add(cooking.getExperience());
+                components.add(cooking.getCookingTime());
+                components.add(cooking.getGroup());
+                components.add(cooking.getCategory());
+            }
+            case final SmithingRecipe smithing -> {
+                if (smithing instanceof SmithingTransformRecipe transform)
+                    components.add(copy(transform.getTemplate()));
+                components.add(copy(smithing.getBase()));
+                components.add(copy(smithing.getAddition()));
+                components.add(smithing.willCopyDataComponents());
+            }
+            case final StonecuttingRecipe stonecutting -> {
+                components.add(copy(stonecutting.getInputChoice()));
+                components.add(stonecutting.getGroup());
+            }
+            default -> {
+                // Other recipe types are never created by the plugin. Only result is compared.
+            }
+        }
+        // Returning the fingerprint. List may contain null values, hence it's not created using List.of(...).
+        return new RecipeFingerprint(recipe.getClass(), Collections.unmodifiableList(components));
+    }
+
+    private static @Nullable ItemStack copy(final @Nullable ItemStack item) {
+        return (item != null) ? item.clone() : null;
+    }
+
+    private static @Nullable RecipeChoice copy(final @Nullable RecipeChoice choice) {
+        return (choice != null) ? choice.clone() : null;
+    }
+
+    private static @NotNull Map<Character, RecipeChoice> copy(final @NotNull Map<Character, RecipeChoice> choices) {
+        final Map<Character, RecipeChoice> copy = new HashMap<>();
+        choices.forEach((key, choice) -> copy.put(key, copy(choice)));
+        return copy;
+    }
+
+}
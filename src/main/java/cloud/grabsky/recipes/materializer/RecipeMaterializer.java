@@ -0,0 +1,292 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.materializer;
+
+import cloud.grabsky.recipes.model.DiscoverTrigger;
+import cloud.grabsky.recipes.model.Ingredient;
+import cloud.grabsky.recipes.model.Item;
+import cloud.grabsky.recipes.model.recipes.BlastingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.CampfireRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.CookingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.RecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapedRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.ShapelessRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmeltingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmithingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.SmokingRecipeWrapper;
+import cloud.grabsky.recipes.model.recipes.StonecuttingRecipeWrapper;
+import cloud.grabsky.recipes.registry.CustomItemRegistry;
+import cloud.grabsky.recipes.registry.ResolutionCache;
+import cloud.grabsky.recipes.utils.ComponentCache;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonPrimitive;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Bukkit;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.BlastingRecipe;
+import org.bukkit.inventory.CampfireRecipe;
+import org.bukkit.inventory.FurnaceRecipe;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.ItemType;
+import org.bukkit.inventory.Recipe;
+import org.bukkit.inventory.RecipeChoice;
+import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.inventory.ShapelessRecipe;
+import org.bukkit.inventory.SmithingTransformRecipe;
+import org.bukkit.inventory.SmokingRecipe;
+import org.bukkit.inventory.StonecuttingRecipe;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Converts server-independent {@link RecipeWrapper RecipeWrappers} to Bukkit's {@link Recipe} objects. This is the second stage of the compilation, and must happen on the server thread.
+ * The first stage - parsing - does not access the server, see {@link cloud.grabsky.recipes.loader.RecipeLoader RecipeLoader}.
+ * <p>
+ * Each {@link Item} and {@link Ingredient} is converted only once per materializer. As identical definitions are shared between recipes loaded during a single reload,
+ * a single instance should be used for all recipes of a reload, and discarded afterwards.
+ */
+@SuppressWarnings("UnstableApiUsage") // ItemType
+@RequiredArgsConstructor(access = AccessLevel.PUBLIC)
+public final class RecipeMaterializer {
+
+    private final @NotNull CustomItemRegistry customItemRegistry;
+
+    // Converted items. These are shared, and must be copied before being handed out.
+    private final Map<Item, ItemStack> items = new HashMap<>();
+
+    // Converted ingredients. Shared by all recipes they are used in, and never modified.
+    private final Map<Ingredient, RecipeChoice> choices = new HashMap<>();
+
+    /** Converts specified {@link RecipeWrapper}, along with its {@link DiscoverTrigger}, to {@link CompiledRecipe}. */
+    public @NotNull CompiledRecipe materialize(final @NotNull RecipeWrapper wrapper) throws IllegalArgumentException {
+        final Recipe recipe = toBukkit(wrapper);
+        final @Nullable DiscoverTrigger trigger = wrapper.getDiscoverTrigger();
+        // Converting ingredients of the discover trigger. Triggers with no ingredients never discover the recipe.
+        final @Nullable List<RecipeChoice> discoverChoices = (trigger != null)
+                ? (trigger.getIngredients() != null) ? trigger.getIngredients().stream().filter(Objects::nonNull).map(this::toRecipeChoice).toList() : List.of()
+                : null;
+        // Returning...
+        return CompiledRecipe.of(wrapper.getType(), recipe, discoverChoices, wrapper.isDatapackDependent(), wrapper.isTagDependent());
+    }
+
+    /** Returns Bukkit's {@link NamespacedKey} equivalent to specified {@link Key}. */
+    public static @NotNull NamespacedKey toNamespacedKey(final @NotNull Key key) {
+        return (key instanceof NamespacedKey namespacedKey) ? namespacedKey : new NamespacedKey(key.namespace(), key.value());
+    }
+
+
+    /* RECIPES */
+
+    private @NotNull Recipe toBukkit(final @NotNull RecipeWrapper wrapper) throws IllegalArgumentException {
+        final NamespacedKey key = toNamespacedKey(wrapper.getKey());
+        return switch (wrapper) {
+            case final ShapedRecipeWrapper shaped -> {
+                // Creating new ShapedRecipe of specific shape.
+                final ShapedRecipe recipe = new ShapedRecipe(key, toItemStack(shaped.getResult())).shape(shaped.getPattern());
+                // Setting specified ingredients on the recipe.
+                shaped.getPatternKey().forEach((character, ingredient) -> recipe.setIngredient(character, toRecipeChoice(ingredient)));
+                yield recipe;
+            }
+            case final ShapelessRecipeWrapper shapeless -> {
+                // Creating new ShapelessRecipe instance.
+                final ShapelessRecipe recipe = new ShapelessRecipe(key, toItemStack(shapeless.getResult()));
+                // Adding specified ingredients to the recipe.
+                shapeless.getIngredients().forEach(ingredient -> recipe.addIngredient(toRecipeChoice(ingredient)));
+                yield recipe;
+            }
+            case final CookingRecipeWrapper cooking -> {
+                final ItemStack result = toItemStack(cooking.getResult());
+                final RecipeChoice input = toRecipeChoice(cooking.getInput());
+                final float experience = Math.max(0, (cooking.getExperience() != null) ? cooking.getExperience() : 0F);
+                final int cookingTime = Math.max(0, (cooking.getCookingTime() != null) ? cooking.getCookingTime() : 200);
+                yield switch (cooking) {
+                    case final SmeltingRecipeWrapper ignored -> new FurnaceRecipe(key, result, input, experience, cookingTime);
+                    case final BlastingRecipeWrapper ignored -> new BlastingRecipe(key, result, input, experience, cookingTime);
+                    case final SmokingRecipeWrapper ignored -> new SmokingRecipe(key, result, input, experience, cookingTime);
+                    case final CampfireRecipeWrapper ignored -> new CampfireRecipe(key, result, input, experience, cookingTime);
+                    default -> throw new IllegalArgumentException("Unsupported recipe type: " + cooking.getClass().getName());
+                };
+            }
+            case final SmithingRecipeWrapper smithing -> new SmithingTransformRecipe(
+                    key,
+                    toItemStack(smithing.getResult()),
+                    (smithing.getTemplate() != null) ? toRecipeChoice(smithing.getTemplate()) : null,
+                    toRecipeChoice(smithing.getBase()),
+                    toRecipeChoice(smithing.getAddition()),
+                    true
+            );
+            case final StonecuttingRecipeWrapper stonecutting -> new StonecuttingRecipe(key, toItemStack(stonecutting.getResult()), toRecipeChoice(stonecutting.getInput()));
+            default -> throw new IllegalArgumentException("Unsupported recipe type: " + wrapper.getClass().getName());
+        };
+    }
+
+
+    /* INGREDIENTS */
+
+    private @NotNull RecipeChoice toRecipeChoice(final @NotNull Ingredient ingredient) throws IllegalArgumentException {
+        final @Nullable RecipeChoice cached = choices.get(ingredient);
+        // Returning cached choice, if present.
+        if (cached != null)
+            return cached;
+        final RecipeChoice choice = switch (ingredient) {
+            case final Ingredient.Items items -> createRecipeChoice(items);
+            case final Ingredient.Tag tag -> {
+                // Getting choice of the tag. Choices are created once per tag, and shared by all ingredients that refer to it.
+                final @Nullable RecipeChoice.MaterialChoice tagChoice = ResolutionCache.INSTANCE.tagChoice(tag.key());
+                // Throwing an exception if tag does not exist.
+                if (tagChoice == null)
+                    throw new IllegalArgumentException("Tag \"" + tag.key().asString() + "\" does not represent a valid material tag.");
+                yield tagChoice;
+            }
+        };
+        choices.put(ingredient, choice);
+        return choice;
+    }
+
+    private @NotNull RecipeChoice createRecipeChoice(final @NotNull Ingredient.Items ingredient) throws IllegalArgumentException {
+        // Returning empty choice if single item was set to air.
+        if (ingredient.isSingle() == true && ingredient.items().getFirst().isAir() == true)
+            return RecipeChoice.empty();
+        // Getting shared ItemStack objects of the items. Air is excluded. These are only inspected, and copied if they end up in the choice.
+        final List<ItemStack> stacks = ingredient.items().stream().filter(item -> item.isAir() == false).map(this::prototype).toList();
+        // Returning MaterialChoice if metadata of all items is empty, or ExactChoice otherwise.
+        return (ingredient.items().stream().noneMatch(item -> item.getComponents() != null) && stacks.stream().noneMatch(ItemStack::hasItemMeta))
+                ? new RecipeChoice.MaterialChoice(stacks.stream().map(ItemStack::getType).toList())
+                : new RecipeChoice.ExactChoice(stacks.stream().map(ItemStack::clone).toList());
+    }
+
+
+    /* ITEMS */
+
+    // Returns a copy of the ItemStack specified item represents.
+    private @NotNull ItemStack toItemStack(final @NotNull Item item) throws IllegalArgumentException {
+        return prototype(item).clone();
+    }
+
+    // Returns the ItemStack specified item represents. Returned instance is shared, and must not be modified.
+    private @NotNull ItemStack prototype(final @NotNull Item item) throws IllegalArgumentException {
+        final @Nullable ItemStack cached = items.get(item);
+        // Returning cached item, if present.
+        if (cached != null)
+            return cached;
+        final ItemStack stack = createItemStack(item);
+        items.put(item, stack);
+        return stack;
+    }
+
+    @SuppressWarnings("deprecation") // Suppressing @Deprecated warnings. Well aware Bukkit#getUnsafe must is a subject to change.
+    private @NotNull ItemStack createItemStack(final @NotNull Item definition) throws IllegalArgumentException {
+        final @Nullable Integer amount = definition.getAmount();
+        if (definition.getRegisteredItem() != null) {
+            // Registry hands out copies, so the registered item is not affected by changes made below.
+            final @Nullable ItemStack item = customItemRegistry.get(definition.getRegisteredItem());
+            // Throwing exception if custom item doesn't exist in the registry.
+            if (item == null)
+                throw new IllegalArgumentException("Custom item \"" + definition.getRegisteredItem() + "\" does not exist.");
+            // Setting amount if specified and greater than 0.
+            if (amount != null && amount > 0)
+                item.setAmount(Math.min(item.getMaxStackSize(), amount));
+            // Returning the item.
+            return item;
+        } else if (definition.getType() != null) {
+            final Key type = definition.getType();
+            final @Nullable ItemType itemType = ResolutionCache.INSTANCE.itemType(type);
+            // Throwing exception if item type doesn't exist in the registry.
+            if (itemType == null)
+                throw new IllegalArgumentException("Key \"" + type.asString() + "\" does not point to any item type.");
+            final ItemStack item = itemType.createItemStack();
+            final @Nullable JsonElement components = definition.getComponents();
+            // Setting item components if specified. This is done first as it can be overridden by named properties in next steps.
+            if (components != null) {
+                // Applying raw / inline components string on ItemStack.
+                if (components.isJsonPrimitive() == true && components.getAsString().isEmpty() == false)
+                    // 26.1+
+                    if (Bukkit.getUnsafe().getProtocolVersion() >= 775)
+                        Bukkit.getUnsafe().modifyItemStack(item, components.getAsString());
+                    // Fallback
+                    else Bukkit.getUnsafe().modifyItemStack(item, type.asString() + components.getAsString());
+                // Otherwise, parsing a 'structured' format.
+                else if (components.isJsonObject() == true && components.getAsJsonObject().isEmpty() == false) {
+                    // Building components String. This will be what goes inside square brackets.
+                    final StringBuilder componentsBuilder = new StringBuilder();
+                    components.getAsJsonObject().entrySet().forEach(it -> {
+                        // Reading as String directly and appending to the builder.
+                        if (it.getValue().isJsonPrimitive() == true && it.getValue().isJsonArray() == false) {
+                            final JsonPrimitive primitive = it.getValue().getAsJsonPrimitive();
+                            // getAsString removes quotes. In some cases they must be re-added.
+                            final String value = (primitive.isString() == true && primitive.getAsString().startsWith("{") == false && primitive.getAsString().startsWith("[") == false)
+                                    ? "\"" + primitive.getAsString() + "\""
+                                    : it.getValue().getAsString();
+                            componentsBuilder.append(it.getKey()).append("=").append(value).append(",");
+                        }
+                    });
+                    // Removing trailing comma.
+                    componentsBuilder.deleteCharAt(componentsBuilder.length() - 1);
+                    // 26.1+
+                    if (Bukkit.getUnsafe().getProtocolVersion() >= 775)
+                        Bukkit.getUnsafe().modifyItemStack(item, "[" + componentsBuilder + "]");
+                    // Fallback
+                    else Bukkit.getUnsafe().modifyItemStack(item, type.asString() + "[" + componentsBuilder + "]");
+                }
+            }
+            // Setting amount if specified and greater than 0.
+            if (amount != null && amount > 0)
+                item.setAmount(Math.min(item.getMaxStackSize(), amount));
+            // Checking whether item has item meta.
+            if (item.getItemMeta() != null) {
+                final ItemMeta meta = item.getItemMeta();
+                // Setting name if specified.
+                if (definition.getName() != null)
+                    meta.displayName(ComponentCache.INSTANCE.deserialize(definition.getName()));
+                // Setting lore if specified.
+                if (definition.getLore() != null)
+                    meta.lore(definition.getLore().stream().map(ComponentCache.INSTANCE::deserialize).toList());
+                // Updating item meta.
+                item.setItemMeta(meta);
+            }
+            // Finally, retuning the item.
+            return item;
+        }
+        throw new IllegalArgumentException("Impossible to parse item because neither \"registered_item\" nor \"type\" properties were specified.");
+    }
+
+}
@@ -32,17 +32,21 @@
 package cloud.grabsky.recipes.registry;
 
 import cloud.grabsky.recipes.Recipes;
+import cloud.grabsky.recipes.storage.RecipeStore;
+import cloud.grabsky.recipes.utils.Digests;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.reflect.TypeToken;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
 import org.bukkit.Bukkit;
 import org.bukkit.inventory.ItemStack;
+import org.h2.mvstore.MVStoreException;
 
 import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Type;
@@ -70,8 +74,23 @@ public final class CustomItemRegistry {
     // Stores plugin-specified items in their raw form. Populated by Gson.
     private final Map<String, JsonElement> internalMap = new HashMap<>();
 
-    // Stores plugin-specified items backed by their identifier.
-    private transient final Map<String, ItemStack> registry = new HashMap<>();
+    // Stores plugin-specified items backed by their identifier. Replaced as a whole upon load, so it can be safely read from recipe parser threads.
+    private transient volatile Map<String, ItemStack> registry = Map.of();
+
+    // Stores hashes of plugin-specified items in their raw form. Used to detect changes of items referenced by recipes.
+    private transient volatile Map<String, String> hashes = Map.of();
+
+    // Store used in place of the file, if enabled. Items are then written one by one, instead of rewriting the whole file.
+    private transient volatile @Nullable RecipeStore store;
+
+    // Incremented each time the file is written. Used to discard background writes which have been superseded in the meantime. Guarded by the file lock.
+    private transient int fileRevision = 0;
+
+    // Lock held while writing the file.
+    private final Object fileLock = new Object();
+
+    // Hash of contents last written to the file by this registry. Used to tell changes made by the plugin itself apart from the ones made by hand.
+    private transient volatile @Nullable String writtenHash;
 
     // Represents the Gson instance used for (de)serialization.
     private static final Gson GSON = new GsonBuilder()
@@ -86,8 +105,23 @@ public final class CustomItemRegistry {
     // Represents the pattern used to validate identifiers.
     private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("[a-zA-Z0-9_\\-]+");
 
+    /** Returns the file this registry is stored in. */
+    public @NotNull File getFile() {
+        return new File(plugin.getDataFolder(), "item_registry.json");
+    }
+
+    /** Sets the store used in place of the file. Items are loaded from the store, or the file if {@code null}, during the next {@link #refresh()}. */
+    public void setStore(final @Nullable RecipeStore store) {
+        this.store = store;
+    }
+
     public void refresh() {
-        final File file = new File(plugin.getDataFolder(), "item_registry.json");
+        // Items in the store are always up-to-date, as they are written right away.
+        if (store != null) {
+            load();
+            return;
+        }
+        final File file = getFile();
         // Creating the file if does not exist.
         if (file.exists() == false) {
             plugin.saveResource("item_registry.json", false);
@@ -95,14 +129,31 @@ public final class CustomItemRegistry {
         }
         try {
             // Saving the internal map to the file if it is not empty.
-            if (internalMap.isEmpty() == false) {
-                // Preparing the BufferedWriter.
-                final BufferedWriter writer = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
-                // Writing the map to the file.
-                GSON.toJson(internalMap, MAP_TYPE, writer);
-                // Closing the writer which also flushes it.
-                writer.close();
-            }
+            if (internalMap.isEmpty() == false)
+                write(internalMap, -1);
+        } catch (final IOException e) {
+            e.printStackTrace();
+        }
+        // Loading the file.
+        load();
+    }
+
+    /**
+     * Loads items from the file, replacing the ones currently in the registry. Unlike {@link #refresh()}, the file is not overwritten beforehand,
+     * meaning changes made to the file by hand are picked up. Items added or removed through this registry are always saved right away, so nothing is lost.
+     */
+    public void load() {
+        final File file = getFile();
+        final @Nullable RecipeStore store = this.store;
+        // Reading items from the store, if enabled.
+        if (store != null) try {
+            internalMap.clear();
+            store.items().forEach((identifier, value) -> internalMap.put(identifier, JsonParser.parseString(value)));
+        } catch (final JsonParseException e) {
+            e.printStackTrace();
+        }
+        // Skipping reading the file if does not exist. Items currently in the registry are kept.
+        else if (file.exists() == true) try {
             // Preparing the BufferedReader.
             final BufferedReader reader = Files.newBufferedReader(file.toPath(), StandardCharsets.UTF_8);
             // Deserializing the map from the JSON file.
@@ -113,27 +164,140 @@ public final class CustomItemRegistry {
             internalMap.clear();
             // Adding all entries from the map to the internal map.
             internalMap.putAll(map);
-        } catch (final IOException e) {
+        } catch (final IOException | JsonParseException e) {
             e.printStackTrace();
         }
-        // Clearing the registry.
-        registry.clear();
+        // Preparing new maps. They replace the current ones once populated.
+        final Map<String, ItemStack> registry = new HashMap<>();
+        final Map<String, String> hashes = new HashMap<>();
+        // Items which have been upgraded to the current data version. They're written back, so the data fixer runs only once per game update.
+        final Map<String, JsonElement> upgraded = new HashMap<>();
         // Deserializing items defined as bytes to ItemStack objects.
         internalMap.forEach((identifier, value) -> {
-            // final byte[] decoded = Base64.getDecoder().decode(encoded.getBytes(StandardCharsets.UTF_8));
-            final ItemStack item = (value.isJsonPrimitive() == true)
-                    // OLD FORMAT: Deserializing the item from Base64 decoded bytes.
-                    ? ItemStack.deserializeBytes(Base64.getDecoder().decode(value.getAsString().getBytes(StandardCharsets.UTF_8)))
-                    // NEW FORMAT: Deserializing the item from JsonObject.
-                    : Bukkit.getUnsafe().deserializeItemFromJson((JsonObject) value);
+            final ItemStack item = deserialize(value);
+            // Serializing outdated items again. Deserialization has already upgraded them.
+            final JsonElement current = (isOutdated(value) == true) ? serialize(item) : value;
+            if (current != value)
+                upgraded.put(identifier, current);
             // Adding the item to the registry.
             registry.put(identifier, item);
+            // Computing hash of the item in its raw form.
+            hashes.put(identifier, Digests.sha256(current.toString()));
+        });
+        // Replacing the registry.
+        this.registry = registry;
+        this.hashes = hashes;
+        // Writing upgraded items back.
+        if (upgraded.isEmpty() == false) {
+            internalMap.putAll(upgraded);
+            save(upgraded, store);
+        }
+    }
+
+    // Writes specified upgraded items in the background. Only these items are written to the store, while the file is rewritten as a whole, unless it has been written in the meantime.
+    private void save(final @NotNull Map<String, JsonElement> upgraded, final @Nullable RecipeStore store) {
+        final Map<String, JsonElement> contents = new HashMap<>(internalMap);
+        final int revision;
+        synchronized (fileLock) {
+            revision = fileRevision;
+        }
+        Bukkit.getAsyncScheduler().runNow(plugin, (task) -> {
+            try {
+                if (store != null)
+                    store.transaction(() -> upgraded.forEach((identifier, value) -> store.putItem(identifier, value.toString())));
+                else write(contents, revision);
+                // Sending information to the console.
+                plugin.getLogger().info("Upgraded " + upgraded.size() + " custom items to the current data version.");
+            } catch (final IOException | MVStoreException e) {
+                plugin.getLogger().warning("Saving upgraded custom items failed due to following error: " + e.getMessage());
+            }
         });
     }
 
-    /** Returns the {@link ItemStack} object associated with the given identifier. */
+    // Writes specified items to the file. Write is skipped if revision is not negative and the file has been written since it was read.
+    private void write(final @NotNull Map<String, JsonElement> contents, final int revision) throws IOException {
+        synchronized (fileLock) {
+            if (revision >= 0 && revision != fileRevision)
+                return;
+            // Serializing the map. Hash of the contents is recorded, so the watcher can ignore this write.
+            final byte[] bytes = GSON.toJson(contents, MAP_TYPE).getBytes(StandardCharsets.UTF_8);
+            writtenHash = Digests.sha256(bytes);
+            // Writing the map to the file.
+            Files.write(getFile().toPath(), bytes);
+            // Bumping the revision.
+            fileRevision++;
+        }
+    }
+
+    /** Returns {@code true} if the file has last been written by this registry, and has not been modified since then. */
+    public boolean isWrittenByRegistry() {
+        final @Nullable String writtenHash = this.writtenHash;
+        // Returning false if the file has not been written by this registry.
+        if (writtenHash == null)
+            return false;
+        // Comparing hash of the current contents with the one recorded upon write.
+        try {
+            return writtenHash.equals(Digests.sha256(Files.readAllBytes(getFile().toPath()))) == true;
+        } catch (final IOException e) {
+            return false;
+        }
+    }
+
+    // Replaces single item in the registry, without deserializing the other ones. Item is removed if value is null.
+    private void update(final @NotNull String identifier, final @Nullable JsonElement value) {
+        final Map<String, ItemStack> registry = new HashMap<>(this.registry);
+        final Map<String, String> hashes = new HashMap<>(this.hashes);
+        if (value != null) {
+            registry.put(identifier, deserialize(value));
+            hashes.put(identifier, Digests.sha256(value.toString()));
+        } else {
+            registry.remove(identifier);
+            hashes.remove(identifier);
+        }
+        // Replacing the registry.
+        this.registry = registry;
+        this.hashes = hashes;
+    }
+
+    // Returns true if specified item has been serialized by an older version of the game, meaning the data fixer has to upgrade it during deserialization.
+    @SuppressWarnings("deprecation") // Suppressing @Deprecated warnings. Well aware Bukkit#getUnsafe must is a subject to change.
+    private static boolean isOutdated(final @NotNull JsonElement value) {
+        // OLD FORMAT: Data version cannot be read without deserializing the item. Such items are converted to the new format.
+        if (value.isJsonObject() == false)
+            return true;
+        // NEW FORMAT: Comparing the data version with the current one.
+        final @Nullable JsonElement dataVersion = value.getAsJsonObject().get("DataVersion");
+        return dataVersion == null || dataVersion.isJsonPrimitive() == false || dataVersion.getAsInt() < Bukkit.getUnsafe().getDataVersion();
+    }
+
+    @SuppressWarnings("deprecation") // Suppressing @Deprecated warnings. Well aware Bukkit#getUnsafe must is a subject to change.
+    private static @NotNull JsonObject serialize(final @NotNull ItemStack item) {
+        return Bukkit.getUnsafe().serializeItemAsJson(item);
+    }
+
+    private static @NotNull ItemStack deserialize(final @NotNull JsonElement value) {
+        // final byte[] decoded = Base64.getDecoder().decode(encoded.getBytes(StandardCharsets.UTF_8));
+        return (value.isJsonPrimitive() == true)
+                // OLD FORMAT: Deserializing the item from Base64 decoded bytes.
+                ? ItemStack.deserializeBytes(Base64.getDecoder().decode(value.getAsString().getBytes(StandardCharsets.UTF_8)))
+                // NEW FORMAT: Deserializing the item from JsonObject.
+                : Bukkit.getUnsafe().deserializeItemFromJson((JsonObject) value);
+    }
+
+    /** Returns copy of the {@link ItemStack} object associated with the given identifier. Copy can be freely modified, without affecting the registry. */
     public @Nullable ItemStack get(final @NotNull String identifier) {
-        return registry.get(identifier);
+        final @Nullable ItemStack item = registry.get(identifier);
+        return (item != null) ? item.clone() : null;
+    }
+
+    /** Returns {@code true} if an item is associated with the given identifier. */
+    public boolean contains(final @NotNull String identifier) {
+        return registry.containsKey(identifier);
+    }
+
+    /** Returns hash of the raw form of the item associated with the given identifier. */
+    public @Nullable String hash(final @NotNull String identifier) {
+        return hashes.get(identifier);
     }
 
     /**
@@ -148,9 +312,16 @@ public final class CustomItemRegistry {
         item.setAmount(1);
         // Encoding the bytes through the Base64 encoder.
         // final String bytes = new String(Base64.getEncoder().encode(item.serializeAsBytes()), StandardCharsets.UTF_8);
-        final JsonObject json = Bukkit.getUnsafe().serializeItemAsJson(item);
+        final JsonObject json = serialize(item);
         // Putting the encoded bytes in the internal map.
         internalMap.put(identifier, json);
+        // Writing only this item to the store, if enabled.
+        final @Nullable RecipeStore store = this.store;
+        if (store != null) {
+            store.transaction(() -> store.putItem(identifier, json.toString()));
+            update(identifier, json);
+            return true;
+        }
         // Refreshing the registry...
         refresh();
         // Returning...
@@ -167,6 +338,13 @@ public final class CustomItemRegistry {
             return false;
         // Removing entry from the internal map.
         internalMap.remove(identifier);
+        // Removing only this item from the store, if enabled.
+        final @Nullable RecipeStore store = this.store;
+        if (store != null) {
+            store.transaction(() -> store.removeItem(identifier));
+            update(identifier, null);
+            return true;
+        }
         // Refreshing the registry...
         refresh();
         // Returning...
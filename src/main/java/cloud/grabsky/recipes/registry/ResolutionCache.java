@@ -0,0 +1,95 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.registry;
+
+import io.papermc.paper.registry.RegistryAccess;
+import io.papermc.paper.registry.RegistryKey;
+import net.kyori.adventure.key.Key;
+import org.bukkit.Bukkit;
+import org.bukkit.Material;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Tag;
+import org.bukkit.inventory.ItemType;
+import org.bukkit.inventory.RecipeChoice;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Cache of {@link ItemType ItemTypes} and {@link RecipeChoice.MaterialChoice MaterialChoices} of item tags, shared by all threads.
+ * Item types and tags are captured from the server at the start of each reload, see {@link #warm()}, and replaced as a whole, so lookups never block.
+ * Entries missed by the last warm-up are resolved once and added to the current maps. Keys which do not exist are not cached, as recipes referencing them fail to load anyway.
+ * <p>
+ * Maps are keyed by {@link Key Keys} created through {@link Key#key(String, String)}, as these are not equal to {@link NamespacedKey NamespacedKeys} of the same value.
+ */
+@SuppressWarnings("UnstableApiUsage") // ItemType
+public final class ResolutionCache {
+
+    public static final ResolutionCache INSTANCE = new ResolutionCache(); // SINGLETON
+
+    // Item types, mapped by their key. Captured from the registry at the start of each reload.
+    private volatile Map<Key, ItemType> itemTypes = new ConcurrentHashMap<>();
+
+    // Choices of item tags, mapped by the tag key. One choice is created per tag, and shared by all recipes it is used in.
+    private volatile Map<Key, RecipeChoice.MaterialChoice> tagChoices = new ConcurrentHashMap<>();
+
+    private ResolutionCache() { }
+
+    /** Returns {@link ItemType} with specified key, or {@code null} if it does not exist. Falls back to the registry for item types not captured during the last {@link #warm()}. */
+    public @Nullable ItemType itemType(final @NotNull Key key) {
+        return itemTypes.computeIfAbsent(key, (it) -> RegistryAccess.registryAccess().getRegistry(RegistryKey.ITEM).get(new NamespacedKey(it.namespace(), it.value())));
+    }
+
+    /** Returns {@link RecipeChoice.MaterialChoice} of item tag with specified key, or {@code null} if it does not exist. Returned instance is shared, and must not be modified. */
+    public @Nullable RecipeChoice.MaterialChoice tagChoice(final @NotNull Key key) {
+        // Falling back to the tag registry for tags which were not captured during the last warm-up. Created choice is cached until the next warm-up, and shared just like the captured ones.
+        return tagChoices.computeIfAbsent(key, (it) -> {
+            final @Nullable Tag<Material> tag = Bukkit.getTag(Tag.REGISTRY_ITEMS, new NamespacedKey(it.namespace(), it.value()), Material.class);
+            return (tag != null) ? new RecipeChoice.MaterialChoice(tag) : null;
+        });
+    }
+
+    /** Captures contents of the item registry and the item tag registry. Must be called on the server thread, before recipes are parsed. */
+    public void warm() {
+        final Map<Key, ItemType> itemTypes = new ConcurrentHashMap<>();
+        RegistryAccess.registryAccess().getRegistry(RegistryKey.ITEM).forEach(type -> itemTypes.put(Key.key(type.getKey().namespace(), type.getKey().value()), type));
+        final Map<Key, RecipeChoice.MaterialChoice> tagChoices = new ConcurrentHashMap<>();
+        Bukkit.getTags(Tag.REGISTRY_ITEMS, Material.class).forEach(tag -> tagChoices.put(Key.key(tag.getKey().namespace(), tag.getKey().value()), new RecipeChoice.MaterialChoice(tag)));
+        // Replacing the maps. Lookups in progress keep using the previous ones.
+        this.itemTypes = itemTypes;
+        this.tagChoices = tagChoices;
+    }
+
+}
@@ -0,0 +1,105 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.storage;
+
+import cloud.grabsky.recipes.Recipes;
+import com.google.gson.JsonParseException;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+/**
+ * Opens and closes the embedded {@link RecipeStore} according to the configuration, and keeps the {@code CustomItemRegistry} pointed at it.
+ */
+public final class StorageManager {
+
+    /** Prefix of paths of recipes loaded from the store. Recipes are stored under names resembling paths relative to the recipes directory. */
+    public static final String PATH_PREFIX = "storage!/";
+
+    private final @NotNull Recipes plugin;
+
+    // Embedded store of recipes and custom items. Null if disabled.
+    @Getter(AccessLevel.PUBLIC)
+    private volatile @Nullable RecipeStore store;
+
+    public StorageManager(final @NotNull Recipes plugin) {
+        this.plugin = plugin;
+    }
+
+    /** Opens the store if enabled, or closes it otherwise. Store is kept open if its file has not changed. Must be called on the server thread. */
+    public void reopen() {
+        final @Nullable RecipeStore current = this.store;
+        final @Nullable Path file = (plugin.configuration().storage().enabled() == true) ? plugin.getDataFolder().toPath().resolve(plugin.configuration().storage().file()) : null;
+        // Returning if the store is already in the desired state.
+        if ((current == null && file == null) || (current != null && current.getFile().equals(file) == true))
+            return;
+        // Closing the current store.
+        close();
+        // Opening the new store.
+        if (file != null) try {
+            this.store = RecipeStore.open(file);
+        } catch (final IOException e) {
+            plugin.getLogger().severe("Opening store \"" + file.getFileName() + "\" failed due to following error: " + e.getMessage() + ". Recipes and custom items are loaded from files instead.");
+        }
+        plugin.customItemRegistry().setStore(this.store);
+    }
+
+    /** Closes the store, if open. Waits for the running import or transaction, if any, to complete, so it's never closed halfway through. */
+    public void close() {
+        final @Nullable RecipeStore store = this.store;
+        if (store != null) {
+            this.store = null;
+            plugin.customItemRegistry().setStore(null);
+            store.close();
+        }
+    }
+
+    /**
+     * Imports recipe files and custom items into the store. Imported recipe files are moved out of specified recipes directory. Must be called off the server thread.
+     *
+     * @throws IllegalStateException if store is disabled
+     */
+    public @NotNull RecipeStore.ImportResult importStorage(final @NotNull Path recipesDirectory) throws IllegalStateException, IOException, JsonParseException {
+        final @Nullable RecipeStore store = this.store;
+        // Throwing exception if store is disabled.
+        if (store == null)
+            throw new IllegalStateException("Store is disabled.");
+        return store.importFrom(recipesDirectory, plugin.getDataFolder().toPath().resolve(RecipeStore.IMPORTED_DIRECTORY), plugin.customItemRegistry().getFile().toPath());
+    }
+
+}
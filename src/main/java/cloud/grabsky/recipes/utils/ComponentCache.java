@@ -0,0 +1,129 @@
+/*
+ * BSD 3-Clause License
+ *
+ * Copyright (c) 2025, Grabsky (michal.czopek.foss@proton.me)
+ * All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice, this
+ *    list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ *    this list of conditions and the following disclaimer in the documentation
+ *    and/or other materials provided with the distribution.
+ *
+ * 3. Neither the name of the copyright holder nor the names of its
+ *    contributors may be used to endorse or promote products derived from
+ *    this software without specific prior written permission.
+ *
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS"
+ * AND ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE
+ * IMPLIED WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+package cloud.grabsky.recipes.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Bounded cache of deserialized MiniMessage strings, evicting least recently used entries first. Components are immutable, so cached instances can be shared freely.
+ * Used for names and lore of items, which tend to be repeated across many of them, and plugin messages without placeholders. Can be safely used from multiple threads.
+ */
+public final class ComponentCache {
+
+    public static final ComponentCache INSTANCE = new ComponentCache(1024); // SINGLETON
+
+    // Cached components, mapped by their MiniMessage source. Iterated in access order, meaning eldest entries are the least recently used ones.
+    private final LinkedHashMap<String, Component> entries = new LinkedHashMap<>(16, 0.75F, true);
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    // Maximum number of cached components. Caching is disabled if non-positive.
+    private volatile int capacity;
+
+    private ComponentCache(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    /** Returns component deserialized from specified MiniMessage string. Deserialization is done only if the string is not already cached. */
+    public @NotNull Component deserialize(final @NotNull String input) {
+        synchronized (entries) {
+            final Component cached = entries.get(input);
+            // Returning cached component, if present.
+            if (cached != null) {
+                hits.increment();
+                return cached;
+            }
+        }
+        misses.increment();
+        // Deserializing outside the lock, so other threads are not blocked in the meantime.
+        final Component component = MiniMessage.miniMessage().deserialize(input);
+        if (capacity > 0) synchronized (entries) {
+            entries.put(input, component);
+            trim();
+        }
+        return component;
+    }
+
+    /**
+     * Returns component deserialized from specified MiniMessage template, with placeholders replaced by specified values. Messages with replacements are never cached,
+     * because substituted values like counters and timings make almost every one of them unique, and would only evict entries that are actually reused.
+     */
+    public @NotNull Component deserialize(final @NotNull String template, final @NotNull Object... replacements) {
+        // Deserializing through the cache if there is nothing to replace.
+        if (replacements.length == 0)
+            return deserialize(template);
+        return MiniMessage.miniMessage().deserialize(Extensions.repl(template, replacements));
+    }
+
+    /** Sets maximum number of cached components. Least recently used entries are evicted if there is more of them. Non-positive values disable caching. */
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+        synchronized (entries) {
+            trim();
+        }
+    }
+
+    /** Returns statistics of this cache. */
+    public @NotNull Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.sum(), misses.sum(), entries.size(), capacity);
+        }
+    }
+
+    // Evicts least recently used entries until there are no more of them than the capacity allows. Must be called while holding the lock.
+    private void trim() {
+        final Iterator<?> iterator = entries.keySet().iterator();
+        for (int excess = entries.size() - Math.max(0, capacity); excess > 0 && iterator.hasNext() == true; excess--) {
+            iterator.next();
+            iterator.remove();
+        }
+    }
+
+    /** Represents statistics of the {@link ComponentCache}. */
+    public record Stats(long hits, long misses, int size, int capacity) {
+
+        @Override
+        public @NotNull String toString() {
+            return "Component cache: " + hits + " hits, " + misses + " misses, " + size + "/" + capacity + " entries.";
+        }
+
+    }
+
+}
@@ -56,14 +56,14 @@ public final class Extensions {
     }
 
     /**
-     * Sends message to the sender using the MiniMessage formatting or does nothing if the message is null or empty.
+     * Sends message to the sender using the MiniMessage formatting, with placeholders replaced by specified values, or does nothing if the message is null or empty.
      */
-    public static void sendTextMessage(final @NotNull CommandSender sender, final @Nullable String message) {
+    public static void sendTextMessage(final @NotNull CommandSender sender, final @Nullable String message, final @NotNull Object... replacements) {
         // Returning in case message is null or empty.
         if (message == null || message.isEmpty() == true)
             return;
-        // Sending message to the target.
-        sender.sendRichMessage(message);
+        // Sending message to the target. Deserialized messages are cached, as most of them are sent repeatedly. Messages with replacements are not.
+        sender.sendMessage(ComponentCache.INSTANCE.deserialize(message, replacements));
     }
 
 }